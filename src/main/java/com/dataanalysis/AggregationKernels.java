@@ -0,0 +1,157 @@
+package com.dataanalysis;
+
+// Aggregation kernels over primitive double columns, e.g. SalesTable's sales/profit/discount
+// When the jdk.incubator.vector module is available (the Maven build adds it) the kernels run on
+// the Vector API; otherwise, or with -Dsales.kernels.scalar=true, they fall back to scalar loops.
+// Comparisons, counts, filters and min/max give the same result either way. Sums do not: the
+// vector kernels keep one running sum per lane and add the lanes at the end, so a sum can differ
+// from a sequential one in the last bits. Callers that need results identical to SalesAnalyzer
+// (e.g. ColumnarSalesAnalyzer's totals) keep using DoubleSummaryStatistics.
+public final class AggregationKernels {
+    static final boolean VECTORIZED = !Boolean.getBoolean("sales.kernels.scalar")
+            && ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    private AggregationKernels() {
+    }
+
+    public static boolean isVectorized() {
+        return VECTORIZED;
+    }
+
+    // Sum of values[from, to)
+    public static double sum(double[] values, int from, int to) {
+        checkRange(values, from, to);
+        return VECTORIZED ? VectorAggregationKernels.sum(values, from, to) : scalarSum(values, from, to);
+    }
+
+    // Smallest of values[from, to); +Infinity for an empty range, NaN if any value is NaN
+    public static double min(double[] values, int from, int to) {
+        checkRange(values, from, to);
+        return VECTORIZED ? VectorAggregationKernels.min(values, from, to) : scalarMin(values, from, to);
+    }
+
+    // Largest of values[from, to); -Infinity for an empty range, NaN if any value is NaN
+    public static double max(double[] values, int from, int to) {
+        checkRange(values, from, to);
+        return VECTORIZED ? VectorAggregationKernels.max(values, from, to) : scalarMax(values, from, to);
+    }
+
+    // Number of values[from, to) greater than threshold
+    public static int countGreaterThan(double[] values, int from, int to, double threshold) {
+        checkRange(values, from, to);
+        return VECTORIZED ? VectorAggregationKernels.countGreaterThan(values, from, to, threshold)
+                : scalarCountGreaterThan(values, from, to, threshold);
+    }
+
+    // Number of values[from, to) less than threshold
+    public static int countLessThan(double[] values, int from, int to, double threshold) {
+        checkRange(values, from, to);
+        return VECTORIZED ? VectorAggregationKernels.countLessThan(values, from, to, threshold)
+                : scalarCountLessThan(values, from, to, threshold);
+    }
+
+    // Sum of values[i] over the rows i in [from, to) where keys[i] > threshold
+    public static double sumWhereGreaterThan(double[] values, double[] keys, int from, int to, double threshold) {
+        checkRange(values, from, to);
+        checkRange(keys, from, to);
+        return VECTORIZED ? VectorAggregationKernels.sumWhereGreaterThan(values, keys, from, to, threshold)
+                : scalarSumWhereGreaterThan(values, keys, from, to, threshold);
+    }
+
+    // Writes the indexes i in [from, to) where values[i] > threshold into rows, in ascending
+    // order, and returns how many there are; rows must have room for to - from indexes
+    public static int selectGreaterThan(double[] values, int from, int to, double threshold, int[] rows) {
+        checkRange(values, from, to);
+        return VECTORIZED ? VectorAggregationKernels.selectGreaterThan(values, from, to, threshold, rows)
+                : scalarSelectGreaterThan(values, from, to, threshold, rows);
+    }
+
+    // Same as selectGreaterThan for values[i] < threshold
+    public static int selectLessThan(double[] values, int from, int to, double threshold, int[] rows) {
+        checkRange(values, from, to);
+        return VECTORIZED ? VectorAggregationKernels.selectLessThan(values, from, to, threshold, rows)
+                : scalarSelectLessThan(values, from, to, threshold, rows);
+    }
+
+    private static void checkRange(double[] values, int from, int to) {
+        if (from < 0 || to > values.length || from > to) {
+            throw new IndexOutOfBoundsException("Range [" + from + ", " + to + ") of " + values.length);
+        }
+    }
+
+    // Scalar versions; also used for the tails the vector kernels leave over
+
+    static double scalarSum(double[] values, int from, int to) {
+        double sum = 0.0;
+        for (int i = from; i < to; i++) {
+            sum += values[i];
+        }
+        return sum;
+    }
+
+    static double scalarMin(double[] values, int from, int to) {
+        double min = Double.POSITIVE_INFINITY;
+        for (int i = from; i < to; i++) {
+            min = Math.min(min, values[i]);
+        }
+        return min;
+    }
+
+    static double scalarMax(double[] values, int from, int to) {
+        double max = Double.NEGATIVE_INFINITY;
+        for (int i = from; i < to; i++) {
+            max = Math.max(max, values[i]);
+        }
+        return max;
+    }
+
+    static int scalarCountGreaterThan(double[] values, int from, int to, double threshold) {
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            if (values[i] > threshold) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    static int scalarCountLessThan(double[] values, int from, int to, double threshold) {
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            if (values[i] < threshold) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    static double scalarSumWhereGreaterThan(double[] values, double[] keys, int from, int to, double threshold) {
+        double sum = 0.0;
+        for (int i = from; i < to; i++) {
+            if (keys[i] > threshold) {
+                sum += values[i];
+            }
+        }
+        return sum;
+    }
+
+    static int scalarSelectGreaterThan(double[] values, int from, int to, double threshold, int[] rows) {
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            if (values[i] > threshold) {
+                rows[count++] = i;
+            }
+        }
+        return count;
+    }
+
+    static int scalarSelectLessThan(double[] values, int from, int to, double threshold, int[] rows) {
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            if (values[i] < threshold) {
+                rows[count++] = i;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,44 @@
+package com.dataanalysis;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// One RowBitmap per distinct value of a dictionary-coded column: the rows holding that value
+// Built with one pass over the codes and kept current as rows are appended, so it is never
+// rebuilt. Rows with a null value are in no bitmap.
+final class BitmapIndex {
+    private final SalesTable.StringColumn column;
+    private final List<RowBitmap> bitmaps = new ArrayList<>();
+
+    BitmapIndex(SalesTable.StringColumn column, int size) {
+        this.column = column;
+        for (int row = 0; row < size; row++) {
+            add(row);
+        }
+    }
+
+    // Indexes a row already added to the column
+    void add(int row) {
+        int code = column.code(row);
+        if (code < 0) {
+            return;
+        }
+        while (bitmaps.size() <= code) {
+            bitmaps.add(new RowBitmap());
+        }
+        bitmaps.get(code).add(row);
+    }
+
+    // Rows holding any of values; a new bitmap the caller may keep or change
+    RowBitmap rows(String... values) {
+        RowBitmap result = null;
+        for (String value : values) {
+            int code = column.codeOf(value);
+            if (code < 0) {
+                continue;
+            }
+            result = result == null ? bitmaps.get(code).copy() : result.or(bitmaps.get(code));
+        }
+        return result == null ? new RowBitmap() : result;
+    }
+}
@@ -0,0 +1,233 @@
+package com.dataanalysis;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// Byte-level CSV tokenizer that records field offsets instead of building Strings
+// One instance is reused for every line: tokenize() only fills int[] offset arrays, and
+// callers decode just the columns they need, straight from the UTF-8 bytes. Field values
+// follow the same rules as the original String parser: quote characters toggle quoting and
+// are dropped, commas inside quotes are kept, and the result is trimmed.
+// Not thread-safe; use one tokenizer per thread.
+public final class CSVTokenizer {
+    // Powers of ten that are exact doubles, for the fast decimal path
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+    private byte[] bytes;
+    private int[] starts = new int[32];
+    private int[] ends = new int[32];
+    private boolean[] quoted = new boolean[32];
+    private int count;
+    private byte[] scratch = new byte[128];
+
+    // Splits bytes[from, to) into fields; returns the number of fields found
+    public int tokenize(byte[] bytes, int from, int to) {
+        return tokenize(bytes, from, to, Integer.MAX_VALUE);
+    }
+
+    // Like tokenize, but stops scanning once maxFields fields have been found
+    public int tokenize(byte[] bytes, int from, int to, int maxFields) {
+        this.bytes = bytes;
+        count = 0;
+        int fieldStart = from;
+        boolean inQuotes = false;
+        boolean sawQuote = false;
+
+        for (int i = from; i < to; i++) {
+            byte b = bytes[i];
+            if (b == '"') {
+                inQuotes = !inQuotes;
+                sawQuote = true;
+            } else if (b == ',' && !inQuotes) {
+                addField(fieldStart, i, sawQuote);
+                if (count == maxFields) {
+                    return count;
+                }
+                fieldStart = i + 1;
+                sawQuote = false;
+            }
+        }
+        addField(fieldStart, to, sawQuote);
+        return count;
+    }
+
+    public int fieldCount() {
+        return count;
+    }
+
+    // Trimmed start offset of a field in the tokenized bytes (quote characters still included)
+    public int start(int field) {
+        return starts[field];
+    }
+
+    public int end(int field) {
+        return ends[field];
+    }
+
+    public byte[] bytes() {
+        return bytes;
+    }
+
+    public boolean isQuoted(int field) {
+        return quoted[field];
+    }
+
+    // Decodes a field to a String, allocating only the result
+    public String string(int field) {
+        if (!quoted[field]) {
+            return new String(bytes, starts[field], ends[field] - starts[field], StandardCharsets.UTF_8);
+        }
+        int length = unquote(field);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    // Same result as Double.parseDouble on the field, or 0.0 if it is not a number
+    public double parseDouble(int field) {
+        int i = starts[field];
+        int end = ends[field];
+        if (!quoted[field] && i < end) {
+            boolean negative = bytes[i] == '-';
+            if (negative) {
+                i++;
+            }
+            long mantissa = 0;
+            int digits = 0;
+            int exponent = 0;
+            boolean seenDot = false;
+            boolean valid = i < end;
+
+            for (; i < end; i++) {
+                byte b = bytes[i];
+                if (b >= '0' && b <= '9') {
+                    if (digits < 18) {
+                        mantissa = mantissa * 10 + (b - '0');
+                        if (mantissa != 0) {
+                            digits++;
+                        }
+                        if (seenDot) {
+                            exponent--;
+                        }
+                    } else {
+                        valid = false;
+                        break;
+                    }
+                } else if (b == '.' && !seenDot) {
+                    seenDot = true;
+                } else {
+                    valid = false;
+                    break;
+                }
+            }
+
+            // Exact mantissa and power of ten give a correctly rounded result (Clinger's fast path)
+            if (valid && end - starts[field] > (negative ? 1 : 0) + (seenDot ? 1 : 0)
+                    && mantissa < MAX_EXACT_MANTISSA && -exponent < POWERS_OF_TEN.length) {
+                double value = exponent == 0 ? mantissa : mantissa / POWERS_OF_TEN[-exponent];
+                return negative ? -value : value;
+            }
+        }
+        try {
+            return Double.parseDouble(string(field));
+        } catch (NumberFormatException e) {
+            return 0.0;
+        }
+    }
+
+    // Same result as Integer.parseInt on the field, or 0 if it is not an int
+    public int parseInt(int field) {
+        int i = starts[field];
+        int end = ends[field];
+        if (!quoted[field] && i < end && end - i <= 10) {
+            boolean negative = bytes[i] == '-';
+            if (negative || bytes[i] == '+') {
+                i++;
+            }
+            if (i < end && end - i <= 9) {
+                int value = 0;
+                for (; i < end; i++) {
+                    byte b = bytes[i];
+                    if (b < '0' || b > '9') {
+                        break;
+                    }
+                    value = value * 10 + (b - '0');
+                }
+                if (i == end) {
+                    return negative ? -value : value;
+                }
+            }
+        }
+        try {
+            return Integer.parseInt(string(field));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    // Dictionary code of the field's value, interning it if new; -1 if the dictionary is full
+    public int intern(int field, ColumnDictionary dictionary) {
+        if (!quoted[field]) {
+            return dictionary.intern(bytes, starts[field], ends[field]);
+        }
+        int length = unquote(field);
+        return dictionary.intern(scratch, 0, length);
+    }
+
+    // True if the field's value equals the given UTF-8 bytes, without decoding it
+    public boolean fieldEquals(int field, byte[] value) {
+        if (!quoted[field]) {
+            return Arrays.equals(bytes, starts[field], ends[field], value, 0, value.length);
+        }
+        int length = unquote(field);
+        return Arrays.equals(scratch, 0, length, value, 0, value.length);
+    }
+
+    private void addField(int start, int end, boolean sawQuote) {
+        if (count == starts.length) {
+            int capacity = count * 2;
+            starts = Arrays.copyOf(starts, capacity);
+            ends = Arrays.copyOf(ends, capacity);
+            quoted = Arrays.copyOf(quoted, capacity);
+        }
+        // Trim like String.trim(); bytes <= ' ' are always single-byte ASCII in UTF-8
+        while (start < end && (bytes[start] & 0xFF) <= ' ') {
+            start++;
+        }
+        while (end > start && (bytes[end - 1] & 0xFF) <= ' ') {
+            end--;
+        }
+        starts[count] = start;
+        ends[count] = end;
+        quoted[count] = sawQuote;
+        count++;
+    }
+
+    // Copies a quoted field into scratch without its quote characters, trimmed; returns the length
+    private int unquote(int field) {
+        int start = starts[field];
+        int end = ends[field];
+        if (scratch.length < end - start) {
+            scratch = new byte[Math.max(end - start, scratch.length * 2)];
+        }
+        int length = 0;
+        for (int i = start; i < end; i++) {
+            if (bytes[i] != '"') {
+                scratch[length++] = bytes[i];
+            }
+        }
+        int from = 0;
+        while (from < length && (scratch[from] & 0xFF) <= ' ') {
+            from++;
+        }
+        while (length > from && (scratch[length - 1] & 0xFF) <= ' ') {
+            length--;
+        }
+        if (from > 0) {
+            System.arraycopy(scratch, from, scratch, 0, length - from);
+        }
+        return length - from;
+    }
+}
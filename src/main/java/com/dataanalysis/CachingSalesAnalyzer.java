@@ -0,0 +1,291 @@
+package com.dataanalysis;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.DoubleSummaryStatistics;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// SalesAnalyzer decorator that memoizes results per method and arguments
+// Entries live in a size-bounded LRU map. Before every lookup the delegate's data version is
+// checked, and a changed version drops the whole cache, so an IncrementalSalesAnalyzer, or a
+// columnar or parallel analyzer over a SalesTable, can keep receiving rows behind it. Data changed
+// behind the delegate's back (e.g. the list given to a plain SalesAnalyzer) needs an explicit
+// invalidate(). Queries run outside any lock, so a miss never holds up other callers; two callers
+// missing the same entry may both compute it, and the first result published is kept.
+// Cached maps and lists are shared between callers, so they are returned unmodifiable, with
+// ranking entries copied into immutable ones; region statistics are mutable objects, so every
+// call gets its own copies.
+public class CachingSalesAnalyzer extends SalesAnalyzer {
+    static final int DEFAULT_MAX_ENTRIES = 256;
+
+    private final SalesAnalyzer delegate;
+    private final int maxEntries;
+    // Synchronized per operation only; lookups and publishes are short
+    private final Map<List<Object>, Entry> cache;
+    private final AtomicLong version;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public CachingSalesAnalyzer(SalesAnalyzer delegate) {
+        this(delegate, DEFAULT_MAX_ENTRIES);
+    }
+
+    public CachingSalesAnalyzer(SalesAnalyzer delegate, int maxEntries) {
+        super(List.of());
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Cache size must be positive");
+        }
+        this.delegate = delegate;
+        this.maxEntries = maxEntries;
+        this.version = new AtomicLong(delegate.getDataVersion());
+        // Access order makes the eldest entry the least recently used one
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<List<Object>, Entry> eldest) {
+                if (size() > CachingSalesAnalyzer.this.maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        });
+    }
+
+    public SalesAnalyzer getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public long getDataVersion() {
+        return delegate.getDataVersion();
+    }
+
+    // Drops every cached result
+    public void invalidate() {
+        cache.clear();
+        invalidations.increment();
+    }
+
+    public CacheStats getStats() {
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), invalidations.sum(), cache.size());
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T cached(Supplier<T> query, Object... key) {
+        long current = delegate.getDataVersion();
+        long seen = version.get();
+        if (current != seen && version.compareAndSet(seen, current)) {
+            invalidate();
+        }
+        List<Object> cacheKey = List.of(key);
+        Entry entry = cache.get(cacheKey);
+        if (entry != null && entry.version == current) {
+            hits.increment();
+            return (T) entry.value;
+        }
+        misses.increment();
+        // Tagged with the version read before the query ran, so a result computed while rows were
+        // being added is never served for the newer data
+        Entry computed = new Entry(current, shareable(query.get()));
+        Entry published = cache.merge(cacheKey, computed,
+                (existing, fresh) -> existing.version >= fresh.version ? existing : fresh);
+        return (T) published.value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T shareable(T value) {
+        if (value instanceof Map<?, ?> map) {
+            return (T) Collections.unmodifiableMap(map);
+        }
+        if (value instanceof List<?> list) {
+            // Ranking entries can be the delegate's own map entries, whose setValue writes through
+            return (T) list.stream()
+                    .map(element -> element instanceof Map.Entry<?, ?> e ? new AbstractMap.SimpleImmutableEntry<>(e) : element)
+                    .toList();
+        }
+        return value;
+    }
+
+    private static final class Entry {
+        private final long version;
+        private final Object value;
+
+        Entry(long version, Object value) {
+            this.version = version;
+            this.value = value;
+        }
+    }
+
+    @Override
+    public double calculateTotalRevenue() {
+        return cached(delegate::calculateTotalRevenue, "calculateTotalRevenue");
+    }
+
+    @Override
+    public double calculateTotalProfit() {
+        return cached(delegate::calculateTotalProfit, "calculateTotalProfit");
+    }
+
+    @Override
+    public Map<String, Double> getSalesByCategory() {
+        return cached(delegate::getSalesByCategory, "getSalesByCategory");
+    }
+
+    @Override
+    public Map<String, Double> getProfitByCategory() {
+        return cached(delegate::getProfitByCategory, "getProfitByCategory");
+    }
+
+    @Override
+    public List<Map.Entry<String, Double>> getTopProductsBySales(int offset, int limit) {
+        return cached(() -> delegate.getTopProductsBySales(offset, limit), "getTopProductsBySales", offset, limit);
+    }
+
+    @Override
+    public List<Map.Entry<String, Double>> getTopProductsByProfit(int offset, int limit) {
+        return cached(() -> delegate.getTopProductsByProfit(offset, limit), "getTopProductsByProfit", offset, limit);
+    }
+
+    @Override
+    public double getAverageOrderValue() {
+        return cached(delegate::getAverageOrderValue, "getAverageOrderValue");
+    }
+
+    @Override
+    public Map<String, DoubleSummaryStatistics> getRegionSalesStatistics() {
+        Map<String, DoubleSummaryStatistics> copies = new LinkedHashMap<>();
+        cached(delegate::getRegionSalesStatistics, "getRegionSalesStatistics").forEach((region, stats) ->
+                copies.put(region, new DoubleSummaryStatistics(stats.getCount(), stats.getMin(), stats.getMax(), stats.getSum())));
+        return copies;
+    }
+
+    @Override
+    public Map<Month, Double> getMonthlySalesTrend() {
+        return cached(delegate::getMonthlySalesTrend, "getMonthlySalesTrend");
+    }
+
+    @Override
+    public Map<String, Double> getSalesBySegment() {
+        return cached(delegate::getSalesBySegment, "getSalesBySegment");
+    }
+
+    @Override
+    public List<SalesRecord> getUnprofitableProducts() {
+        return cached(delegate::getUnprofitableProducts, "getUnprofitableProducts");
+    }
+
+    @Override
+    public List<SalesRecord> getUnprofitableProducts(int offset, int limit) {
+        return cached(() -> delegate.getUnprofitableProducts(offset, limit), "getUnprofitableProducts", offset, limit);
+    }
+
+    @Override
+    public Map<String, Double> getAverageDiscountByCategory() {
+        return cached(delegate::getAverageDiscountByCategory, "getAverageDiscountByCategory");
+    }
+
+    @Override
+    public Map<String, Integer> getQuantityBySubCategory() {
+        return cached(delegate::getQuantityBySubCategory, "getQuantityBySubCategory");
+    }
+
+    @Override
+    public List<SalesRecord> getHighValueOrders(double threshold) {
+        return cached(() -> delegate.getHighValueOrders(threshold), "getHighValueOrders", threshold);
+    }
+
+    @Override
+    public List<SalesRecord> getHighValueOrders(double threshold, int offset, int limit) {
+        return cached(() -> delegate.getHighValueOrders(threshold, offset, limit),
+                "getHighValueOrders", threshold, offset, limit);
+    }
+
+    @Override
+    public Map<String, Double> getProfitMarginByCategory() {
+        return cached(delegate::getProfitMarginByCategory, "getProfitMarginByCategory");
+    }
+
+    @Override
+    public List<Map.Entry<String, Double>> getTopStatesBySales(int offset, int limit) {
+        return cached(() -> delegate.getTopStatesBySales(offset, limit), "getTopStatesBySales", offset, limit);
+    }
+
+    @Override
+    public Map<String, Double> getSalesByShipMode() {
+        return cached(delegate::getSalesByShipMode, "getSalesByShipMode");
+    }
+
+    @Override
+    public List<SalesRecord> getOrdersInDateRange(LocalDate startDate, LocalDate endDate) {
+        return cached(() -> delegate.getOrdersInDateRange(startDate, endDate),
+                "getOrdersInDateRange", startDate, endDate);
+    }
+
+    @Override
+    public Map<String, Double> getCategoryDistributionPercentage() {
+        return cached(delegate::getCategoryDistributionPercentage, "getCategoryDistributionPercentage");
+    }
+
+    @Override
+    public Map<String, Long> getOrderCountByRegion() {
+        return cached(delegate::getOrderCountByRegion, "getOrderCountByRegion");
+    }
+
+    // Point-in-time cache counters
+    public static final class CacheStats {
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final long invalidations;
+        private final int size;
+
+        CacheStats(long hits, long misses, long evictions, long invalidations, int size) {
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.invalidations = invalidations;
+            this.size = size;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        public long getEvictions() {
+            return evictions;
+        }
+
+        public long getInvalidations() {
+            return invalidations;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        // Share of lookups answered from the cache; 0 before the first lookup
+        public double getHitRate() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0.0 : (double) hits / lookups;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("CacheStats[hits=%d, misses=%d, hitRate=%.2f, evictions=%d, invalidations=%d, size=%d]",
+                    hits, misses, getHitRate(), evictions, invalidations, size);
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.dataanalysis;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// Dictionary for one low-cardinality column: every distinct value gets one canonical String
+// and a small int code (0, 1, 2, ... in first-seen order)
+// Lookups are keyed by the raw UTF-8 bytes, so a value already in the dictionary is resolved
+// without decoding or allocating. Readers use the current snapshot without locking, and inserts
+// publish a new snapshot under a lock. The arrays behind a snapshot are append-only and shared
+// with the next one until they fill up, then doubled, so n inserts cost O(n) overall.
+// Once maxSize values are known, new values are no longer added (intern returns -1).
+public final class ColumnDictionary {
+    static final int DEFAULT_MAX_SIZE = 4096;
+
+    private final String name;
+    private final int maxSize;
+    private volatile Table table = new Table(16);
+
+    public ColumnDictionary(String name) {
+        this(name, DEFAULT_MAX_SIZE);
+    }
+
+    public ColumnDictionary(String name, int maxSize) {
+        this.name = name;
+        this.maxSize = maxSize;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    // Code for bytes[from, to), adding the value if it is new; -1 if the dictionary is full
+    public int intern(byte[] bytes, int from, int to) {
+        int hash = hash(bytes, from, to);
+        int code = table.find(bytes, from, to, hash);
+        if (code >= 0) {
+            return code;
+        }
+        return add(Arrays.copyOfRange(bytes, from, to), null);
+    }
+
+    // Code for value, adding it if it is new; -1 if the dictionary is full
+    public int intern(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        int code = table.find(bytes, 0, bytes.length, hash(bytes, 0, bytes.length));
+        if (code >= 0) {
+            return code;
+        }
+        return add(bytes, value);
+    }
+
+    // Canonical instance of value (value itself if the dictionary is full)
+    public String canonical(String value) {
+        int code = intern(value);
+        return code >= 0 ? value(code) : value;
+    }
+
+    // Code of value, or -1 if it has never been interned
+    public int code(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        return table.find(bytes, 0, bytes.length, hash(bytes, 0, bytes.length));
+    }
+
+    public String value(int code) {
+        return table.values[code];
+    }
+
+    // Number of distinct values
+    public int size() {
+        return table.size;
+    }
+
+    private synchronized int add(byte[] key, String value) {
+        Table current = table;
+        // Another thread may have added it since our lock-free lookup
+        int code = current.find(key, 0, key.length, hash(key, 0, key.length));
+        if (code >= 0) {
+            return code;
+        }
+
+        // Bytes that are not valid UTF-8 decode to the same String as their repaired form;
+        // both byte forms map to one code so equal Strings always share a code
+        if (value == null) {
+            value = new String(key, StandardCharsets.UTF_8);
+        }
+        byte[] canonicalKey = value.getBytes(StandardCharsets.UTF_8);
+        code = current.find(canonicalKey, 0, canonicalKey.length, hash(canonicalKey, 0, canonicalKey.length));
+        if (code < 0) {
+            if (current.size == maxSize) {
+                return -1;
+            }
+            code = current.size;
+            current = current.withValue(value).withKey(canonicalKey, hash(canonicalKey, 0, canonicalKey.length), code);
+        }
+        if (!Arrays.equals(key, canonicalKey)) {
+            current = current.withKey(key, hash(key, 0, key.length), code);
+        }
+        table = current;
+        return code;
+    }
+
+    private static int hash(byte[] bytes, int from, int to) {
+        int hash = 1;
+        for (int i = from; i < to; i++) {
+            hash = 31 * hash + bytes[i];
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+    // Snapshot: values by code, and an open-addressing index from byte keys to codes
+    // Index slots hold key number + 1 so 0 means empty. A snapshot only reads the first size
+    // values and keyCount keys; later inserts write past them into the shared arrays, and an
+    // index slot naming a key past keyCount was empty when this snapshot was published.
+    private static final class Table {
+        final String[] values;
+        final int size;
+        final byte[][] keys;
+        final int[] keyHashes;
+        final int[] keyCodes;
+        final int keyCount;
+        final int[] slots;
+
+        Table(int capacity) {
+            this(new String[capacity], 0, new byte[capacity][], new int[capacity], new int[capacity], 0,
+                    new int[capacity * 2]);
+        }
+
+        private Table(String[] values, int size, byte[][] keys, int[] keyHashes, int[] keyCodes, int keyCount,
+                      int[] slots) {
+            this.values = values;
+            this.size = size;
+            this.keys = keys;
+            this.keyHashes = keyHashes;
+            this.keyCodes = keyCodes;
+            this.keyCount = keyCount;
+            this.slots = slots;
+        }
+
+        int find(byte[] bytes, int from, int to, int hash) {
+            int mask = slots.length - 1;
+            for (int slot = hash & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+                int key = slots[slot] - 1;
+                if (key >= keyCount) {
+                    return -1; // Added after this snapshot; add() looks again under the lock
+                }
+                if (keyHashes[key] == hash && Arrays.equals(keys[key], 0, keys[key].length, bytes, from, to)) {
+                    return keyCodes[key];
+                }
+            }
+            return -1;
+        }
+
+        // Snapshot with one more value; the values array is only copied, at twice the size, when full
+        Table withValue(String value) {
+            String[] newValues = size == values.length ? Arrays.copyOf(values, size * 2) : values;
+            newValues[size] = value;
+            return new Table(newValues, size + 1, keys, keyHashes, keyCodes, keyCount, slots);
+        }
+
+        // Snapshot with one more key; when the keys are full they are copied at twice the capacity
+        // and the index is rebuilt at twice that (load <= 1/2), else both are appended to in place
+        Table withKey(byte[] key, int hash, int code) {
+            byte[][] newKeys = keys;
+            int[] newHashes = keyHashes;
+            int[] newCodes = keyCodes;
+            int[] newSlots = slots;
+            if (keyCount == keys.length) {
+                int capacity = keyCount * 2;
+                newKeys = Arrays.copyOf(keys, capacity);
+                newHashes = Arrays.copyOf(keyHashes, capacity);
+                newCodes = Arrays.copyOf(keyCodes, capacity);
+                newSlots = new int[capacity * 2];
+                for (int i = 0; i < keyCount; i++) {
+                    insert(newSlots, newHashes[i], i);
+                }
+            }
+            // The key is stored before its slot so a slot never names a missing key
+            newKeys[keyCount] = key;
+            newHashes[keyCount] = hash;
+            newCodes[keyCount] = code;
+            insert(newSlots, hash, keyCount);
+            return new Table(values, size, newKeys, newHashes, newCodes, keyCount + 1, newSlots);
+        }
+
+        private static void insert(int[] slots, int hash, int key) {
+            int mask = slots.length - 1;
+            int slot = hash & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = key + 1;
+        }
+    }
+}
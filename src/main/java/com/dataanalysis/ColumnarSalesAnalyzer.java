@@ -0,0 +1,263 @@
+package com.dataanalysis;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.DoubleSummaryStatistics;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// SalesAnalyzer backend that runs every analysis as a loop over SalesTable's primitive columns
+// Results are identical to the stream implementation, not just close: sums and averages go
+// through DoubleSummaryStatistics or SalesQuery, which use the same compensated summation as
+// Collectors.summingDouble and DoubleStream.sum, and group maps are filled in first-seen order
+// so HashMap iteration order (and therefore tie order in the top-N lists) is the same too.
+// Plain group-by aggregates are SalesQuery runs.
+// Threshold filters select their rows with AggregationKernels, which is exact.
+public class ColumnarSalesAnalyzer extends SalesAnalyzer {
+    private final SalesTable table;
+
+    public ColumnarSalesAnalyzer(SalesTable table) {
+        super(table.rows());
+        this.table = table;
+    }
+
+    public ColumnarSalesAnalyzer(List<SalesRecord> salesData) {
+        this(SalesTable.from(salesData));
+    }
+
+    public SalesTable getTable() {
+        return table;
+    }
+
+    // Rows can still be added to the table after the analyzer is built
+    @Override
+    public long getDataVersion() {
+        return table.version();
+    }
+
+    // Analyzer over just the given rows, typically a bitmap filter from table.rowsWhere;
+    // results equal a SalesAnalyzer over the matching records in row order
+    public ColumnarSalesAnalyzer where(RowBitmap rows) {
+        return new ColumnarSalesAnalyzer(table.select(rows));
+    }
+
+    @Override
+    public double calculateTotalRevenue() {
+        return total(table.salesColumn()).getSum();
+    }
+
+    @Override
+    public double calculateTotalProfit() {
+        return total(table.profitColumn()).getSum();
+    }
+
+    @Override
+    public Map<String, Double> getSalesByCategory() {
+        return sums(SalesField.CATEGORY, SalesField.SALES);
+    }
+
+    @Override
+    public Map<String, Double> getProfitByCategory() {
+        return sums(SalesField.CATEGORY, SalesField.PROFIT);
+    }
+
+    @Override
+    public List<Map.Entry<String, Double>> getTopProductsBySales(int offset, int limit) {
+        return top(sums(SalesField.PRODUCT_NAME, SalesField.SALES), offset, limit);
+    }
+
+    @Override
+    public List<Map.Entry<String, Double>> getTopProductsByProfit(int offset, int limit) {
+        return top(sums(SalesField.PRODUCT_NAME, SalesField.PROFIT), offset, limit);
+    }
+
+    @Override
+    public double getAverageOrderValue() {
+        return total(table.salesColumn()).getAverage();
+    }
+
+    @Override
+    public Map<String, DoubleSummaryStatistics> getRegionSalesStatistics() {
+        SalesTable.StringColumn region = table.column(SalesField.REGION);
+        DoubleSummaryStatistics[] stats = statistics(region, table.salesColumn());
+        Map<String, DoubleSummaryStatistics> result = new HashMap<>();
+        for (int code = 0; code < stats.length; code++) {
+            if (stats[code] != null) {
+                result.put(region.valueOf(code), stats[code]);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Map<Month, Double> getMonthlySalesTrend() {
+        DateIndex index = table.dateIndex();
+        checkDates(index);
+        byte[] monthOfRow = index.monthOfRow();
+        double[] sales = table.salesColumn();
+        int size = table.size();
+
+        // Months in first-seen order, as groupingBy would insert them; rows are summed in row
+        // order (not date order) so the totals match the stream version exactly
+        DoubleSummaryStatistics[] stats = new DoubleSummaryStatistics[13];
+        int[] order = new int[12];
+        int groups = 0;
+        for (int row = 0; row < size; row++) {
+            int month = monthOfRow[row];
+            if (stats[month] == null) {
+                stats[month] = new DoubleSummaryStatistics();
+                order[groups++] = month;
+            }
+            stats[month].accept(sales[row]);
+        }
+
+        Map<Month, Double> result = new HashMap<>();
+        for (int i = 0; i < groups; i++) {
+            result.put(Month.of(order[i]), stats[order[i]].getSum());
+        }
+        return result;
+    }
+
+    @Override
+    public Map<String, Double> getSalesBySegment() {
+        return sums(SalesField.SEGMENT, SalesField.SALES);
+    }
+
+    @Override
+    public List<SalesRecord> getUnprofitableProducts() {
+        return getUnprofitableProducts(0, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<SalesRecord> getUnprofitableProducts(int offset, int limit) {
+        double[] profit = table.profitColumn();
+        int[] selected = new int[table.size()];
+        int count = AggregationKernels.selectLessThan(profit, 0, table.size(), 0, selected);
+        return page(selected, count, profit, false, offset, limit);
+    }
+
+    @Override
+    public Map<String, Double> getAverageDiscountByCategory() {
+        return new SalesQuery().groupBy(SalesField.CATEGORY).avg(SalesField.DISCOUNT).run(table).toMap(0);
+    }
+
+    @Override
+    public Map<String, Integer> getQuantityBySubCategory() {
+        SalesQuery.Result result = new SalesQuery().groupBy(SalesField.SUB_CATEGORY).sum(SalesField.QUANTITY).run(table);
+        Map<String, Integer> totals = new HashMap<>();
+        for (int row = 0; row < result.size(); row++) {
+            // The double sum of ints is exact; narrowing through long wraps like summingInt would
+            totals.put(result.getKey(row).get(0), (int) (long) result.getValue(row, 0));
+        }
+        return totals;
+    }
+
+    @Override
+    public List<SalesRecord> getHighValueOrders(double threshold) {
+        return getHighValueOrders(threshold, 0, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<SalesRecord> getHighValueOrders(double threshold, int offset, int limit) {
+        double[] sales = table.salesColumn();
+        int[] selected = new int[table.size()];
+        int count = AggregationKernels.selectGreaterThan(sales, 0, table.size(), threshold, selected);
+        return page(selected, count, sales, true, offset, limit);
+    }
+
+    @Override
+    public List<Map.Entry<String, Double>> getTopStatesBySales(int offset, int limit) {
+        return top(sums(SalesField.STATE, SalesField.SALES), offset, limit);
+    }
+
+    @Override
+    public Map<String, Double> getSalesByShipMode() {
+        return sums(SalesField.SHIP_MODE, SalesField.SALES);
+    }
+
+    @Override
+    public List<SalesRecord> getOrdersInDateRange(LocalDate startDate, LocalDate endDate) {
+        DateIndex index = table.dateIndex();
+        checkDates(index);
+        int[] rows = index.rowsBetween(startDate, endDate);
+        List<SalesRecord> records = new ArrayList<>(rows.length);
+        for (int row : rows) {
+            records.add(table.row(row));
+        }
+        return records;
+    }
+
+    @Override
+    public Map<String, Long> getOrderCountByRegion() {
+        SalesQuery.Result result = new SalesQuery().groupBy(SalesField.REGION).count().run(table);
+        Map<String, Long> counts = new HashMap<>();
+        for (int row = 0; row < result.size(); row++) {
+            counts.put(result.getKey(row).get(0), result.getCount(row));
+        }
+        return counts;
+    }
+
+    private DoubleSummaryStatistics total(double[] values) {
+        DoubleSummaryStatistics stats = new DoubleSummaryStatistics();
+        for (int row = 0, size = table.size(); row < size; row++) {
+            stats.accept(values[row]);
+        }
+        return stats;
+    }
+
+    // One accumulator per code; null where no row has the code
+    private DoubleSummaryStatistics[] statistics(SalesTable.StringColumn column, double[] values) {
+        int[] codes = column.codes();
+        DoubleSummaryStatistics[] stats = new DoubleSummaryStatistics[column.cardinality()];
+        for (int row = 0, size = table.size(); row < size; row++) {
+            int code = checkedCode(codes, row);
+            DoubleSummaryStatistics group = stats[code];
+            if (group == null) {
+                group = new DoubleSummaryStatistics();
+                stats[code] = group;
+            }
+            group.accept(values[row]);
+        }
+        return stats;
+    }
+
+    private Map<String, Double> sums(SalesField dimension, SalesField measure) {
+        return new SalesQuery().groupBy(dimension).sum(measure).run(table).toMap(0);
+    }
+
+    private static List<Map.Entry<String, Double>> top(Map<String, Double> totals, int offset, int limit) {
+        return TopK.page(totals.entrySet(), Map.Entry.<String, Double>comparingByValue().reversed(), offset, limit);
+    }
+
+    // Records [offset, offset + limit) of rows[0, count) ranked by keys, ascending or descending;
+    // rows must be in increasing order, so equal keys keep row order like a stable sort
+    private List<SalesRecord> page(int[] rows, int count, double[] keys, boolean descending, int offset, int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("Offset and limit must not be negative: " + offset + ", " + limit);
+        }
+        int[] ranked = TopK.rows(rows, count, keys, descending, (int) Math.min(Integer.MAX_VALUE, (long) offset + limit));
+        List<SalesRecord> records = new ArrayList<>(Math.max(0, ranked.length - offset));
+        for (int i = offset; i < ranked.length; i++) {
+            records.add(table.row(ranked[i]));
+        }
+        return records;
+    }
+
+    // Same failure as the stream version, which dereferences every row's date
+    private static void checkDates(DateIndex index) {
+        if (index.firstRowWithoutDate() >= 0) {
+            throw new NullPointerException("Order date is null in row " + index.firstRowWithoutDate());
+        }
+    }
+
+    // Same failure as groupingBy on a null key
+    private static int checkedCode(int[] codes, int row) {
+        int code = codes[row];
+        if (code < 0) {
+            throw new NullPointerException("element cannot be mapped to a null key");
+        }
+        return code;
+    }
+}
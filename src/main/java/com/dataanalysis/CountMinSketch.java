@@ -0,0 +1,153 @@
+package com.dataanalysis;
+
+// Count-Min sketch of how often each key occurs and how much weight (e.g. sales) it carries
+// Memory is fixed at depth x width cells however many distinct keys are added. Estimates never
+// undercount; with probability 1 - delta they overcount by at most epsilon times the total
+// (count or weight) added. Weights must not be negative. Sketches with the same dimensions and
+// seed can be merged, e.g. one per parallel partition.
+public final class CountMinSketch {
+    static final long DEFAULT_SEED = 0x5DEECE66DL;
+
+    private final int width;
+    private final int depth;
+    private final long seed;
+    private final long[] counts;
+    private final double[] weights;
+    private long totalCount;
+    private double totalWeight;
+
+    // Sized for the error bounds: width = ceil(e / epsilon), depth = ceil(ln(1 / delta))
+    public CountMinSketch(double epsilon, double delta) {
+        this(dimension(Math.ceil(Math.E / checkFraction(epsilon, "epsilon"))),
+                dimension(Math.ceil(Math.log(1 / checkFraction(delta, "delta")))), DEFAULT_SEED);
+    }
+
+    public CountMinSketch(int width, int depth, long seed) {
+        if (width < 1 || depth < 1) {
+            throw new IllegalArgumentException("Width and depth must be positive: " + width + ", " + depth);
+        }
+        if ((long) width * depth > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Sketch too large: " + width + " x " + depth);
+        }
+        this.width = width;
+        this.depth = depth;
+        this.seed = seed;
+        this.counts = new long[width * depth];
+        this.weights = new double[width * depth];
+    }
+
+    private static double checkFraction(double value, String name) {
+        if (!(value > 0 && value < 1)) {
+            throw new IllegalArgumentException(name + " must be between 0 and 1: " + value);
+        }
+        return value;
+    }
+
+    private static int dimension(double size) {
+        if (size > 1 << 24) {
+            throw new IllegalArgumentException("Sketch dimension too large: " + size);
+        }
+        return Math.max(1, (int) size);
+    }
+
+    public void add(String key, double weight) {
+        if (!(weight >= 0)) {
+            throw new IllegalArgumentException("Weight must not be negative: " + weight);
+        }
+        long hash = hash(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int row = 0; row < depth; row++) {
+            int cell = row * width + bucket(h1, h2, row);
+            counts[cell]++;
+            weights[cell] += weight;
+        }
+        totalCount++;
+        totalWeight += weight;
+    }
+
+    // Upper bound on the number of times key was added
+    public long estimateCount(String key) {
+        long hash = hash(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counts[row * width + bucket(h1, h2, row)]);
+        }
+        return estimate;
+    }
+
+    // Upper bound on the total weight added for key
+    public double estimateWeight(String key) {
+        long hash = hash(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        double estimate = Double.POSITIVE_INFINITY;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, weights[row * width + bucket(h1, h2, row)]);
+        }
+        return estimate;
+    }
+
+    // Adds other's counts into this sketch
+    public void merge(CountMinSketch other) {
+        if (other.width != width || other.depth != depth || other.seed != seed) {
+            throw new IllegalArgumentException("Sketches differ in width, depth or seed");
+        }
+        for (int cell = 0; cell < counts.length; cell++) {
+            counts[cell] += other.counts[cell];
+            weights[cell] += other.weights[cell];
+        }
+        totalCount += other.totalCount;
+        totalWeight += other.totalWeight;
+    }
+
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    public double getTotalWeight() {
+        return totalWeight;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    // Overcount bound relative to the totals: e / width
+    public double getEpsilon() {
+        return Math.E / width;
+    }
+
+    @Override
+    public String toString() {
+        return "CountMinSketch[width=" + width + ", depth=" + depth + ", count=" + totalCount
+                + ", weight=" + totalWeight + "]";
+    }
+
+    // Row hashes are h1 + row * h2 (Kirsch-Mitzenmacher), which is as good as independent ones here
+    private int bucket(int h1, int h2, int row) {
+        return Math.floorMod(h1 + row * h2, width);
+    }
+
+    // 64-bit FNV-1a over the chars, then a SplitMix64 finalizer so both halves are well mixed
+    private long hash(String key) {
+        long hash = 0xcbf29ce484222325L ^ seed;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 30;
+        hash *= 0xbf58476d1ce4e5b9L;
+        hash ^= hash >>> 27;
+        hash *= 0x94d049bb133111ebL;
+        hash ^= hash >>> 31;
+        // An odd step visits distinct buckets in every row when the width is a power of two
+        return hash | (1L << 32);
+    }
+}
@@ -0,0 +1,152 @@
+package com.dataanalysis;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.Arrays;
+
+// Row numbers sorted by order date (epoch day), for range lookups by binary search
+// Built once from a table's date column: a counting sort when the dates span a short period
+// (the usual case, a few years of orders), else a comparison sort. Rows with equal dates stay
+// in row order. Walking the sorted rows also yields each row's month with one date conversion per
+// distinct day, which the monthly trend reuses. Rows without a date are left out of the index.
+public final class DateIndex {
+    private final int[] sortedRows;
+    private final int[] sortedDays;
+    private final byte[] monthOfRow;
+    private final int firstRowWithoutDate;
+
+    private DateIndex(int[] sortedRows, int[] sortedDays, byte[] monthOfRow, int firstRowWithoutDate) {
+        this.sortedRows = sortedRows;
+        this.sortedDays = sortedDays;
+        this.monthOfRow = monthOfRow;
+        this.firstRowWithoutDate = firstRowWithoutDate;
+    }
+
+    // Indexes epochDays[0, size); SalesTable.NO_DATE marks a row without a date
+    public static DateIndex build(int[] epochDays, int size) {
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        int dated = 0;
+        int firstRowWithoutDate = -1;
+        for (int row = 0; row < size; row++) {
+            int day = epochDays[row];
+            if (day == SalesTable.NO_DATE) {
+                if (firstRowWithoutDate < 0) {
+                    firstRowWithoutDate = row;
+                }
+                continue;
+            }
+            min = Math.min(min, day);
+            max = Math.max(max, day);
+            dated++;
+        }
+
+        int[] sortedRows = new int[dated];
+        if (dated > 0 && (long) max - min <= 4L * dated + 1024) {
+            countingSort(epochDays, size, min, max, sortedRows);
+        } else if (dated > 0) {
+            comparisonSort(epochDays, size, sortedRows);
+        }
+
+        int[] sortedDays = new int[dated];
+        byte[] monthOfRow = new byte[size];
+        int month = 0;
+        for (int i = 0; i < dated; i++) {
+            int day = epochDays[sortedRows[i]];
+            sortedDays[i] = day;
+            if (i == 0 || day != sortedDays[i - 1]) {
+                month = LocalDate.ofEpochDay(day).getMonthValue();
+            }
+            monthOfRow[sortedRows[i]] = (byte) month;
+        }
+        return new DateIndex(sortedRows, sortedDays, monthOfRow, firstRowWithoutDate);
+    }
+
+    // Stable: rows are placed in row order within each day
+    private static void countingSort(int[] epochDays, int size, int min, int max, int[] sortedRows) {
+        int[] starts = new int[max - min + 2];
+        for (int row = 0; row < size; row++) {
+            if (epochDays[row] != SalesTable.NO_DATE) {
+                starts[epochDays[row] - min + 1]++;
+            }
+        }
+        for (int i = 1; i < starts.length; i++) {
+            starts[i] += starts[i - 1];
+        }
+        for (int row = 0; row < size; row++) {
+            if (epochDays[row] != SalesTable.NO_DATE) {
+                sortedRows[starts[epochDays[row] - min]++] = row;
+            }
+        }
+    }
+
+    // Day in the high half and row in the low half, so one sort orders by day, then row
+    private static void comparisonSort(int[] epochDays, int size, int[] sortedRows) {
+        long[] keys = new long[sortedRows.length];
+        int count = 0;
+        for (int row = 0; row < size; row++) {
+            if (epochDays[row] != SalesTable.NO_DATE) {
+                keys[count++] = ((long) epochDays[row] << 32) | row;
+            }
+        }
+        Arrays.sort(keys);
+        for (int i = 0; i < count; i++) {
+            sortedRows[i] = (int) keys[i];
+        }
+    }
+
+    // Number of indexed rows
+    public int size() {
+        return sortedRows.length;
+    }
+
+    // First row without a date, or -1 if every row has one
+    public int firstRowWithoutDate() {
+        return firstRowWithoutDate;
+    }
+
+    // Rows dated between start and end inclusive, in row order: O(log n + k log k)
+    public int[] rowsBetween(LocalDate start, LocalDate end) {
+        int[] rows = rowsByDateBetween(start, end);
+        Arrays.sort(rows);
+        return rows;
+    }
+
+    // Rows dated between start and end inclusive, by date and then row: O(log n + k)
+    public int[] rowsByDateBetween(LocalDate start, LocalDate end) {
+        int from = lowerBound(start.toEpochDay());
+        int to = lowerBound(end.toEpochDay() + 1);
+        return from >= to ? new int[0] : Arrays.copyOfRange(sortedRows, from, to);
+    }
+
+    // Number of rows dated between start and end inclusive: O(log n)
+    public int countBetween(LocalDate start, LocalDate end) {
+        return Math.max(0, lowerBound(end.toEpochDay() + 1) - lowerBound(start.toEpochDay()));
+    }
+
+    // Month of the row's date; null for a row without one
+    public Month month(int row) {
+        int month = monthOfRow[row];
+        return month == 0 ? null : Month.of(month);
+    }
+
+    // Month number (1-12) per row, 0 for rows without a date; shared, do not modify
+    byte[] monthOfRow() {
+        return monthOfRow;
+    }
+
+    // First position whose day is >= day
+    private int lowerBound(long day) {
+        int low = 0;
+        int high = sortedDays.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sortedDays[mid] < day) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
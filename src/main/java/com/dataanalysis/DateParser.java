@@ -0,0 +1,182 @@
+package com.dataanalysis;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+// Exception-free parser for the Superstore date formats: M/d/yyyy, MM/dd/yyyy and yyyy-MM-dd
+// The format is picked from the first separator instead of trying formatters until one stops
+// throwing. Results match the DateTimeFormatter patterns SalesDataParser used to try, including
+// the SMART resolver clamping e.g. 2/30/2023 to 2023-02-28.
+// An instance also caches parsed dates: the data has ~1,200 distinct dates over ~10k rows, so
+// most lookups hit. The cache key is the date text packed into a long, so hits allocate nothing.
+// Instances are not thread-safe; the static methods are.
+public final class DateParser {
+    private static final int MAX_MONTH_DAY_DIGITS = 18;
+    private static final int CACHE_CAPACITY = 4096; // Power of two
+    private static final int MAX_CACHED = CACHE_CAPACITY / 2;
+    // Longest text that still fits the key: 4 bits per character plus the length
+    private static final int MAX_KEY_LENGTH = 15;
+
+    private final long[] keys = new long[CACHE_CAPACITY];
+    private final LocalDate[] values = new LocalDate[CACHE_CAPACITY];
+    private int cached = 0;
+
+    // Parses text, or returns null if it is not a supported date
+    public static LocalDate parse(CharSequence text) {
+        int length = text.length();
+        if (length > 32) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c > 0x7F) {
+                return null;
+            }
+            bytes[i] = (byte) c;
+        }
+        return parse(bytes, 0, length);
+    }
+
+    // Parses bytes[from, to) as ASCII, or returns null if it is not a supported date
+    public static LocalDate parse(byte[] bytes, int from, int to) {
+        int firstSeparator = from;
+        while (firstSeparator < to && isDigit(bytes[firstSeparator])) {
+            firstSeparator++;
+        }
+        if (firstSeparator == to || firstSeparator == from) {
+            return null;
+        }
+
+        int year;
+        long month;
+        long day;
+        if (bytes[firstSeparator] == '/') {
+            // M/d/yyyy (MM/dd/yyyy is the same layout with leading zeros)
+            int secondSeparator = firstSeparator + 1;
+            while (secondSeparator < to && isDigit(bytes[secondSeparator])) {
+                secondSeparator++;
+            }
+            if (secondSeparator == to || bytes[secondSeparator] != '/'
+                    || secondSeparator == firstSeparator + 1 || to - secondSeparator != 5) {
+                return null;
+            }
+            month = number(bytes, from, firstSeparator, MAX_MONTH_DAY_DIGITS);
+            day = number(bytes, firstSeparator + 1, secondSeparator, MAX_MONTH_DAY_DIGITS);
+            year = (int) number(bytes, secondSeparator + 1, to, 4);
+        } else if (bytes[firstSeparator] == '-') {
+            // yyyy-MM-dd
+            if (firstSeparator - from != 4 || to - from != 10 || bytes[from + 7] != '-') {
+                return null;
+            }
+            year = (int) number(bytes, from, from + 4, 4);
+            month = number(bytes, from + 5, from + 7, 2);
+            day = number(bytes, from + 8, from + 10, 2);
+        } else {
+            return null;
+        }
+        return toDate(year, month, day);
+    }
+
+    // Like parse, but remembers results; the cache is cleared once it holds MAX_CACHED dates
+    public LocalDate parseCached(byte[] bytes, int from, int to) {
+        long key = key(bytes, from, to);
+        if (key == 0) {
+            return parse(bytes, from, to);
+        }
+
+        int mask = CACHE_CAPACITY - 1;
+        int slot = (int) mix(key) & mask;
+        while (keys[slot] != 0) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        LocalDate date = parse(bytes, from, to);
+        if (cached == MAX_CACHED) {
+            clear();
+            slot = (int) mix(key) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = date; // Invalid dates are cached as null too
+        cached++;
+        return date;
+    }
+
+    public int cachedCount() {
+        return cached;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(values, null);
+        cached = 0;
+    }
+
+    private static LocalDate toDate(int year, long month, long day) {
+        if (year < 1 || month < 1 || month > 12 || day < 1 || day > 31) {
+            return null;
+        }
+        // SMART resolution: a day past the end of the month becomes the last day
+        int lastDay = switch ((int) month) {
+            case 2 -> isLeap(year) ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+        return LocalDate.of(year, (int) month, (int) Math.min(day, lastDay));
+    }
+
+    private static boolean isLeap(int year) {
+        return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    // Value of the digits in bytes[from, to), or -1 if there are more than maxDigits
+    private static long number(byte[] bytes, int from, int to, int maxDigits) {
+        if (to - from > maxDigits) {
+            return -1;
+        }
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            if (!isDigit(bytes[i])) {
+                return -1;
+            }
+            value = value * 10 + (bytes[i] - '0');
+        }
+        return value;
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    // Packs digits and separators into a non-zero long, or 0 if the text cannot be packed
+    private static long key(byte[] bytes, int from, int to) {
+        int length = to - from;
+        if (length == 0 || length > MAX_KEY_LENGTH) {
+            return 0;
+        }
+        long key = length;
+        for (int i = from; i < to; i++) {
+            byte b = bytes[i];
+            int code;
+            if (isDigit(b)) {
+                code = b - '0';
+            } else if (b == '/') {
+                code = 10;
+            } else if (b == '-') {
+                code = 11;
+            } else {
+                return 0;
+            }
+            key = (key << 4) | code;
+        }
+        return key;
+    }
+
+    private static long mix(long key) {
+        key *= 0x9E3779B97F4A7C15L;
+        return key ^ (key >>> 29);
+    }
+}
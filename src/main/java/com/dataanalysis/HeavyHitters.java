@@ -0,0 +1,228 @@
+package com.dataanalysis;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Approximate top-K by weight over a stream of keys, with fixed memory (weighted Space-Saving)
+// At most capacity keys are tracked. A new key arriving when every slot is taken replaces the
+// key with the smallest weight and inherits that weight as its possible overcount. So for every
+// tracked key, estimate - error <= true weight <= estimate, and any key whose true weight is
+// above totalWeight / capacity is guaranteed to be tracked. Weights must not be negative.
+// Summaries of the same capacity merge (Agarwal et al.'s mergeable summaries), so parallel
+// partitions can be combined.
+public final class HeavyHitters {
+    // Ties broken by key so merged summaries keep the same keys whatever the merge order
+    private static final Comparator<Counter> ESTIMATE_DESCENDING =
+            Comparator.comparingDouble(Counter::getEstimate).reversed().thenComparing(Counter::getKey);
+
+    private final int capacity;
+    // Tracked keys by name, plus a min-heap on estimate for finding the one to replace
+    private final Map<String, Counter> counters = new HashMap<>();
+    private final Counter[] heap;
+    private int size;
+    private double totalWeight;
+
+    public HeavyHitters(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.heap = new Counter[capacity];
+    }
+
+    // Capacity for a maximum overcount of epsilon times the total weight
+    public static HeavyHitters withError(double epsilon) {
+        if (!(epsilon > 0 && epsilon < 1)) {
+            throw new IllegalArgumentException("epsilon must be between 0 and 1: " + epsilon);
+        }
+        return new HeavyHitters((int) Math.ceil(1 / epsilon));
+    }
+
+    public void add(String key, double weight) {
+        if (!(weight >= 0)) {
+            throw new IllegalArgumentException("Weight must not be negative: " + weight);
+        }
+        totalWeight += weight;
+        Counter counter = counters.get(key);
+        if (counter != null) {
+            counter.estimate += weight;
+            siftDown(counter.index);
+        } else if (size < capacity) {
+            counter = new Counter(key, weight, 0);
+            counters.put(key, counter);
+            counter.index = size;
+            heap[size++] = counter;
+            siftUp(counter.index);
+        } else {
+            // Replace the smallest; its weight is the most the new key can have been missed by
+            Counter smallest = heap[0];
+            counters.remove(smallest.key);
+            double floor = smallest.estimate;
+            smallest.key = key;
+            smallest.error = floor;
+            smallest.estimate = floor + weight;
+            counters.put(key, smallest);
+            siftDown(0);
+        }
+    }
+
+    // Folds other into this summary
+    // A key missing from one side may have been dropped there, with at most that side's smallest
+    // tracked weight (0 if it never filled up), so that amount is added to both its estimate and
+    // its error. The capacity largest estimates are kept.
+    public void merge(HeavyHitters other) {
+        if (other == this) {
+            throw new IllegalArgumentException("Cannot merge a summary into itself");
+        }
+        if (other.capacity != capacity) {
+            throw new IllegalArgumentException("Summaries differ in capacity: " + capacity + ", " + other.capacity);
+        }
+        double floor = minimum();
+        double otherFloor = other.minimum();
+
+        Map<String, Counter> merged = new HashMap<>();
+        for (Counter counter : counters.values()) {
+            merged.put(counter.key, new Counter(counter.key, counter.estimate + otherFloor, counter.error + otherFloor));
+        }
+        for (Counter counter : other.counters.values()) {
+            Counter mine = merged.get(counter.key);
+            if (mine == null) {
+                merged.put(counter.key, new Counter(counter.key, counter.estimate + floor, counter.error + floor));
+            } else {
+                // Both sides track it: undo the floor assumed above and add the real counts
+                mine.estimate += counter.estimate - otherFloor;
+                mine.error += counter.error - otherFloor;
+            }
+        }
+
+        counters.clear();
+        size = 0;
+        for (Counter counter : TopK.top(merged.values(), ESTIMATE_DESCENDING, capacity)) {
+            counters.put(counter.key, counter);
+            counter.index = size;
+            heap[size++] = counter;
+            siftUp(counter.index);
+        }
+        totalWeight += other.totalWeight;
+    }
+
+    // Estimated weight of key; 0 if it is not tracked (its weight is then at most getMinimum())
+    public double estimate(String key) {
+        Counter counter = counters.get(key);
+        return counter == null ? 0.0 : counter.estimate;
+    }
+
+    // Tracked keys by estimated weight, largest first, as (key, estimate) pairs
+    public List<Map.Entry<String, Double>> top(int n) {
+        List<Map.Entry<String, Double>> result = new ArrayList<>();
+        for (Counter counter : counters(n)) {
+            result.add(Map.entry(counter.key, counter.estimate));
+        }
+        return result;
+    }
+
+    // The n tracked counters with the largest estimates, largest first
+    public List<Counter> counters(int n) {
+        List<Counter> snapshot = new ArrayList<>();
+        for (Counter counter : counters.values()) {
+            snapshot.add(new Counter(counter.key, counter.estimate, counter.error));
+        }
+        return TopK.top(snapshot, ESTIMATE_DESCENDING, n);
+    }
+
+    // Smallest tracked weight once the summary is full, else 0; an untracked key weighs at most this
+    public double getMinimum() {
+        return minimum();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public double getTotalWeight() {
+        return totalWeight;
+    }
+
+    private double minimum() {
+        return size < capacity ? 0.0 : heap[0].estimate;
+    }
+
+    private void siftUp(int index) {
+        Counter counter = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (heap[parent].estimate <= counter.estimate) {
+                break;
+            }
+            place(heap[parent], index);
+            index = parent;
+        }
+        place(counter, index);
+    }
+
+    private void siftDown(int index) {
+        Counter counter = heap[index];
+        int half = size >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            if (child + 1 < size && heap[child + 1].estimate < heap[child].estimate) {
+                child++;
+            }
+            if (counter.estimate <= heap[child].estimate) {
+                break;
+            }
+            place(heap[child], index);
+            index = child;
+        }
+        place(counter, index);
+    }
+
+    private void place(Counter counter, int index) {
+        heap[index] = counter;
+        counter.index = index;
+    }
+
+    // One tracked key: its estimated weight and how much of that may be overcount
+    public static final class Counter {
+        private String key;
+        private double estimate;
+        private double error;
+        private int index;
+
+        Counter(String key, double estimate, double error) {
+            this.key = key;
+            this.estimate = estimate;
+            this.error = error;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        // Upper bound on the key's true weight
+        public double getEstimate() {
+            return estimate;
+        }
+
+        public double getError() {
+            return error;
+        }
+
+        // Lower bound on the key's true weight
+        public double getGuaranteed() {
+            return estimate - error;
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + estimate + " (+/- " + error + ")";
+        }
+    }
+}
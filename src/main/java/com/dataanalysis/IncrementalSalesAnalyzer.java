@@ -0,0 +1,439 @@
+package com.dataanalysis;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.DoubleSummaryStatistics;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+// SalesAnalyzer that keeps its aggregates up to date as records are appended
+// Every add folds the record into running per-group totals, so the grouped metrics are read in
+// O(groups) instead of re-aggregating all rows. The record-returning metrics read sorted indexes
+// (by profit, sales and order date), so they cost O(matches) rather than a scan and sort of every
+// row. The profit and sales indexes only queue appended rows, which are ranked and merged in on
+// the next read. Results are identical to a SalesAnalyzer over the same records in the same
+// order: totals accumulate in DoubleSummaryStatistics in append order, exactly like the stream
+// collectors, and groups are kept in first-seen order. A record with a null group key or order
+// date is accepted and counted everywhere else; the metrics grouped by that field then fail with
+// the same NullPointerException the stream version throws. Appends and reads are synchronized,
+// so orders can arrive on one thread while another one reads.
+public class IncrementalSalesAnalyzer extends SalesAnalyzer {
+    private final List<SalesRecord> records;
+
+    private final DoubleSummaryStatistics totalSales = new DoubleSummaryStatistics();
+    private final DoubleSummaryStatistics totalProfit = new DoubleSummaryStatistics();
+    private final Map<String, DoubleSummaryStatistics> salesByCategory = new LinkedHashMap<>();
+    private final Map<String, DoubleSummaryStatistics> profitByCategory = new LinkedHashMap<>();
+    private final Map<String, DoubleSummaryStatistics> discountByCategory = new LinkedHashMap<>();
+    private final Map<String, DoubleSummaryStatistics> salesByProduct = new LinkedHashMap<>();
+    private final Map<String, DoubleSummaryStatistics> profitByProduct = new LinkedHashMap<>();
+    private final Map<String, DoubleSummaryStatistics> salesByRegion = new LinkedHashMap<>();
+    private final Map<Month, DoubleSummaryStatistics> salesByMonth = new LinkedHashMap<>();
+    private final Map<String, DoubleSummaryStatistics> salesBySegment = new LinkedHashMap<>();
+    private final Map<String, DoubleSummaryStatistics> salesByState = new LinkedHashMap<>();
+    private final Map<String, DoubleSummaryStatistics> salesByShipMode = new LinkedHashMap<>();
+    private final Map<String, Integer> quantityBySubCategory = new LinkedHashMap<>();
+    private final Map<String, Long> orderCountByRegion = new LinkedHashMap<>();
+
+    // Fields some record left null; metrics grouped by them fail like groupingBy on a null key
+    private final Set<SalesField> nullKeys = EnumSet.noneOf(SalesField.class);
+
+    // Sales and profit of every row, the keys of the two ranked indexes below
+    private double[] sales = new double[16];
+    private double[] profit = new double[16];
+    private final SortedRows unprofitableByProfit = new SortedRows(false);
+    private final SortedRows rowsBySales = new SortedRows(true);
+    // Row numbers by order date (epoch day), for range queries that return rows in append order
+    private final TreeMap<Long, Rows> rowsByOrderDate = new TreeMap<>();
+
+    public IncrementalSalesAnalyzer() {
+        this(new ArrayList<>());
+    }
+
+    private IncrementalSalesAnalyzer(List<SalesRecord> records) {
+        super(Collections.unmodifiableList(records));
+        this.records = records;
+    }
+
+    public IncrementalSalesAnalyzer(Collection<SalesRecord> initialRecords) {
+        this();
+        for (SalesRecord record : initialRecords) {
+            append(record);
+        }
+    }
+
+    public final synchronized void add(SalesRecord record) {
+        append(record);
+    }
+
+    public final synchronized void addAll(Collection<SalesRecord> newRecords) {
+        for (SalesRecord record : newRecords) {
+            append(record);
+        }
+    }
+
+    private void append(SalesRecord record) {
+        double sales = record.getSales();
+        double profit = record.getProfit();
+        int row = records.size();
+        records.add(record);
+        if (row == this.sales.length) {
+            this.sales = Arrays.copyOf(this.sales, row * 2);
+            this.profit = Arrays.copyOf(this.profit, row * 2);
+        }
+        this.sales[row] = sales;
+        this.profit[row] = profit;
+
+        totalSales.accept(sales);
+        totalProfit.accept(profit);
+        String category = key(SalesField.CATEGORY, record.getCategory());
+        if (category != null) {
+            group(salesByCategory, category).accept(sales);
+            group(profitByCategory, category).accept(profit);
+            group(discountByCategory, category).accept(record.getDiscount());
+        }
+        String product = key(SalesField.PRODUCT_NAME, record.getProductName());
+        if (product != null) {
+            group(salesByProduct, product).accept(sales);
+            group(profitByProduct, product).accept(profit);
+        }
+        String region = key(SalesField.REGION, record.getRegion());
+        if (region != null) {
+            group(salesByRegion, region).accept(sales);
+            orderCountByRegion.merge(region, 1L, Long::sum);
+        }
+        String segment = key(SalesField.SEGMENT, record.getSegment());
+        if (segment != null) {
+            group(salesBySegment, segment).accept(sales);
+        }
+        String state = key(SalesField.STATE, record.getState());
+        if (state != null) {
+            group(salesByState, state).accept(sales);
+        }
+        String shipMode = key(SalesField.SHIP_MODE, record.getShipMode());
+        if (shipMode != null) {
+            group(salesByShipMode, shipMode).accept(sales);
+        }
+        String subCategory = key(SalesField.SUB_CATEGORY, record.getSubCategory());
+        if (subCategory != null) {
+            quantityBySubCategory.merge(subCategory, record.getQuantity(), Integer::sum);
+        }
+        LocalDate orderDate = key(SalesField.ORDER_DATE, record.getOrderDate());
+        if (orderDate != null) {
+            group(salesByMonth, orderDate.getMonth()).accept(sales);
+            rowsByOrderDate.computeIfAbsent(orderDate.toEpochDay(), key -> new Rows()).add(row);
+        }
+
+        if (profit < 0) {
+            unprofitableByProfit.add(row);
+        }
+        rowsBySales.add(row);
+    }
+
+    public synchronized int size() {
+        return records.size();
+    }
+
+    // Every append is a new version of the data
+    @Override
+    public synchronized long getDataVersion() {
+        return records.size();
+    }
+
+    @Override
+    public synchronized double calculateTotalRevenue() {
+        return totalSales.getSum();
+    }
+
+    @Override
+    public synchronized double calculateTotalProfit() {
+        return totalProfit.getSum();
+    }
+
+    @Override
+    public synchronized Map<String, Double> getSalesByCategory() {
+        checkKeys(SalesField.CATEGORY);
+        return snapshot(salesByCategory, DoubleSummaryStatistics::getSum);
+    }
+
+    @Override
+    public synchronized Map<String, Double> getProfitByCategory() {
+        checkKeys(SalesField.CATEGORY);
+        return snapshot(profitByCategory, DoubleSummaryStatistics::getSum);
+    }
+
+    @Override
+    public synchronized List<Map.Entry<String, Double>> getTopProductsBySales(int offset, int limit) {
+        checkKeys(SalesField.PRODUCT_NAME);
+        return top(snapshot(salesByProduct, DoubleSummaryStatistics::getSum), offset, limit);
+    }
+
+    @Override
+    public synchronized List<Map.Entry<String, Double>> getTopProductsByProfit(int offset, int limit) {
+        checkKeys(SalesField.PRODUCT_NAME);
+        return top(snapshot(profitByProduct, DoubleSummaryStatistics::getSum), offset, limit);
+    }
+
+    @Override
+    public synchronized double getAverageOrderValue() {
+        return totalSales.getAverage();
+    }
+
+    @Override
+    public synchronized Map<String, DoubleSummaryStatistics> getRegionSalesStatistics() {
+        checkKeys(SalesField.REGION);
+        // Copies, so callers never see (or change) the running totals
+        return snapshot(salesByRegion, stats -> {
+            DoubleSummaryStatistics copy = new DoubleSummaryStatistics();
+            copy.combine(stats);
+            return copy;
+        });
+    }
+
+    @Override
+    public synchronized Map<Month, Double> getMonthlySalesTrend() {
+        checkKeys(SalesField.ORDER_DATE);
+        return snapshot(salesByMonth, DoubleSummaryStatistics::getSum);
+    }
+
+    @Override
+    public synchronized Map<String, Double> getSalesBySegment() {
+        checkKeys(SalesField.SEGMENT);
+        return snapshot(salesBySegment, DoubleSummaryStatistics::getSum);
+    }
+
+    @Override
+    public synchronized List<SalesRecord> getUnprofitableProducts() {
+        return getUnprofitableProducts(0, Integer.MAX_VALUE);
+    }
+
+    // Reads only the first offset + limit records of the index
+    @Override
+    public synchronized List<SalesRecord> getUnprofitableProducts(int offset, int limit) {
+        Page page = new Page(offset, limit);
+        for (int row : unprofitableByProfit.sorted(profit)) {
+            if (!page.add(row)) {
+                break;
+            }
+        }
+        return page.selected;
+    }
+
+    @Override
+    public synchronized Map<String, Double> getAverageDiscountByCategory() {
+        checkKeys(SalesField.CATEGORY);
+        return snapshot(discountByCategory, DoubleSummaryStatistics::getAverage);
+    }
+
+    @Override
+    public synchronized Map<String, Integer> getQuantityBySubCategory() {
+        checkKeys(SalesField.SUB_CATEGORY);
+        return snapshot(quantityBySubCategory, Function.identity());
+    }
+
+    @Override
+    public synchronized List<SalesRecord> getHighValueOrders(double threshold) {
+        return getHighValueOrders(threshold, 0, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public synchronized List<SalesRecord> getHighValueOrders(double threshold, int offset, int limit) {
+        Page page = new Page(offset, limit);
+        for (int row : rowsBySales.sorted(sales)) {
+            // Rows sort like Double.compare (NaN above everything, -0.0 below 0.0); the filter
+            // itself uses the primitive comparison, like the stream version
+            double value = sales[row];
+            if (value > threshold) {
+                if (!page.add(row)) {
+                    break;
+                }
+            } else if (!Double.isNaN(value) && value < threshold) {
+                break;
+            }
+        }
+        return page.selected;
+    }
+
+    @Override
+    public synchronized Map<String, Double> getProfitMarginByCategory() {
+        return super.getProfitMarginByCategory();
+    }
+
+    @Override
+    public synchronized List<Map.Entry<String, Double>> getTopStatesBySales(int offset, int limit) {
+        checkKeys(SalesField.STATE);
+        return top(snapshot(salesByState, DoubleSummaryStatistics::getSum), offset, limit);
+    }
+
+    @Override
+    public synchronized Map<String, Double> getSalesByShipMode() {
+        checkKeys(SalesField.SHIP_MODE);
+        return snapshot(salesByShipMode, DoubleSummaryStatistics::getSum);
+    }
+
+    @Override
+    public synchronized List<SalesRecord> getOrdersInDateRange(LocalDate startDate, LocalDate endDate) {
+        checkKeys(SalesField.ORDER_DATE);
+        long start = startDate.toEpochDay();
+        long end = endDate.toEpochDay();
+        if (start > end) {
+            return new ArrayList<>();
+        }
+        Collection<Rows> days = rowsByOrderDate.subMap(start, true, end, true).values();
+        int count = 0;
+        for (Rows dayRows : days) {
+            count += dayRows.size;
+        }
+        int[] rows = new int[count];
+        count = 0;
+        for (Rows dayRows : days) {
+            System.arraycopy(dayRows.rows, 0, rows, count, dayRows.size);
+            count += dayRows.size;
+        }
+        // The stream version filters without sorting, so rows come back in append order
+        Arrays.sort(rows);
+        List<SalesRecord> result = new ArrayList<>(rows.length);
+        for (int row : rows) {
+            result.add(records.get(row));
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized Map<String, Double> getCategoryDistributionPercentage() {
+        return super.getCategoryDistributionPercentage();
+    }
+
+    @Override
+    public synchronized Map<String, Long> getOrderCountByRegion() {
+        checkKeys(SalesField.REGION);
+        return snapshot(orderCountByRegion, Function.identity());
+    }
+
+    // The key, noting its field when it is null
+    private <K> K key(SalesField field, K key) {
+        if (key == null) {
+            nullKeys.add(field);
+        }
+        return key;
+    }
+
+    // Same failure as the stream version once any record has the field null
+    private void checkKeys(SalesField field) {
+        if (nullKeys.contains(field)) {
+            throw new NullPointerException(field == SalesField.ORDER_DATE
+                    ? "Order date is null" : "element cannot be mapped to a null key");
+        }
+    }
+
+    private static <K> DoubleSummaryStatistics group(Map<K, DoubleSummaryStatistics> groups, K key) {
+        DoubleSummaryStatistics stats = groups.get(key);
+        if (stats == null) {
+            stats = new DoubleSummaryStatistics();
+            groups.put(key, stats);
+        }
+        return stats;
+    }
+
+    // A HashMap filled in first-seen order, exactly as groupingBy would fill it
+    private static <K, S, V> Map<K, V> snapshot(Map<K, S> groups, Function<S, V> value) {
+        Map<K, V> result = new HashMap<>();
+        for (Map.Entry<K, S> entry : groups.entrySet()) {
+            result.put(entry.getKey(), value.apply(entry.getValue()));
+        }
+        return result;
+    }
+
+    private static List<Map.Entry<String, Double>> top(Map<String, Double> totals, int offset, int limit) {
+        return TopK.page(totals.entrySet(), Map.Entry.<String, Double>comparingByValue().reversed(), offset, limit);
+    }
+
+    // Growable array of row numbers, so the indexes hold no second reference to each record
+    private static final class Rows {
+        int[] rows = new int[1];
+        int size;
+
+        void add(int row) {
+            if (size == rows.length) {
+                rows = Arrays.copyOf(rows, size * 2);
+            }
+            rows[size++] = row;
+        }
+    }
+
+    // Rows ranked by a key column, ties in row order like a stable sort
+    // Appended rows wait in pending until the next read, which ranks them with TopK.rows and merges
+    // them behind the equal keys already sorted, so an append costs O(1).
+    private static final class SortedRows {
+        private final boolean descending;
+        private final Rows pending = new Rows();
+        private int[] sorted = new int[0];
+
+        SortedRows(boolean descending) {
+            this.descending = descending;
+        }
+
+        void add(int row) {
+            pending.add(row);
+        }
+
+        int[] sorted(double[] keys) {
+            if (pending.size > 0) {
+                int[] added = TopK.rows(pending.rows, pending.size, keys, descending, pending.size);
+                int[] merged = new int[sorted.length + added.length];
+                int i = 0;
+                int j = 0;
+                for (int m = 0; m < merged.length; m++) {
+                    // Pending rows come after every sorted row, so they only go first on a better key
+                    if (j < added.length && (i == sorted.length || TopK.before(keys, descending, added[j], sorted[i]))) {
+                        merged[m] = added[j++];
+                    } else {
+                        merged[m] = sorted[i++];
+                    }
+                }
+                sorted = merged;
+                pending.size = 0;
+            }
+            return sorted;
+        }
+    }
+
+    // Collects records [offset, offset + limit) of a sequence of rows
+    private final class Page {
+        final List<SalesRecord> selected = new ArrayList<>();
+        private long skip;
+        private long remaining;
+
+        Page(int offset, int limit) {
+            if (offset < 0 || limit < 0) {
+                throw new IllegalArgumentException("Offset and limit must not be negative: " + offset + ", " + limit);
+            }
+            this.skip = offset;
+            this.remaining = limit;
+        }
+
+        // False once the page is full
+        boolean add(int row) {
+            if (remaining == 0) {
+                return false;
+            }
+            if (skip > 0) {
+                skip--;
+            } else {
+                selected.add(records.get(row));
+                remaining--;
+            }
+            return remaining > 0;
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package com.dataanalysis;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+// Parallel CSV parser over a memory-mapped file
+// The data after the header is cut into byte ranges, and each cut moves forward to the next line
+// end. Like SalesRecordReader, every \n, \r or \r\n ends a record, even inside quotes, so an
+// unbalanced quote only spoils its own line. Each aligned range is then parsed on a fork-join
+// worker, and the results are merged in file order with the same error reporting as
+// SalesDataParser.parseCSV.
+public class MappedCSVParser {
+    // Upper bound per range; keeps every mapping well under the 2GB MappedByteBuffer limit
+    static final long MAX_RANGE_BYTES = 64L * 1024 * 1024;
+    // Files smaller than this are not worth splitting
+    static final long MIN_RANGE_BYTES = 64L * 1024;
+    private static final int SCAN_BUFFER_BYTES = 64 * 1024;
+
+    public static List<SalesRecord> parseCSV(String filePath) throws IOException {
+        return parseCSV(filePath, ForkJoinPool.commonPool());
+    }
+
+    public static List<SalesRecord> parseCSV(String filePath, ForkJoinPool pool) throws IOException {
+        return parseCSV(filePath, pool, MIN_RANGE_BYTES);
+    }
+
+    static List<SalesRecord> parseCSV(String filePath, ForkJoinPool pool, long minRangeBytes) throws IOException {
+        List<SalesRecord> records = new ArrayList<>();
+
+        try (FileChannel channel = FileChannel.open(Path.of(filePath), StandardOpenOption.READ)) {
+            long size = channel.size();
+            long dataStart = findLineEnd(channel, 0, size);
+            if (dataStart == 0) {
+                System.out.println("Successfully parsed 0 records");
+                return records;
+            }
+            System.out.println("Header: " + readHeader(channel, dataStart));
+
+            long[] bounds = alignedBounds(channel, pool, dataStart, size, minRangeBytes);
+
+            // Parse every range in parallel, sharing one set of dictionaries for the file
+            SalesDictionaries dictionaries = new SalesDictionaries();
+            List<Callable<RangeResult>> parsers = new ArrayList<>();
+            for (int i = 0; i + 1 < bounds.length; i++) {
+                long start = bounds[i];
+                long end = bounds[i + 1];
+                parsers.add(() -> parseRange(channel, start, end, dictionaries));
+            }
+
+            // Merge in file order; line numbers are only known once earlier ranges are counted
+            int lineNumber = 1;
+            for (RangeResult result : invokeAll(pool, parsers)) {
+                records.addAll(result.records);
+                for (RangeResult.LineError error : result.errors) {
+                    System.err.println("Error parsing line " + (lineNumber + error.lineIndex) + ": " + error.line);
+                    System.err.println("Error: " + error.message);
+                }
+                lineNumber += result.lineCount;
+            }
+        }
+
+        System.out.println("Successfully parsed " + records.size() + " records");
+        return records;
+    }
+
+    // Returns range boundaries: bounds[0] = dataStart, bounds[last] = size, every inner bound a line start
+    static long[] alignedBounds(FileChannel channel, ForkJoinPool pool, long dataStart, long size,
+                                long minRangeBytes) throws IOException {
+        long dataBytes = size - dataStart;
+        long byParallelism = Math.max(1, dataBytes / Math.max(1, minRangeBytes));
+        long bySize = (dataBytes + MAX_RANGE_BYTES - 1) / MAX_RANGE_BYTES;
+        int ranges = (int) Math.max(1, Math.max(bySize, Math.min(byParallelism, pool.getParallelism() * 4L)));
+
+        long[] rawCuts = new long[ranges + 1];
+        for (int i = 0; i <= ranges; i++) {
+            rawCuts[i] = dataStart + dataBytes * i / ranges;
+        }
+
+        // Move each inner cut to the next line end
+        List<Callable<Long>> aligners = new ArrayList<>();
+        for (int i = 1; i < ranges; i++) {
+            long cut = rawCuts[i];
+            aligners.add(() -> findLineEnd(channel, cut, size));
+        }
+        List<Long> aligned = invokeAll(pool, aligners);
+
+        long[] bounds = new long[ranges + 1];
+        bounds[0] = dataStart;
+        for (int i = 1; i < ranges; i++) {
+            bounds[i] = Math.max(bounds[i - 1], aligned.get(i - 1));
+        }
+        bounds[ranges] = size;
+        return bounds;
+    }
+
+    // Position just past the first line end at or after from, or size if there is none;
+    // a line ends at \n, \r or \r\n like in SalesRecordReader
+    static long findLineEnd(FileChannel channel, long from, long size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_BYTES);
+        long position = from;
+        boolean afterCarriageReturn = false;
+        while (position < size) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                byte b = buffer.get(i);
+                if (afterCarriageReturn) {
+                    return b == '\n' ? position + i + 1 : position + i;
+                }
+                if (b == '\n') {
+                    return position + i + 1;
+                }
+                afterCarriageReturn = b == '\r';
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    private static String readHeader(FileChannel channel, long headerEnd) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) headerEnd);
+        while (buffer.hasRemaining() && channel.read(buffer, buffer.position()) > 0) {
+            // Keep reading until the header is complete
+        }
+        int length = trimLineEnd(buffer.array(), 0, buffer.position());
+        return new String(buffer.array(), 0, length, StandardCharsets.UTF_8);
+    }
+
+    // Parses the lines in [start, end); start is a line start and the range ends at a line end or EOF
+    // Each line is copied out of the mapping with one bulk get
+    static RangeResult parseRange(FileChannel channel, long start, long end, SalesDictionaries dictionaries)
+            throws IOException {
+        RangeResult result = new RangeResult();
+        if (start == end) {
+            return result;
+        }
+
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        CSVTokenizer tokenizer = new CSVTokenizer();
+        DateParser dates = new DateParser();
+        byte[] line = new byte[256];
+        int lineStart = 0;
+
+        int n = buffer.limit();
+        for (int i = 0; i < n; i++) {
+            byte b = buffer.get(i);
+            if (b != '\n' && b != '\r') {
+                continue;
+            }
+            int lineEnd = i;
+            if (b == '\r' && i + 1 < n && buffer.get(i + 1) == '\n') {
+                i++;
+            }
+            line = copyLine(buffer, lineStart, lineEnd, line);
+            parseLine(tokenizer, dates, dictionaries, line, lineEnd - lineStart, ++result.lineCount, result);
+            lineStart = i + 1;
+        }
+        if (lineStart < n) {
+            line = copyLine(buffer, lineStart, n, line);
+            parseLine(tokenizer, dates, dictionaries, line, n - lineStart, ++result.lineCount, result);
+        }
+        return result;
+    }
+
+    // Copies buffer[from, to) to the start of line, growing it geometrically when it is too short
+    private static byte[] copyLine(MappedByteBuffer buffer, int from, int to, byte[] line) {
+        int length = to - from;
+        if (length > line.length) {
+            line = new byte[Math.max(length, line.length * 2)];
+        }
+        buffer.get(from, line, 0, length);
+        return line;
+    }
+
+    // bytes[0, length) is one record without its line terminator
+    private static void parseLine(CSVTokenizer tokenizer, DateParser dates, SalesDictionaries dictionaries,
+                                  byte[] bytes, int length, int lineIndex, RangeResult result) {
+        // Skip empty lines
+        if (tokenizer.tokenize(bytes, 0, length, SalesDataParser.FIELD_COUNT) == 1
+                && tokenizer.start(0) == tokenizer.end(0)) {
+            return;
+        }
+        try {
+            result.records.add(SalesDataParser.parseFields(tokenizer, dates, dictionaries));
+        } catch (Exception e) {
+            String line = new String(bytes, 0, length, StandardCharsets.UTF_8);
+            result.errors.add(new RangeResult.LineError(lineIndex, line, e.getMessage()));
+        }
+    }
+
+    // Length of the line without its trailing line terminator
+    private static int trimLineEnd(byte[] bytes, int start, int end) {
+        while (end > start && (bytes[end - 1] == '\n' || bytes[end - 1] == '\r')) {
+            end--;
+        }
+        return end - start;
+    }
+
+    private static <T> List<T> invokeAll(ForkJoinPool pool, List<Callable<T>> tasks) throws IOException {
+        List<T> results = new ArrayList<>(tasks.size());
+        try {
+            for (Future<T> future : pool.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while parsing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Parallel parse failed", e.getCause());
+        }
+        return results;
+    }
+
+    // Records and deferred errors for one range; errors carry the 1-based line within the range
+    static class RangeResult {
+        final List<SalesRecord> records = new ArrayList<>();
+        final List<LineError> errors = new ArrayList<>();
+        int lineCount = 0;
+
+        static class LineError {
+            final int lineIndex;
+            final String line;
+            final String message;
+
+            LineError(int lineIndex, String line, String message) {
+                this.lineIndex = lineIndex;
+                this.line = line;
+                this.message = message;
+            }
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.dataanalysis;
+
+import com.producerconsumer.BufferEvents;
+
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+// Parallel CSV ingestion built on the producer/consumer pattern
+// The calling thread reads raw lines and produces them in chunks into a bounded queue;
+// N parser threads consume chunks and run SalesDataParser.parseLine on them. Each parser
+// keeps its records and errors locally, and the chunks are merged back in file order at the
+// end, so the output and the error report are identical to SalesDataParser.parseCSV.
+// The queue, poison pill and handoff events mirror ProducerConsumer, whose buffers only carry
+// Integer items, so the chunks travel through a queue of their own.
+public class ParallelCSVIngestor {
+    static final int DEFAULT_CHUNK_LINES = 1024;
+
+    // Signals a parser thread to stop, like the poison pill in ProducerConsumer
+    private static final LineChunk POISON_PILL = new LineChunk(-1, 0, List.of());
+
+    public static List<SalesRecord> parseCSV(String filePath) throws IOException {
+        return parseCSV(filePath, Runtime.getRuntime().availableProcessors(), DEFAULT_CHUNK_LINES);
+    }
+
+    public static List<SalesRecord> parseCSV(String filePath, int parserThreads, int chunkLines) throws IOException {
+        if (parserThreads < 1 || chunkLines < 1) {
+            throw new IllegalArgumentException("Parser threads and chunk size must be positive");
+        }
+
+        // Two chunks per parser keeps every parser busy without buffering the whole file
+        BlockingQueue<LineChunk> queue = new ArrayBlockingQueue<>(parserThreads * 2);
+        List<ChunkParser> parsers = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        // One set of dictionaries for the file, shared by every parser thread
+        SalesDictionaries dictionaries = new SalesDictionaries();
+        for (int i = 1; i <= parserThreads; i++) {
+            ChunkParser parser = new ChunkParser(queue, dictionaries);
+            Thread thread = new Thread(parser, "CSV-Parser-" + i);
+            parsers.add(parser);
+            threads.add(thread);
+            thread.start();
+        }
+
+        try {
+            readChunks(filePath, queue, chunkLines);
+        } finally {
+            // Always release the parsers, even if reading failed
+            try {
+                for (int i = 0; i < parserThreads; i++) {
+                    queue.put(POISON_PILL);
+                }
+                for (Thread thread : threads) {
+                    thread.join();
+                }
+            } catch (InterruptedException e) {
+                threads.forEach(Thread::interrupt);
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while parsing " + filePath, e);
+            }
+        }
+
+        // Merge the per-parser results back into file order
+        List<ParsedChunk> chunks = new ArrayList<>();
+        for (ChunkParser parser : parsers) {
+            if (parser.failure != null) {
+                throw new IOException("Parser thread failed", parser.failure);
+            }
+            chunks.addAll(parser.parsed);
+        }
+        chunks.sort(Comparator.comparingInt(chunk -> chunk.sequence));
+
+        List<SalesRecord> records = new ArrayList<>();
+        for (ParsedChunk chunk : chunks) {
+            records.addAll(chunk.records);
+            for (LineError error : chunk.errors) {
+                SalesDataParser.reportError(error.line, error.lineNumber, error.cause);
+            }
+        }
+
+        System.out.println("Successfully parsed " + records.size() + " records");
+        return records;
+    }
+
+    // Producer side: reads the file and hands off lines in chunks
+    private static void readChunks(String filePath, BlockingQueue<LineChunk> queue, int chunkLines)
+            throws IOException {
+        // Decoded as UTF-8 with malformed bytes replaced, like SalesRecordReader
+        try (BufferedReader br = new BufferedReader(new InputStreamReader(new FileInputStream(filePath), StandardCharsets.UTF_8))) {
+            String header = br.readLine();
+            if (header == null) {
+                return;
+            }
+            System.out.println("Header: " + header);
+
+            int lineNumber = 1;
+            int sequence = 0;
+            int firstLineNumber = 2;
+            List<String> lines = new ArrayList<>(chunkLines);
+            String line;
+
+            while ((line = br.readLine()) != null) {
+                lineNumber++;
+                if (lines.isEmpty()) {
+                    firstLineNumber = lineNumber;
+                }
+                lines.add(line);
+
+                if (lines.size() == chunkLines) {
+                    handOff(queue, new LineChunk(sequence++, firstLineNumber, lines));
+                    lines = new ArrayList<>(chunkLines);
+                }
+            }
+            if (!lines.isEmpty()) {
+                handOff(queue, new LineChunk(sequence, firstLineNumber, lines));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while reading " + filePath, e);
+        }
+    }
+
+    private static void handOff(BlockingQueue<LineChunk> queue, LineChunk chunk) throws InterruptedException {
+        BufferEvents.BatchHandoff event = new BufferEvents.BatchHandoff();
+        event.begin();
+        queue.put(chunk); // Blocks while all parsers are busy
+        event.end();
+        if (event.shouldCommit()) {
+            event.stage = "CSV reader";
+            event.items = chunk.lines.size();
+            event.commit();
+        }
+    }
+
+    // Consumer side: parses chunks until it receives the poison pill
+    private static class ChunkParser implements Runnable {
+        private final BlockingQueue<LineChunk> queue;
+        private final SalesDictionaries dictionaries;
+        private final List<ParsedChunk> parsed = new ArrayList<>();
+        private volatile RuntimeException failure;
+
+        ChunkParser(BlockingQueue<LineChunk> queue, SalesDictionaries dictionaries) {
+            this.queue = queue;
+            this.dictionaries = dictionaries;
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (true) {
+                    LineChunk chunk = queue.take();
+                    if (chunk == POISON_PILL) {
+                        break;
+                    }
+
+                    // Errors are reported during the ordered merge, not in thread order
+                    List<SalesRecord> records = new ArrayList<>(chunk.lines.size());
+                    List<LineError> errors = new ArrayList<>();
+                    int lineNumber = chunk.firstLineNumber;
+                    for (String line : chunk.lines) {
+                        if (!line.trim().isEmpty()) {
+                            try {
+                                records.add(SalesDataParser.parseLine(line, dictionaries));
+                            } catch (Exception e) {
+                                errors.add(new LineError(lineNumber, line, e));
+                            }
+                        }
+                        lineNumber++;
+                    }
+                    parsed.add(new ParsedChunk(chunk.sequence, records, errors));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                failure = e;
+                // Keep draining so the reader never blocks on a full queue
+                drainUntilPoisonPill();
+            }
+        }
+
+        private void drainUntilPoisonPill() {
+            try {
+                while (queue.take() != POISON_PILL) {
+                    // Discard
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static class LineChunk {
+        final int sequence;
+        final int firstLineNumber;
+        final List<String> lines;
+
+        LineChunk(int sequence, int firstLineNumber, List<String> lines) {
+            this.sequence = sequence;
+            this.firstLineNumber = firstLineNumber;
+            this.lines = lines;
+        }
+    }
+
+    private static class ParsedChunk {
+        final int sequence;
+        final List<SalesRecord> records;
+        final List<LineError> errors;
+
+        ParsedChunk(int sequence, List<SalesRecord> records, List<LineError> errors) {
+            this.sequence = sequence;
+            this.records = records;
+            this.errors = errors;
+        }
+    }
+
+    private static class LineError {
+        final int lineNumber;
+        final String line;
+        final Exception cause;
+
+        LineError(int lineNumber, String line, Exception cause) {
+            this.lineNumber = lineNumber;
+            this.line = line;
+            this.cause = cause;
+        }
+    }
+}
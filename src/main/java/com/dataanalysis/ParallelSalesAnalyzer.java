@@ -0,0 +1,173 @@
+package com.dataanalysis;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.DoubleSummaryStatistics;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+// SalesAnalyzer that runs every analysis across a ForkJoinPool
+// Each task aggregates one fixed-size partition of the records into its own partial groups, with
+// no shared map or lock between tasks, and the partials are merged in partition order (see
+// SalesReport.run(List, ForkJoinPool)). Results are deterministic for any pool size: the same on
+// every run, with groups in the same order as the sequential SalesAnalyzer. Sums can differ from
+// the sequential ones in the last bits because the partition sums are added together at the end.
+public class ParallelSalesAnalyzer extends SalesAnalyzer {
+    private final List<SalesRecord> salesData;
+    // The table behind salesData, when built over one; else the list is treated as fixed
+    private final SalesTable table;
+    private final ForkJoinPool pool;
+    private final int partitionRows;
+
+    public ParallelSalesAnalyzer(List<SalesRecord> salesData) {
+        this(salesData, ForkJoinPool.commonPool());
+    }
+
+    public ParallelSalesAnalyzer(List<SalesRecord> salesData, ForkJoinPool pool) {
+        this(salesData, pool, SalesReport.PARTITION_ROWS);
+    }
+
+    // Over the table's rows, including rows added later
+    public ParallelSalesAnalyzer(SalesTable table, ForkJoinPool pool) {
+        this(table.rows(), table, pool, SalesReport.PARTITION_ROWS);
+    }
+
+    ParallelSalesAnalyzer(List<SalesRecord> salesData, ForkJoinPool pool, int partitionRows) {
+        this(salesData, null, pool, partitionRows);
+    }
+
+    private ParallelSalesAnalyzer(List<SalesRecord> salesData, SalesTable table, ForkJoinPool pool, int partitionRows) {
+        super(salesData);
+        if (partitionRows < 1) {
+            throw new IllegalArgumentException("Partition size must be positive");
+        }
+        this.salesData = salesData;
+        this.table = table;
+        this.pool = pool;
+        this.partitionRows = partitionRows;
+    }
+
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    @Override
+    public long getDataVersion() {
+        return table == null ? 0 : table.version();
+    }
+
+    private SalesReport.Result run(SalesReport report) {
+        return report.run(salesData, pool, partitionRows);
+    }
+
+    @Override
+    public double calculateTotalRevenue() {
+        return run(new SalesReport().totalRevenue()).getTotalRevenue();
+    }
+
+    @Override
+    public double calculateTotalProfit() {
+        return run(new SalesReport().totalProfit()).getTotalProfit();
+    }
+
+    @Override
+    public Map<String, Double> getSalesByCategory() {
+        return run(new SalesReport().salesByCategory()).getSalesByCategory();
+    }
+
+    @Override
+    public Map<String, Double> getProfitByCategory() {
+        return run(new SalesReport().profitByCategory()).getProfitByCategory();
+    }
+
+    @Override
+    public List<Map.Entry<String, Double>> getTopProductsBySales(int offset, int limit) {
+        return run(new SalesReport().topProductsBySales(offset, limit)).getTopProductsBySales();
+    }
+
+    @Override
+    public List<Map.Entry<String, Double>> getTopProductsByProfit(int offset, int limit) {
+        return run(new SalesReport().topProductsByProfit(offset, limit)).getTopProductsByProfit();
+    }
+
+    @Override
+    public double getAverageOrderValue() {
+        return run(new SalesReport().averageOrderValue()).getAverageOrderValue();
+    }
+
+    @Override
+    public Map<String, DoubleSummaryStatistics> getRegionSalesStatistics() {
+        return run(new SalesReport().regionSalesStatistics()).getRegionSalesStatistics();
+    }
+
+    @Override
+    public Map<Month, Double> getMonthlySalesTrend() {
+        return run(new SalesReport().monthlySalesTrend()).getMonthlySalesTrend();
+    }
+
+    @Override
+    public Map<String, Double> getSalesBySegment() {
+        return run(new SalesReport().salesBySegment()).getSalesBySegment();
+    }
+
+    @Override
+    public List<SalesRecord> getUnprofitableProducts() {
+        return run(new SalesReport().unprofitableProducts()).getUnprofitableProducts();
+    }
+
+    @Override
+    public List<SalesRecord> getUnprofitableProducts(int offset, int limit) {
+        return run(new SalesReport().unprofitableProducts(offset, limit)).getUnprofitableProducts();
+    }
+
+    @Override
+    public Map<String, Double> getAverageDiscountByCategory() {
+        return run(new SalesReport().averageDiscountByCategory()).getAverageDiscountByCategory();
+    }
+
+    @Override
+    public Map<String, Integer> getQuantityBySubCategory() {
+        return run(new SalesReport().quantityBySubCategory()).getQuantityBySubCategory();
+    }
+
+    @Override
+    public List<SalesRecord> getHighValueOrders(double threshold) {
+        return run(new SalesReport().highValueOrders(threshold)).getHighValueOrders();
+    }
+
+    @Override
+    public List<SalesRecord> getHighValueOrders(double threshold, int offset, int limit) {
+        return run(new SalesReport().highValueOrders(threshold, offset, limit)).getHighValueOrders();
+    }
+
+    @Override
+    public Map<String, Double> getProfitMarginByCategory() {
+        return run(new SalesReport().profitMarginByCategory()).getProfitMarginByCategory();
+    }
+
+    @Override
+    public List<Map.Entry<String, Double>> getTopStatesBySales(int offset, int limit) {
+        return run(new SalesReport().topStatesBySales(offset, limit)).getTopStatesBySales();
+    }
+
+    @Override
+    public Map<String, Double> getSalesByShipMode() {
+        return run(new SalesReport().salesByShipMode()).getSalesByShipMode();
+    }
+
+    @Override
+    public List<SalesRecord> getOrdersInDateRange(LocalDate startDate, LocalDate endDate) {
+        return run(new SalesReport().ordersInDateRange(startDate, endDate)).getOrdersInDateRange();
+    }
+
+    @Override
+    public Map<String, Double> getCategoryDistributionPercentage() {
+        return run(new SalesReport().categoryDistributionPercentage()).getCategoryDistributionPercentage();
+    }
+
+    @Override
+    public Map<String, Long> getOrderCountByRegion() {
+        return run(new SalesReport().orderCountByRegion()).getOrderCountByRegion();
+    }
+}
@@ -0,0 +1,364 @@
+package com.dataanalysis;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+// Compressed set of row numbers, roaring-style
+// Rows are split by their high 16 bits into chunks of 65536. A chunk holding at most 4096 rows
+// stores them as a sorted char[] (2 bytes a row); a fuller one switches to a 65536-bit word array
+// (8 KB whatever the count). AND and OR then work chunk by chunk, with word-at-a-time loops for
+// dense chunks and merges for sparse ones, so filters over low-cardinality dimensions cost a
+// fraction of a row scan. Rows are non-negative. Adding rows in increasing order is the cheap
+// path; and/or return new bitmaps.
+public final class RowBitmap {
+    private static final int ARRAY_MAX = 4096;
+    private static final int WORDS = 1024;
+
+    private char[] keys = new char[4];
+    private Chunk[] chunks = new Chunk[4];
+    private int size;
+
+    public static RowBitmap of(int... rows) {
+        RowBitmap bitmap = new RowBitmap();
+        for (int row : rows) {
+            bitmap.add(row);
+        }
+        return bitmap;
+    }
+
+    public void add(int row) {
+        if (row < 0) {
+            throw new IllegalArgumentException("Row must not be negative: " + row);
+        }
+        char key = (char) (row >>> 16);
+        int position;
+        // Appending to the last chunk skips the search
+        if (size > 0 && keys[size - 1] == key) {
+            position = size - 1;
+        } else {
+            position = find(key);
+            if (position < 0) {
+                position = -position - 1;
+                insert(position, key, new Chunk(new char[4], 0));
+            }
+        }
+        chunks[position].add((char) row);
+    }
+
+    public boolean contains(int row) {
+        if (row < 0) {
+            return false;
+        }
+        int position = find((char) (row >>> 16));
+        return position >= 0 && chunks[position].contains((char) row);
+    }
+
+    // Number of rows in the set
+    public int cardinality() {
+        int cardinality = 0;
+        for (int i = 0; i < size; i++) {
+            cardinality += chunks[i].cardinality;
+        }
+        return cardinality;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // Largest row in the set, or -1 if it is empty
+    public int last() {
+        if (size == 0) {
+            return -1;
+        }
+        return keys[size - 1] << 16 | chunks[size - 1].last();
+    }
+
+    // Rows in both sets
+    public RowBitmap and(RowBitmap other) {
+        RowBitmap result = new RowBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < size && j < other.size) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                Chunk chunk = chunks[i].and(other.chunks[j]);
+                if (chunk.cardinality > 0) {
+                    result.insert(result.size, keys[i], chunk);
+                }
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    // Rows in either set
+    public RowBitmap or(RowBitmap other) {
+        RowBitmap result = new RowBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < size || j < other.size) {
+            if (j == other.size || i < size && keys[i] < other.keys[j]) {
+                result.insert(result.size, keys[i], chunks[i].copy());
+                i++;
+            } else if (i == size || keys[i] > other.keys[j]) {
+                result.insert(result.size, other.keys[j], other.chunks[j].copy());
+                j++;
+            } else {
+                result.insert(result.size, keys[i], chunks[i].or(other.chunks[j]));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    // Calls action with every row, in increasing order
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < size; i++) {
+            chunks[i].forEach(keys[i] << 16, action);
+        }
+    }
+
+    // Rows in increasing order
+    public int[] toArray() {
+        int[] rows = new int[cardinality()];
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            count = chunks[i].copyTo(keys[i] << 16, rows, count);
+        }
+        return rows;
+    }
+
+    public RowBitmap copy() {
+        RowBitmap copy = new RowBitmap();
+        for (int i = 0; i < size; i++) {
+            copy.insert(i, keys[i], chunks[i].copy());
+        }
+        return copy;
+    }
+
+    @Override
+    public String toString() {
+        return "RowBitmap[cardinality=" + cardinality() + ", chunks=" + size + "]";
+    }
+
+    private int find(char key) {
+        return Arrays.binarySearch(keys, 0, size, key);
+    }
+
+    private void insert(int position, char key, Chunk chunk) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            chunks = Arrays.copyOf(chunks, size * 2);
+        }
+        System.arraycopy(keys, position, keys, position + 1, size - position);
+        System.arraycopy(chunks, position, chunks, position + 1, size - position);
+        keys[position] = key;
+        chunks[position] = chunk;
+        size++;
+    }
+
+    // The low 16 bits of the rows sharing one high half: sorted values while sparse, else words
+    // Invariant: words != null exactly when cardinality > ARRAY_MAX.
+    private static final class Chunk {
+        private char[] values;
+        private long[] words;
+        private int cardinality;
+
+        Chunk(char[] values, int cardinality) {
+            this.values = values;
+            this.cardinality = cardinality;
+        }
+
+        Chunk(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        // Words holding few enough rows go back to a sorted array
+        static Chunk of(long[] words) {
+            int cardinality = 0;
+            for (long word : words) {
+                cardinality += Long.bitCount(word);
+            }
+            if (cardinality > ARRAY_MAX) {
+                return new Chunk(words, cardinality);
+            }
+            char[] values = new char[cardinality];
+            int count = 0;
+            for (int w = 0; w < WORDS; w++) {
+                for (long word = words[w]; word != 0; word &= word - 1) {
+                    values[count++] = (char) (w << 6 | Long.numberOfTrailingZeros(word));
+                }
+            }
+            return new Chunk(values, cardinality);
+        }
+
+        void add(char low) {
+            if (words != null) {
+                long bit = 1L << low;
+                if ((words[low >>> 6] & bit) == 0) {
+                    words[low >>> 6] |= bit;
+                    cardinality++;
+                }
+                return;
+            }
+            int position = cardinality;
+            if (cardinality > 0 && values[cardinality - 1] >= low) {
+                position = Arrays.binarySearch(values, 0, cardinality, low);
+                if (position >= 0) {
+                    return;
+                }
+                position = -position - 1;
+            }
+            if (cardinality == ARRAY_MAX) {
+                words = toWords();
+                values = null;
+                add(low);
+                return;
+            }
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_MAX, cardinality * 2));
+            }
+            System.arraycopy(values, position, values, position + 1, cardinality - position);
+            values[position] = low;
+            cardinality++;
+        }
+
+        boolean contains(char low) {
+            if (words != null) {
+                return (words[low >>> 6] & 1L << low) != 0;
+            }
+            return Arrays.binarySearch(values, 0, cardinality, low) >= 0;
+        }
+
+        int last() {
+            if (words == null) {
+                return values[cardinality - 1];
+            }
+            int w = WORDS - 1;
+            while (words[w] == 0) {
+                w--;
+            }
+            return w << 6 | 63 - Long.numberOfLeadingZeros(words[w]);
+        }
+
+        Chunk and(Chunk other) {
+            if (words != null && other.words != null) {
+                long[] result = new long[WORDS];
+                for (int w = 0; w < WORDS; w++) {
+                    result[w] = words[w] & other.words[w];
+                }
+                return of(result);
+            }
+            if (words != null) {
+                return other.and(this);
+            }
+            // Sparse side drives: test each of its rows against the other
+            char[] result = new char[Math.min(cardinality, other.cardinality)];
+            int count = 0;
+            if (other.words != null) {
+                for (int i = 0; i < cardinality; i++) {
+                    if (other.contains(values[i])) {
+                        result[count++] = values[i];
+                    }
+                }
+            } else {
+                int i = 0;
+                int j = 0;
+                while (i < cardinality && j < other.cardinality) {
+                    if (values[i] < other.values[j]) {
+                        i++;
+                    } else if (values[i] > other.values[j]) {
+                        j++;
+                    } else {
+                        result[count++] = values[i];
+                        i++;
+                        j++;
+                    }
+                }
+            }
+            return new Chunk(result, count);
+        }
+
+        Chunk or(Chunk other) {
+            if (words == null && other.words == null && cardinality + other.cardinality <= ARRAY_MAX) {
+                char[] result = new char[cardinality + other.cardinality];
+                int count = 0;
+                int i = 0;
+                int j = 0;
+                while (i < cardinality || j < other.cardinality) {
+                    if (j == other.cardinality || i < cardinality && values[i] < other.values[j]) {
+                        result[count++] = values[i++];
+                    } else if (i == cardinality || values[i] > other.values[j]) {
+                        result[count++] = other.values[j++];
+                    } else {
+                        result[count++] = values[i];
+                        i++;
+                        j++;
+                    }
+                }
+                return new Chunk(result, count);
+            }
+            long[] result = words != null ? words.clone() : toWords();
+            if (other.words != null) {
+                for (int w = 0; w < WORDS; w++) {
+                    result[w] |= other.words[w];
+                }
+            } else {
+                for (int i = 0; i < other.cardinality; i++) {
+                    result[other.values[i] >>> 6] |= 1L << other.values[i];
+                }
+            }
+            return of(result);
+        }
+
+        void forEach(int base, IntConsumer action) {
+            if (words == null) {
+                for (int i = 0; i < cardinality; i++) {
+                    action.accept(base | values[i]);
+                }
+                return;
+            }
+            for (int w = 0; w < WORDS; w++) {
+                for (long word = words[w]; word != 0; word &= word - 1) {
+                    action.accept(base | w << 6 | Long.numberOfTrailingZeros(word));
+                }
+            }
+        }
+
+        int copyTo(int base, int[] rows, int count) {
+            if (words == null) {
+                for (int i = 0; i < cardinality; i++) {
+                    rows[count++] = base | values[i];
+                }
+                return count;
+            }
+            for (int w = 0; w < WORDS; w++) {
+                for (long word = words[w]; word != 0; word &= word - 1) {
+                    rows[count++] = base | w << 6 | Long.numberOfTrailingZeros(word);
+                }
+            }
+            return count;
+        }
+
+        Chunk copy() {
+            return words != null
+                    ? new Chunk(words.clone(), cardinality)
+                    : new Chunk(Arrays.copyOf(values, Math.max(cardinality, 1)), cardinality);
+        }
+
+        private long[] toWords() {
+            long[] result = new long[WORDS];
+            for (int i = 0; i < cardinality; i++) {
+                result[values[i] >>> 6] |= 1L << values[i];
+            }
+            return result;
+        }
+    }
+}
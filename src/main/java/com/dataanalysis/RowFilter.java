@@ -0,0 +1,23 @@
+package com.dataanalysis;
+
+// Row predicate evaluated on a tokenized CSV line, before any SalesRecord is built
+// Rejected rows cost only the tokenizer scan. A filter that cannot evaluate a row (e.g. its
+// date does not parse) should accept it, so the parser reports it like any malformed line.
+@FunctionalInterface
+public interface RowFilter {
+    RowFilter ALL = (fields, dates) -> true;
+
+    boolean test(CSVTokenizer fields, DateParser dates);
+
+    default RowFilter and(RowFilter other) {
+        return (fields, dates) -> test(fields, dates) && other.test(fields, dates);
+    }
+
+    default RowFilter or(RowFilter other) {
+        return (fields, dates) -> test(fields, dates) || other.test(fields, dates);
+    }
+
+    default RowFilter negate() {
+        return (fields, dates) -> !test(fields, dates);
+    }
+}
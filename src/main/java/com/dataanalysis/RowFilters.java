@@ -0,0 +1,59 @@
+package com.dataanalysis;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+// Factory methods for the RowFilters SalesDataParser can push down into parsing
+// Each filter matches exactly the rows the equivalent SalesRecord check would keep.
+public final class RowFilters {
+
+    private RowFilters() {
+    }
+
+    // Order date within [startDate, endDate], like SalesAnalyzer.getOrdersInDateRange
+    public static RowFilter orderDateBetween(LocalDate startDate, LocalDate endDate) {
+        int column = SalesField.ORDER_DATE.column();
+        return (fields, dates) -> {
+            LocalDate date = fields.isQuoted(column)
+                    ? DateParser.parse(fields.string(column))
+                    : dates.parseCached(fields.bytes(), fields.start(column), fields.end(column));
+            // Unparseable dates pass so the parser reports the line
+            return date == null || (!date.isBefore(startDate) && !date.isAfter(endDate));
+        };
+    }
+
+    // Text field equal to value, compared on the raw bytes
+    public static RowFilter equalTo(SalesField field, String value) {
+        if (field.isNumeric() || field == SalesField.ORDER_DATE) {
+            throw new IllegalArgumentException("Not a text field: " + field);
+        }
+        int column = field.column();
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        return (fields, dates) -> fields.fieldEquals(column, bytes);
+    }
+
+    // Numeric field strictly greater than threshold, like getHighValueOrders for SALES
+    public static RowFilter greaterThan(SalesField field, double threshold) {
+        checkNumeric(field);
+        return (fields, dates) -> value(fields, field) > threshold;
+    }
+
+    // Numeric field strictly less than threshold, like getUnprofitableProducts for PROFIT < 0
+    public static RowFilter lessThan(SalesField field, double threshold) {
+        checkNumeric(field);
+        return (fields, dates) -> value(fields, field) < threshold;
+    }
+
+    private static void checkNumeric(SalesField field) {
+        if (!field.isNumeric()) {
+            throw new IllegalArgumentException("Not a numeric field: " + field);
+        }
+    }
+
+    // Parsed the same way as SalesDataParser, so the filter sees the record's value
+    private static double value(CSVTokenizer fields, SalesField field) {
+        return field == SalesField.QUANTITY
+                ? fields.parseInt(field.column())
+                : fields.parseDouble(field.column());
+    }
+}
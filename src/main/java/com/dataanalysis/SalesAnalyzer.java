@@ -4,6 +4,7 @@ import java.time.LocalDate;
 import java.time.Month;
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 // Performs data analysis on Superstore sales data using Java Streams API
 public class SalesAnalyzer {
@@ -13,6 +14,11 @@ public class SalesAnalyzer {
         this.salesData = salesData;
     }
 
+    // Changes whenever the analyzed data changes; the list given here is treated as fixed
+    public long getDataVersion() {
+        return 0;
+    }
+
     // 1. Calculating total sales revenue
     public double calculateTotalRevenue() {
         return salesData.stream()
@@ -51,31 +57,31 @@ public class SalesAnalyzer {
     
     // 5. Finding top N products by sales
     public List<Map.Entry<String, Double>> getTopProductsBySales(int n) {
-        return salesData.stream()
+        return getTopProductsBySales(0, n);
+    }
+
+    public List<Map.Entry<String, Double>> getTopProductsBySales(int offset, int limit) {
+        Map<String, Double> totals = salesData.stream()
                 .collect(Collectors.groupingBy(
                         SalesRecord::getProductName,
                         Collectors.summingDouble(SalesRecord::getSales)
-                ))
-                .entrySet()
-                .stream()
-                .sorted(Map.Entry.<String, Double>comparingByValue().reversed())
-                .limit(n)
-                .collect(Collectors.toList());
+                ));
+        return page(totals, offset, limit);
     }
 
     
     // 6. Finding top N most profitable products
     public List<Map.Entry<String, Double>> getTopProductsByProfit(int n) {
-        return salesData.stream()
+        return getTopProductsByProfit(0, n);
+    }
+
+    public List<Map.Entry<String, Double>> getTopProductsByProfit(int offset, int limit) {
+        Map<String, Double> totals = salesData.stream()
                 .collect(Collectors.groupingBy(
                         SalesRecord::getProductName,
                         Collectors.summingDouble(SalesRecord::getProfit)
-                ))
-                .entrySet()
-                .stream()
-                .sorted(Map.Entry.<String, Double>comparingByValue().reversed())
-                .limit(n)
-                .collect(Collectors.toList());
+                ));
+        return page(totals, offset, limit);
     }
 
     
@@ -126,6 +132,11 @@ public class SalesAnalyzer {
                 .collect(Collectors.toList());
     }
 
+    public List<SalesRecord> getUnprofitableProducts(int offset, int limit) {
+        return page(salesData.stream().filter(record -> record.getProfit() < 0),
+                Comparator.comparingDouble(SalesRecord::getProfit), offset, limit);
+    }
+
     
     // 12. Calculating discount analysis
     public Map<String, Double> getAverageDiscountByCategory() {
@@ -155,6 +166,11 @@ public class SalesAnalyzer {
                 .collect(Collectors.toList());
     }
 
+    public List<SalesRecord> getHighValueOrders(double threshold, int offset, int limit) {
+        return page(salesData.stream().filter(record -> record.getSales() > threshold),
+                Comparator.comparingDouble(SalesRecord::getSales).reversed(), offset, limit);
+    }
+
     
     // 15. Profit margin by category (profit/sales %)
     public Map<String, Double> getProfitMarginByCategory() {
@@ -171,16 +187,16 @@ public class SalesAnalyzer {
     
     // 16. Top N states by sales
     public List<Map.Entry<String, Double>> getTopStatesBySales(int n) {
-        return salesData.stream()
+        return getTopStatesBySales(0, n);
+    }
+
+    public List<Map.Entry<String, Double>> getTopStatesBySales(int offset, int limit) {
+        Map<String, Double> totals = salesData.stream()
                 .collect(Collectors.groupingBy(
                         SalesRecord::getState,
                         Collectors.summingDouble(SalesRecord::getSales)
-                ))
-                .entrySet()
-                .stream()
-                .sorted(Map.Entry.<String, Double>comparingByValue().reversed())
-                .limit(n)
-                .collect(Collectors.toList());
+                ));
+        return page(totals, offset, limit);
     }
 
     
@@ -207,11 +223,7 @@ public class SalesAnalyzer {
     public Map<String, Double> getCategoryDistributionPercentage() {
         double totalSales = calculateTotalRevenue();
 
-        return salesData.stream()
-                .collect(Collectors.groupingBy(
-                        SalesRecord::getCategory,
-                        Collectors.summingDouble(SalesRecord::getSales)
-                ))
+        return getSalesByCategory()
                 .entrySet()
                 .stream()
                 .collect(Collectors.toMap(
@@ -229,4 +241,14 @@ public class SalesAnalyzer {
                         Collectors.counting()
                 ));
     }
-}
\ No newline at end of file
+
+    // Items [offset, offset + limit) of the ranking, from a bounded heap rather than a full sort;
+    // the paged forms above return this slice of their unpaged lists
+    private static List<Map.Entry<String, Double>> page(Map<String, Double> totals, int offset, int limit) {
+        return TopK.page(totals.entrySet(), Map.Entry.<String, Double>comparingByValue().reversed(), offset, limit);
+    }
+
+    private static List<SalesRecord> page(Stream<SalesRecord> records, Comparator<SalesRecord> order, int offset, int limit) {
+        return TopK.page(records::iterator, order, offset, limit);
+    }
+}
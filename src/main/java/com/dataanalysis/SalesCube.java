@@ -0,0 +1,259 @@
+package com.dataanalysis;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.DoubleSummaryStatistics;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Pre-aggregated data cube: count/sum/min/max of each measure per combination of dimensions
+// Dimensions are region, category, sub-category, segment, ship mode and the order's year-month
+// (ORDER_DATE groups by YearMonth, written like "2016-03"). Measures are sales, profit, quantity
+// and discount. Every row lands in one cell; roll-ups to any subset of the dimensions and slices
+// on dimension values then combine cells, so they cost O(cells) however many rows were added.
+// Cell statistics are combined with DoubleSummaryStatistics.combine, which keeps the compensated
+// sums, so totals agree with a row-by-row sum to rounding, not always to the last bit.
+public final class SalesCube {
+    public static final Set<SalesField> DIMENSIONS = Collections.unmodifiableSet(EnumSet.of(
+            SalesField.REGION, SalesField.CATEGORY, SalesField.SUB_CATEGORY, SalesField.SEGMENT,
+            SalesField.SHIP_MODE, SalesField.ORDER_DATE));
+    public static final Set<SalesField> MEASURES = Collections.unmodifiableSet(EnumSet.of(
+            SalesField.SALES, SalesField.PROFIT, SalesField.QUANTITY, SalesField.DISCOUNT));
+
+    // A cell's key packs one dictionary code per dimension into 10 bits of a long
+    private static final SalesField[] DIMENSION_ORDER = DIMENSIONS.toArray(new SalesField[0]);
+    private static final SalesField[] MEASURE_ORDER = MEASURES.toArray(new SalesField[0]);
+    private static final int CODE_BITS = 10;
+    private static final int MAX_CODES = 1 << CODE_BITS;
+
+    // Per dimension: value (String, or YearMonth for ORDER_DATE) -> code, and code -> label
+    private final List<Map<Object, Integer>> codes = new ArrayList<>();
+    private final List<List<String>> labels = new ArrayList<>();
+    // In first-seen order
+    private final Map<Long, DoubleSummaryStatistics[]> cells = new LinkedHashMap<>();
+    private final boolean slice;
+
+    public SalesCube() {
+        this(false);
+    }
+
+    private SalesCube(boolean slice) {
+        this.slice = slice;
+        for (int d = 0; d < DIMENSION_ORDER.length; d++) {
+            codes.add(new HashMap<>());
+            labels.add(new ArrayList<>());
+        }
+    }
+
+    public static SalesCube from(Iterable<SalesRecord> records) {
+        SalesCube cube = new SalesCube();
+        for (SalesRecord record : records) {
+            cube.add(record);
+        }
+        return cube;
+    }
+
+    public void add(SalesRecord record) {
+        if (slice) {
+            throw new UnsupportedOperationException("A slice is read-only");
+        }
+        // Resolve and check every dimension before interning any value, so a rejected record
+        // leaves no labels behind
+        Object[] values = new Object[DIMENSION_ORDER.length];
+        for (int d = 0; d < values.length; d++) {
+            values[d] = dimensionValue(record, DIMENSION_ORDER[d]);
+            if (labels.get(d).size() == MAX_CODES && !codes.get(d).containsKey(values[d])) {
+                throw new IllegalStateException("More than " + MAX_CODES + " values of " + DIMENSION_ORDER[d]);
+            }
+        }
+        long key = 0;
+        for (int d = 0; d < values.length; d++) {
+            key = key << CODE_BITS | code(d, values[d]);
+        }
+        DoubleSummaryStatistics[] cell = cells.get(key);
+        if (cell == null) {
+            cell = newCell();
+            cells.put(key, cell);
+        }
+        for (int m = 0; m < MEASURE_ORDER.length; m++) {
+            cell[m].accept(measureValue(record, MEASURE_ORDER[m]));
+        }
+    }
+
+    private static double measureValue(SalesRecord record, SalesField measure) {
+        return switch (measure) {
+            case SALES -> record.getSales();
+            case PROFIT -> record.getProfit();
+            case QUANTITY -> record.getQuantity();
+            default -> record.getDiscount();
+        };
+    }
+
+    private static Object dimensionValue(SalesRecord record, SalesField dimension) {
+        Object value = switch (dimension) {
+            case REGION -> record.getRegion();
+            case CATEGORY -> record.getCategory();
+            case SUB_CATEGORY -> record.getSubCategory();
+            case SEGMENT -> record.getSegment();
+            case SHIP_MODE -> record.getShipMode();
+            default -> {
+                LocalDate date = record.getOrderDate();
+                yield date == null ? null : YearMonth.from(date);
+            }
+        };
+        if (value == null) {
+            throw new NullPointerException(dimension + " is null in order " + record.getOrderId());
+        }
+        return value;
+    }
+
+    private int code(int dimension, Object value) {
+        Integer code = codes.get(dimension).get(value);
+        if (code == null) {
+            code = labels.get(dimension).size();
+            codes.get(dimension).put(value, code);
+            labels.get(dimension).add(value.toString());
+        }
+        return code;
+    }
+
+    private static DoubleSummaryStatistics[] newCell() {
+        DoubleSummaryStatistics[] cell = new DoubleSummaryStatistics[MEASURE_ORDER.length];
+        for (int m = 0; m < cell.length; m++) {
+            cell[m] = new DoubleSummaryStatistics();
+        }
+        return cell;
+    }
+
+    // Statistics of measure per combination of the given dimensions' values, keyed by those values
+    // in the order the dimensions were given; no dimensions gives the grand total under List.of()
+    public Map<List<String>, DoubleSummaryStatistics> rollUp(SalesField measure, SalesField... dimensions) {
+        int m = measureIndex(measure);
+        int[] selected = new int[dimensions.length];
+        for (int i = 0; i < dimensions.length; i++) {
+            selected[i] = dimensionIndex(dimensions[i]);
+        }
+
+        Map<Long, DoubleSummaryStatistics> groups = new LinkedHashMap<>();
+        for (Map.Entry<Long, DoubleSummaryStatistics[]> cell : cells.entrySet()) {
+            long groupKey = 0;
+            for (int d : selected) {
+                groupKey = groupKey << CODE_BITS | code(cell.getKey(), d);
+            }
+            groups.computeIfAbsent(groupKey, k -> new DoubleSummaryStatistics()).combine(cell.getValue()[m]);
+        }
+
+        // Groups in first-seen order, as groupingBy would insert them
+        Map<List<String>, DoubleSummaryStatistics> result = new HashMap<>();
+        for (Map.Entry<Long, DoubleSummaryStatistics> group : groups.entrySet()) {
+            String[] values = new String[selected.length];
+            long groupKey = group.getKey();
+            for (int i = selected.length - 1; i >= 0; i--) {
+                values[i] = labels.get(selected[i]).get((int) (groupKey & MAX_CODES - 1));
+                groupKey >>>= CODE_BITS;
+            }
+            result.put(List.of(values), group.getValue());
+        }
+        return result;
+    }
+
+    // Sum of measure per value of one dimension, e.g. sums(SALES, CATEGORY) for sales by category
+    public Map<String, Double> sums(SalesField measure, SalesField dimension) {
+        Map<String, Double> result = new HashMap<>();
+        for (Map.Entry<List<String>, DoubleSummaryStatistics> group : rollUp(measure, dimension).entrySet()) {
+            result.put(group.getKey().get(0), group.getValue().getSum());
+        }
+        return result;
+    }
+
+    public DoubleSummaryStatistics total(SalesField measure) {
+        DoubleSummaryStatistics total = rollUp(measure).get(List.of());
+        return total == null ? new DoubleSummaryStatistics() : total;
+    }
+
+    // Cube of the cells whose dimension holds any of values; read-only
+    public SalesCube slice(SalesField dimension, String... values) {
+        int d = dimensionIndex(dimension);
+        Set<Integer> kept = new HashSet<>();
+        for (String value : values) {
+            Integer code = codes.get(d).get(dimension == SalesField.ORDER_DATE ? yearMonth(value) : value);
+            if (code != null) {
+                kept.add(code);
+            }
+        }
+
+        SalesCube result = new SalesCube(true);
+        for (int i = 0; i < DIMENSION_ORDER.length; i++) {
+            result.codes.get(i).putAll(codes.get(i));
+            result.labels.get(i).addAll(labels.get(i));
+        }
+        for (Map.Entry<Long, DoubleSummaryStatistics[]> cell : cells.entrySet()) {
+            if (kept.contains(code(cell.getKey(), d))) {
+                DoubleSummaryStatistics[] copy = newCell();
+                for (int m = 0; m < copy.length; m++) {
+                    copy[m].combine(cell.getValue()[m]);
+                }
+                result.cells.put(cell.getKey(), copy);
+            }
+        }
+        return result;
+    }
+
+    // Distinct values of dimension, in first-seen order
+    public List<String> values(SalesField dimension) {
+        return Collections.unmodifiableList(labels.get(dimensionIndex(dimension)));
+    }
+
+    // Number of non-empty cells
+    public int cells() {
+        return cells.size();
+    }
+
+    // Number of rows aggregated
+    public long rows() {
+        return total(SalesField.SALES).getCount();
+    }
+
+    @Override
+    public String toString() {
+        return "SalesCube[cells=" + cells() + ", rows=" + rows() + "]";
+    }
+
+    private static YearMonth yearMonth(String value) {
+        try {
+            return YearMonth.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Not a year-month like 2016-03: " + value, e);
+        }
+    }
+
+    private static int code(long cellKey, int dimension) {
+        int shift = (DIMENSION_ORDER.length - 1 - dimension) * CODE_BITS;
+        return (int) (cellKey >>> shift & MAX_CODES - 1);
+    }
+
+    private static int dimensionIndex(SalesField dimension) {
+        int index = Arrays.asList(DIMENSION_ORDER).indexOf(dimension);
+        if (index < 0) {
+            throw new IllegalArgumentException("Not a cube dimension: " + dimension);
+        }
+        return index;
+    }
+
+    private static int measureIndex(SalesField measure) {
+        int index = Arrays.asList(MEASURE_ORDER).indexOf(measure);
+        if (index < 0) {
+            throw new IllegalArgumentException("Not a cube measure: " + measure);
+        }
+        return index;
+    }
+}
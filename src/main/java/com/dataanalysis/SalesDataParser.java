@@ -1,76 +1,115 @@
 package com.dataanalysis;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 // Parsing Superstore CSV file
 public class SalesDataParser {
-    private static final DateTimeFormatter[] DATE_FORMATTERS = {
-            DateTimeFormatter.ofPattern("M/d/yyyy"),
-            DateTimeFormatter.ofPattern("yyyy-MM-dd"),
-            DateTimeFormatter.ofPattern("MM/dd/yyyy")
-    };
+    // Columns in a Superstore row; parseFields never needs to look past the last one
+    static final int FIELD_COUNT = 21;
 
     public static List<SalesRecord> parseCSV(String filePath) throws IOException {
         List<SalesRecord> records = new ArrayList<>();
+        forEachRecord(filePath, records::add);
 
-        try (BufferedReader br = new BufferedReader(new FileReader(filePath))) {
-            String line;
-            boolean isFirstLine = true;
-            int lineNumber = 0;
-
-            while ((line = br.readLine()) != null) {
-                lineNumber++;
-
-                // Skip header line
-                if (isFirstLine) {
-                    isFirstLine = false;
-                    System.out.println("Header: " + line);
-                    continue;
-                }
-
-                // Skip empty lines
-                if (line.trim().isEmpty()) {
-                    continue;
-                }
-
-                try {
-                    SalesRecord record = parseLine(line);
-                    records.add(record);
-                } catch (Exception e) {
-                    System.err.println("Error parsing line " + lineNumber + ": " + line);
-                    System.err.println("Error: " + e.getMessage());
-                }
-            }
-        }
+        System.out.println("Successfully parsed " + records.size() + " records");
+        return records;
+    }
+
+    // Parses only the given fields; the rest are null, or 0 for numbers
+    // Skipped columns are never decoded, so narrow queries parse several times faster
+    public static List<SalesRecord> parseCSV(String filePath, Set<SalesField> projection) throws IOException {
+        return parseCSV(filePath, projection, RowFilter.ALL);
+    }
+
+    // Keeps only the rows matching filter, which is checked before a SalesRecord is built
+    public static List<SalesRecord> parseCSV(String filePath, RowFilter filter) throws IOException {
+        return parseCSV(filePath, SalesField.ALL, filter);
+    }
+
+    public static List<SalesRecord> parseCSV(String filePath, Set<SalesField> projection, RowFilter filter)
+            throws IOException {
+        List<SalesRecord> records = new ArrayList<>();
+        forEachRecord(filePath, projection, filter, records::add);
 
         System.out.println("Successfully parsed " + records.size() + " records");
         return records;
     }
 
-    private static SalesRecord parseLine(String line) {
+    // Lazily parses the file; close the stream (e.g. try-with-resources) to release the file handle
+    public static Stream<SalesRecord> stream(String filePath) throws IOException {
+        return stream(filePath, SalesField.ALL);
+    }
+
+    public static Stream<SalesRecord> stream(String filePath, Set<SalesField> projection) throws IOException {
+        return stream(filePath, projection, RowFilter.ALL);
+    }
+
+    public static Stream<SalesRecord> stream(String filePath, Set<SalesField> projection, RowFilter filter)
+            throws IOException {
+        SalesRecordReader reader = new SalesRecordReader(filePath, projection, filter);
+        return StreamSupport.stream(
+                        Spliterators.spliteratorUnknownSize(reader, Spliterator.ORDERED | Spliterator.NONNULL),
+                        false)
+                .onClose(reader::close);
+    }
+
+    // Pushes each record to action as it is parsed; returns the number of records
+    public static long forEachRecord(String filePath, Consumer<SalesRecord> action) throws IOException {
+        return forEachRecord(filePath, SalesField.ALL, action);
+    }
+
+    public static long forEachRecord(String filePath, Set<SalesField> projection, Consumer<SalesRecord> action)
+            throws IOException {
+        return forEachRecord(filePath, projection, RowFilter.ALL, action);
+    }
+
+    public static long forEachRecord(String filePath, Set<SalesField> projection, RowFilter filter,
+                                     Consumer<SalesRecord> action) throws IOException {
+        long count = 0;
+        try (SalesRecordReader reader = new SalesRecordReader(filePath, projection, filter)) {
+            while (reader.hasNext()) {
+                action.accept(reader.next());
+                count++;
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return count;
+    }
+
+    static void reportError(String line, int lineNumber, Exception e) {
+        System.err.println("Error parsing line " + lineNumber + ": " + line);
+        System.err.println("Error: " + e.getMessage());
+    }
+
+    // Low-cardinality columns are canonicalized through the parse's dictionaries
+    static SalesRecord parseLine(String line, SalesDictionaries dictionaries) {
         List<String> fields = parseCSVLine(line);
 
-        if (fields.size() < 21) {
+        if (fields.size() < FIELD_COUNT) {
             throw new IllegalArgumentException("Invalid number of fields: " + fields.size());
         }
 
         String orderId = fields.get(1);
         LocalDate orderDate = parseDate(fields.get(2));
-        String shipMode = fields.get(4);
-        String segment = fields.get(7);
-        String country = fields.get(8);
-        String city = fields.get(9);
-        String state = fields.get(10);
-        String region = fields.get(12);
-        String category = fields.get(14);
-        String subCategory = fields.get(15);
+        String shipMode = dictionaries.canonical(SalesField.SHIP_MODE, fields.get(4));
+        String segment = dictionaries.canonical(SalesField.SEGMENT, fields.get(7));
+        String country = dictionaries.canonical(SalesField.COUNTRY, fields.get(8));
+        String city = dictionaries.canonical(SalesField.CITY, fields.get(9));
+        String state = dictionaries.canonical(SalesField.STATE, fields.get(10));
+        String region = dictionaries.canonical(SalesField.REGION, fields.get(12));
+        String category = dictionaries.canonical(SalesField.CATEGORY, fields.get(14));
+        String subCategory = dictionaries.canonical(SalesField.SUB_CATEGORY, fields.get(15));
         String productName = fields.get(16);
         double sales = parseDouble(fields.get(17));
         int quantity = parseInt(fields.get(18));
@@ -82,8 +121,66 @@ public class SalesDataParser {
                 productName, sales, quantity, discount, profit);
     }
 
+    // Same as parseLine, but reads the fields straight from a tokenized line's bytes
+    // Only the 15 columns SalesRecord keeps are decoded; numbers never become Strings
+    static SalesRecord parseFields(CSVTokenizer fields, DateParser dates, SalesDictionaries dictionaries) {
+        return parseFields(fields, dates, dictionaries, SalesField.ALL);
+    }
+
+    // Decodes only the projected columns; the others are left null (or 0 for numbers)
+    // The order date is always parsed, since it is the one column that can reject a row, so a
+    // projection keeps exactly the rows a full parse keeps. The date cache makes that cheap.
+    static SalesRecord parseFields(CSVTokenizer fields, DateParser dates, SalesDictionaries dictionaries,
+                                   Set<SalesField> projection) {
+        if (fields.fieldCount() < FIELD_COUNT) {
+            throw new IllegalArgumentException("Invalid number of fields: " + fields.fieldCount());
+        }
+
+        String orderId = string(fields, dictionaries, projection, SalesField.ORDER_ID);
+        LocalDate parsedDate = parseDate(fields, SalesField.ORDER_DATE.column(), dates);
+        LocalDate orderDate = projection.contains(SalesField.ORDER_DATE) ? parsedDate : null;
+        String shipMode = string(fields, dictionaries, projection, SalesField.SHIP_MODE);
+        String segment = string(fields, dictionaries, projection, SalesField.SEGMENT);
+        String country = string(fields, dictionaries, projection, SalesField.COUNTRY);
+        String city = string(fields, dictionaries, projection, SalesField.CITY);
+        String state = string(fields, dictionaries, projection, SalesField.STATE);
+        String region = string(fields, dictionaries, projection, SalesField.REGION);
+        String category = string(fields, dictionaries, projection, SalesField.CATEGORY);
+        String subCategory = string(fields, dictionaries, projection, SalesField.SUB_CATEGORY);
+        String productName = string(fields, dictionaries, projection, SalesField.PRODUCT_NAME);
+        double sales = number(fields, projection, SalesField.SALES);
+        int quantity = projection.contains(SalesField.QUANTITY)
+                ? fields.parseInt(SalesField.QUANTITY.column()) : 0;
+        double discount = number(fields, projection, SalesField.DISCOUNT);
+        double profit = number(fields, projection, SalesField.PROFIT);
+
+        return new SalesRecord(orderId, orderDate, shipMode, segment, country,
+                city, state, region, category, subCategory,
+                productName, sales, quantity, discount, profit);
+    }
+
+    private static String string(CSVTokenizer fields, SalesDictionaries dictionaries, Set<SalesField> projection,
+                                 SalesField field) {
+        if (!projection.contains(field)) {
+            return null;
+        }
+        // Low-cardinality columns resolve to their shared instance without decoding
+        ColumnDictionary dictionary = dictionaries.forField(field);
+        if (dictionary != null) {
+            int code = fields.intern(field.column(), dictionary);
+            if (code >= 0) {
+                return dictionary.value(code);
+            }
+        }
+        return fields.string(field.column());
+    }
+
+    private static double number(CSVTokenizer fields, Set<SalesField> projection, SalesField field) {
+        return projection.contains(field) ? fields.parseDouble(field.column()) : 0.0;
+    }
+
     // Parsing CSV line handling quoted fields
-    private static List<String> parseCSVLine(String line) {
+    static List<String> parseCSVLine(String line) {
         List<String> fields = new ArrayList<>();
         StringBuilder currentField = new StringBuilder();
         boolean inQuotes = false;
@@ -106,14 +203,23 @@ public class SalesDataParser {
     }
 
     private static LocalDate parseDate(String dateStr) {
-        for (DateTimeFormatter formatter : DATE_FORMATTERS) {
-            try {
-                return LocalDate.parse(dateStr, formatter);
-            } catch (DateTimeParseException e) {
-                // Try next formatter
-            }
+        LocalDate date = DateParser.parse(dateStr);
+        if (date == null) {
+            throw new IllegalArgumentException("Unable to parse date: " + dateStr);
+        }
+        return date;
+    }
+
+    // Dates are parsed from the bytes through the cache; quoted dates are rare enough to decode
+    private static LocalDate parseDate(CSVTokenizer fields, int field, DateParser dates) {
+        if (fields.isQuoted(field)) {
+            return parseDate(fields.string(field));
+        }
+        LocalDate date = dates.parseCached(fields.bytes(), fields.start(field), fields.end(field));
+        if (date == null) {
+            throw new IllegalArgumentException("Unable to parse date: " + fields.string(field));
         }
-        throw new IllegalArgumentException("Unable to parse date: " + dateStr);
+        return date;
     }
 
     private static double parseDouble(String str) {
@@ -0,0 +1,42 @@
+package com.dataanalysis;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+// Dictionaries for the low-cardinality SalesRecord columns, one set per parse
+// A parser creates a set for each file it reads, so every record of that parse holding e.g.
+// "Second Class" or "West" points to the same String instance instead of its own copy.
+// Separate parses never share values or the per-column size limit, and the dictionaries are
+// collected along with the parser. The dictionaries are thread-safe, so parallel parsers of
+// one file share a single set.
+public final class SalesDictionaries {
+    private static final Set<SalesField> ENCODED = Collections.unmodifiableSet(EnumSet.of(
+            SalesField.SHIP_MODE, SalesField.SEGMENT, SalesField.COUNTRY, SalesField.CITY,
+            SalesField.STATE, SalesField.REGION, SalesField.CATEGORY, SalesField.SUB_CATEGORY));
+
+    private final Map<SalesField, ColumnDictionary> dictionaries = new EnumMap<>(SalesField.class);
+
+    public SalesDictionaries() {
+        for (SalesField field : ENCODED) {
+            dictionaries.put(field, new ColumnDictionary(field.name()));
+        }
+    }
+
+    public static Set<SalesField> encodedFields() {
+        return ENCODED;
+    }
+
+    // Dictionary for field, or null if the field is not dictionary-encoded
+    public ColumnDictionary forField(SalesField field) {
+        return dictionaries.get(field);
+    }
+
+    // Canonical instance of value for field; values of other fields are returned unchanged
+    public String canonical(SalesField field, String value) {
+        ColumnDictionary dictionary = dictionaries.get(field);
+        return dictionary == null || value == null ? value : dictionary.canonical(value);
+    }
+}
@@ -0,0 +1,42 @@
+package com.dataanalysis;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+// The SalesRecord fields and the Superstore CSV column each one is read from
+// Pass a set of these to SalesDataParser to parse only the columns a query needs.
+public enum SalesField {
+    ORDER_ID(1),
+    ORDER_DATE(2),
+    SHIP_MODE(4),
+    SEGMENT(7),
+    COUNTRY(8),
+    CITY(9),
+    STATE(10),
+    REGION(12),
+    CATEGORY(14),
+    SUB_CATEGORY(15),
+    PRODUCT_NAME(16),
+    SALES(17),
+    QUANTITY(18),
+    DISCOUNT(19),
+    PROFIT(20);
+
+    public static final Set<SalesField> ALL = Collections.unmodifiableSet(EnumSet.allOf(SalesField.class));
+
+    private final int column;
+
+    SalesField(int column) {
+        this.column = column;
+    }
+
+    // Zero-based index of the CSV column
+    public int column() {
+        return column;
+    }
+
+    public boolean isNumeric() {
+        return this == SALES || this == QUANTITY || this == DISCOUNT || this == PROFIT;
+    }
+}
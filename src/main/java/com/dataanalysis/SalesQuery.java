@@ -0,0 +1,775 @@
+package com.dataanalysis;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.IntPredicate;
+
+// Ad-hoc group-by query over a SalesTable: dimensions, aggregates, filters, order and limit
+// Register the parts, then run, e.g. the five western states with the most technology sales:
+//   new SalesQuery().groupBy(SalesField.STATE).where(SalesField.REGION, "West")
+//           .where(SalesField.CATEGORY, "Technology").sum(SalesField.SALES).count()
+//           .orderBy(0, true).limit(5).run(table)
+// Execution stays on primitives. Groups are looked up by their dictionary codes, in a dense array
+// when the code combinations are few and an open-addressing long map otherwise, and each aggregate
+// keeps its state in per-group arrays, so nothing is boxed per row. Text filters resolve through
+// the table's bitmap indexes and the date filter through its date index before any row is read.
+// Sums and averages use DoubleSummaryStatistics' compensated summation and groups are numbered in
+// first-seen order, so a one-dimension sum equals the groupingBy/summingDouble result exactly.
+// The engine runs over a SalesTable's columns, so only ColumnarSalesAnalyzer is built on it; the
+// list-based SalesAnalyzer (and its incremental and parallel subclasses) keep their own group-bys
+// rather than copy their records into a table on every call.
+public class SalesQuery {
+    // Code combinations up to this many get a dense group array instead of a hash map
+    private static final int DENSE_GROUPS = 1 << 16;
+    private static final int BATCH_ROWS = 1024;
+
+    private final List<SalesField> dimensions = new ArrayList<>();
+    private final List<Aggregate> aggregates = new ArrayList<>();
+    private final List<SalesField> textFilterFields = new ArrayList<>();
+    private final List<String[]> textFilterValues = new ArrayList<>();
+    private final List<NumericFilter> numericFilters = new ArrayList<>();
+    private LocalDate rangeStart;
+    private LocalDate rangeEnd;
+    private int orderBy = -1;
+    private boolean descending;
+    private int offset;
+    private int limit = Integer.MAX_VALUE;
+
+    enum Function {
+        SUM, AVG, COUNT, MIN, MAX, STDDEV, PERCENTILE
+    }
+
+    // Groups by the text fields' values; ORDER_DATE groups by the order's Month
+    public SalesQuery groupBy(SalesField... fields) {
+        for (SalesField field : fields) {
+            if (field.isNumeric()) {
+                throw new IllegalArgumentException("Cannot group by a numeric field: " + field);
+            }
+            dimensions.add(field);
+        }
+        return this;
+    }
+
+    public SalesQuery sum(SalesField field) {
+        return add(Function.SUM, field, 0);
+    }
+
+    public SalesQuery avg(SalesField field) {
+        return add(Function.AVG, field, 0);
+    }
+
+    public SalesQuery count() {
+        return add(Function.COUNT, null, 0);
+    }
+
+    public SalesQuery min(SalesField field) {
+        return add(Function.MIN, field, 0);
+    }
+
+    public SalesQuery max(SalesField field) {
+        return add(Function.MAX, field, 0);
+    }
+
+    // Sample standard deviation; NaN for a group of one row
+    public SalesQuery stddev(SalesField field) {
+        return add(Function.STDDEV, field, 0);
+    }
+
+    // Linearly interpolated percentile, 0-100 (50 is the median); keeps each group's values
+    public SalesQuery percentile(SalesField field, double percent) {
+        if (!(percent >= 0 && percent <= 100)) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100: " + percent);
+        }
+        return add(Function.PERCENTILE, field, percent);
+    }
+
+    private SalesQuery add(Function function, SalesField field, double percent) {
+        if (field != null && !field.isNumeric()) {
+            throw new IllegalArgumentException("Not a numeric field: " + field);
+        }
+        aggregates.add(new Aggregate(function, field, percent));
+        return this;
+    }
+
+    // Rows whose text field holds any of values; several where calls must all hold
+    public SalesQuery where(SalesField field, String... values) {
+        if (field.isNumeric() || field == SalesField.ORDER_DATE) {
+            throw new IllegalArgumentException("Not a text field: " + field);
+        }
+        textFilterFields.add(field);
+        textFilterValues.add(values.clone());
+        return this;
+    }
+
+    public SalesQuery whereGreaterThan(SalesField field, double threshold) {
+        return addNumericFilter(field, threshold, true);
+    }
+
+    public SalesQuery whereLessThan(SalesField field, double threshold) {
+        return addNumericFilter(field, threshold, false);
+    }
+
+    private SalesQuery addNumericFilter(SalesField field, double threshold, boolean greater) {
+        if (!field.isNumeric()) {
+            throw new IllegalArgumentException("Not a numeric field: " + field);
+        }
+        numericFilters.add(new NumericFilter(field, threshold, greater));
+        return this;
+    }
+
+    // Order date within [startDate, endDate]; rows without a date never match
+    public SalesQuery whereOrderDateBetween(LocalDate startDate, LocalDate endDate) {
+        Objects.requireNonNull(startDate, "Start date is null");
+        Objects.requireNonNull(endDate, "End date is null");
+        if (startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("Start date " + startDate + " is after end date " + endDate);
+        }
+        rangeStart = startDate;
+        rangeEnd = endDate;
+        return this;
+    }
+
+    // Sorts groups by the aggregate registered at that position; ties keep first-seen order
+    public SalesQuery orderBy(int aggregate, boolean descending) {
+        this.orderBy = aggregate;
+        this.descending = descending;
+        return this;
+    }
+
+    public SalesQuery limit(int limit) {
+        return limit(0, limit);
+    }
+
+    public SalesQuery limit(int offset, int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("Offset and limit must not be negative: " + offset + ", " + limit);
+        }
+        this.offset = offset;
+        this.limit = limit;
+        return this;
+    }
+
+    public Result run(Iterable<SalesRecord> records) {
+        SalesTable table = new SalesTable();
+        for (SalesRecord record : records) {
+            table.add(record);
+        }
+        return run(table);
+    }
+
+    // A query without dimensions returns one row, or none when no row matches
+    public Result run(SalesTable table) {
+        if (orderBy >= aggregates.size()) {
+            throw new IllegalStateException("No aggregate " + orderBy + " to order by");
+        }
+        int[] rows = candidateRows(table);
+        int candidates = rows == null ? table.size() : rows.length;
+        IntPredicate filter = numericFilter(table);
+
+        int[][] codes = new int[dimensions.size()][];
+        int[] cardinalities = new int[codes.length];
+        for (int d = 0; d < codes.length; d++) {
+            if (dimensions.get(d) == SalesField.ORDER_DATE) {
+                codes[d] = monthCodes(table);
+                cardinalities[d] = 12;
+            } else {
+                SalesTable.StringColumn column = table.column(dimensions.get(d));
+                codes[d] = column.codes();
+                cardinalities[d] = column.cardinality();
+            }
+        }
+        Groups groups = new Groups(codes, cardinalities);
+        AggregateState[] states = new AggregateState[aggregates.size()];
+        for (int a = 0; a < states.length; a++) {
+            states[a] = aggregates.get(a).newState(table);
+        }
+
+        // A batch of rows at a time: select, find their groups, then let each aggregate fold in
+        // the whole batch in its own loop, so every loop is short, monomorphic and unboxed
+        int[] batchRows = new int[Math.min(BATCH_ROWS, Math.max(1, candidates))];
+        int[] batchGroups = new int[batchRows.length];
+        double[] batchValues = new double[batchRows.length];
+        int next = 0;
+        while (next < candidates) {
+            int batched = 0;
+            while (batched < batchRows.length && next < candidates) {
+                int row = rows == null ? next : rows[next];
+                next++;
+                if (filter == null || filter.test(row)) {
+                    batchRows[batched++] = row;
+                }
+            }
+            groups.assign(batchRows, batched, batchGroups);
+            for (AggregateState state : states) {
+                state.grow(groups.size);
+                state.accept(batchRows, batchGroups, batchValues, batched);
+            }
+        }
+        return result(table, codes, states, groups);
+    }
+
+    private Result result(SalesTable table, int[][] codes, AggregateState[] states, Groups found) {
+        int groups = found.size;
+        long[] counts = found.counts;
+        int[] firstRows = found.firstRows;
+        double[][] values = new double[states.length][groups];
+        for (int a = 0; a < states.length; a++) {
+            for (int group = 0; group < groups; group++) {
+                values[a][group] = states[a].result(group, counts[group]);
+            }
+        }
+
+        List<Integer> order = new ArrayList<>(groups);
+        for (int group = 0; group < groups; group++) {
+            order.add(group);
+        }
+        if (orderBy >= 0) {
+            double[] key = values[orderBy];
+            Comparator<Integer> byValue = (a, b) -> Double.compare(key[a], key[b]);
+            order = TopK.page(order, descending ? byValue.reversed() : byValue, offset, limit);
+        } else {
+            int from = Math.min(offset, groups);
+            order = order.subList(from, (int) Math.min(groups, (long) from + limit));
+        }
+
+        List<List<String>> keys = new ArrayList<>(order.size());
+        double[][] selected = new double[states.length][order.size()];
+        long[] selectedCounts = new long[order.size()];
+        for (int i = 0; i < order.size(); i++) {
+            int group = order.get(i);
+            String[] key = new String[codes.length];
+            for (int d = 0; d < codes.length; d++) {
+                int code = codes[d][firstRows[group]];
+                key[d] = dimensions.get(d) == SalesField.ORDER_DATE
+                        ? Month.of(code + 1).toString()
+                        : table.column(dimensions.get(d)).valueOf(code);
+            }
+            keys.add(List.of(key));
+            for (int a = 0; a < states.length; a++) {
+                selected[a][i] = values[a][group];
+            }
+            selectedCounts[i] = counts[group];
+        }
+        return new Result(keys, selected, selectedCounts);
+    }
+
+    // Rows left by the indexed filters, in row order; null when there are none
+    private int[] candidateRows(SalesTable table) {
+        RowBitmap selected = null;
+        for (int i = 0; i < textFilterFields.size(); i++) {
+            RowBitmap matches = table.rowsWhere(textFilterFields.get(i), textFilterValues.get(i));
+            selected = selected == null ? matches : selected.and(matches);
+        }
+        if (rangeStart != null) {
+            RowBitmap dated = RowBitmap.of(table.dateIndex().rowsBetween(rangeStart, rangeEnd));
+            selected = selected == null ? dated : selected.and(dated);
+        }
+        return selected == null ? null : selected.toArray();
+    }
+
+    private IntPredicate numericFilter(SalesTable table) {
+        IntPredicate combined = null;
+        for (NumericFilter filter : numericFilters) {
+            IntPredicate predicate = filter.bind(table);
+            combined = combined == null ? predicate : combined.and(predicate);
+        }
+        return combined;
+    }
+
+    // Month - 1 per row, -1 without a date
+    private static int[] monthCodes(SalesTable table) {
+        byte[] monthOfRow = table.dateIndex().monthOfRow();
+        int[] codes = new int[table.size()];
+        for (int row = 0; row < codes.length; row++) {
+            codes[row] = monthOfRow[row] - 1;
+        }
+        return codes;
+    }
+
+    private static final class NumericFilter {
+        final SalesField field;
+        final double threshold;
+        final boolean greater;
+
+        NumericFilter(SalesField field, double threshold, boolean greater) {
+            this.field = field;
+            this.threshold = threshold;
+            this.greater = greater;
+        }
+
+        IntPredicate bind(SalesTable table) {
+            if (field == SalesField.QUANTITY) {
+                int[] quantity = table.quantityColumn();
+                return greater ? row -> quantity[row] > threshold : row -> quantity[row] < threshold;
+            }
+            double[] column = doubleColumn(table, field);
+            return greater ? row -> column[row] > threshold : row -> column[row] < threshold;
+        }
+    }
+
+    private static double[] doubleColumn(SalesTable table, SalesField field) {
+        return switch (field) {
+            case SALES -> table.salesColumn();
+            case PROFIT -> table.profitColumn();
+            default -> table.discountColumn();
+        };
+    }
+
+    private static final class Aggregate {
+        final Function function;
+        final SalesField field;
+        final double percent;
+
+        Aggregate(Function function, SalesField field, double percent) {
+            this.function = function;
+            this.field = field;
+            this.percent = percent;
+        }
+
+        AggregateState newState(SalesTable table) {
+            if (function == Function.COUNT) {
+                return new CountState();
+            }
+            int[] ints = field == SalesField.QUANTITY ? table.quantityColumn() : null;
+            double[] doubles = ints == null ? doubleColumn(table, field) : null;
+            return switch (function) {
+                case SUM -> new SumState(ints, doubles, false);
+                case AVG -> new SumState(ints, doubles, true);
+                case MIN -> new ExtremeState(ints, doubles, false);
+                case MAX -> new ExtremeState(ints, doubles, true);
+                case STDDEV -> new StddevState(ints, doubles);
+                default -> new PercentileState(ints, doubles, percent);
+            };
+        }
+    }
+
+    // Group numbers by dimension codes, handed out in first-seen order, with each group's row count
+    // and first row (for its key); keys are mixed-radix numbers over the dimensions' cardinalities
+    private static final class Groups {
+        private final int[][] codes;
+        private final int[] cardinalities;
+        // Group + 1 by key when the keys are few, 0 until the key is seen; else the hash map
+        private final int[] dense;
+        private final GroupMap map;
+        long[] counts = new long[16];
+        int[] firstRows = new int[16];
+        int size;
+
+        Groups(int[][] codes, int[] cardinalities) {
+            this.codes = codes;
+            this.cardinalities = cardinalities;
+            long combinations = 1;
+            for (int cardinality : cardinalities) {
+                combinations = Math.multiplyExact(combinations, Math.max(1, cardinality));
+            }
+            dense = combinations <= DENSE_GROUPS ? new int[(int) combinations] : null;
+            map = dense == null ? new GroupMap() : null;
+        }
+
+        void assign(int[] rows, int count, int[] groups) {
+            if (codes.length == 1 && dense != null) {
+                // The common single-dimension case: the code is the key
+                int[] column = codes[0];
+                for (int i = 0; i < count; i++) {
+                    int code = column[rows[i]];
+                    if (code < 0) {
+                        throw new NullPointerException("element cannot be mapped to a null key");
+                    }
+                    int group = dense[code] - 1;
+                    if (group < 0) {
+                        group = add(rows[i]);
+                        dense[code] = group + 1;
+                    }
+                    counts[group]++;
+                    groups[i] = group;
+                }
+                return;
+            }
+            for (int i = 0; i < count; i++) {
+                int row = rows[i];
+                long key = 0;
+                for (int d = 0; d < codes.length; d++) {
+                    int code = codes[d][row];
+                    if (code < 0) {
+                        throw new NullPointerException("element cannot be mapped to a null key");
+                    }
+                    key = key * cardinalities[d] + code;
+                }
+                int group;
+                if (dense != null) {
+                    group = dense[(int) key] - 1;
+                    if (group < 0) {
+                        group = add(row);
+                        dense[(int) key] = group + 1;
+                    }
+                } else {
+                    group = map.find(key, size);
+                    if (group == size) {
+                        add(row);
+                    }
+                }
+                counts[group]++;
+                groups[i] = group;
+            }
+        }
+
+        private int add(int firstRow) {
+            if (size == counts.length) {
+                counts = Arrays.copyOf(counts, size * 2);
+                firstRows = Arrays.copyOf(firstRows, size * 2);
+            }
+            firstRows[size] = firstRow;
+            return size++;
+        }
+    }
+
+    // Group key -> group number, by open addressing with linear probing, kept at most half full
+    private static final class GroupMap {
+        private long[] keys = new long[64];
+        // Group + 1; 0 marks an empty slot
+        private int[] groups = new int[64];
+        private int size;
+
+        // The key's group, or next (now assigned to the key) if the key is new
+        int find(long key, int next) {
+            int mask = keys.length - 1;
+            int slot = slot(key, mask);
+            while (groups[slot] != 0) {
+                if (keys[slot] == key) {
+                    return groups[slot] - 1;
+                }
+                slot = slot + 1 & mask;
+            }
+            keys[slot] = key;
+            groups[slot] = next + 1;
+            if (++size * 2 > keys.length) {
+                resize();
+            }
+            return next;
+        }
+
+        private static int slot(long key, int mask) {
+            long hash = key * 0x9E3779B97F4A7C15L;
+            return (int) (hash ^ hash >>> 32) & mask;
+        }
+
+        private void resize() {
+            long[] oldKeys = keys;
+            int[] oldGroups = groups;
+            keys = new long[oldKeys.length * 2];
+            groups = new int[oldGroups.length * 2];
+            int mask = keys.length - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldGroups[i] != 0) {
+                    int slot = slot(oldKeys[i], mask);
+                    while (groups[slot] != 0) {
+                        slot = slot + 1 & mask;
+                    }
+                    keys[slot] = oldKeys[i];
+                    groups[slot] = oldGroups[i];
+                }
+            }
+        }
+    }
+
+    // Per-group state of one aggregate, in arrays indexed by group number
+    private abstract static class AggregateState {
+        // Exactly one of these is set: QUANTITY is an int column, the other measures double
+        private final int[] ints;
+        private final double[] doubles;
+
+        private int capacity;
+
+        AggregateState(int[] ints, double[] doubles) {
+            this.ints = ints;
+            this.doubles = doubles;
+        }
+
+        // Makes room for groups [0, groups)
+        final void grow(int groups) {
+            if (groups > capacity) {
+                capacity = Math.max(groups, Math.max(16, capacity * 2));
+                resize(capacity);
+            }
+        }
+
+        // Folds in rows[0, count), which belong to groups[0, count); values is scratch space
+        final void accept(int[] rows, int[] groups, double[] values, int count) {
+            if (ints != null) {
+                for (int i = 0; i < count; i++) {
+                    values[i] = ints[rows[i]];
+                }
+            } else if (doubles != null) {
+                for (int i = 0; i < count; i++) {
+                    values[i] = doubles[rows[i]];
+                }
+            }
+            accept(groups, values, count);
+        }
+
+        abstract void resize(int capacity);
+
+        abstract void accept(int[] groups, double[] values, int count);
+
+        abstract double result(int group, long count);
+    }
+
+    private static final class CountState extends AggregateState {
+        CountState() {
+            super(null, null);
+        }
+
+        @Override
+        void resize(int capacity) {
+        }
+
+        @Override
+        void accept(int[] groups, double[] values, int count) {
+        }
+
+        @Override
+        double result(int group, long count) {
+            return count;
+        }
+    }
+
+    // The same compensated (Kahan) summation as DoubleSummaryStatistics and summingDouble
+    private static final class SumState extends AggregateState {
+        private final boolean average;
+        private double[] sum = new double[0];
+        private double[] compensation = new double[0];
+        private double[] simpleSum = new double[0];
+
+        SumState(int[] ints, double[] doubles, boolean average) {
+            super(ints, doubles);
+            this.average = average;
+        }
+
+        @Override
+        void resize(int capacity) {
+            sum = Arrays.copyOf(sum, capacity);
+            compensation = Arrays.copyOf(compensation, capacity);
+            simpleSum = Arrays.copyOf(simpleSum, capacity);
+        }
+
+        @Override
+        void accept(int[] groups, double[] values, int count) {
+            for (int i = 0; i < count; i++) {
+                int group = groups[i];
+                double value = values[i];
+                simpleSum[group] += value;
+                double tmp = value - compensation[group];
+                double velvel = sum[group] + tmp;
+                compensation[group] = (velvel - sum[group]) - tmp;
+                sum[group] = velvel;
+            }
+        }
+
+        @Override
+        double result(int group, long count) {
+            double total = sum[group] - compensation[group];
+            if (Double.isNaN(total) && Double.isInfinite(simpleSum[group])) {
+                total = simpleSum[group];
+            }
+            return average ? total / count : total;
+        }
+    }
+
+    private static final class ExtremeState extends AggregateState {
+        private final boolean max;
+        private double[] extremes = new double[0];
+
+        ExtremeState(int[] ints, double[] doubles, boolean max) {
+            super(ints, doubles);
+            this.max = max;
+        }
+
+        @Override
+        void resize(int capacity) {
+            int from = extremes.length;
+            extremes = Arrays.copyOf(extremes, capacity);
+            Arrays.fill(extremes, from, capacity, max ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY);
+        }
+
+        @Override
+        void accept(int[] groups, double[] values, int count) {
+            if (max) {
+                for (int i = 0; i < count; i++) {
+                    extremes[groups[i]] = Math.max(extremes[groups[i]], values[i]);
+                }
+            } else {
+                for (int i = 0; i < count; i++) {
+                    extremes[groups[i]] = Math.min(extremes[groups[i]], values[i]);
+                }
+            }
+        }
+
+        @Override
+        double result(int group, long count) {
+            return extremes[group];
+        }
+    }
+
+    // Welford's running mean and sum of squared deviations
+    private static final class StddevState extends AggregateState {
+        private double[] n = new double[0];
+        private double[] mean = new double[0];
+        private double[] squares = new double[0];
+
+        StddevState(int[] ints, double[] doubles) {
+            super(ints, doubles);
+        }
+
+        @Override
+        void resize(int capacity) {
+            n = Arrays.copyOf(n, capacity);
+            mean = Arrays.copyOf(mean, capacity);
+            squares = Arrays.copyOf(squares, capacity);
+        }
+
+        @Override
+        void accept(int[] groups, double[] values, int count) {
+            for (int i = 0; i < count; i++) {
+                int group = groups[i];
+                double value = values[i];
+                n[group]++;
+                double delta = value - mean[group];
+                mean[group] += delta / n[group];
+                squares[group] += delta * (value - mean[group]);
+            }
+        }
+
+        @Override
+        double result(int group, long count) {
+            return count < 2 ? Double.NaN : Math.sqrt(squares[group] / (count - 1));
+        }
+    }
+
+    // Keeps every value of each group in a growable double[], sorted once when read
+    private static final class PercentileState extends AggregateState {
+        private final double percent;
+        private double[][] values = new double[0][];
+        private int[] sizes = new int[0];
+        private boolean[] sorted = new boolean[0];
+
+        PercentileState(int[] ints, double[] doubles, double percent) {
+            super(ints, doubles);
+            this.percent = percent;
+        }
+
+        @Override
+        void resize(int capacity) {
+            values = Arrays.copyOf(values, capacity);
+            sizes = Arrays.copyOf(sizes, capacity);
+            sorted = Arrays.copyOf(sorted, capacity);
+        }
+
+        @Override
+        void accept(int[] groups, double[] batch, int count) {
+            for (int i = 0; i < count; i++) {
+                int group = groups[i];
+                double[] groupValues = values[group];
+                if (groupValues == null) {
+                    groupValues = new double[4];
+                    values[group] = groupValues;
+                } else if (sizes[group] == groupValues.length) {
+                    groupValues = Arrays.copyOf(groupValues, groupValues.length * 2);
+                    values[group] = groupValues;
+                }
+                groupValues[sizes[group]++] = batch[i];
+            }
+        }
+
+        @Override
+        double result(int group, long count) {
+            double[] groupValues = values[group];
+            int size = sizes[group];
+            if (!sorted[group]) {
+                Arrays.sort(groupValues, 0, size);
+                sorted[group] = true;
+            }
+            double position = percent / 100 * (size - 1);
+            int lower = (int) Math.floor(position);
+            int upper = (int) Math.ceil(position);
+            return groupValues[lower] + (position - lower) * (groupValues[upper] - groupValues[lower]);
+        }
+    }
+
+    // Query output: one row per group, with the aggregates in the order they were registered
+    public static final class Result {
+        private final List<List<String>> keys;
+        private final double[][] values;
+        private final long[] counts;
+
+        Result(List<List<String>> keys, double[][] values, long[] counts) {
+            this.keys = keys;
+            this.values = values;
+            this.counts = counts;
+        }
+
+        public int size() {
+            return keys.size();
+        }
+
+        // Dimension values of a row, in groupBy order
+        public List<String> getKey(int row) {
+            return keys.get(row);
+        }
+
+        public double getValue(int row, int aggregate) {
+            return values[aggregate][row];
+        }
+
+        // Rows that fell into the group
+        public long getCount(int row) {
+            return counts[row];
+        }
+
+        public List<List<String>> getKeys() {
+            return Collections.unmodifiableList(keys);
+        }
+
+        // One aggregate by the row's single dimension value, e.g. sales by category
+        public Map<String, Double> toMap(int aggregate) {
+            Map<String, Double> result = new HashMap<>();
+            for (int row = 0; row < keys.size(); row++) {
+                List<String> key = keys.get(row);
+                if (key.size() != 1) {
+                    throw new IllegalStateException("toMap needs exactly one dimension, not " + key.size());
+                }
+                result.put(key.get(0), values[aggregate][row]);
+            }
+            return result;
+        }
+
+        // One aggregate by the row's dimension values
+        public Map<List<String>, Double> toKeyedMap(int aggregate) {
+            Map<List<String>, Double> result = new HashMap<>();
+            for (int row = 0; row < keys.size(); row++) {
+                result.put(keys.get(row), values[aggregate][row]);
+            }
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder text = new StringBuilder();
+            for (int row = 0; row < keys.size(); row++) {
+                text.append(keys.get(row));
+                for (double[] aggregate : values) {
+                    text.append(String.format(" %.2f", aggregate[row]));
+                }
+                text.append(System.lineSeparator());
+            }
+            return text.toString();
+        }
+    }
+}
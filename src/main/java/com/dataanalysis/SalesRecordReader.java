@@ -0,0 +1,195 @@
+package com.dataanalysis;
+
+import java.io.Closeable;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+// Lazily reads SalesRecords from a Superstore CSV file, one line at a time
+// Only the reader's buffer and the next record are held in memory, so files far larger
+// than the heap can be processed. Malformed lines are reported and skipped like parseCSV.
+// Lines are split and tokenized as raw UTF-8 bytes; a line is only decoded to a String
+// when it has to be reported.
+public class SalesRecordReader implements Iterator<SalesRecord>, Closeable {
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    private final InputStream input;
+    private final CSVTokenizer tokenizer = new CSVTokenizer();
+    private final DateParser dates = new DateParser();
+    private final SalesDictionaries dictionaries = new SalesDictionaries();
+    private final Set<SalesField> projection;
+    private final RowFilter filter;
+    private byte[] buffer = new byte[BUFFER_BYTES];
+    private int position = 0;
+    private int limit = 0;
+    private boolean endOfInput = false;
+    private int lineStart;
+    private int lineEnd;
+    private int lineNumber = 0;
+    private SalesRecord next;
+    private boolean closed = false;
+
+    public SalesRecordReader(String filePath) throws IOException {
+        this(filePath, SalesField.ALL);
+    }
+
+    // Reads only the projected fields; see SalesDataParser.parseCSV(String, Set)
+    public SalesRecordReader(String filePath, Set<SalesField> projection) throws IOException {
+        this(filePath, projection, RowFilter.ALL);
+    }
+
+    // Also skips rows rejected by filter before building their records
+    public SalesRecordReader(String filePath, Set<SalesField> projection, RowFilter filter) throws IOException {
+        this.projection = EnumSet.noneOf(SalesField.class);
+        this.projection.addAll(projection);
+        this.filter = filter;
+        this.input = new FileInputStream(filePath);
+        try {
+            if (readLine()) {
+                lineNumber++;
+                System.out.println("Header: " + currentLine());
+            }
+        } catch (IOException e) {
+            input.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next != null) {
+            return true;
+        }
+        if (closed) {
+            return false;
+        }
+        try {
+            while (readLine()) {
+                lineNumber++;
+
+                // Skip empty lines
+                if (isBlankLine()) {
+                    continue;
+                }
+
+                tokenizer.tokenize(buffer, lineStart, lineEnd, SalesDataParser.FIELD_COUNT);
+                // Short rows skip the filter and are reported by parseFields
+                if (tokenizer.fieldCount() >= SalesDataParser.FIELD_COUNT && !filter.test(tokenizer, dates)) {
+                    continue;
+                }
+                try {
+                    next = SalesDataParser.parseFields(tokenizer, dates, dictionaries, projection);
+                    return true;
+                } catch (Exception e) {
+                    SalesDataParser.reportError(currentLine(), lineNumber, e);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error reading line " + (lineNumber + 1), e);
+        }
+
+        // Release the file as soon as the input is exhausted
+        close();
+        return false;
+    }
+
+    @Override
+    public SalesRecord next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        SalesRecord record = next;
+        next = null;
+        return record;
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        next = null;
+        try {
+            input.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Finds the next line in the buffer as [lineStart, lineEnd); the same terminators as
+    // BufferedReader.readLine are accepted: \n, \r or \r\n. Returns false at end of input.
+    private boolean readLine() throws IOException {
+        int scan = position;
+        while (true) {
+            while (scan < limit) {
+                byte b = buffer[scan];
+                if (b == '\n' || b == '\r') {
+                    // A trailing \r may be the first half of \r\n; read more before deciding
+                    if (b == '\r' && scan + 1 == limit && !endOfInput) {
+                        break;
+                    }
+                    lineStart = position;
+                    lineEnd = scan;
+                    position = scan + 1;
+                    if (b == '\r' && position < limit && buffer[position] == '\n') {
+                        position++;
+                    }
+                    return true;
+                }
+                scan++;
+            }
+
+            if (endOfInput) {
+                if (position == limit) {
+                    return false;
+                }
+                lineStart = position;
+                lineEnd = limit;
+                position = limit;
+                return true;
+            }
+            scan -= position;
+            fill();
+        }
+    }
+
+    // Moves the unread bytes to the front of the buffer and reads more after them
+    private void fill() throws IOException {
+        int remaining = limit - position;
+        if (remaining == buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2); // A line longer than the buffer
+        } else if (position > 0) {
+            System.arraycopy(buffer, position, buffer, 0, remaining);
+        }
+        position = 0;
+        limit = remaining;
+
+        int read = input.read(buffer, limit, buffer.length - limit);
+        if (read < 0) {
+            endOfInput = true;
+        } else {
+            limit += read;
+        }
+    }
+
+    private boolean isBlankLine() {
+        for (int i = lineStart; i < lineEnd; i++) {
+            if ((buffer[i] & 0xFF) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String currentLine() {
+        return new String(buffer, lineStart, lineEnd - lineStart, StandardCharsets.UTF_8);
+    }
+}
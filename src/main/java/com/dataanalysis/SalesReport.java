@@ -0,0 +1,676 @@
+package com.dataanalysis;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.DoubleSummaryStatistics;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Batch of SalesAnalyzer metrics computed together in one pass over the data
+// Register the metrics a report needs, then run it: every record is visited once, and
+// metrics that group by the same column share one group-by (category feeds five metrics,
+// region and product two each). Results are identical to the matching SalesAnalyzer methods.
+public class SalesReport {
+    // Rows per partition in parallel runs; fixed so the merge order never depends on the pool
+    static final int PARTITION_ROWS = 16384;
+
+    private final Set<Metric> metrics = EnumSet.noneOf(Metric.class);
+    // Offset and limit of each ranking
+    private final int[] topProductsBySales = new int[2];
+    private final int[] topProductsByProfit = new int[2];
+    private final int[] topStatesBySales = new int[2];
+    // Offset and limit of each record list, or null for the whole list
+    private int[] unprofitableProducts;
+    private int[] highValueOrders;
+    private double highValueThreshold;
+    private LocalDate rangeStart;
+    private LocalDate rangeEnd;
+
+    enum Metric {
+        TOTAL_REVENUE, TOTAL_PROFIT, SALES_BY_CATEGORY, PROFIT_BY_CATEGORY, TOP_PRODUCTS_BY_SALES,
+        TOP_PRODUCTS_BY_PROFIT, AVERAGE_ORDER_VALUE, REGION_SALES_STATISTICS, MONTHLY_SALES_TREND,
+        SALES_BY_SEGMENT, UNPROFITABLE_PRODUCTS, AVERAGE_DISCOUNT_BY_CATEGORY, QUANTITY_BY_SUB_CATEGORY,
+        HIGH_VALUE_ORDERS, PROFIT_MARGIN_BY_CATEGORY, TOP_STATES_BY_SALES, SALES_BY_SHIP_MODE,
+        ORDERS_IN_DATE_RANGE, CATEGORY_DISTRIBUTION_PERCENTAGE, ORDER_COUNT_BY_REGION
+    }
+
+    public SalesReport totalRevenue() {
+        return add(Metric.TOTAL_REVENUE);
+    }
+
+    public SalesReport totalProfit() {
+        return add(Metric.TOTAL_PROFIT);
+    }
+
+    public SalesReport salesByCategory() {
+        return add(Metric.SALES_BY_CATEGORY);
+    }
+
+    public SalesReport profitByCategory() {
+        return add(Metric.PROFIT_BY_CATEGORY);
+    }
+
+    public SalesReport topProductsBySales(int n) {
+        return topProductsBySales(0, n);
+    }
+
+    public SalesReport topProductsBySales(int offset, int limit) {
+        topProductsBySales[0] = offset;
+        topProductsBySales[1] = limit;
+        return add(Metric.TOP_PRODUCTS_BY_SALES);
+    }
+
+    public SalesReport topProductsByProfit(int n) {
+        return topProductsByProfit(0, n);
+    }
+
+    public SalesReport topProductsByProfit(int offset, int limit) {
+        topProductsByProfit[0] = offset;
+        topProductsByProfit[1] = limit;
+        return add(Metric.TOP_PRODUCTS_BY_PROFIT);
+    }
+
+    public SalesReport averageOrderValue() {
+        return add(Metric.AVERAGE_ORDER_VALUE);
+    }
+
+    public SalesReport regionSalesStatistics() {
+        return add(Metric.REGION_SALES_STATISTICS);
+    }
+
+    public SalesReport monthlySalesTrend() {
+        return add(Metric.MONTHLY_SALES_TREND);
+    }
+
+    public SalesReport salesBySegment() {
+        return add(Metric.SALES_BY_SEGMENT);
+    }
+
+    public SalesReport unprofitableProducts() {
+        unprofitableProducts = null;
+        return add(Metric.UNPROFITABLE_PRODUCTS);
+    }
+
+    public SalesReport unprofitableProducts(int offset, int limit) {
+        unprofitableProducts = page(offset, limit);
+        return add(Metric.UNPROFITABLE_PRODUCTS);
+    }
+
+    public SalesReport averageDiscountByCategory() {
+        return add(Metric.AVERAGE_DISCOUNT_BY_CATEGORY);
+    }
+
+    public SalesReport quantityBySubCategory() {
+        return add(Metric.QUANTITY_BY_SUB_CATEGORY);
+    }
+
+    public SalesReport highValueOrders(double threshold) {
+        highValueThreshold = threshold;
+        highValueOrders = null;
+        return add(Metric.HIGH_VALUE_ORDERS);
+    }
+
+    public SalesReport highValueOrders(double threshold, int offset, int limit) {
+        highValueThreshold = threshold;
+        highValueOrders = page(offset, limit);
+        return add(Metric.HIGH_VALUE_ORDERS);
+    }
+
+    public SalesReport profitMarginByCategory() {
+        return add(Metric.PROFIT_MARGIN_BY_CATEGORY);
+    }
+
+    public SalesReport topStatesBySales(int n) {
+        return topStatesBySales(0, n);
+    }
+
+    public SalesReport topStatesBySales(int offset, int limit) {
+        topStatesBySales[0] = offset;
+        topStatesBySales[1] = limit;
+        return add(Metric.TOP_STATES_BY_SALES);
+    }
+
+    public SalesReport salesByShipMode() {
+        return add(Metric.SALES_BY_SHIP_MODE);
+    }
+
+    public SalesReport ordersInDateRange(LocalDate startDate, LocalDate endDate) {
+        rangeStart = Objects.requireNonNull(startDate);
+        rangeEnd = Objects.requireNonNull(endDate);
+        return add(Metric.ORDERS_IN_DATE_RANGE);
+    }
+
+    public SalesReport categoryDistributionPercentage() {
+        return add(Metric.CATEGORY_DISTRIBUTION_PERCENTAGE);
+    }
+
+    public SalesReport orderCountByRegion() {
+        return add(Metric.ORDER_COUNT_BY_REGION);
+    }
+
+    private static int[] page(int offset, int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("Offset and limit must not be negative: " + offset + ", " + limit);
+        }
+        return new int[]{offset, limit};
+    }
+
+    private SalesReport add(Metric metric) {
+        metrics.add(metric);
+        return this;
+    }
+
+    public Result run(Iterable<SalesRecord> records) {
+        Accumulator accumulator = accumulator();
+        records.forEach(accumulator);
+        return accumulator.finish();
+    }
+
+    // Evaluates fixed-size partitions of records on pool, each into its own accumulator, then
+    // merges the partials in partition order. The partitioning does not depend on the pool's
+    // parallelism, so floating-point sums come out the same on every run and pool size; they can
+    // differ in the last bits from run(records), which adds the values in one sequence.
+    public Result run(List<SalesRecord> records, ForkJoinPool pool) {
+        return run(records, pool, PARTITION_ROWS);
+    }
+
+    Result run(List<SalesRecord> records, ForkJoinPool pool, int partitionRows) {
+        int partitions = (records.size() + partitionRows - 1) / partitionRows;
+        if (partitions <= 1) {
+            return run(records);
+        }
+
+        List<ForkJoinTask<Accumulator>> tasks = new ArrayList<>(partitions);
+        for (int p = 0; p < partitions; p++) {
+            List<SalesRecord> partition = records.subList(p * partitionRows,
+                    Math.min(records.size(), (p + 1) * partitionRows));
+            tasks.add(pool.submit(() -> {
+                Accumulator accumulator = accumulator();
+                partition.forEach(accumulator);
+                return accumulator;
+            }));
+        }
+
+        Accumulator merged = tasks.get(0).join();
+        for (int p = 1; p < partitions; p++) {
+            merged.merge(tasks.get(p).join());
+        }
+        return merged.finish();
+    }
+
+    // Parses the file and evaluates the report in the same pass, without keeping the records
+    // Only the columns the metrics read are decoded, unless a metric returns whole records.
+    public Result run(String filePath) throws IOException {
+        Accumulator accumulator = accumulator();
+        SalesDataParser.forEachRecord(filePath, requiredFields(), accumulator);
+        return accumulator.finish();
+    }
+
+    // For callers that push records themselves, e.g. from SalesDataParser.forEachRecord
+    public Accumulator accumulator() {
+        return new Accumulator(this);
+    }
+
+    Set<SalesField> requiredFields() {
+        if (uses(Metric.UNPROFITABLE_PRODUCTS, Metric.HIGH_VALUE_ORDERS, Metric.ORDERS_IN_DATE_RANGE)) {
+            return SalesField.ALL;
+        }
+        Set<SalesField> fields = EnumSet.of(SalesField.SALES);
+        if (uses(Metric.TOTAL_PROFIT, Metric.PROFIT_BY_CATEGORY, Metric.TOP_PRODUCTS_BY_PROFIT,
+                Metric.PROFIT_MARGIN_BY_CATEGORY)) {
+            fields.add(SalesField.PROFIT);
+        }
+        if (uses(Metric.AVERAGE_DISCOUNT_BY_CATEGORY)) {
+            fields.add(SalesField.DISCOUNT);
+        }
+        if (uses(Metric.QUANTITY_BY_SUB_CATEGORY)) {
+            fields.add(SalesField.QUANTITY);
+            fields.add(SalesField.SUB_CATEGORY);
+        }
+        if (usesCategory()) {
+            fields.add(SalesField.CATEGORY);
+        }
+        if (uses(Metric.TOP_PRODUCTS_BY_SALES, Metric.TOP_PRODUCTS_BY_PROFIT)) {
+            fields.add(SalesField.PRODUCT_NAME);
+        }
+        if (uses(Metric.REGION_SALES_STATISTICS, Metric.ORDER_COUNT_BY_REGION)) {
+            fields.add(SalesField.REGION);
+        }
+        if (uses(Metric.MONTHLY_SALES_TREND)) {
+            fields.add(SalesField.ORDER_DATE);
+        }
+        if (uses(Metric.SALES_BY_SEGMENT)) {
+            fields.add(SalesField.SEGMENT);
+        }
+        if (uses(Metric.TOP_STATES_BY_SALES)) {
+            fields.add(SalesField.STATE);
+        }
+        if (uses(Metric.SALES_BY_SHIP_MODE)) {
+            fields.add(SalesField.SHIP_MODE);
+        }
+        return fields;
+    }
+
+    private boolean uses(Metric... candidates) {
+        for (Metric metric : candidates) {
+            if (metrics.contains(metric)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean usesCategory() {
+        return uses(Metric.SALES_BY_CATEGORY, Metric.PROFIT_BY_CATEGORY, Metric.AVERAGE_DISCOUNT_BY_CATEGORY,
+                Metric.PROFIT_MARGIN_BY_CATEGORY, Metric.CATEGORY_DISTRIBUTION_PERCENTAGE);
+    }
+
+    // Records passing a filter, sorted by order: all of them, or for a page only the best
+    // offset + limit, kept in a bounded heap so a partition never holds more than that
+    private static final class Ranking {
+        private final Comparator<SalesRecord> order;
+        private final int[] page;
+        private final List<SalesRecord> all;
+        private final TopK<SalesRecord> top;
+
+        Ranking(Comparator<SalesRecord> order, int[] page) {
+            this.order = order;
+            this.page = page;
+            this.all = page == null ? new ArrayList<>() : null;
+            this.top = page == null ? null : new TopK<>((int) Math.min(Integer.MAX_VALUE, (long) page[0] + page[1]), order);
+        }
+
+        void add(SalesRecord record) {
+            if (top == null) {
+                all.add(record);
+            } else {
+                top.offer(record);
+            }
+        }
+
+        // Adds a later partition's records; offered after this one's, they lose ties to it
+        void merge(Ranking other) {
+            if (top == null) {
+                all.addAll(other.all);
+            } else {
+                other.top.toList().forEach(top::offer);
+            }
+        }
+
+        List<SalesRecord> finish() {
+            if (top == null) {
+                // List.sort is stable, so equal keys keep input order like the stream version
+                all.sort(order);
+                return all;
+            }
+            List<SalesRecord> sorted = top.toList();
+            return page[0] >= sorted.size() ? new ArrayList<>() : new ArrayList<>(sorted.subList(page[0], sorted.size()));
+        }
+    }
+
+    // Running totals for one group
+    private static class Group {
+        final DoubleSummaryStatistics sales = new DoubleSummaryStatistics();
+        final DoubleSummaryStatistics profit = new DoubleSummaryStatistics();
+        final DoubleSummaryStatistics discount = new DoubleSummaryStatistics();
+        int quantity;
+        long count;
+    }
+
+    // One-pass evaluation state; groups are kept in first-seen order, like groupingBy fills its map
+    public static class Accumulator implements Consumer<SalesRecord> {
+        private final SalesReport report;
+        private final boolean totals;
+        private final DoubleSummaryStatistics totalSales = new DoubleSummaryStatistics();
+        private final DoubleSummaryStatistics totalProfit = new DoubleSummaryStatistics();
+        private final Map<String, Group> byCategory;
+        private final Map<String, Group> byProduct;
+        private final Map<String, Group> byRegion;
+        private final Map<Month, Group> byMonth;
+        private final Map<String, Group> bySegment;
+        private final Map<String, Group> bySubCategory;
+        private final Map<String, Group> byState;
+        private final Map<String, Group> byShipMode;
+        private final Ranking unprofitable;
+        private final Ranking highValue;
+        private final List<SalesRecord> inDateRange;
+        private final long rangeStart;
+        private final long rangeEnd;
+
+        Accumulator(SalesReport report) {
+            this.report = report;
+            totals = report.uses(Metric.TOTAL_REVENUE, Metric.TOTAL_PROFIT, Metric.AVERAGE_ORDER_VALUE,
+                    Metric.CATEGORY_DISTRIBUTION_PERCENTAGE);
+            byCategory = report.usesCategory() ? new LinkedHashMap<>() : null;
+            byProduct = report.uses(Metric.TOP_PRODUCTS_BY_SALES, Metric.TOP_PRODUCTS_BY_PROFIT)
+                    ? new LinkedHashMap<>() : null;
+            byRegion = report.uses(Metric.REGION_SALES_STATISTICS, Metric.ORDER_COUNT_BY_REGION)
+                    ? new LinkedHashMap<>() : null;
+            byMonth = report.uses(Metric.MONTHLY_SALES_TREND) ? new LinkedHashMap<>() : null;
+            bySegment = report.uses(Metric.SALES_BY_SEGMENT) ? new LinkedHashMap<>() : null;
+            bySubCategory = report.uses(Metric.QUANTITY_BY_SUB_CATEGORY) ? new LinkedHashMap<>() : null;
+            byState = report.uses(Metric.TOP_STATES_BY_SALES) ? new LinkedHashMap<>() : null;
+            byShipMode = report.uses(Metric.SALES_BY_SHIP_MODE) ? new LinkedHashMap<>() : null;
+            unprofitable = report.uses(Metric.UNPROFITABLE_PRODUCTS)
+                    ? new Ranking(Comparator.comparingDouble(SalesRecord::getProfit), report.unprofitableProducts) : null;
+            highValue = report.uses(Metric.HIGH_VALUE_ORDERS)
+                    ? new Ranking(Comparator.comparingDouble(SalesRecord::getSales).reversed(), report.highValueOrders)
+                    : null;
+            inDateRange = report.uses(Metric.ORDERS_IN_DATE_RANGE) ? new ArrayList<>() : null;
+            rangeStart = inDateRange != null ? report.rangeStart.toEpochDay() : 0;
+            rangeEnd = inDateRange != null ? report.rangeEnd.toEpochDay() : 0;
+        }
+
+        @Override
+        public void accept(SalesRecord record) {
+            double sales = record.getSales();
+            double profit = record.getProfit();
+            if (totals) {
+                totalSales.accept(sales);
+                totalProfit.accept(profit);
+            }
+            if (byCategory != null) {
+                Group group = group(byCategory, record.getCategory());
+                group.sales.accept(sales);
+                group.profit.accept(profit);
+                group.discount.accept(record.getDiscount());
+            }
+            if (byProduct != null) {
+                Group group = group(byProduct, record.getProductName());
+                group.sales.accept(sales);
+                group.profit.accept(profit);
+            }
+            if (byRegion != null) {
+                Group group = group(byRegion, record.getRegion());
+                group.sales.accept(sales);
+                group.count++;
+            }
+            if (byMonth != null) {
+                group(byMonth, record.getOrderDate().getMonth()).sales.accept(sales);
+            }
+            if (bySegment != null) {
+                group(bySegment, record.getSegment()).sales.accept(sales);
+            }
+            if (bySubCategory != null) {
+                group(bySubCategory, record.getSubCategory()).quantity += record.getQuantity();
+            }
+            if (byState != null) {
+                group(byState, record.getState()).sales.accept(sales);
+            }
+            if (byShipMode != null) {
+                group(byShipMode, record.getShipMode()).sales.accept(sales);
+            }
+            if (unprofitable != null && profit < 0) {
+                unprofitable.add(record);
+            }
+            if (highValue != null && sales > report.highValueThreshold) {
+                highValue.add(record);
+            }
+            if (inDateRange != null) {
+                long day = record.getOrderDate().toEpochDay();
+                if (day >= rangeStart && day <= rangeEnd) {
+                    inDateRange.add(record);
+                }
+            }
+        }
+
+        // Adds the state of a later partition; groups new to this accumulator are appended, so
+        // merging partitions in order keeps first-seen order across the whole input
+        public void merge(Accumulator other) {
+            if (other.report != report) {
+                throw new IllegalArgumentException("Accumulators belong to different reports");
+            }
+            totalSales.combine(other.totalSales);
+            totalProfit.combine(other.totalProfit);
+            mergeGroups(byCategory, other.byCategory);
+            mergeGroups(byProduct, other.byProduct);
+            mergeGroups(byRegion, other.byRegion);
+            mergeGroups(byMonth, other.byMonth);
+            mergeGroups(bySegment, other.bySegment);
+            mergeGroups(bySubCategory, other.bySubCategory);
+            mergeGroups(byState, other.byState);
+            mergeGroups(byShipMode, other.byShipMode);
+            if (unprofitable != null) {
+                unprofitable.merge(other.unprofitable);
+            }
+            if (highValue != null) {
+                highValue.merge(other.highValue);
+            }
+            if (inDateRange != null) {
+                inDateRange.addAll(other.inDateRange);
+            }
+        }
+
+        private static <K> void mergeGroups(Map<K, Group> groups, Map<K, Group> others) {
+            if (groups == null) {
+                return;
+            }
+            for (Map.Entry<K, Group> entry : others.entrySet()) {
+                Group group = group(groups, entry.getKey());
+                Group other = entry.getValue();
+                group.sales.combine(other.sales);
+                group.profit.combine(other.profit);
+                group.discount.combine(other.discount);
+                group.quantity += other.quantity;
+                group.count += other.count;
+            }
+        }
+
+        private static <K> Group group(Map<K, Group> groups, K key) {
+            Objects.requireNonNull(key, "element cannot be mapped to a null key");
+            Group group = groups.get(key);
+            if (group == null) {
+                group = new Group();
+                groups.put(key, group);
+            }
+            return group;
+        }
+
+        public Result finish() {
+            Result result = new Result(report.metrics);
+            Set<Metric> metrics = report.metrics;
+
+            result.totalRevenue = totalSales.getSum();
+            result.totalProfit = totalProfit.getSum();
+            result.averageOrderValue = totalSales.getAverage();
+
+            if (byCategory != null) {
+                result.salesByCategory = collect(byCategory, group -> group.sales.getSum());
+                result.profitByCategory = collect(byCategory, group -> group.profit.getSum());
+                result.averageDiscountByCategory = collect(byCategory, group -> group.discount.getAverage());
+
+                // Same derivations as SalesAnalyzer, over the shared category totals
+                Map<String, Double> sales = result.salesByCategory;
+                Map<String, Double> profits = result.profitByCategory;
+                result.profitMarginByCategory = sales.entrySet().stream()
+                        .collect(Collectors.toMap(
+                                Map.Entry::getKey,
+                                entry -> (profits.get(entry.getKey()) / entry.getValue())
+                        ));
+                double totalRevenue = result.totalRevenue;
+                result.categoryDistributionPercentage = sales.entrySet().stream()
+                        .collect(Collectors.toMap(
+                                Map.Entry::getKey,
+                                entry -> (entry.getValue() / totalRevenue)
+                        ));
+            }
+            if (byProduct != null) {
+                result.topProductsBySales = top(collect(byProduct, group -> group.sales.getSum()),
+                        report.topProductsBySales);
+                result.topProductsByProfit = top(collect(byProduct, group -> group.profit.getSum()),
+                        report.topProductsByProfit);
+            }
+            if (byRegion != null) {
+                result.regionSalesStatistics = collect(byRegion, group -> group.sales);
+                result.orderCountByRegion = collect(byRegion, group -> group.count);
+            }
+            if (byMonth != null) {
+                result.monthlySalesTrend = collect(byMonth, group -> group.sales.getSum());
+            }
+            if (bySegment != null) {
+                result.salesBySegment = collect(bySegment, group -> group.sales.getSum());
+            }
+            if (bySubCategory != null) {
+                result.quantityBySubCategory = collect(bySubCategory, group -> group.quantity);
+            }
+            if (byState != null) {
+                result.topStatesBySales = top(collect(byState, group -> group.sales.getSum()),
+                        report.topStatesBySales);
+            }
+            if (byShipMode != null) {
+                result.salesByShipMode = collect(byShipMode, group -> group.sales.getSum());
+            }
+            if (unprofitable != null) {
+                result.unprofitableProducts = unprofitable.finish();
+            }
+            if (highValue != null) {
+                result.highValueOrders = highValue.finish();
+            }
+            result.ordersInDateRange = inDateRange;
+            return result;
+        }
+
+        // A HashMap filled in first-seen order, exactly as groupingBy would fill it
+        private static <K, V> Map<K, V> collect(Map<K, Group> groups, Function<Group, V> value) {
+            Map<K, V> result = new HashMap<>();
+            for (Map.Entry<K, Group> entry : groups.entrySet()) {
+                result.put(entry.getKey(), value.apply(entry.getValue()));
+            }
+            return result;
+        }
+
+        private static List<Map.Entry<String, Double>> top(Map<String, Double> totals, int[] page) {
+            return TopK.page(totals.entrySet(), Map.Entry.<String, Double>comparingByValue().reversed(),
+                    page[0], page[1]);
+        }
+    }
+
+    // Values of the registered metrics; asking for one that was not registered throws
+    public static class Result {
+        private final Set<Metric> metrics;
+        private double totalRevenue;
+        private double totalProfit;
+        private double averageOrderValue;
+        private Map<String, Double> salesByCategory;
+        private Map<String, Double> profitByCategory;
+        private List<Map.Entry<String, Double>> topProductsBySales;
+        private List<Map.Entry<String, Double>> topProductsByProfit;
+        private Map<String, DoubleSummaryStatistics> regionSalesStatistics;
+        private Map<Month, Double> monthlySalesTrend;
+        private Map<String, Double> salesBySegment;
+        private List<SalesRecord> unprofitableProducts;
+        private Map<String, Double> averageDiscountByCategory;
+        private Map<String, Integer> quantityBySubCategory;
+        private List<SalesRecord> highValueOrders;
+        private Map<String, Double> profitMarginByCategory;
+        private List<Map.Entry<String, Double>> topStatesBySales;
+        private Map<String, Double> salesByShipMode;
+        private List<SalesRecord> ordersInDateRange;
+        private Map<String, Double> categoryDistributionPercentage;
+        private Map<String, Long> orderCountByRegion;
+
+        Result(Set<Metric> metrics) {
+            this.metrics = metrics.isEmpty() ? EnumSet.noneOf(Metric.class) : EnumSet.copyOf(metrics);
+        }
+
+        private <T> T get(Metric metric, T value) {
+            if (!metrics.contains(metric)) {
+                throw new IllegalStateException("Metric not in report: " + metric);
+            }
+            return value;
+        }
+
+        public double getTotalRevenue() {
+            return get(Metric.TOTAL_REVENUE, totalRevenue);
+        }
+
+        public double getTotalProfit() {
+            return get(Metric.TOTAL_PROFIT, totalProfit);
+        }
+
+        public Map<String, Double> getSalesByCategory() {
+            return get(Metric.SALES_BY_CATEGORY, salesByCategory);
+        }
+
+        public Map<String, Double> getProfitByCategory() {
+            return get(Metric.PROFIT_BY_CATEGORY, profitByCategory);
+        }
+
+        public List<Map.Entry<String, Double>> getTopProductsBySales() {
+            return get(Metric.TOP_PRODUCTS_BY_SALES, topProductsBySales);
+        }
+
+        public List<Map.Entry<String, Double>> getTopProductsByProfit() {
+            return get(Metric.TOP_PRODUCTS_BY_PROFIT, topProductsByProfit);
+        }
+
+        public double getAverageOrderValue() {
+            return get(Metric.AVERAGE_ORDER_VALUE, averageOrderValue);
+        }
+
+        public Map<String, DoubleSummaryStatistics> getRegionSalesStatistics() {
+            return get(Metric.REGION_SALES_STATISTICS, regionSalesStatistics);
+        }
+
+        public Map<Month, Double> getMonthlySalesTrend() {
+            return get(Metric.MONTHLY_SALES_TREND, monthlySalesTrend);
+        }
+
+        public Map<String, Double> getSalesBySegment() {
+            return get(Metric.SALES_BY_SEGMENT, salesBySegment);
+        }
+
+        public List<SalesRecord> getUnprofitableProducts() {
+            return get(Metric.UNPROFITABLE_PRODUCTS, unprofitableProducts);
+        }
+
+        public Map<String, Double> getAverageDiscountByCategory() {
+            return get(Metric.AVERAGE_DISCOUNT_BY_CATEGORY, averageDiscountByCategory);
+        }
+
+        public Map<String, Integer> getQuantityBySubCategory() {
+            return get(Metric.QUANTITY_BY_SUB_CATEGORY, quantityBySubCategory);
+        }
+
+        public List<SalesRecord> getHighValueOrders() {
+            return get(Metric.HIGH_VALUE_ORDERS, highValueOrders);
+        }
+
+        public Map<String, Double> getProfitMarginByCategory() {
+            return get(Metric.PROFIT_MARGIN_BY_CATEGORY, profitMarginByCategory);
+        }
+
+        public List<Map.Entry<String, Double>> getTopStatesBySales() {
+            return get(Metric.TOP_STATES_BY_SALES, topStatesBySales);
+        }
+
+        public Map<String, Double> getSalesByShipMode() {
+            return get(Metric.SALES_BY_SHIP_MODE, salesByShipMode);
+        }
+
+        public List<SalesRecord> getOrdersInDateRange() {
+            return get(Metric.ORDERS_IN_DATE_RANGE, ordersInDateRange);
+        }
+
+        public Map<String, Double> getCategoryDistributionPercentage() {
+            return get(Metric.CATEGORY_DISTRIBUTION_PERCENTAGE, categoryDistributionPercentage);
+        }
+
+        public Map<String, Long> getOrderCountByRegion() {
+            return get(Metric.ORDER_COUNT_BY_REGION, orderCountByRegion);
+        }
+    }
+}
@@ -0,0 +1,377 @@
+package com.dataanalysis;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.zip.CRC32C;
+
+// Versioned binary columnar snapshot of a SalesTable, so a later run can load it without parsing
+// Layout, all little-endian:
+//   header     magic "SALESNAP", int version, int row count, int block count, int source path length,
+//              long source size, long source mtime (millis), int CRC32C, int reserved, then the
+//              source CSV's absolute path in UTF-8 (empty and -1/-1 when written without a source)
+//   directory  8-byte aligned; per block: int field ordinal, int kind, long offset, long length,
+//              int CRC32C, int reserved
+//   blocks     each 8-byte aligned: a numeric column as a fixed-width array (double for sales,
+//              profit and discount, int for quantity and order epoch day, NO_DATE for none), or
+//              for a text column its dictionary (int count, then int length + UTF-8 bytes per
+//              value) and its codes (int per row, -1 for null)
+// The header checksum covers the header (but its own field), the source path and the directory;
+// each block has its own. Reading maps the file, verifies every checksum, and bulk-copies the
+// fixed-width blocks into the table's arrays; nothing is parsed, and only the dictionaries'
+// distinct values are decoded. Any mismatch (magic, version, bounds, checksum, codes) fails with an
+// IOException. The whole file must fit one mapping, so larger tables are refused when writing.
+public final class SalesSnapshot {
+    static final int VERSION = 2;
+    private static final byte[] MAGIC = "SALESNAP".getBytes(StandardCharsets.US_ASCII);
+    private static final int HEADER_BYTES = 48;
+    private static final int CHECKSUM_OFFSET = 40;
+    private static final int ENTRY_BYTES = 32;
+    private static final long MAX_FILE_BYTES = Integer.MAX_VALUE;
+    private static final int VALUES = 0;
+    private static final int DICTIONARY = 1;
+    private static final int CODES = 2;
+
+    private static final SalesField[] NUMERIC = {
+            SalesField.SALES, SalesField.PROFIT, SalesField.DISCOUNT, SalesField.QUANTITY, SalesField.ORDER_DATE};
+    private static final SalesField[] TEXT = {
+            SalesField.ORDER_ID, SalesField.SHIP_MODE, SalesField.SEGMENT, SalesField.COUNTRY, SalesField.CITY,
+            SalesField.STATE, SalesField.REGION, SalesField.CATEGORY, SalesField.SUB_CATEGORY,
+            SalesField.PRODUCT_NAME};
+
+    private SalesSnapshot() {
+    }
+
+    // Writes to a temporary file beside path and moves it into place, so readers never see half a file
+    public static void write(SalesTable table, Path path) throws IOException {
+        write(table, path, Source.NONE);
+    }
+
+    private static void write(SalesTable table, Path path, Source source) throws IOException {
+        int rows = table.size();
+        checkRows(rows);
+        List<ByteBuffer> blocks = new ArrayList<>();
+        List<int[]> ids = new ArrayList<>();
+        blocks.add(doubles(table.salesColumn(), rows));
+        blocks.add(doubles(table.profitColumn(), rows));
+        blocks.add(doubles(table.discountColumn(), rows));
+        blocks.add(ints(table.quantityColumn(), rows));
+        blocks.add(ints(table.orderDateColumn(), rows));
+        for (SalesField field : NUMERIC) {
+            ids.add(new int[]{field.ordinal(), VALUES});
+        }
+        for (SalesField field : TEXT) {
+            SalesTable.StringColumn column = table.column(field);
+            blocks.add(dictionary(column));
+            ids.add(new int[]{field.ordinal(), DICTIONARY});
+            blocks.add(ints(column.codes(), rows));
+            ids.add(new int[]{field.ordinal(), CODES});
+        }
+
+        byte[] sourcePath = source.path.getBytes(StandardCharsets.UTF_8);
+        int directory = (int) align(HEADER_BYTES + sourcePath.length);
+        ByteBuffer header = ByteBuffer.allocate(directory + ENTRY_BYTES * blocks.size()).order(ByteOrder.LITTLE_ENDIAN);
+        header.put(MAGIC).putInt(VERSION).putInt(rows).putInt(blocks.size()).putInt(sourcePath.length)
+                .putLong(source.size).putLong(source.modified).putInt(0).putInt(0).put(sourcePath)
+                .position(directory);
+        long offset = header.capacity();
+        for (int i = 0; i < blocks.size(); i++) {
+            ByteBuffer block = blocks.get(i);
+            CRC32C crc = new CRC32C();
+            crc.update(block.duplicate());
+            offset = align(offset);
+            header.putInt(ids.get(i)[0]).putInt(ids.get(i)[1]).putLong(offset).putLong(block.remaining())
+                    .putInt((int) crc.getValue()).putInt(0);
+            offset += block.remaining();
+        }
+        if (offset > MAX_FILE_BYTES) {
+            throw new IOException("Snapshot of " + rows + " rows would take " + offset
+                    + " bytes, over the format limit of " + MAX_FILE_BYTES);
+        }
+        header.putInt(CHECKSUM_OFFSET, headerChecksum(header, header.capacity()));
+        header.flip();
+
+        Path temp = Files.createTempFile(path.toAbsolutePath().getParent(), path.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                writeFully(channel, header);
+                for (ByteBuffer block : blocks) {
+                    // Zero padding up to the block's aligned offset, so even an empty last block is in bounds
+                    writeFully(channel, ByteBuffer.allocate((int) (align(channel.position()) - channel.position())));
+                    writeFully(channel, block);
+                }
+                channel.force(false);
+            }
+            try {
+                Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    public static SalesTable read(Path path) throws IOException {
+        return read(path, null);
+    }
+
+    // Reads the snapshot, failing unless it was written from exactly this source when one is given
+    private static SalesTable read(Path path, Source expected) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_BYTES) {
+                throw corrupt(path, "too short");
+            }
+            if (fileSize > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot " + path + " is larger than one mapping (2 GB)");
+            }
+            MappedByteBuffer file = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+            file.order(ByteOrder.LITTLE_ENDIAN);
+
+            byte[] magic = new byte[MAGIC.length];
+            file.get(magic);
+            if (!Arrays.equals(magic, MAGIC)) {
+                throw corrupt(path, "not a sales snapshot");
+            }
+            int version = file.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported snapshot version " + version + " in " + path);
+            }
+            int rows = file.getInt();
+            int blockCount = file.getInt();
+            int sourceLength = file.getInt();
+            long sourceSize = file.getLong();
+            long sourceModified = file.getLong();
+            int headerChecksum = file.getInt();
+            long directory = align(HEADER_BYTES + (long) sourceLength);
+            long directoryEnd = directory + (long) ENTRY_BYTES * blockCount;
+            if (rows < 0 || blockCount < 0 || sourceLength < 0 || directoryEnd > fileSize) {
+                throw corrupt(path, "bad header");
+            }
+            if (headerChecksum(file, (int) directoryEnd) != headerChecksum) {
+                throw corrupt(path, "header checksum mismatch");
+            }
+            if (expected != null) {
+                byte[] sourcePath = new byte[sourceLength];
+                file.get(HEADER_BYTES, sourcePath);
+                Source source = new Source(new String(sourcePath, StandardCharsets.UTF_8), sourceSize, sourceModified);
+                if (!source.equals(expected)) {
+                    throw new IOException("Snapshot " + path + " was written from " + source + ", not " + expected);
+                }
+            }
+
+            // Blocks by field and kind
+            ByteBuffer[][] blocks = new ByteBuffer[SalesField.values().length][3];
+            for (int i = 0; i < blockCount; i++) {
+                ByteBuffer entry = file.slice((int) directory + ENTRY_BYTES * i, ENTRY_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+                int field = entry.getInt();
+                int kind = entry.getInt();
+                long offset = entry.getLong();
+                long length = entry.getLong();
+                int checksum = entry.getInt();
+                if (field < 0 || field >= blocks.length || kind < 0 || kind > CODES
+                        || offset < 0 || length < 0 || offset + length > fileSize) {
+                    throw corrupt(path, "bad block " + i);
+                }
+                ByteBuffer block = file.slice((int) offset, (int) length).order(ByteOrder.LITTLE_ENDIAN);
+                CRC32C crc = new CRC32C();
+                crc.update(block.duplicate());
+                if ((int) crc.getValue() != checksum) {
+                    throw corrupt(path, "checksum mismatch in block " + i);
+                }
+                blocks[field][kind] = block;
+            }
+
+            // At least one slot, so the table can grow by doubling
+            int capacity = Math.max(1, rows);
+            SalesTable table = new SalesTable();
+            double[] sales = new double[capacity];
+            double[] profit = new double[capacity];
+            double[] discount = new double[capacity];
+            int[] quantity = new int[capacity];
+            int[] orderDate = new int[capacity];
+            block(blocks, SalesField.SALES, VALUES, rows * 8L, path).asDoubleBuffer().get(sales, 0, rows);
+            block(blocks, SalesField.PROFIT, VALUES, rows * 8L, path).asDoubleBuffer().get(profit, 0, rows);
+            block(blocks, SalesField.DISCOUNT, VALUES, rows * 8L, path).asDoubleBuffer().get(discount, 0, rows);
+            block(blocks, SalesField.QUANTITY, VALUES, rows * 4L, path).asIntBuffer().get(quantity, 0, rows);
+            block(blocks, SalesField.ORDER_DATE, VALUES, rows * 4L, path).asIntBuffer().get(orderDate, 0, rows);
+            table.load(rows, sales, profit, discount, quantity, orderDate);
+
+            for (SalesField field : TEXT) {
+                List<String> values = readDictionary(block(blocks, field, DICTIONARY, -1, path), path);
+                int[] codes = new int[capacity];
+                block(blocks, field, CODES, rows * 4L, path).asIntBuffer().get(codes, 0, rows);
+                for (int row = 0; row < rows; row++) {
+                    if (codes[row] < -1 || codes[row] >= values.size()) {
+                        throw corrupt(path, "bad " + field + " code in row " + row);
+                    }
+                }
+                table.column(field).load(codes, values);
+            }
+            return table;
+        }
+    }
+
+    // The snapshot if it was written from this CSV file as it is now (same absolute path, size and
+    // modification time), else parses the CSV and (best effort) writes a fresh snapshot for next
+    // time; a snapshot that fails to read is replaced the same way
+    public static SalesTable load(Path csvPath, Path snapshotPath) throws IOException {
+        Source source = Source.of(csvPath);
+        if (Files.exists(snapshotPath)) {
+            try {
+                return read(snapshotPath, source);
+            } catch (IOException e) {
+                System.out.println("Ignoring snapshot " + snapshotPath + ": " + e.getMessage());
+            }
+        }
+        SalesTable table = SalesTable.load(csvPath.toString());
+        try {
+            write(table, snapshotPath, source);
+        } catch (IOException e) {
+            System.out.println("Could not write snapshot " + snapshotPath + ": " + e.getMessage());
+        }
+        return table;
+    }
+
+    private static ByteBuffer block(ByteBuffer[][] blocks, SalesField field, int kind, long expectedLength,
+                                    Path path) throws IOException {
+        ByteBuffer block = blocks[field.ordinal()][kind];
+        if (block == null) {
+            throw corrupt(path, "no " + field + " block");
+        }
+        if (expectedLength >= 0 && block.remaining() != expectedLength) {
+            throw corrupt(path, field + " block has " + block.remaining() + " bytes, expected " + expectedLength);
+        }
+        return block.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static List<String> readDictionary(ByteBuffer block, Path path) throws IOException {
+        try {
+            int count = block.getInt();
+            List<String> values = new ArrayList<>(Math.min(count, block.remaining() / 4));
+            for (int i = 0; i < count; i++) {
+                byte[] bytes = new byte[block.getInt()];
+                block.get(bytes);
+                values.add(new String(bytes, StandardCharsets.UTF_8));
+            }
+            return values;
+        } catch (RuntimeException e) {
+            // Buffer underflow or a negative length
+            throw corrupt(path, "bad dictionary");
+        }
+    }
+
+    // Rejects a table whose fixed-width blocks alone would not fit the format, before allocating any
+    static void checkRows(int rows) throws IOException {
+        long bytes = (long) rows * (3 * Double.BYTES + 2 * Integer.BYTES + TEXT.length * Integer.BYTES);
+        if (bytes > MAX_FILE_BYTES) {
+            throw new IOException("Table of " + rows + " rows needs " + bytes
+                    + " bytes of columns, over the snapshot format limit of " + MAX_FILE_BYTES);
+        }
+    }
+
+    // Sizes are within an int once checkRows has passed
+    private static ByteBuffer doubles(double[] column, int rows) {
+        ByteBuffer block = ByteBuffer.allocate(Math.toIntExact((long) rows * Double.BYTES)).order(ByteOrder.LITTLE_ENDIAN);
+        block.asDoubleBuffer().put(column, 0, rows);
+        return block;
+    }
+
+    private static ByteBuffer ints(int[] column, int rows) {
+        ByteBuffer block = ByteBuffer.allocate(Math.toIntExact((long) rows * Integer.BYTES)).order(ByteOrder.LITTLE_ENDIAN);
+        block.asIntBuffer().put(column, 0, rows);
+        return block;
+    }
+
+    private static ByteBuffer dictionary(SalesTable.StringColumn column) throws IOException {
+        List<byte[]> values = new ArrayList<>();
+        long bytes = 4;
+        for (int code = 0; code < column.cardinality(); code++) {
+            byte[] value = column.valueOf(code).getBytes(StandardCharsets.UTF_8);
+            values.add(value);
+            bytes += 4 + value.length;
+        }
+        if (bytes > MAX_FILE_BYTES) {
+            throw new IOException("Dictionary of " + values.size() + " values is over the snapshot format limit");
+        }
+        ByteBuffer block = ByteBuffer.allocate((int) bytes).order(ByteOrder.LITTLE_ENDIAN);
+        block.putInt(values.size());
+        for (byte[] value : values) {
+            block.putInt(value.length).put(value);
+        }
+        return block.flip();
+    }
+
+    // CRC32C of bytes [0, end) of the file, skipping the checksum field itself
+    private static int headerChecksum(ByteBuffer file, int end) {
+        CRC32C crc = new CRC32C();
+        crc.update(file.slice(0, CHECKSUM_OFFSET));
+        crc.update(file.slice(CHECKSUM_OFFSET + Integer.BYTES, end - CHECKSUM_OFFSET - Integer.BYTES));
+        return (int) crc.getValue();
+    }
+
+    private static long align(long offset) {
+        return (offset + 7) & ~7L;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static IOException corrupt(Path path, String reason) {
+        return new IOException("Corrupt snapshot " + path + ": " + reason);
+    }
+
+    // Identity of the CSV file a snapshot was built from
+    private static final class Source {
+        static final Source NONE = new Source("", -1, -1);
+
+        final String path;
+        final long size;
+        final long modified;
+
+        Source(String path, long size, long modified) {
+            this.path = path;
+            this.size = size;
+            this.modified = modified;
+        }
+
+        static Source of(Path csvPath) throws IOException {
+            return new Source(csvPath.toAbsolutePath().normalize().toString(), Files.size(csvPath),
+                    Files.getLastModifiedTime(csvPath).toMillis());
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Source that = (Source) o;
+            return path.equals(that.path) && size == that.size && modified == that.modified;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(path, size, modified);
+        }
+
+        @Override
+        public String toString() {
+            return path.isEmpty() ? "<no source>" : path + " (" + size + " bytes, modified " + modified + ")";
+        }
+    }
+}
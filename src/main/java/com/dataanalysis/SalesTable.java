@@ -0,0 +1,388 @@
+package com.dataanalysis;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Columnar in-memory copy of the sales data
+// Measures live in primitive arrays (double[] sales/profit/discount, int[] quantity), order
+// dates are int[] epoch days, and every text column is dictionary-coded into an int[] of codes.
+// Codes are assigned per table in first-seen row order, which lets analyses rebuild the same
+// HashMaps the stream implementation builds. Rows can be appended by one thread at a time, and
+// not while others read; between appends any number of threads can query the table. Indexes that
+// are built on first use are published under a lock, so concurrent first queries are safe too.
+public class SalesTable {
+    // Marks a null order date (e.g. a projected parse without ORDER_DATE)
+    static final int NO_DATE = Integer.MIN_VALUE;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private int size = 0;
+    // Bumped by every add, so caches in front of an analyzer can tell the data changed
+    private volatile long version;
+    private double[] sales = new double[INITIAL_CAPACITY];
+    private double[] profit = new double[INITIAL_CAPACITY];
+    private double[] discount = new double[INITIAL_CAPACITY];
+    private int[] quantity = new int[INITIAL_CAPACITY];
+    private int[] orderDate = new int[INITIAL_CAPACITY];
+    // Built on first use, dropped by add
+    private volatile DateIndex dateIndex;
+    // Built on first use per text column, then extended by add; replaced, never changed, when an
+    // index is added, so readers can use it without the lock
+    private volatile Map<SalesField, BitmapIndex> bitmapIndexes = Map.of();
+
+    private final StringColumn orderId = new StringColumn();
+    private final StringColumn shipMode = new StringColumn();
+    private final StringColumn segment = new StringColumn();
+    private final StringColumn country = new StringColumn();
+    private final StringColumn city = new StringColumn();
+    private final StringColumn state = new StringColumn();
+    private final StringColumn region = new StringColumn();
+    private final StringColumn category = new StringColumn();
+    private final StringColumn subCategory = new StringColumn();
+    private final StringColumn productName = new StringColumn();
+
+    public static SalesTable from(Collection<SalesRecord> records) {
+        SalesTable table = new SalesTable();
+        for (SalesRecord record : records) {
+            table.add(record);
+        }
+        return table;
+    }
+
+    // Parses the CSV file straight into a table
+    public static SalesTable load(String filePath) throws IOException {
+        SalesTable table = new SalesTable();
+        SalesDataParser.forEachRecord(filePath, table::add);
+        return table;
+    }
+
+    public void add(SalesRecord record) {
+        ensureCapacity();
+        sales[size] = record.getSales();
+        profit[size] = record.getProfit();
+        discount[size] = record.getDiscount();
+        quantity[size] = record.getQuantity();
+
+        LocalDate date = record.getOrderDate();
+        if (date == null) {
+            orderDate[size] = NO_DATE;
+        } else {
+            orderDate[size] = (int) date.toEpochDay();
+        }
+
+        orderId.add(size, record.getOrderId());
+        shipMode.add(size, record.getShipMode());
+        segment.add(size, record.getSegment());
+        country.add(size, record.getCountry());
+        city.add(size, record.getCity());
+        state.add(size, record.getState());
+        region.add(size, record.getRegion());
+        category.add(size, record.getCategory());
+        subCategory.add(size, record.getSubCategory());
+        productName.add(size, record.getProductName());
+        for (BitmapIndex index : bitmapIndexes.values()) {
+            index.add(size);
+        }
+        size++;
+        if (dateIndex != null) {
+            dateIndex = null;
+        }
+        version++;
+    }
+
+    private void ensureCapacity() {
+        if (size == sales.length) {
+            int capacity = size * 2;
+            sales = Arrays.copyOf(sales, capacity);
+            profit = Arrays.copyOf(profit, capacity);
+            discount = Arrays.copyOf(discount, capacity);
+            quantity = Arrays.copyOf(quantity, capacity);
+            orderDate = Arrays.copyOf(orderDate, capacity);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Changes whenever rows are added; see SalesAnalyzer.getDataVersion
+    public long version() {
+        return version;
+    }
+
+    public double getSales(int row) {
+        return sales[row];
+    }
+
+    public double getProfit(int row) {
+        return profit[row];
+    }
+
+    public double getDiscount(int row) {
+        return discount[row];
+    }
+
+    public int getQuantity(int row) {
+        return quantity[row];
+    }
+
+    public LocalDate getOrderDate(int row) {
+        return orderDate[row] == NO_DATE ? null : LocalDate.ofEpochDay(orderDate[row]);
+    }
+
+    // Text column for field; throws for numeric fields and ORDER_DATE
+    public StringColumn column(SalesField field) {
+        return switch (field) {
+            case ORDER_ID -> orderId;
+            case SHIP_MODE -> shipMode;
+            case SEGMENT -> segment;
+            case COUNTRY -> country;
+            case CITY -> city;
+            case STATE -> state;
+            case REGION -> region;
+            case CATEGORY -> category;
+            case SUB_CATEGORY -> subCategory;
+            case PRODUCT_NAME -> productName;
+            default -> throw new IllegalArgumentException("Not a text column: " + field);
+        };
+    }
+
+    // Rows sorted by order date; built once and reused until the next add
+    public DateIndex dateIndex() {
+        DateIndex index = dateIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = dateIndex;
+                if (index == null) {
+                    index = DateIndex.build(orderDate, size);
+                    dateIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    // Rows whose text field holds any of values, e.g. rowsWhere(REGION, "West").and(...)
+    public RowBitmap rowsWhere(SalesField field, String... values) {
+        BitmapIndex index = bitmapIndexes.get(field);
+        if (index == null) {
+            synchronized (this) {
+                index = bitmapIndexes.get(field);
+                if (index == null) {
+                    index = new BitmapIndex(column(field), size);
+                    Map<SalesField, BitmapIndex> indexes = new EnumMap<>(SalesField.class);
+                    indexes.putAll(bitmapIndexes);
+                    indexes.put(field, index);
+                    bitmapIndexes = indexes;
+                }
+            }
+        }
+        return index.rows(values);
+    }
+
+    // New table holding only the given rows, in row order, e.g. to aggregate a filter's matches
+    public SalesTable select(RowBitmap rows) {
+        if (rows.last() >= size) {
+            throw new IndexOutOfBoundsException("Row " + rows.last() + " of " + size);
+        }
+        // Column at a time, so each pass reads one source array in increasing row order
+        int[] selectedRows = rows.toArray();
+        int capacity = Math.max(INITIAL_CAPACITY, selectedRows.length);
+        SalesTable selected = new SalesTable();
+        selected.size = selectedRows.length;
+        selected.sales = new double[capacity];
+        selected.profit = new double[capacity];
+        selected.discount = new double[capacity];
+        selected.quantity = new int[capacity];
+        selected.orderDate = new int[capacity];
+        for (int i = 0; i < selectedRows.length; i++) {
+            int row = selectedRows[i];
+            selected.sales[i] = sales[row];
+            selected.profit[i] = profit[row];
+            selected.discount[i] = discount[row];
+        }
+        for (int i = 0; i < selectedRows.length; i++) {
+            selected.quantity[i] = quantity[selectedRows[i]];
+            selected.orderDate[i] = orderDate[selectedRows[i]];
+        }
+        StringColumn[] to = selected.textColumns();
+        StringColumn[] from = textColumns();
+        for (int i = 0; i < from.length; i++) {
+            to[i].copy(from[i], selectedRows, capacity);
+        }
+        return selected;
+    }
+
+    private StringColumn[] textColumns() {
+        return new StringColumn[]{orderId, shipMode, segment, country, city, state, region, category,
+                subCategory, productName};
+    }
+
+    // Rebuilds the record at row
+    public SalesRecord row(int row) {
+        return new SalesRecord(orderId.value(row), getOrderDate(row), shipMode.value(row),
+                segment.value(row), country.value(row), city.value(row), state.value(row),
+                region.value(row), category.value(row), subCategory.value(row),
+                productName.value(row), sales[row], quantity[row], discount[row], profit[row]);
+    }
+
+    // Read-only list view; each get rebuilds the record
+    public List<SalesRecord> rows() {
+        return new AbstractList<>() {
+            @Override
+            public SalesRecord get(int index) {
+                if (index < 0 || index >= size) {
+                    throw new IndexOutOfBoundsException("Row " + index + " of " + size);
+                }
+                return row(index);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    // Fills an empty table's numeric columns with rows [0, size) of the given arrays, which the
+    // table takes over; for SalesSnapshot, which loads the text columns the same way
+    void load(int size, double[] sales, double[] profit, double[] discount, int[] quantity, int[] orderDate) {
+        if (this.size != 0) {
+            throw new IllegalStateException("Table is not empty");
+        }
+        this.size = size;
+        this.sales = sales;
+        this.profit = profit;
+        this.discount = discount;
+        this.quantity = quantity;
+        this.orderDate = orderDate;
+        version++;
+    }
+
+    // Raw columns for the columnar analyses; valid up to size()
+    double[] salesColumn() {
+        return sales;
+    }
+
+    double[] profitColumn() {
+        return profit;
+    }
+
+    double[] discountColumn() {
+        return discount;
+    }
+
+    int[] quantityColumn() {
+        return quantity;
+    }
+
+    int[] orderDateColumn() {
+        return orderDate;
+    }
+
+    // Dictionary-coded text column: an int code per row plus the distinct values by code
+    // A null value is stored as code -1.
+    public static final class StringColumn {
+        private int[] codes = new int[INITIAL_CAPACITY];
+        private final List<String> values = new ArrayList<>();
+        // Value -> code; copy and load leave it behind values and indexed() catches up on first lookup
+        private final Map<String, Integer> index = new HashMap<>();
+        // Codes in index; once it reaches values.size() readers use the map without the lock
+        private volatile int indexedCodes;
+
+        void add(int row, String value) {
+            if (row == codes.length) {
+                codes = Arrays.copyOf(codes, row * 2);
+            }
+            if (value == null) {
+                codes[row] = -1;
+                return;
+            }
+            Integer code = indexed().get(value);
+            if (code == null) {
+                code = values.size();
+                index.put(value, code);
+                values.add(value);
+                indexedCodes = values.size();
+            }
+            codes[row] = code;
+        }
+
+        // Fills an empty column with source's values at sourceRows
+        // Codes are renumbered in first-seen order, as add would number them.
+        void copy(StringColumn source, int[] sourceRows, int capacity) {
+            codes = new int[capacity];
+            // Source code -> code here + 1, 0 until the value is first seen
+            int[] codeMap = new int[source.cardinality()];
+            for (int i = 0; i < sourceRows.length; i++) {
+                int sourceCode = source.codes[sourceRows[i]];
+                if (sourceCode < 0) {
+                    codes[i] = -1;
+                    continue;
+                }
+                if (codeMap[sourceCode] == 0) {
+                    values.add(source.values.get(sourceCode));
+                    codeMap[sourceCode] = values.size();
+                }
+                codes[i] = codeMap[sourceCode] - 1;
+            }
+        }
+
+        // Fills an empty column: codes per row (taken over; at least one slot long) and values by code
+        void load(int[] codes, List<String> values) {
+            if (!this.values.isEmpty()) {
+                throw new IllegalStateException("Column is not empty");
+            }
+            this.codes = codes;
+            this.values.addAll(values);
+        }
+
+        public int code(int row) {
+            return codes[row];
+        }
+
+        public String value(int row) {
+            int code = codes[row];
+            return code < 0 ? null : values.get(code);
+        }
+
+        public String valueOf(int code) {
+            return values.get(code);
+        }
+
+        // Code of value, or -1 if no row has it
+        public int codeOf(String value) {
+            Integer code = indexed().get(value);
+            return code == null ? -1 : code;
+        }
+
+        // Number of distinct values
+        public int cardinality() {
+            return values.size();
+        }
+
+        int[] codes() {
+            return codes;
+        }
+
+        // Codes are dense and values distinct, so the map holds exactly codes [0, index.size())
+        private Map<String, Integer> indexed() {
+            if (indexedCodes < values.size()) {
+                synchronized (this) {
+                    for (int code = index.size(); code < values.size(); code++) {
+                        index.put(values.get(code), code);
+                    }
+                    indexedCodes = values.size();
+                }
+            }
+            return index;
+        }
+    }
+}
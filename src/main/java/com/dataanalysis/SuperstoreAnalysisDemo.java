@@ -1,6 +1,7 @@
 package com.dataanalysis;
 
 import java.io.IOException;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.time.Month;
 import java.util.List;
@@ -11,6 +12,8 @@ import java.util.DoubleSummaryStatistics;
 public class SuperstoreAnalysisDemo {
 
     private static final String CSV_FILE_PATH = "data/Superstore.csv";
+    // Binary copy of the parsed CSV, rebuilt whenever the CSV is newer
+    private static final String SNAPSHOT_PATH = "data/Superstore.snapshot";
 
     public static void main(String[] args) {
         try {
@@ -20,20 +23,41 @@ public class SuperstoreAnalysisDemo {
 
             // Load data
             System.out.println("Loading data from: " + CSV_FILE_PATH);
-            List<SalesRecord> salesData = SalesDataParser.parseCSV(CSV_FILE_PATH);
+            SalesTable table = SalesSnapshot.load(Path.of(CSV_FILE_PATH), Path.of(SNAPSHOT_PATH));
+            List<SalesRecord> salesData = table.rows();
             System.out.println("Loaded " + salesData.size() + " sales records\n");
 
-            // Create analyzer
-            SalesAnalyzer analyzer = new SalesAnalyzer(salesData);
+            // Compute every metric the analyses print in one pass over the data
+            SalesReport.Result report = new SalesReport()
+                    .totalRevenue()
+                    .totalProfit()
+                    .averageOrderValue()
+                    .salesByCategory()
+                    .profitByCategory()
+                    .profitMarginByCategory()
+                    .categoryDistributionPercentage()
+                    .regionSalesStatistics()
+                    .orderCountByRegion()
+                    .topStatesBySales(5)
+                    .topProductsBySales(10)
+                    .topProductsByProfit(10)
+                    .quantityBySubCategory()
+                    .unprofitableProducts()
+                    .highValueOrders(10000)
+                    .monthlySalesTrend()
+                    .salesBySegment()
+                    .salesByShipMode()
+                    .averageDiscountByCategory()
+                    .run(salesData);
 
             // Perform various analyses
-            performBasicAnalysis(analyzer);
-            performCategoryAnalysis(analyzer);
-            performRegionalAnalysis(analyzer);
-            performProductAnalysis(analyzer);
-            performProfitabilityAnalysis(analyzer);
-            performTemporalAnalysis(analyzer);
-            performSegmentAnalysis(analyzer);
+            performBasicAnalysis(report);
+            performCategoryAnalysis(report);
+            performRegionalAnalysis(report);
+            performProductAnalysis(report);
+            performProfitabilityAnalysis(report);
+            performTemporalAnalysis(report);
+            performSegmentAnalysis(report);
 
             System.out.println("Analysis Complete!");
 
@@ -46,12 +70,12 @@ public class SuperstoreAnalysisDemo {
     
     // Analysis 1: Basic Revenue and Profit Metrics
     
-    private static void performBasicAnalysis(SalesAnalyzer analyzer) {
+    private static void performBasicAnalysis(SalesReport.Result report) {
         System.out.println("ANALYSIS 1: Basic Revenue and Profit Metrics");
 
-        double totalRevenue = analyzer.calculateTotalRevenue();
-        double totalProfit = analyzer.calculateTotalProfit();
-        double avgOrderValue = analyzer.getAverageOrderValue();
+        double totalRevenue = report.getTotalRevenue();
+        double totalProfit = report.getTotalProfit();
+        double avgOrderValue = report.getAverageOrderValue();
         double profitMargin = (totalProfit / totalRevenue) * 100;
 
         System.out.printf("Total Revenue:        $%,.2f%n", totalRevenue);
@@ -63,13 +87,13 @@ public class SuperstoreAnalysisDemo {
     
     // Analysis 2: Category Performance
     
-    private static void performCategoryAnalysis(SalesAnalyzer analyzer) {
+    private static void performCategoryAnalysis(SalesReport.Result report) {
         System.out.println("ANALYSIS 2: Sales and Profit by Category");
 
-        Map<String, Double> salesByCategory = analyzer.getSalesByCategory();
-        Map<String, Double> profitByCategory = analyzer.getProfitByCategory();
-        Map<String, Double> profitMargins = analyzer.getProfitMarginByCategory();
-        Map<String, Double> categoryDistribution = analyzer.getCategoryDistributionPercentage();
+        Map<String, Double> salesByCategory = report.getSalesByCategory();
+        Map<String, Double> profitByCategory = report.getProfitByCategory();
+        Map<String, Double> profitMargins = report.getProfitMarginByCategory();
+        Map<String, Double> categoryDistribution = report.getCategoryDistributionPercentage();
 
         System.out.println("\nCategory Breakdown:");
         System.out.printf("%-20s %15s %15s %15s %12s%n",
@@ -92,11 +116,11 @@ public class SuperstoreAnalysisDemo {
     
     // Analysis 3: Regional Performance
     
-    private static void performRegionalAnalysis(SalesAnalyzer analyzer) {
+    private static void performRegionalAnalysis(SalesReport.Result report) {
         System.out.println("ANALYSIS 3: Regional Performance");
 
-        Map<String, DoubleSummaryStatistics> regionStats = analyzer.getRegionSalesStatistics();
-        Map<String, Long> orderCountByRegion = analyzer.getOrderCountByRegion();
+        Map<String, DoubleSummaryStatistics> regionStats = report.getRegionSalesStatistics();
+        Map<String, Long> orderCountByRegion = report.getOrderCountByRegion();
 
         System.out.println("\nRegional Statistics:");
         System.out.printf("%-15s %12s %15s %15s %12s%n",
@@ -118,29 +142,29 @@ public class SuperstoreAnalysisDemo {
 
         // Top 5 states by sales
         System.out.println("\nTop 5 States by Sales:");
-        analyzer.getTopStatesBySales(5).forEach(entry ->
+        report.getTopStatesBySales().forEach(entry ->
                 System.out.printf("%-30s $%,15.2f%n", entry.getKey(), entry.getValue()));
     }
 
     
     // Analysis 4: Top Products
     
-    private static void performProductAnalysis(SalesAnalyzer analyzer) {
+    private static void performProductAnalysis(SalesReport.Result report) {
         System.out.println("ANALYSIS 4: Top Products");
 
         System.out.println("\nTop 10 Products by Sales:");
-        analyzer.getTopProductsBySales(10).forEach(entry ->
+        report.getTopProductsBySales().forEach(entry ->
                 System.out.printf("%-50s $%,15.2f%n",
                         truncate(entry.getKey(), 50), entry.getValue()));
 
         System.out.println("\nTop 10 Products by Profit:");
-        analyzer.getTopProductsByProfit(10).forEach(entry ->
+        report.getTopProductsByProfit().forEach(entry ->
                 System.out.printf("%-50s $%,15.2f%n",
                         truncate(entry.getKey(), 50), entry.getValue()));
 
         // Sub-category analysis
         System.out.println("\nQuantity Sold by Sub-Category (Top 10):");
-        analyzer.getQuantityBySubCategory().entrySet().stream()
+        report.getQuantityBySubCategory().entrySet().stream()
                 .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
                 .limit(10)
                 .forEach(entry ->
@@ -150,10 +174,10 @@ public class SuperstoreAnalysisDemo {
     
     // Analysis 5: Profitability Analysis
     
-    private static void performProfitabilityAnalysis(SalesAnalyzer analyzer) {
+    private static void performProfitabilityAnalysis(SalesReport.Result report) {
         System.out.println("ANALYSIS 5: Profitability Analysis");
 
-        List<SalesRecord> unprofitableProducts = analyzer.getUnprofitableProducts();
+        List<SalesRecord> unprofitableProducts = report.getUnprofitableProducts();
 
         System.out.println("\nProducts with Losses (Negative Profit):");
         System.out.println("Total Unprofitable Transactions: " + unprofitableProducts.size());
@@ -176,7 +200,7 @@ public class SuperstoreAnalysisDemo {
 
         // High-value orders
         System.out.println("\nHigh-Value Orders (> $10,000):");
-        List<SalesRecord> highValueOrders = analyzer.getHighValueOrders(10000);
+        List<SalesRecord> highValueOrders = report.getHighValueOrders();
         System.out.println("Count: " + highValueOrders.size());
         highValueOrders.stream()
                 .limit(5)
@@ -190,10 +214,10 @@ public class SuperstoreAnalysisDemo {
     
     // Analysis 6: Temporal Trends
     
-    private static void performTemporalAnalysis(SalesAnalyzer analyzer) {
+    private static void performTemporalAnalysis(SalesReport.Result report) {
         System.out.println("ANALYSIS 6: Temporal Trends");
 
-        Map<Month, Double> monthlySales = analyzer.getMonthlySalesTrend();
+        Map<Month, Double> monthlySales = report.getMonthlySalesTrend();
 
         System.out.println("\nMonthly Sales Trend:");
         System.out.printf("%-15s %20s%n", "Month", "Total Sales");
@@ -218,12 +242,12 @@ public class SuperstoreAnalysisDemo {
     
     // Analysis 7: Customer Segment & Shipping Analysis
     
-    private static void performSegmentAnalysis(SalesAnalyzer analyzer) {
+    private static void performSegmentAnalysis(SalesReport.Result report) {
         System.out.println("ANALYSIS 7: Customer Segment & Shipping Analysis");
 
-        Map<String, Double> salesBySegment = analyzer.getSalesBySegment();
-        Map<String, Double> salesByShipMode = analyzer.getSalesByShipMode();
-        Map<String, Double> avgDiscountByCategory = analyzer.getAverageDiscountByCategory();
+        Map<String, Double> salesBySegment = report.getSalesBySegment();
+        Map<String, Double> salesByShipMode = report.getSalesByShipMode();
+        Map<String, Double> avgDiscountByCategory = report.getAverageDiscountByCategory();
 
         System.out.println("\nSales by Customer Segment:");
         salesBySegment.entrySet().stream()
@@ -0,0 +1,135 @@
+package com.dataanalysis;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+// The k best items of a sequence, kept in a bounded heap: O(m log k) instead of sorting all m
+// Items that compare equal keep the order they were offered in, so the result is exactly what a
+// stable sort followed by limit(k) returns, e.g. stream().sorted(order).limit(k).
+public final class TopK<T> {
+    private final Comparator<? super T> order;
+    private final int k;
+    // Worst kept item at the head, so it is the one a better item replaces
+    private final PriorityQueue<Ranked<T>> heap;
+    private long offered;
+
+    // order puts the best items first
+    public TopK(int k, Comparator<? super T> order) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k must not be negative: " + k);
+        }
+        this.order = order;
+        this.k = k;
+        this.heap = new PriorityQueue<>((a, b) -> compare(b, a));
+    }
+
+    public static <T> List<T> top(Iterable<? extends T> items, Comparator<? super T> order, int k) {
+        return page(items, order, 0, k);
+    }
+
+    // Items [offset, offset + limit) of the sorted sequence
+    public static <T> List<T> page(Iterable<? extends T> items, Comparator<? super T> order, int offset, int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("Offset and limit must not be negative: " + offset + ", " + limit);
+        }
+        TopK<T> top = new TopK<>((int) Math.min(Integer.MAX_VALUE, (long) offset + limit), order);
+        for (T item : items) {
+            top.offer(item);
+        }
+        List<T> sorted = top.toList();
+        return offset >= sorted.size() ? new ArrayList<>() : new ArrayList<>(sorted.subList(offset, sorted.size()));
+    }
+
+    public void offer(T item) {
+        long sequence = offered++;
+        if (heap.size() < k) {
+            heap.add(new Ranked<>(item, sequence));
+        } else if (k > 0 && order.compare(item, heap.peek().item) < 0) {
+            // A tie never replaces the kept item, which was offered earlier
+            heap.poll();
+            heap.add(new Ranked<>(item, sequence));
+        }
+    }
+
+    // Kept items, best first
+    public List<T> toList() {
+        List<Ranked<T>> ranked = new ArrayList<>(heap);
+        ranked.sort(this::compare);
+        List<T> items = new ArrayList<>(ranked.size());
+        for (Ranked<T> entry : ranked) {
+            items.add(entry.item);
+        }
+        return items;
+    }
+
+    public int size() {
+        return heap.size();
+    }
+
+    // The best k of rows[0, count), best first, kept in a bounded heap of row numbers whose root is
+    // the worst row kept: O(count log k) with no boxing. k >= count sorts them all (a heapsort).
+    static int[] rows(int[] rows, int count, double[] keys, boolean descending, int k) {
+        int[] heap = new int[Math.min(k, count)];
+        int size = 0;
+        for (int i = 0; i < count; i++) {
+            int row = rows[i];
+            if (size < heap.length) {
+                int child = size++;
+                while (child > 0 && before(keys, descending, heap[(child - 1) >>> 1], row)) {
+                    heap[child] = heap[(child - 1) >>> 1];
+                    child = (child - 1) >>> 1;
+                }
+                heap[child] = row;
+            } else if (size > 0 && before(keys, descending, row, heap[0])) {
+                siftDown(heap, size, row, keys, descending);
+            }
+        }
+        // Moving the worst row to the back until one is left leaves the array best first
+        for (int end = size - 1; end > 0; end--) {
+            int worst = heap[0];
+            siftDown(heap, end, heap[end], keys, descending);
+            heap[end] = worst;
+        }
+        return heap;
+    }
+
+    // Puts row at the root of heap[0, size) and moves it down past every worse child
+    private static void siftDown(int[] heap, int size, int row, double[] keys, boolean descending) {
+        int parent = 0;
+        for (int child = 1; child < size; child = 2 * parent + 1) {
+            if (child + 1 < size && before(keys, descending, heap[child], heap[child + 1])) {
+                child++;
+            }
+            if (!before(keys, descending, row, heap[child])) {
+                break;
+            }
+            heap[parent] = heap[child];
+            parent = child;
+        }
+        heap[parent] = row;
+    }
+
+    // Whether row a ranks before row b: by key, then the earlier row
+    static boolean before(double[] keys, boolean descending, int a, int b) {
+        int order = descending ? Double.compare(keys[b], keys[a]) : Double.compare(keys[a], keys[b]);
+        return order < 0 || order == 0 && a < b;
+    }
+
+    // Best first; ties go to the item offered first
+    private int compare(Ranked<T> a, Ranked<T> b) {
+        int result = order.compare(a.item, b.item);
+        return result != 0 ? result : Long.compare(a.sequence, b.sequence);
+    }
+
+    private static final class Ranked<T> {
+        final T item;
+        final long sequence;
+
+        Ranked(T item, long sequence) {
+            this.item = item;
+            this.sequence = sequence;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.dataanalysis;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+// Vector API versions of the AggregationKernels; only loaded when jdk.incubator.vector is present
+// Each kernel runs whole vectors of the preferred species over the range, then hands the
+// remaining tail to the scalar version.
+final class VectorAggregationKernels {
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    private VectorAggregationKernels() {
+    }
+
+    static double sum(double[] values, int from, int to) {
+        DoubleVector sums = DoubleVector.zero(SPECIES);
+        int i = from;
+        for (int bound = vectorBound(from, to); i < bound; i += SPECIES.length()) {
+            sums = sums.add(DoubleVector.fromArray(SPECIES, values, i));
+        }
+        return sums.reduceLanes(VectorOperators.ADD) + AggregationKernels.scalarSum(values, i, to);
+    }
+
+    static double min(double[] values, int from, int to) {
+        DoubleVector mins = DoubleVector.broadcast(SPECIES, Double.POSITIVE_INFINITY);
+        int i = from;
+        for (int bound = vectorBound(from, to); i < bound; i += SPECIES.length()) {
+            mins = mins.min(DoubleVector.fromArray(SPECIES, values, i));
+        }
+        return Math.min(mins.reduceLanes(VectorOperators.MIN), AggregationKernels.scalarMin(values, i, to));
+    }
+
+    static double max(double[] values, int from, int to) {
+        DoubleVector maxes = DoubleVector.broadcast(SPECIES, Double.NEGATIVE_INFINITY);
+        int i = from;
+        for (int bound = vectorBound(from, to); i < bound; i += SPECIES.length()) {
+            maxes = maxes.max(DoubleVector.fromArray(SPECIES, values, i));
+        }
+        return Math.max(maxes.reduceLanes(VectorOperators.MAX), AggregationKernels.scalarMax(values, i, to));
+    }
+
+    static int countGreaterThan(double[] values, int from, int to, double threshold) {
+        int count = 0;
+        int i = from;
+        for (int bound = vectorBound(from, to); i < bound; i += SPECIES.length()) {
+            count += DoubleVector.fromArray(SPECIES, values, i).compare(VectorOperators.GT, threshold).trueCount();
+        }
+        return count + AggregationKernels.scalarCountGreaterThan(values, i, to, threshold);
+    }
+
+    static int countLessThan(double[] values, int from, int to, double threshold) {
+        int count = 0;
+        int i = from;
+        for (int bound = vectorBound(from, to); i < bound; i += SPECIES.length()) {
+            count += DoubleVector.fromArray(SPECIES, values, i).compare(VectorOperators.LT, threshold).trueCount();
+        }
+        return count + AggregationKernels.scalarCountLessThan(values, i, to, threshold);
+    }
+
+    static double sumWhereGreaterThan(double[] values, double[] keys, int from, int to, double threshold) {
+        DoubleVector sums = DoubleVector.zero(SPECIES);
+        int i = from;
+        for (int bound = vectorBound(from, to); i < bound; i += SPECIES.length()) {
+            VectorMask<Double> selected = DoubleVector.fromArray(SPECIES, keys, i).compare(VectorOperators.GT, threshold);
+            sums = sums.add(DoubleVector.fromArray(SPECIES, values, i), selected);
+        }
+        return sums.reduceLanes(VectorOperators.ADD)
+                + AggregationKernels.scalarSumWhereGreaterThan(values, keys, i, to, threshold);
+    }
+
+    static int selectGreaterThan(double[] values, int from, int to, double threshold, int[] rows) {
+        int count = 0;
+        int i = from;
+        for (int bound = vectorBound(from, to); i < bound; i += SPECIES.length()) {
+            VectorMask<Double> selected = DoubleVector.fromArray(SPECIES, values, i).compare(VectorOperators.GT, threshold);
+            count = writeRows(selected, i, rows, count);
+        }
+        for (; i < to; i++) {
+            if (values[i] > threshold) {
+                rows[count++] = i;
+            }
+        }
+        return count;
+    }
+
+    static int selectLessThan(double[] values, int from, int to, double threshold, int[] rows) {
+        int count = 0;
+        int i = from;
+        for (int bound = vectorBound(from, to); i < bound; i += SPECIES.length()) {
+            VectorMask<Double> selected = DoubleVector.fromArray(SPECIES, values, i).compare(VectorOperators.LT, threshold);
+            count = writeRows(selected, i, rows, count);
+        }
+        for (; i < to; i++) {
+            if (values[i] < threshold) {
+                rows[count++] = i;
+            }
+        }
+        return count;
+    }
+
+    // Appends the row of every set lane, lowest lane first
+    private static int writeRows(VectorMask<Double> selected, int base, int[] rows, int count) {
+        if (!selected.anyTrue()) {
+            return count;
+        }
+        for (long lanes = selected.toLong(); lanes != 0; lanes &= lanes - 1) {
+            rows[count++] = base + Long.numberOfTrailingZeros(lanes);
+        }
+        return count;
+    }
+
+    // End of the last whole vector that fits in [from, to)
+    private static int vectorBound(int from, int to) {
+        return from + SPECIES.loopBound(to - from);
+    }
+}
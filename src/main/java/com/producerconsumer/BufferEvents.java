@@ -0,0 +1,100 @@
+package com.producerconsumer;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+// Java Flight Recorder events for the producer/consumer layer
+// Events are only allocated on the slow path (an actual wait), and commit() is a no-op
+// unless a recording enables them, so the fast path costs nothing when JFR is off.
+// See src/main/resources/producerconsumer.jfc for the matching recording settings.
+public final class BufferEvents {
+
+    private BufferEvents() {
+    }
+
+    @Name("com.producerconsumer.ProducerBlocked")
+    @Label("Producer Blocked")
+    @Category({"Producer-Consumer", "Buffers"})
+    @Description("A producer waited for space in a full buffer")
+    @Threshold("10 ms")
+    public static class ProducerBlocked extends Event {
+        @Label("Buffer")
+        public String buffer;
+
+        @Label("Capacity")
+        public int capacity;
+    }
+
+    @Name("com.producerconsumer.ConsumerWaited")
+    @Label("Consumer Waited")
+    @Category({"Producer-Consumer", "Buffers"})
+    @Description("A consumer waited for an item in an empty buffer")
+    @Threshold("10 ms")
+    public static class ConsumerWaited extends Event {
+        @Label("Buffer")
+        public String buffer;
+
+        @Label("Timed Out")
+        @Description("The wait ended without receiving an item")
+        public boolean timedOut;
+    }
+
+    @Name("com.producerconsumer.BatchHandoff")
+    @Label("Batch Handoff")
+    @Category({"Producer-Consumer", "Buffers"})
+    @Description("A batch of items was handed from one stage to the next in a single operation")
+    @StackTrace(false)
+    public static class BatchHandoff extends Event {
+        @Label("Stage")
+        public String stage;
+
+        @Label("Items")
+        public long items;
+
+        @Label("Size")
+        @DataAmount
+        public long bytes;
+    }
+
+    @Name("com.producerconsumer.Shutdown")
+    @Label("Shutdown")
+    @Category({"Producer-Consumer", "Lifecycle"})
+    @Description("A producer, consumer or sink stopped and drained")
+    @StackTrace(false)
+    public static class Shutdown extends Event {
+        @Label("Component")
+        public String component;
+
+        @Label("Reason")
+        public String reason;
+
+        @Label("Items Processed")
+        public long itemsProcessed;
+
+        @Label("Items Remaining")
+        @Description("Items still buffered when the component stopped")
+        public long itemsRemaining;
+    }
+
+    // Stable label for a buffer so producer and consumer events on the same buffer line up
+    static String describe(Object buffer) {
+        return buffer.getClass().getSimpleName() + "@" + Integer.toHexString(System.identityHashCode(buffer));
+    }
+
+    static void shutdown(String component, String reason, long itemsProcessed, long itemsRemaining) {
+        Shutdown event = new Shutdown();
+        if (event.shouldCommit()) {
+            event.component = component;
+            event.reason = reason;
+            event.itemsProcessed = itemsProcessed;
+            event.itemsRemaining = itemsRemaining;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.producerconsumer;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Progress counters for one buffer, sampled by BufferWatchdog
+// Counting is a LongAdder increment per item; blocked threads are only tracked on the slow path
+final class BufferProbe {
+    // Probes for queues, keyed weakly so an abandoned queue and its probe can be collected
+    private static final Map<BlockingQueue<?>, BufferProbe> QUEUE_PROBES =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder dequeued = new LongAdder();
+    private final Map<Thread, Long> blockedProducers = new ConcurrentHashMap<>();
+    private final Set<Thread> producers = ConcurrentHashMap.newKeySet();
+    private final Set<Thread> consumers = ConcurrentHashMap.newKeySet();
+
+    // Shared probe for a queue, so producers, consumers and the watchdog see the same counters
+    static BufferProbe of(BlockingQueue<?> queue) {
+        return QUEUE_PROBES.computeIfAbsent(queue, q -> new BufferProbe());
+    }
+
+    void producerStarted() {
+        producers.add(Thread.currentThread());
+    }
+
+    void producerStopped() {
+        producers.remove(Thread.currentThread());
+        blockedProducers.remove(Thread.currentThread());
+    }
+
+    void consumerStarted() {
+        consumers.add(Thread.currentThread());
+    }
+
+    void consumerStopped() {
+        consumers.remove(Thread.currentThread());
+    }
+
+    void blocked() {
+        blockedProducers.put(Thread.currentThread(), System.nanoTime());
+    }
+
+    void unblocked() {
+        blockedProducers.remove(Thread.currentThread());
+    }
+
+    void enqueued() {
+        enqueued.increment();
+    }
+
+    void dequeued() {
+        dequeued.increment();
+    }
+
+    long enqueuedCount() {
+        return enqueued.sum();
+    }
+
+    long dequeuedCount() {
+        return dequeued.sum();
+    }
+
+    // Blocked producer threads mapped to the System.nanoTime() they started waiting
+    Map<Thread, Long> blockedProducers() {
+        return blockedProducers;
+    }
+
+    Set<Thread> producers() {
+        return producers;
+    }
+
+    Set<Thread> consumers() {
+        return consumers;
+    }
+}
@@ -0,0 +1,225 @@
+package com.producerconsumer;
+
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.IntSupplier;
+
+// Background thread that samples buffer progress counters and flags stalls
+// A buffer is stalled when it stays full without any dequeue progress, or when a producer
+// has been blocked longer than the threshold (typically because its consumer died).
+// Each stall is reported once, with the involved thread stacks, to the onStall listener;
+// nothing is printed unless logTo is set. Sampling only reads counters, so the buffers pay nothing extra.
+public class BufferWatchdog implements AutoCloseable {
+    private final long intervalMillis;
+    private final long thresholdNanos;
+    private final List<WatchedBuffer> buffers = new CopyOnWriteArrayList<>();
+    private final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+    private final Set<Long> reportedDeadlocks = new HashSet<>();
+    private volatile Consumer<StallReport> recoveryAction = report -> { };
+    private volatile PrintStream log;
+    private ScheduledExecutorService scheduler;
+
+    public BufferWatchdog(long intervalMillis, long stallThresholdMillis) {
+        if (intervalMillis <= 0 || stallThresholdMillis <= 0) {
+            throw new IllegalArgumentException("Interval and threshold must be positive");
+        }
+        this.intervalMillis = intervalMillis;
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(stallThresholdMillis);
+    }
+
+    // Watches a queue used by ProducerConsumer.Producer/Consumer
+    public BufferWatchdog watch(String name, BlockingQueue<?> queue) {
+        buffers.add(new WatchedBuffer(name, BufferProbe.of(queue), queue::size,
+                () -> queue.size() + queue.remainingCapacity()));
+        return this;
+    }
+
+    // Watches a wait/notify SharedBuffer
+    public BufferWatchdog watch(String name, SharedBuffer buffer) {
+        buffers.add(new WatchedBuffer(name, buffer.probe(), buffer::size, buffer::getCapacity));
+        return this;
+    }
+
+    // Action invoked on the watchdog thread for every stall, e.g. StallReport::interruptProducers
+    public BufferWatchdog onStall(Consumer<StallReport> action) {
+        this.recoveryAction = action;
+        return this;
+    }
+
+    // Also prints every report and its thread dump, e.g. logTo(System.err); off by default
+    public BufferWatchdog logTo(PrintStream log) {
+        this.log = log;
+        return this;
+    }
+
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "BufferWatchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::sample, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    // Takes one sample of every buffer; returns the stalls found in this sample
+    List<StallReport> sample() {
+        List<StallReport> reports = new ArrayList<>();
+        long now = System.nanoTime();
+
+        for (WatchedBuffer buffer : buffers) {
+            buffer.check(now, reports);
+        }
+        checkDeadlocks(reports);
+
+        PrintStream out = log;
+        for (StallReport report : reports) {
+            if (out != null) {
+                out.println("Watchdog detected stall: " + report);
+                out.println(report.getThreadDump());
+            }
+            try {
+                recoveryAction.accept(report);
+            } catch (RuntimeException e) {
+                // A failing listener must not cancel the sampling schedule
+                Thread thread = Thread.currentThread();
+                thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+            }
+        }
+        return reports;
+    }
+
+    private void checkDeadlocks(List<StallReport> reports) {
+        long[] ids = threadBean.findDeadlockedThreads();
+        if (ids == null) {
+            reportedDeadlocks.clear();
+            return;
+        }
+        Set<Long> current = new HashSet<>();
+        for (long id : ids) {
+            current.add(id);
+        }
+        if (reportedDeadlocks.containsAll(current)) {
+            return;
+        }
+        reportedDeadlocks.clear();
+        reportedDeadlocks.addAll(current);
+
+        StringBuilder dump = new StringBuilder();
+        for (ThreadInfo info : threadBean.getThreadInfo(ids, true, true)) {
+            if (info != null) {
+                dump.append(info);
+            }
+        }
+        reports.add(new StallReport(StallReport.Kind.DEADLOCK, "<jvm>", 0, 0, 0,
+                List.of(), List.of(), dump.toString()));
+    }
+
+    private static String dumpThreads(Set<Thread> threads) {
+        StringBuilder dump = new StringBuilder();
+        for (Thread thread : threads) {
+            dump.append('"').append(thread.getName()).append("\" ").append(thread.getState()).append('\n');
+            for (StackTraceElement element : thread.getStackTrace()) {
+                dump.append("    at ").append(element).append('\n');
+            }
+        }
+        return dump.toString();
+    }
+
+    // Sampling state for one buffer; only touched by the watchdog thread
+    private final class WatchedBuffer {
+        private final String name;
+        private final BufferProbe probe;
+        private final IntSupplier size;
+        private final IntSupplier capacity;
+        private long lastDequeued = -1;
+        private long fullSinceNanos = 0;
+        private boolean fullStallReported = false;
+        private final Map<Thread, Long> reportedBlocked = new HashMap<>();
+
+        WatchedBuffer(String name, BufferProbe probe, IntSupplier size, IntSupplier capacity) {
+            this.name = name;
+            this.probe = probe;
+            this.size = size;
+            this.capacity = capacity;
+        }
+
+        void check(long now, List<StallReport> reports) {
+            probe.consumers().removeIf(thread -> !thread.isAlive());
+
+            int currentSize = size.getAsInt();
+            int currentCapacity = capacity.getAsInt();
+            long dequeued = probe.dequeuedCount();
+
+            // No dequeue progress while the buffer is full
+            if (currentSize >= currentCapacity) {
+                if (fullSinceNanos == 0 || dequeued != lastDequeued) {
+                    fullSinceNanos = now; // Progress restarts the clock
+                    fullStallReported = false;
+                }
+                if (!fullStallReported && now - fullSinceNanos >= thresholdNanos) {
+                    fullStallReported = true;
+                    reports.add(report(StallReport.Kind.NO_DEQUEUE_PROGRESS, now - fullSinceNanos,
+                            currentSize, currentCapacity, probe.blockedProducers().keySet()));
+                }
+            } else {
+                fullSinceNanos = 0;
+                fullStallReported = false;
+            }
+            lastDequeued = dequeued;
+
+            // Producers blocked longer than the threshold, each blocking episode reported once
+            Set<Thread> longBlocked = new LinkedHashSet<>();
+            long longestBlocked = 0;
+            for (Map.Entry<Thread, Long> entry : probe.blockedProducers().entrySet()) {
+                Long since = entry.getValue();
+                if (now - since >= thresholdNanos && !since.equals(reportedBlocked.get(entry.getKey()))) {
+                    reportedBlocked.put(entry.getKey(), since);
+                    longBlocked.add(entry.getKey());
+                    longestBlocked = Math.max(longestBlocked, now - since);
+                }
+            }
+            reportedBlocked.keySet().retainAll(probe.blockedProducers().keySet());
+            if (!longBlocked.isEmpty()) {
+                reports.add(report(StallReport.Kind.PRODUCER_BLOCKED, longestBlocked,
+                        currentSize, currentCapacity, longBlocked));
+            }
+        }
+
+        private StallReport report(StallReport.Kind kind, long stalledNanos, int currentSize,
+                                   int currentCapacity, Set<Thread> producers) {
+            Set<Thread> involved = new LinkedHashSet<>(producers);
+            involved.addAll(probe.consumers());
+            String header = "Buffer '" + name + "' " + currentSize + "/" + currentCapacity
+                    + ", live consumers: " + probe.consumers().size() + "\n";
+            return new StallReport(kind, name, TimeUnit.NANOSECONDS.toMillis(stalledNanos),
+                    currentSize, currentCapacity, new ArrayList<>(producers),
+                    new ArrayList<>(probe.consumers()), header + dumpThreads(involved));
+        }
+    }
+}
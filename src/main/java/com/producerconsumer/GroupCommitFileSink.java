@@ -0,0 +1,311 @@
+package com.producerconsumer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongConsumer;
+
+// File sink that batches consumer output and group-commits it
+// Items are appended as big-endian 32-bit ints into direct ByteBuffers; a background
+// committer thread writes sealed buffers with one gathering FileChannel write and fsyncs
+// once enough bytes are pending or the oldest pending write has waited long enough.
+// The resulting file can be streamed back with ItemSources.fromMappedIntFile.
+// Create one with open(...), which starts the committer once the sink is fully constructed.
+public class GroupCommitFileSink implements ItemSink, Closeable {
+    public static final int DEFAULT_COMMIT_BYTES = 256 * 1024;
+    public static final long DEFAULT_MAX_DELAY_MILLIS = 10;
+    private static final int MAX_BUFFER_BYTES = 64 * 1024;
+
+    private final FileChannel channel;
+    private final int commitBytes;
+    private final long maxDelayNanos;
+    private final int bufferBytes;
+    private final int maxPendingBuffers;
+    private final String name;
+    private Thread committer; // Guarded by this; set once by start
+    private final List<LongConsumer> commitListeners = new CopyOnWriteArrayList<>();
+
+    // Guarded by this
+    private final List<ByteBuffer> sealed = new ArrayList<>();
+    private final ArrayDeque<ByteBuffer> free = new ArrayDeque<>();
+    private ByteBuffer current; // Null until the next write needs a buffer
+    private int allocatedBuffers = 0;
+    private long writtenOffset;
+    private long batchedOffset; // writtenOffset when the committer last took a batch
+    private long itemCount = 0;
+    private long firstPendingNanos = 0;
+    private boolean closing = false;
+    private IOException failure;
+
+    private volatile long durableOffset;
+
+    public static GroupCommitFileSink open(Path file) throws IOException {
+        return open(file, DEFAULT_COMMIT_BYTES, DEFAULT_MAX_DELAY_MILLIS);
+    }
+
+    // Appends to file, committing after commitBytes pending bytes or maxDelayMillis, whichever comes first
+    public static GroupCommitFileSink open(Path file, int commitBytes, long maxDelayMillis) throws IOException {
+        GroupCommitFileSink sink = new GroupCommitFileSink(file, commitBytes, maxDelayMillis);
+        sink.start();
+        return sink;
+    }
+
+    private GroupCommitFileSink(Path file, int commitBytes, long maxDelayMillis) throws IOException {
+        if (commitBytes < Integer.BYTES) {
+            throw new IllegalArgumentException("Commit size must be at least " + Integer.BYTES + " bytes");
+        }
+        if (maxDelayMillis <= 0) {
+            throw new IllegalArgumentException("Commit delay must be positive: " + maxDelayMillis);
+        }
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        this.channel.position(channel.size());
+        this.writtenOffset = channel.size();
+        this.batchedOffset = writtenOffset;
+        this.durableOffset = writtenOffset;
+        this.commitBytes = commitBytes;
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+        this.bufferBytes = Math.min(MAX_BUFFER_BYTES, Math.max(Integer.BYTES, commitBytes - commitBytes % Integer.BYTES));
+        // Enough buffers for two commits in flight before writers are throttled
+        this.maxPendingBuffers = 2 * ((commitBytes + bufferBytes - 1) / bufferBytes) + 1;
+
+        this.name = "GroupCommitFileSink-" + file.getFileName();
+    }
+
+    private synchronized void start() {
+        committer = new Thread(this::commitLoop, name);
+        committer.setDaemon(true);
+        committer.start();
+    }
+
+    // Appends an item; blocks only when too many buffers are waiting to be committed
+    @Override
+    public synchronized long write(Integer item) throws IOException {
+        checkOpen();
+        if (current != null && !current.hasRemaining()) {
+            sealCurrent();
+        }
+        if (current == null) {
+            while (allocatedBuffers >= maxPendingBuffers && free.isEmpty() && failure == null && !closing) {
+                try {
+                    wait(); // Wait until the committer recycles a buffer
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while waiting for a free buffer", e);
+                }
+            }
+            checkOpen();
+            current = acquireBuffer();
+        }
+
+        current.putInt(item);
+        writtenOffset += Integer.BYTES;
+        itemCount++;
+        if (firstPendingNanos == 0) {
+            firstPendingNanos = System.nanoTime();
+            notifyAll(); // Start the committer's delay timer
+        } else if (pendingBytes() >= commitBytes) {
+            notifyAll(); // Wake the committer early
+        }
+        return writtenOffset;
+    }
+
+    @Override
+    public synchronized long size() {
+        return itemCount;
+    }
+
+    // Offset up to which data has been written and fsynced
+    public long durableOffset() {
+        return durableOffset;
+    }
+
+    // Blocks until offset is durable; returns false on timeout
+    public synchronized boolean awaitDurable(long offset, long timeout, TimeUnit unit)
+            throws IOException, InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (durableOffset < offset) {
+            if (failure != null) {
+                throw new IOException("Group commit failed", failure);
+            }
+            if (committer.getState() == Thread.State.TERMINATED) {
+                throw new IOException("Sink is closed");
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return false;
+            }
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+        }
+        return true;
+    }
+
+    // Listeners are called from the committer thread after each fsync with the new durable offset
+    @Override
+    public void addCommitListener(LongConsumer listener) {
+        commitListeners.add(listener);
+    }
+
+    @Override
+    public void removeCommitListener(LongConsumer listener) {
+        commitListeners.remove(listener);
+    }
+
+    // Commits everything written so far and stops the committer thread
+    @Override
+    public void close() throws IOException {
+        Thread thread;
+        synchronized (this) {
+            if (closing) {
+                return;
+            }
+            closing = true;
+            thread = committer;
+            notifyAll();
+        }
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            channel.close();
+        }
+        synchronized (this) {
+            if (failure != null) {
+                throw new IOException("Group commit failed", failure);
+            }
+        }
+    }
+
+    private void commitLoop() {
+        try {
+            while (true) {
+                ByteBuffer[] batch;
+                long targetOffset;
+
+                synchronized (this) {
+                    while (!closing && !commitDue()) {
+                        if (firstPendingNanos == 0) {
+                            wait();
+                        } else {
+                            long remaining = firstPendingNanos + maxDelayNanos - System.nanoTime();
+                            if (remaining > 0) {
+                                TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                            }
+                        }
+                    }
+                    if (current != null && current.position() > 0) {
+                        sealCurrent();
+                    }
+                    if (sealed.isEmpty()) {
+                        if (closing) {
+                            BufferEvents.shutdown(name, "closed", itemCount, 0);
+                            return;
+                        }
+                        firstPendingNanos = 0;
+                        continue;
+                    }
+                    batch = sealed.toArray(new ByteBuffer[0]);
+                    sealed.clear();
+                    targetOffset = writtenOffset;
+                    batchedOffset = writtenOffset;
+                    firstPendingNanos = 0;
+                }
+
+                // Gathering write and fsync happen outside the lock so writers keep filling buffers
+                BufferEvents.BatchHandoff event = new BufferEvents.BatchHandoff();
+                event.begin();
+                long bytes = 0;
+                while (batch[batch.length - 1].hasRemaining()) {
+                    bytes += channel.write(batch);
+                }
+                channel.force(false);
+                event.end();
+                if (event.shouldCommit()) {
+                    event.stage = name;
+                    event.items = bytes / Integer.BYTES;
+                    event.bytes = bytes;
+                    event.commit();
+                }
+
+                synchronized (this) {
+                    for (ByteBuffer buffer : batch) {
+                        buffer.clear();
+                        free.push(buffer);
+                    }
+                    durableOffset = targetOffset;
+                    notifyAll(); // Wake writers waiting for buffers and threads awaiting durability
+                }
+                for (LongConsumer listener : commitListeners) {
+                    try {
+                        listener.accept(targetOffset);
+                    } catch (RuntimeException e) {
+                        // A failing listener must not stop the committer and leave writers blocked
+                        Thread thread = Thread.currentThread();
+                        thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            synchronized (this) {
+                failure = e;
+                notifyAll();
+            }
+            System.err.println("Group commit failed: " + e.getMessage());
+        } catch (InterruptedException e) {
+            // Nothing commits any more, so writers and awaitDurable must fail instead of waiting
+            InterruptedIOException interrupted = new InterruptedIOException("Committer interrupted");
+            interrupted.initCause(e);
+            synchronized (this) {
+                failure = interrupted;
+                notifyAll();
+            }
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Caller must hold the lock
+    private boolean commitDue() {
+        if (firstPendingNanos == 0) {
+            return false;
+        }
+        return pendingBytes() >= commitBytes || System.nanoTime() - firstPendingNanos >= maxDelayNanos;
+    }
+
+    // Bytes written since the last batch was taken; a batch still being written does not count
+    private long pendingBytes() {
+        return writtenOffset - batchedOffset;
+    }
+
+    private void sealCurrent() {
+        current.flip();
+        sealed.add(current);
+        current = null;
+    }
+
+    private ByteBuffer acquireBuffer() {
+        ByteBuffer buffer = free.poll();
+        if (buffer == null) {
+            buffer = ByteBuffer.allocateDirect(bufferBytes);
+            allocatedBuffers++;
+        }
+        return buffer;
+    }
+
+    private void checkOpen() throws IOException {
+        if (failure != null) {
+            throw new IOException("Group commit failed", failure);
+        }
+        if (closing) {
+            throw new IOException("Sink is closed");
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.producerconsumer;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.function.LongConsumer;
+
+// Destination a Consumer writes consumed items into
+public interface ItemSink {
+
+    // Stores the item and returns the sink offset just past it
+    long write(Integer item) throws IOException;
+
+    // Number of items written so far
+    long size();
+
+    // Registers a callback for offsets that have become durable; in-memory sinks never commit
+    default void addCommitListener(LongConsumer listener) {
+    }
+
+    default void removeCommitListener(LongConsumer listener) {
+    }
+
+    // Adapts a plain list (the original Consumer behaviour); offsets are list positions
+    static ItemSink toList(List<Integer> destination) {
+        return new ItemSink() {
+            @Override
+            public long write(Integer item) {
+                synchronized (destination) {
+                    destination.add(item);
+                    return destination.size();
+                }
+            }
+
+            @Override
+            public long size() {
+                synchronized (destination) {
+                    return destination.size();
+                }
+            }
+        };
+    }
+}
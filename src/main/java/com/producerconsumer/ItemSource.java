@@ -0,0 +1,17 @@
+package com.producerconsumer;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+// Pull-based source of items for a Producer
+// Items are read one at a time so a producer never needs the whole input in memory
+public interface ItemSource extends Closeable {
+
+    // Returns the next item, or null once the source is exhausted
+    Integer next() throws IOException;
+
+    @Override
+    default void close() throws IOException {
+        // Nothing to release by default
+    }
+}
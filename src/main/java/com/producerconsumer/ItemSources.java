@@ -0,0 +1,134 @@
+package com.producerconsumer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.function.LongToIntFunction;
+import java.util.function.Supplier;
+
+// Factory methods for the ItemSource adapters a Producer can stream from
+public final class ItemSources {
+
+    // Size of each mapped window; a multiple of Integer.BYTES so no item straddles two windows
+    static final long DEFAULT_WINDOW_BYTES = 64L * 1024 * 1024;
+
+    private ItemSources() {
+    }
+
+    // Adapts an in-memory collection (the original Producer behaviour)
+    public static ItemSource fromIterable(Iterable<Integer> items) {
+        Iterator<Integer> iterator = items.iterator();
+        return () -> iterator.hasNext() ? iterator.next() : null;
+    }
+
+    // Streams big-endian 32-bit ints from a binary file through a MappedByteBuffer
+    public static ItemSource fromMappedIntFile(Path file) throws IOException {
+        return fromMappedIntFile(file, ByteOrder.BIG_ENDIAN);
+    }
+
+    public static ItemSource fromMappedIntFile(Path file, ByteOrder order) throws IOException {
+        return new MappedIntSource(file, order, DEFAULT_WINDOW_BYTES);
+    }
+
+    // Streams one integer per line from a text file; blank lines are skipped
+    public static ItemSource fromTextLines(Path file) throws IOException {
+        BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+        return new ItemSource() {
+            private int lineNumber = 0;
+
+            @Override
+            public Integer next() throws IOException {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    lineNumber++;
+                    String trimmed = line.trim();
+                    if (trimmed.isEmpty()) {
+                        continue;
+                    }
+                    try {
+                        return Integer.parseInt(trimmed);
+                    } catch (NumberFormatException e) {
+                        throw new IOException("Invalid integer on line " + lineNumber + ": " + line, e);
+                    }
+                }
+                return null;
+            }
+
+            @Override
+            public void close() throws IOException {
+                reader.close();
+            }
+        };
+    }
+
+    // Generates count items by calling generator with each index 0..count-1
+    public static ItemSource fromGenerator(long count, LongToIntFunction generator) {
+        return new ItemSource() {
+            private long index = 0;
+
+            @Override
+            public Integer next() {
+                return index < count ? generator.applyAsInt(index++) : null;
+            }
+        };
+    }
+
+    // Generates items until the supplier returns null
+    public static ItemSource fromGenerator(Supplier<Integer> generator) {
+        return generator::get;
+    }
+
+    // Maps the file one window at a time so inputs larger than 2GB stream in constant memory
+    static final class MappedIntSource implements ItemSource {
+        private final FileChannel channel;
+        private final ByteOrder order;
+        private final long windowBytes;
+        private final long fileSize;
+        private long windowStart = 0;
+        private MappedByteBuffer window;
+
+        MappedIntSource(Path file, ByteOrder order, long windowBytes) throws IOException {
+            if (windowBytes <= 0 || windowBytes % Integer.BYTES != 0) {
+                throw new IllegalArgumentException("Window size must be a positive multiple of 4: " + windowBytes);
+            }
+            this.channel = FileChannel.open(file, StandardOpenOption.READ);
+            this.order = order;
+            this.windowBytes = windowBytes;
+            this.fileSize = channel.size();
+
+            if (fileSize % Integer.BYTES != 0) {
+                channel.close();
+                throw new IOException("File size " + fileSize + " is not a multiple of 4 bytes: " + file);
+            }
+        }
+
+        @Override
+        public Integer next() throws IOException {
+            if (window == null || !window.hasRemaining()) {
+                if (window != null) {
+                    windowStart += window.capacity();
+                }
+                if (windowStart >= fileSize) {
+                    return null;
+                }
+                long length = Math.min(windowBytes, fileSize - windowStart);
+                window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, length);
+                window.order(order);
+            }
+            return window.getInt();
+        }
+
+        @Override
+        public void close() throws IOException {
+            window = null;
+            channel.close();
+        }
+    }
+}
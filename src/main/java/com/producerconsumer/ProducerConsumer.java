@@ -1,43 +1,86 @@
 package com.producerconsumer;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.function.LongConsumer;
 
 public class ProducerConsumer {
 
     // Producer thread that reads items from source and places them in shared queue
     static class Producer implements Runnable {
         private final BlockingQueue<Integer> queue;
-        private final List<Integer> source;
+        private final ItemSource source;
         private final int producerId;
+        private final BufferProbe probe;
         private volatile boolean running = true;
 
         public Producer(BlockingQueue<Integer> queue, List<Integer> source, int producerId) {
+            this(queue, ItemSources.fromIterable(source), producerId);
+        }
+
+        // Streams items from a file, mapped buffer or generator instead of a materialized list
+        public Producer(BlockingQueue<Integer> queue, ItemSource source, int producerId) {
             this.queue = queue;
             this.source = source;
             this.producerId = producerId;
+            this.probe = BufferProbe.of(queue);
         }
 
         @Override
         public void run() {
-            try {
-                for (Integer item : source) {
-                    if (!running) break;
-
-                    queue.put(item); // Blocks if queue is full
+            long produced = 0;
+            String reason = "source exhausted";
+            probe.producerStarted();
+            try (ItemSource items = source) {
+                Integer item;
+                while (running && (item = items.next()) != null) {
+                    put(item); // Blocks if queue is full
+                    produced++;
                     System.out.println("Producer-" + producerId + " produced: " + item + " | Queue size: " + queue.size());
 
                     // Simulate some processing time
                     Thread.sleep(100);
                 }
+                if (!running) {
+                    reason = "stopped";
+                }
                 System.out.println("Producer-" + producerId + " finished producing");
             } catch (InterruptedException e) {
+                reason = "interrupted";
                 Thread.currentThread().interrupt();
                 System.err.println("Producer-" + producerId + " interrupted");
+            } catch (IOException e) {
+                reason = "source failed";
+                System.err.println("Producer-" + producerId + " failed reading source: " + e.getMessage());
+            } finally {
+                probe.producerStopped();
+                BufferEvents.shutdown("Producer-" + producerId, reason, produced, queue.size());
+            }
+        }
+
+        // Only a put that would actually block pays for the JFR event and the watchdog bookkeeping
+        private void put(Integer item) throws InterruptedException {
+            if (!queue.offer(item)) {
+                BufferEvents.ProducerBlocked event = new BufferEvents.ProducerBlocked();
+                event.begin();
+                probe.blocked();
+                try {
+                    queue.put(item);
+                } finally {
+                    probe.unblocked();
+                }
+                event.end();
+                if (event.shouldCommit()) {
+                    event.buffer = BufferEvents.describe(queue);
+                    event.capacity = queue.size() + queue.remainingCapacity();
+                    event.commit();
+                }
             }
+            probe.enqueued();
         }
 
         public void stop() {
@@ -48,25 +91,41 @@ public class ProducerConsumer {
     // Consumer thread that reads items from shared queue and stores in destination
     static class Consumer implements Runnable {
         private final BlockingQueue<Integer> queue;
-        private final List<Integer> destination;
+        private final ItemSink destination;
         private final int consumerId;
         private volatile boolean running = true;
         private final int poisonPill;
+        private final BufferProbe probe;
+        private volatile long writtenOffset = 0;
+        private volatile long durableOffset = 0;
+        private volatile boolean finished = false;
+        private final LongConsumer commitListener = this::committed;
 
         public Consumer(BlockingQueue<Integer> queue, List<Integer> destination,
                         int consumerId, int poisonPill) {
+            this(queue, ItemSink.toList(destination), consumerId, poisonPill);
+        }
+
+        // Writes into any sink, e.g. a GroupCommitFileSink that reports durable offsets back
+        public Consumer(BlockingQueue<Integer> queue, ItemSink destination,
+                        int consumerId, int poisonPill) {
             this.queue = queue;
             this.destination = destination;
             this.consumerId = consumerId;
             this.poisonPill = poisonPill;
+            this.probe = BufferProbe.of(queue);
         }
 
         @Override
         public void run() {
+            long consumed = 0;
+            String reason = "stopped";
+            probe.consumerStarted();
+            destination.addCommitListener(commitListener);
             try {
                 while (running) {
                     // Wait up to 2 seconds for an item
-                    Integer item = queue.poll(2, TimeUnit.SECONDS);
+                    Integer item = poll();
 
                     if (item == null) {
                         continue; // Timeout, check running flag again
@@ -74,13 +133,13 @@ public class ProducerConsumer {
 
                     // Check for poison pill and signal to stop
                     if (item.equals(poisonPill)) {
+                        reason = "poison pill";
                         System.out.println("Consumer-" + consumerId + " received poison pill, stopping");
                         break;
                     }
 
-                    synchronized (destination) {
-                        destination.add(item);
-                    }
+                    writtenOffset = destination.write(item);
+                    consumed++;
 
                     System.out.println("Consumer-" + consumerId + " consumed: " + item + " | Destination size: " + destination.size());
 
@@ -89,14 +148,63 @@ public class ProducerConsumer {
                 }
                 System.out.println("Consumer-" + consumerId + " finished consuming");
             } catch (InterruptedException e) {
+                reason = "interrupted";
                 Thread.currentThread().interrupt();
                 System.err.println("Consumer-" + consumerId + " interrupted");
+            } catch (IOException e) {
+                reason = "sink failed";
+                System.err.println("Consumer-" + consumerId + " failed writing to destination: " + e.getMessage());
+            } finally {
+                probe.consumerStopped();
+                finished = true;
+                if (durableOffset >= writtenOffset) {
+                    destination.removeCommitListener(commitListener);
+                }
+                BufferEvents.shutdown("Consumer-" + consumerId, reason, consumed, queue.size());
+            }
+        }
+
+        // Keeps listening after run ends until this consumer's own items are durable
+        private void committed(long offset) {
+            durableOffset = offset;
+            if (finished && offset >= writtenOffset) {
+                destination.removeCommitListener(commitListener);
             }
         }
 
+        // Only a poll that finds the queue empty pays for the JFR event
+        private Integer poll() throws InterruptedException {
+            Integer item = queue.poll();
+            if (item == null) {
+                BufferEvents.ConsumerWaited event = new BufferEvents.ConsumerWaited();
+                event.begin();
+                item = queue.poll(2, TimeUnit.SECONDS);
+                event.end();
+                if (event.shouldCommit()) {
+                    event.buffer = BufferEvents.describe(queue);
+                    event.timedOut = item == null;
+                    event.commit();
+                }
+            }
+            if (item != null) {
+                probe.dequeued();
+            }
+            return item;
+        }
+
         public void stop() {
             running = false;
         }
+
+        // Sink offset just past the last item this consumer wrote
+        public long getWrittenOffset() {
+            return writtenOffset;
+        }
+
+        // Latest durable offset reported by the sink; covers this consumer's items once >= getWrittenOffset()
+        public long getDurableOffset() {
+            return durableOffset;
+        }
     }
 
     // Demo: Using BlockingQueue
@@ -8,6 +8,7 @@ import java.util.List;
 public class SharedBuffer {
     private final List<Integer> buffer = new ArrayList<>();
     private final int capacity;
+    private final BufferProbe probe = new BufferProbe();
 
     public SharedBuffer(int capacity) {
         this.capacity = capacity;
@@ -15,24 +16,50 @@ public class SharedBuffer {
 
     // Producer adds item to buffer (blocks if full)
     public synchronized void produce(Integer item) throws InterruptedException {
-        while (buffer.size() == capacity) {
-            System.out.println("Buffer full, producer is waiting");
-            wait(); // Wait until space available
+        if (buffer.size() == capacity) {
+            BufferEvents.ProducerBlocked event = new BufferEvents.ProducerBlocked();
+            event.begin();
+            probe.blocked();
+            try {
+                while (buffer.size() == capacity) {
+                    System.out.println("Buffer full, producer is waiting");
+                    wait(); // Wait until space available
+                }
+            } finally {
+                probe.unblocked();
+            }
+            event.end();
+            if (event.shouldCommit()) {
+                event.buffer = BufferEvents.describe(this);
+                event.capacity = capacity;
+                event.commit();
+            }
         }
 
         buffer.add(item);
+        probe.enqueued();
         System.out.println("Produced: " + item + " | Buffer size: " + buffer.size());
         notifyAll(); // Notify waiting consumers
     }
 
     // Consumer removes item from buffer (blocks if empty)
     public synchronized Integer consume() throws InterruptedException {
-        while (buffer.isEmpty()) {
-            System.out.println("Buffer empty, consumer is waiting");
-            wait(); // Wait until items available
+        if (buffer.isEmpty()) {
+            BufferEvents.ConsumerWaited event = new BufferEvents.ConsumerWaited();
+            event.begin();
+            while (buffer.isEmpty()) {
+                System.out.println("Buffer empty, consumer is waiting");
+                wait(); // Wait until items available
+            }
+            event.end();
+            if (event.shouldCommit()) {
+                event.buffer = BufferEvents.describe(this);
+                event.commit();
+            }
         }
 
         Integer item = buffer.remove(0);
+        probe.dequeued();
         System.out.println("Consumed: " + item + " | Buffer size: " + buffer.size());
         notifyAll(); // Notify waiting producers
         return item;
@@ -41,4 +68,13 @@ public class SharedBuffer {
     public synchronized int size() {
         return buffer.size();
     }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    // Progress counters; runner threads register themselves on it once for their whole lifetime
+    BufferProbe probe() {
+        return probe;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,58 @@
+package com.producerconsumer;
+
+import java.util.List;
+
+// Describes a stall detected by BufferWatchdog, with the stacks of the threads involved
+public class StallReport {
+
+    public enum Kind {
+        // Buffer stayed full while no consumer took anything
+        NO_DEQUEUE_PROGRESS,
+        // A producer has been blocked on a full buffer longer than the threshold
+        PRODUCER_BLOCKED,
+        // The JVM reports threads deadlocked on monitors or locks
+        DEADLOCK
+    }
+
+    private final Kind kind;
+    private final String bufferName;
+    private final long stalledMillis;
+    private final int bufferSize;
+    private final int bufferCapacity;
+    private final List<Thread> producers;
+    private final List<Thread> consumers;
+    private final String threadDump;
+
+    public StallReport(Kind kind, String bufferName, long stalledMillis, int bufferSize, int bufferCapacity,
+                       List<Thread> producers, List<Thread> consumers, String threadDump) {
+        this.kind = kind;
+        this.bufferName = bufferName;
+        this.stalledMillis = stalledMillis;
+        this.bufferSize = bufferSize;
+        this.bufferCapacity = bufferCapacity;
+        this.producers = List.copyOf(producers);
+        this.consumers = List.copyOf(consumers);
+        this.threadDump = threadDump;
+    }
+
+    // Getters
+    public Kind getKind() { return kind; }
+    public String getBufferName() { return bufferName; }
+    public long getStalledMillis() { return stalledMillis; }
+    public int getBufferSize() { return bufferSize; }
+    public int getBufferCapacity() { return bufferCapacity; }
+    public List<Thread> getProducers() { return producers; }
+    public List<Thread> getConsumers() { return consumers; }
+    public String getThreadDump() { return threadDump; }
+
+    // Recovery helper: interrupt the producers so they stop waiting on a buffer nobody drains
+    public void interruptProducers() {
+        producers.forEach(Thread::interrupt);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("StallReport{kind=%s, buffer='%s', stalled=%dms, size=%d/%d, producers=%d, consumers=%d}",
+                kind, bufferName, stalledMillis, bufferSize, bufferCapacity, producers.size(), consumers.size());
+    }
+}
@@ -16,6 +16,7 @@ public class WaitNotifyConsumer implements Runnable {
 
     @Override
     public void run() {
+        buffer.probe().consumerStarted();
         try {
             for (int i = 0; i < itemCount; i++) {
                 Integer item = buffer.consume();
@@ -24,6 +25,8 @@ public class WaitNotifyConsumer implements Runnable {
             }
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
+        } finally {
+            buffer.probe().consumerStopped();
         }
     }
 }
\ No newline at end of file
@@ -14,6 +14,7 @@ public class WaitNotifyProducer implements Runnable {
 
     @Override
     public void run() {
+        buffer.probe().producerStarted();
         try {
             for (Integer item : source) {
                 buffer.produce(item);
@@ -21,6 +22,8 @@ public class WaitNotifyProducer implements Runnable {
             }
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
+        } finally {
+            buffer.probe().producerStopped();
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,86 @@
+package com.dataanalysis;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for AggregationKernels
+ * Every kernel must agree with its scalar version, over ranges that do not line up with vectors
+ */
+class AggregationKernelsTest {
+
+    private static double[] randomColumn(int size, long seed) {
+        Random random = new Random(seed);
+        double[] values = new double[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = Math.round((random.nextDouble() * 2000 - 500) * 100) / 100.0;
+        }
+        return values;
+    }
+
+    @Test
+    @DisplayName("Test kernels match the scalar versions on unaligned ranges")
+    void testMatchesScalar() {
+        double[] values = randomColumn(1000, 42);
+        double[] keys = randomColumn(1000, 7);
+        int[][] ranges = {{0, 1000}, {0, 0}, {3, 4}, {1, 998}, {5, 12}, {17, 1000}, {999, 1000}};
+
+        for (int[] range : ranges) {
+            int from = range[0];
+            int to = range[1];
+            String name = "[" + from + ", " + to + ")";
+            assertEquals(AggregationKernels.scalarSum(values, from, to), AggregationKernels.sum(values, from, to),
+                    1e-6, name);
+            assertEquals(AggregationKernels.scalarMin(values, from, to), AggregationKernels.min(values, from, to), name);
+            assertEquals(AggregationKernels.scalarMax(values, from, to), AggregationKernels.max(values, from, to), name);
+            assertEquals(AggregationKernels.scalarCountGreaterThan(values, from, to, 500),
+                    AggregationKernels.countGreaterThan(values, from, to, 500), name);
+            assertEquals(AggregationKernels.scalarCountLessThan(values, from, to, 0),
+                    AggregationKernels.countLessThan(values, from, to, 0), name);
+            assertEquals(AggregationKernels.scalarSumWhereGreaterThan(values, keys, from, to, 100),
+                    AggregationKernels.sumWhereGreaterThan(values, keys, from, to, 100), 1e-6, name);
+
+            int[] expected = new int[to - from];
+            int[] actual = new int[to - from];
+            int count = AggregationKernels.scalarSelectGreaterThan(values, from, to, 250, expected);
+            assertEquals(count, AggregationKernels.selectGreaterThan(values, from, to, 250, actual), name);
+            assertArrayEquals(Arrays.copyOf(expected, count), Arrays.copyOf(actual, count), name);
+            count = AggregationKernels.scalarSelectLessThan(values, from, to, 0, expected);
+            assertEquals(count, AggregationKernels.selectLessThan(values, from, to, 0, actual), name);
+            assertArrayEquals(Arrays.copyOf(expected, count), Arrays.copyOf(actual, count), name);
+        }
+    }
+
+    @Test
+    @DisplayName("Test empty ranges and NaN values")
+    void testEdgeCases() {
+        double[] values = {1.5, -2.0, 3.25, 8.0, -0.5, 4.0, 2.0, 7.5, 6.0};
+        assertEquals(0.0, AggregationKernels.sum(values, 4, 4));
+        assertEquals(Double.POSITIVE_INFINITY, AggregationKernels.min(values, 2, 2));
+        assertEquals(Double.NEGATIVE_INFINITY, AggregationKernels.max(values, 2, 2));
+        assertEquals(-2.0, AggregationKernels.min(values, 0, values.length));
+        assertEquals(8.0, AggregationKernels.max(values, 0, values.length));
+        assertEquals(29.75, AggregationKernels.sum(values, 0, values.length));
+
+        double[] withNaN = values.clone();
+        withNaN[6] = Double.NaN;
+        assertTrue(Double.isNaN(AggregationKernels.min(withNaN, 0, withNaN.length)));
+        assertTrue(Double.isNaN(AggregationKernels.max(withNaN, 0, withNaN.length)));
+        // NaN compares false, so it is never counted or selected
+        assertEquals(3, AggregationKernels.countGreaterThan(withNaN, 0, withNaN.length, 5.0));
+    }
+
+    @Test
+    @DisplayName("Test out-of-range bounds are rejected")
+    void testBounds() {
+        double[] values = new double[8];
+        assertThrows(IndexOutOfBoundsException.class, () -> AggregationKernels.sum(values, -1, 4));
+        assertThrows(IndexOutOfBoundsException.class, () -> AggregationKernels.max(values, 0, 9));
+        assertThrows(IndexOutOfBoundsException.class, () -> AggregationKernels.countGreaterThan(values, 5, 4, 0));
+    }
+}
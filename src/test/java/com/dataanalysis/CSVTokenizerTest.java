@@ -0,0 +1,148 @@
+package com.dataanalysis;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CSVTokenizer
+ */
+class CSVTokenizerTest {
+
+    private static final String SUPERSTORE_CSV = "data/Superstore.csv";
+
+    private static void assertSameRecord(SalesRecord expected, SalesRecord actual, String line) {
+        assertEquals(expected.getOrderId(), actual.getOrderId(), line);
+        assertEquals(expected.getOrderDate(), actual.getOrderDate(), line);
+        assertEquals(expected.getShipMode(), actual.getShipMode(), line);
+        assertEquals(expected.getSegment(), actual.getSegment(), line);
+        assertEquals(expected.getCountry(), actual.getCountry(), line);
+        assertEquals(expected.getCity(), actual.getCity(), line);
+        assertEquals(expected.getState(), actual.getState(), line);
+        assertEquals(expected.getRegion(), actual.getRegion(), line);
+        assertEquals(expected.getCategory(), actual.getCategory(), line);
+        assertEquals(expected.getSubCategory(), actual.getSubCategory(), line);
+        assertEquals(expected.getProductName(), actual.getProductName(), line);
+        assertEquals(expected.getSales(), actual.getSales(), line);
+        assertEquals(expected.getQuantity(), actual.getQuantity(), line);
+        assertEquals(expected.getDiscount(), actual.getDiscount(), line);
+        assertEquals(expected.getProfit(), actual.getProfit(), line);
+    }
+
+    @Test
+    @DisplayName("Test fields match the String parser, including quotes and whitespace")
+    void testMatchesStringParser() {
+        String[] lines = {
+                "a,b,c",
+                " padded , \"quoted, with comma\" ,last ",
+                "\"Hon Deluxe Fabric Upholstered Stacking Chairs, Rounded Back\",x",
+                "\"He said \"\"hi\"\"\",\"\"",
+                ",,",
+                "",
+                "unterminated \"quote, still, one field",
+                "café,über , \"naïve\""
+        };
+        CSVTokenizer tokenizer = new CSVTokenizer();
+
+        for (String line : lines) {
+            byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+            List<String> expected = SalesDataParser.parseCSVLine(line);
+
+            assertEquals(expected.size(), tokenizer.tokenize(bytes, 0, bytes.length), line);
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i), tokenizer.string(i), line);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Test tokenizing stops after the requested number of fields")
+    void testMaxFields() {
+        byte[] bytes = "a,b,c,d,e".getBytes(StandardCharsets.UTF_8);
+        CSVTokenizer tokenizer = new CSVTokenizer();
+
+        assertEquals(3, tokenizer.tokenize(bytes, 0, bytes.length, 3));
+        assertEquals("c", tokenizer.string(2));
+        assertEquals(2, tokenizer.tokenize(bytes, 0, 3, 3));
+        assertEquals("b", tokenizer.string(1));
+    }
+
+    @Test
+    @DisplayName("Test number parsing matches Double.parseDouble and Integer.parseInt")
+    void testNumbers() {
+        String[] values = {
+                "0", "-0", "261.96", "0.2", "-383.031", "22638.48", "1.0E3", "+5", ".5", "5.",
+                "3.14159265358979323846", "0.000000000000000000000000001", "123456789012345678901",
+                "12", "-7", "2147483647", "-2147483648", "2147483648", "", "-", ".", "abc", "1,5",
+                "\"42\"", " 17 "
+        };
+        CSVTokenizer tokenizer = new CSVTokenizer();
+
+        for (String value : values) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            tokenizer.tokenize(bytes, 0, bytes.length, 1);
+            String field = SalesDataParser.parseCSVLine(value).get(0);
+
+            double expectedDouble;
+            try {
+                expectedDouble = Double.parseDouble(field);
+            } catch (NumberFormatException e) {
+                expectedDouble = 0.0;
+            }
+            assertEquals(Double.doubleToLongBits(expectedDouble),
+                    Double.doubleToLongBits(tokenizer.parseDouble(0)), value);
+
+            int expectedInt;
+            try {
+                expectedInt = Integer.parseInt(field);
+            } catch (NumberFormatException e) {
+                expectedInt = 0;
+            }
+            assertEquals(expectedInt, tokenizer.parseInt(0), value);
+        }
+    }
+
+    @Test
+    @DisplayName("Test byte-level parsing matches String parsing on every Superstore line")
+    void testSuperstoreLinesMatch() throws IOException {
+        List<SalesRecord> expected = new ArrayList<>();
+        List<String> lines = new ArrayList<>();
+        SalesDictionaries dictionaries = new SalesDictionaries();
+        try (BufferedReader reader = new BufferedReader(new FileReader(SUPERSTORE_CSV, StandardCharsets.UTF_8))) {
+            reader.readLine(); // Header
+            String line;
+            while ((line = reader.readLine()) != null) {
+                expected.add(SalesDataParser.parseLine(line, dictionaries));
+                lines.add(line);
+            }
+        }
+
+        // Raw file bytes, including its invalid UTF-8, go through the tokenizer
+        List<SalesRecord> actual = SalesDataParser.parseCSV(SUPERSTORE_CSV);
+
+        assertEquals(9994, actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertSameRecord(expected.get(i), actual.get(i), lines.get(i));
+        }
+    }
+
+    @Test
+    @DisplayName("Test field comparison without decoding")
+    void testFieldEquals() {
+        byte[] bytes = "Furniture, \"Office Supplies\" ,Tech".getBytes(StandardCharsets.UTF_8);
+        CSVTokenizer tokenizer = new CSVTokenizer();
+        tokenizer.tokenize(bytes, 0, bytes.length);
+
+        assertTrue(tokenizer.fieldEquals(0, "Furniture".getBytes(StandardCharsets.UTF_8)));
+        assertTrue(tokenizer.fieldEquals(1, "Office Supplies".getBytes(StandardCharsets.UTF_8)));
+        assertFalse(tokenizer.fieldEquals(2, "Technology".getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,171 @@
+package com.dataanalysis;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.DoubleSummaryStatistics;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static com.dataanalysis.ColumnarSalesAnalyzerTest.assertSameResults;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CachingSalesAnalyzer
+ * Covers hits and misses, LRU eviction, and invalidation when the data version changes
+ */
+class CachingSalesAnalyzerTest {
+
+    private static List<SalesRecord> records;
+
+    @BeforeAll
+    static void loadData() throws IOException {
+        records = SalesDataParser.parseCSV("data/Superstore.csv");
+    }
+
+    @Test
+    @DisplayName("Test cached results match the delegate, on the first and repeated reads")
+    void testMatchesDelegate() {
+        SalesAnalyzer analyzer = new SalesAnalyzer(records);
+        CachingSalesAnalyzer cached = new CachingSalesAnalyzer(analyzer);
+        assertSameResults(analyzer, cached);
+        assertSameResults(analyzer, cached);
+
+        CachingSalesAnalyzer.CacheStats stats = cached.getStats();
+        assertEquals(stats.getMisses(), stats.getHits());
+        assertEquals(0.5, stats.getHitRate());
+    }
+
+    @Test
+    @DisplayName("Test repeated calls return the same instance, and different arguments are separate entries")
+    void testHitsAndMisses() {
+        CachingSalesAnalyzer cached = new CachingSalesAnalyzer(new SalesAnalyzer(records));
+        Map<String, Double> first = cached.getSalesByCategory();
+        assertSame(first, cached.getSalesByCategory());
+
+        List<Map.Entry<String, Double>> top5 = cached.getTopStatesBySales(5);
+        List<Map.Entry<String, Double>> top3 = cached.getTopStatesBySales(3);
+        assertEquals(5, top5.size());
+        assertEquals(3, top3.size());
+        assertSame(top5, cached.getTopStatesBySales(5));
+
+        CachingSalesAnalyzer.CacheStats stats = cached.getStats();
+        assertEquals(3, stats.getMisses());
+        assertEquals(2, stats.getHits());
+        assertEquals(3, stats.getSize());
+    }
+
+    @Test
+    @DisplayName("Test cached maps, lists and ranking entries cannot be modified by callers")
+    void testResultsAreReadOnly() {
+        CachingSalesAnalyzer cached = new CachingSalesAnalyzer(new SalesAnalyzer(records));
+        assertThrows(UnsupportedOperationException.class, () -> cached.getSalesByCategory().put("x", 1.0));
+        assertThrows(UnsupportedOperationException.class, () -> cached.getUnprofitableProducts().clear());
+        assertThrows(UnsupportedOperationException.class, () -> cached.getTopStatesBySales(3).get(0).setValue(0.0));
+    }
+
+    @Test
+    @DisplayName("Test every caller gets its own copy of the region statistics")
+    void testStatisticsAreCopied() {
+        CachingSalesAnalyzer cached = new CachingSalesAnalyzer(new SalesAnalyzer(records));
+        DoubleSummaryStatistics west = cached.getRegionSalesStatistics().get("West");
+        String before = west.toString();
+        west.accept(1e9);
+        assertEquals(before, cached.getRegionSalesStatistics().get("West").toString());
+        assertEquals(1, cached.getStats().getHits());
+    }
+
+    @Test
+    @DisplayName("Test the least recently used entry is evicted")
+    void testLruEviction() {
+        CachingSalesAnalyzer cached = new CachingSalesAnalyzer(new SalesAnalyzer(records), 2);
+        cached.getSalesByCategory();
+        cached.getSalesBySegment();
+        cached.getSalesByCategory();   // now the most recently used
+        cached.getSalesByShipMode();   // evicts getSalesBySegment
+
+        assertEquals(1, cached.getStats().getEvictions());
+        assertEquals(2, cached.getStats().getSize());
+        long misses = cached.getStats().getMisses();
+        cached.getSalesByCategory();
+        assertEquals(misses, cached.getStats().getMisses());
+        cached.getSalesBySegment();
+        assertEquals(misses + 1, cached.getStats().getMisses());
+    }
+
+    @Test
+    @DisplayName("Test appends to an incremental delegate invalidate the cache")
+    void testInvalidatedByDataVersion() {
+        IncrementalSalesAnalyzer incremental = new IncrementalSalesAnalyzer(records.subList(0, 5000));
+        CachingSalesAnalyzer cached = new CachingSalesAnalyzer(incremental);
+        double before = cached.calculateTotalRevenue();
+        assertEquals(before, cached.calculateTotalRevenue());
+
+        incremental.addAll(records.subList(5000, records.size()));
+        assertNotEquals(before, cached.calculateTotalRevenue());
+        assertEquals(1, cached.getStats().getInvalidations());
+        assertSameResults(new SalesAnalyzer(records), cached);
+    }
+
+    @Test
+    @DisplayName("Test rows added to a SalesTable invalidate a columnar or parallel delegate")
+    void testInvalidatedByTableVersion() {
+        SalesTable table = SalesTable.from(records.subList(0, 5000));
+        CachingSalesAnalyzer columnar = new CachingSalesAnalyzer(new ColumnarSalesAnalyzer(table));
+        CachingSalesAnalyzer parallel = new CachingSalesAnalyzer(new ParallelSalesAnalyzer(table, ForkJoinPool.commonPool()));
+        double before = columnar.calculateTotalRevenue();
+        assertEquals(before, parallel.calculateTotalRevenue(), 1e-6);
+
+        for (SalesRecord record : records.subList(5000, records.size())) {
+            table.add(record);
+        }
+        double after = new SalesAnalyzer(records).calculateTotalRevenue();
+        assertEquals(after, columnar.calculateTotalRevenue());
+        assertEquals(after, parallel.calculateTotalRevenue(), 1e-6);
+        assertEquals(1, columnar.getStats().getInvalidations());
+        assertEquals(1, parallel.getStats().getInvalidations());
+    }
+
+    @Test
+    @DisplayName("Test a slow miss does not hold up lookups of other entries")
+    void testMissesRunOutsideTheLock() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        SalesAnalyzer slow = new SalesAnalyzer(records) {
+            @Override
+            public Map<String, Double> getSalesByCategory() {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.getSalesByCategory();
+            }
+        };
+        CachingSalesAnalyzer cached = new CachingSalesAnalyzer(slow);
+        CompletableFuture<Map<String, Double>> blocked = CompletableFuture.supplyAsync(cached::getSalesByCategory);
+
+        // Would time out if the blocked query held the cache's lock
+        CompletableFuture<Double> other = CompletableFuture.supplyAsync(cached::calculateTotalRevenue);
+        assertEquals(slow.calculateTotalRevenue(), other.get(10, TimeUnit.SECONDS));
+        release.countDown();
+        assertEquals(slow.getSalesByCategory(), blocked.get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Test explicit invalidation drops every entry")
+    void testExplicitInvalidation() {
+        CachingSalesAnalyzer cached = new CachingSalesAnalyzer(new SalesAnalyzer(records));
+        cached.getMonthlySalesTrend();
+        cached.invalidate();
+        assertEquals(0, cached.getStats().getSize());
+        assertEquals(1, cached.getStats().getInvalidations());
+        cached.getMonthlySalesTrend();
+        assertEquals(2, cached.getStats().getMisses());
+    }
+}
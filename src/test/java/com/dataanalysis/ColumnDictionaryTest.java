@@ -0,0 +1,156 @@
+package com.dataanalysis;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ColumnDictionary and the per-parse SalesDictionaries
+ */
+class ColumnDictionaryTest {
+
+    @Test
+    @DisplayName("Test codes are dense, stable and shared between bytes and Strings")
+    void testCodes() {
+        ColumnDictionary dictionary = new ColumnDictionary("region");
+        byte[] line = "West,East,West".getBytes(StandardCharsets.UTF_8);
+
+        assertEquals(0, dictionary.intern(line, 0, 4));
+        assertEquals(1, dictionary.intern(line, 5, 9));
+        assertEquals(0, dictionary.intern(line, 10, 14));
+        assertEquals(1, dictionary.intern("East"));
+        assertEquals(2, dictionary.intern("Central"));
+
+        assertEquals(3, dictionary.size());
+        assertEquals("West", dictionary.value(0));
+        assertEquals(2, dictionary.code("Central"));
+        assertEquals(-1, dictionary.code("South"));
+    }
+
+    @Test
+    @DisplayName("Test canonical instances are shared")
+    void testCanonical() {
+        ColumnDictionary dictionary = new ColumnDictionary("segment");
+        String first = dictionary.canonical(new String("Consumer"));
+
+        assertSame(first, dictionary.canonical(new String("Consumer")));
+        byte[] bytes = "Consumer".getBytes(StandardCharsets.UTF_8);
+        assertSame(first, dictionary.value(dictionary.intern(bytes, 0, bytes.length)));
+    }
+
+    @Test
+    @DisplayName("Test invalid UTF-8 maps to the same code as its decoded String")
+    void testInvalidUtf8() {
+        ColumnDictionary dictionary = new ColumnDictionary("city");
+        byte[] invalid = {'A', (byte) 0xA0, 'B'};
+        String decoded = new String(invalid, StandardCharsets.UTF_8);
+
+        int code = dictionary.intern(invalid, 0, invalid.length);
+        assertEquals(code, dictionary.intern(decoded));
+        assertEquals(code, dictionary.intern(invalid, 0, invalid.length));
+        assertEquals(1, dictionary.size());
+    }
+
+    @Test
+    @DisplayName("Test a full dictionary stops adding values")
+    void testMaxSize() {
+        ColumnDictionary dictionary = new ColumnDictionary("state", 2);
+
+        assertEquals(0, dictionary.intern("Texas"));
+        assertEquals(1, dictionary.intern("Ohio"));
+        assertEquals(-1, dictionary.intern("Utah"));
+        assertEquals(0, dictionary.intern("Texas"));
+
+        String utah = new String("Utah");
+        assertSame(utah, dictionary.canonical(utah));
+    }
+
+    @Test
+    @DisplayName("Test concurrent interning gives every value one code")
+    void testConcurrentIntern() throws InterruptedException {
+        ColumnDictionary dictionary = new ColumnDictionary("city");
+        ConcurrentHashMap<String, Integer> codes = new ConcurrentHashMap<>();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        List<AssertionError> failures = new ArrayList<>();
+
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < 500; i++) {
+                        String value = "City-" + (i % 200);
+                        int code = dictionary.intern(value);
+                        Integer previous = codes.putIfAbsent(value, code);
+                        if (previous != null && previous != code) {
+                            synchronized (failures) {
+                                failures.add(new AssertionError(value + " got codes " + previous + " and " + code));
+                            }
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertTrue(failures.isEmpty(), failures.toString());
+        assertEquals(200, dictionary.size());
+    }
+
+    @Test
+    @DisplayName("Test many values grow the dictionary without losing codes")
+    void testGrowth() {
+        ColumnDictionary dictionary = new ColumnDictionary("order", 100_000);
+        for (int i = 0; i < 100_000; i++) {
+            assertEquals(i, dictionary.intern("Order-" + i));
+        }
+        for (int i = 0; i < 100_000; i += 7) {
+            byte[] bytes = ("Order-" + i).getBytes(StandardCharsets.UTF_8);
+            assertEquals(i, dictionary.intern(bytes, 0, bytes.length));
+            assertEquals("Order-" + i, dictionary.value(i));
+        }
+        assertEquals(-1, dictionary.intern("Order-100000"));
+        assertEquals(100_000, dictionary.size());
+    }
+
+    @Test
+    @DisplayName("Test records share instances within a parse, and parses keep separate dictionaries")
+    void testParsedRecordsShareStrings() throws IOException {
+        List<SalesRecord> records = SalesDataParser.parseCSV("data/Superstore.csv");
+        List<SalesRecord> again = MappedCSVParser.parseCSV("data/Superstore.csv");
+        SalesRecord first = records.get(0);
+        SalesRecord firstAgain = again.get(0);
+        for (int i = 0; i < records.size(); i += 97) {
+            SalesRecord record = records.get(i);
+            if (record.getRegion().equals(first.getRegion())) {
+                assertSame(first.getRegion(), record.getRegion());
+            }
+            if (again.get(i).getSegment().equals(firstAgain.getSegment())) {
+                assertSame(firstAgain.getSegment(), again.get(i).getSegment());
+            }
+        }
+        assertNotSame(first.getRegion(), firstAgain.getRegion());
+
+        SalesDictionaries dictionaries = new SalesDictionaries();
+        String west = dictionaries.canonical(SalesField.REGION, new String("West"));
+        assertSame(west, dictionaries.canonical(SalesField.REGION, new String("West")));
+        assertEquals(1, dictionaries.forField(SalesField.REGION).size());
+        assertEquals(0, new SalesDictionaries().forField(SalesField.REGION).size());
+        assertNull(dictionaries.forField(SalesField.PRODUCT_NAME));
+    }
+}
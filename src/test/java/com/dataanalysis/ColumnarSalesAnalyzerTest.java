@@ -0,0 +1,148 @@
+package com.dataanalysis;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.DoubleSummaryStatistics;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SalesTable and ColumnarSalesAnalyzer
+ * Every analysis must return exactly what the stream implementation returns
+ */
+class ColumnarSalesAnalyzerTest {
+
+    private static List<SalesRecord> records;
+    private static SalesAnalyzer streams;
+    private static ColumnarSalesAnalyzer columnar;
+
+    @BeforeAll
+    static void loadData() throws IOException {
+        records = SalesDataParser.parseCSV("data/Superstore.csv");
+        streams = new SalesAnalyzer(records);
+        columnar = new ColumnarSalesAnalyzer(SalesTable.from(records));
+    }
+
+    static List<String> describe(List<SalesRecord> records) {
+        return records.stream().map(SalesRecord::toString).collect(Collectors.toList());
+    }
+
+    static void assertSameStatistics(Map<String, DoubleSummaryStatistics> expected,
+                                     Map<String, DoubleSummaryStatistics> actual) {
+        assertEquals(expected.keySet(), actual.keySet());
+        for (String key : expected.keySet()) {
+            assertEquals(expected.get(key).toString(), actual.get(key).toString(), key);
+        }
+    }
+
+    // Compares every analysis exactly, including the order of entries in sorted lists
+    static void assertSameResults(SalesAnalyzer expected, SalesAnalyzer actual) {
+        assertEquals(expected.calculateTotalRevenue(), actual.calculateTotalRevenue());
+        assertEquals(expected.calculateTotalProfit(), actual.calculateTotalProfit());
+        assertEquals(expected.getSalesByCategory(), actual.getSalesByCategory());
+        assertEquals(expected.getProfitByCategory(), actual.getProfitByCategory());
+        assertEquals(expected.getTopProductsBySales(10), actual.getTopProductsBySales(10));
+        assertEquals(expected.getTopProductsByProfit(10), actual.getTopProductsByProfit(10));
+        assertEquals(expected.getAverageOrderValue(), actual.getAverageOrderValue());
+        assertSameStatistics(expected.getRegionSalesStatistics(), actual.getRegionSalesStatistics());
+        assertEquals(expected.getMonthlySalesTrend(), actual.getMonthlySalesTrend());
+        assertEquals(expected.getSalesBySegment(), actual.getSalesBySegment());
+        assertEquals(describe(expected.getUnprofitableProducts()), describe(actual.getUnprofitableProducts()));
+        assertEquals(expected.getAverageDiscountByCategory(), actual.getAverageDiscountByCategory());
+        assertEquals(expected.getQuantityBySubCategory(), actual.getQuantityBySubCategory());
+        assertEquals(describe(expected.getHighValueOrders(500)), describe(actual.getHighValueOrders(500)));
+        assertEquals(expected.getProfitMarginByCategory(), actual.getProfitMarginByCategory());
+        assertEquals(expected.getTopStatesBySales(5), actual.getTopStatesBySales(5));
+        assertEquals(expected.getSalesByShipMode(), actual.getSalesByShipMode());
+        LocalDate start = LocalDate.of(2015, 6, 1);
+        LocalDate end = LocalDate.of(2016, 2, 29);
+        assertEquals(describe(expected.getOrdersInDateRange(start, end)),
+                describe(actual.getOrdersInDateRange(start, end)));
+        assertEquals(expected.getCategoryDistributionPercentage(), actual.getCategoryDistributionPercentage());
+        assertEquals(expected.getOrderCountByRegion(), actual.getOrderCountByRegion());
+    }
+
+    @Test
+    @DisplayName("Test every analysis matches the stream implementation exactly")
+    void testMatchesStreamAnalyzer() {
+        assertSameResults(streams, columnar);
+    }
+
+    @Test
+    @DisplayName("Test ties in top-N lists keep the stream implementation's order")
+    void testTopNTies() {
+        // All the same sales, so the order comes purely from HashMap iteration
+        List<SalesRecord> ties = records.stream()
+                .map(r -> new SalesRecord(r.getOrderId(), r.getOrderDate(), r.getShipMode(), r.getSegment(),
+                        r.getCountry(), r.getCity(), r.getState(), r.getRegion(), r.getCategory(),
+                        r.getSubCategory(), r.getProductName(), 1.0, r.getQuantity(), r.getDiscount(), 1.0))
+                .collect(Collectors.toList());
+
+        SalesAnalyzer expected = new SalesAnalyzer(ties);
+        SalesAnalyzer actual = new ColumnarSalesAnalyzer(ties);
+        assertEquals(expected.getTopProductsBySales(25), actual.getTopProductsBySales(25));
+        assertEquals(expected.getTopStatesBySales(25), actual.getTopStatesBySales(25));
+        assertEquals(describe(expected.getHighValueOrders(0)), describe(actual.getHighValueOrders(0)));
+        assertEquals(describe(expected.getHighValueOrders(0, 500, 20)), describe(actual.getHighValueOrders(0, 500, 20)));
+        assertThrows(IllegalArgumentException.class, () -> actual.getUnprofitableProducts(-1, 5));
+    }
+
+    @Test
+    @DisplayName("Test concurrent first queries build each lazy index once, consistently")
+    void testConcurrentFirstQueries() throws Exception {
+        for (int attempt = 0; attempt < 5; attempt++) {
+            ColumnarSalesAnalyzer fresh = new ColumnarSalesAnalyzer(SalesTable.from(records));
+            SalesTable table = fresh.getTable();
+            List<Callable<Object>> queries = List.of(
+                    fresh::getMonthlySalesTrend,
+                    () -> table.rowsWhere(SalesField.REGION, "West").cardinality(),
+                    () -> table.rowsWhere(SalesField.REGION, "East").cardinality(),
+                    () -> table.rowsWhere(SalesField.SEGMENT, "Consumer").cardinality(),
+                    () -> table.column(SalesField.STATE).codeOf("Texas"),
+                    table::dateIndex);
+            ExecutorService pool = Executors.newFixedThreadPool(queries.size());
+            try {
+                List<Future<Object>> results = pool.invokeAll(queries);
+                assertEquals(streams.getMonthlySalesTrend(), results.get(0).get());
+                assertEquals(streams.getOrderCountByRegion().get("West").intValue(), results.get(1).get());
+                assertEquals(streams.getOrderCountByRegion().get("East").intValue(), results.get(2).get());
+                assertEquals(table.rowsWhere(SalesField.SEGMENT, "Consumer").cardinality(), results.get(3).get());
+                assertEquals(table.column(SalesField.STATE).codeOf("Texas"), results.get(4).get());
+                assertSame(table.dateIndex(), results.get(5).get());
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Test table columns and rows round-trip the records")
+    void testTableRoundTrip() {
+        SalesTable table = columnar.getTable();
+
+        assertEquals(records.size(), table.size());
+        assertEquals(describe(records), describe(table.rows()));
+        assertEquals(4, table.column(SalesField.REGION).cardinality());
+        assertEquals(records.get(0).getRegion(), table.column(SalesField.REGION).value(0));
+        assertEquals(0, table.column(SalesField.CATEGORY).codeOf(records.get(0).getCategory()));
+        assertEquals(-1, table.column(SalesField.CATEGORY).codeOf("Groceries"));
+        assertThrows(IllegalArgumentException.class, () -> table.column(SalesField.SALES));
+    }
+
+    @Test
+    @DisplayName("Test empty tables give the same results as empty lists")
+    void testEmptyTable() {
+        assertSameResults(new SalesAnalyzer(List.of()), new ColumnarSalesAnalyzer(new SalesTable()));
+    }
+}
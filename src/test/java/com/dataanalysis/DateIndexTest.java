@@ -0,0 +1,106 @@
+package com.dataanalysis;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for DateIndex
+ * Range lookups must return exactly the rows a linear scan finds
+ */
+class DateIndexTest {
+
+    private static SalesTable table;
+
+    @BeforeAll
+    static void loadData() throws IOException {
+        table = SalesTable.from(SalesDataParser.parseCSV("data/Superstore.csv"));
+    }
+
+    private static int[] scan(int[] days, LocalDate start, LocalDate end) {
+        return IntStream.range(0, days.length)
+                .filter(row -> days[row] != SalesTable.NO_DATE
+                        && days[row] >= start.toEpochDay() && days[row] <= end.toEpochDay())
+                .toArray();
+    }
+
+    @Test
+    @DisplayName("Test range lookups match a linear scan")
+    void testMatchesScan() {
+        DateIndex index = table.dateIndex();
+        int[] days = new int[table.size()];
+        for (int row = 0; row < days.length; row++) {
+            days[row] = (int) table.getOrderDate(row).toEpochDay();
+        }
+        assertEquals(table.size(), index.size());
+        assertEquals(-1, index.firstRowWithoutDate());
+
+        LocalDate[][] ranges = {
+                {LocalDate.of(2015, 6, 1), LocalDate.of(2016, 2, 29)},
+                {LocalDate.of(2014, 1, 3), LocalDate.of(2014, 1, 3)},
+                {LocalDate.of(2000, 1, 1), LocalDate.of(2030, 1, 1)},
+                {LocalDate.of(2030, 1, 1), LocalDate.of(2031, 1, 1)},
+                {LocalDate.of(2016, 1, 1), LocalDate.of(2015, 1, 1)}};
+        for (LocalDate[] range : ranges) {
+            int[] expected = scan(days, range[0], range[1]);
+            assertArrayEquals(expected, index.rowsBetween(range[0], range[1]), range[0] + ".." + range[1]);
+            assertEquals(expected.length, index.countBetween(range[0], range[1]));
+        }
+    }
+
+    @Test
+    @DisplayName("Test rows by date are ordered by date, then row")
+    void testDateOrder() {
+        int[] rows = table.dateIndex().rowsByDateBetween(LocalDate.of(2017, 1, 1), LocalDate.of(2017, 12, 31));
+        for (int i = 1; i < rows.length; i++) {
+            LocalDate previous = table.getOrderDate(rows[i - 1]);
+            LocalDate current = table.getOrderDate(rows[i]);
+            assertTrue(previous.isBefore(current) || previous.equals(current) && rows[i - 1] < rows[i]);
+        }
+    }
+
+    @Test
+    @DisplayName("Test widely spread dates, missing dates and months")
+    void testSparseDates() {
+        int[] days = {
+                (int) LocalDate.of(2020, 3, 5).toEpochDay(),
+                SalesTable.NO_DATE,
+                (int) LocalDate.of(1900, 12, 31).toEpochDay(),
+                (int) LocalDate.of(2020, 3, 5).toEpochDay(),
+                (int) LocalDate.of(2999, 7, 1).toEpochDay()};
+        DateIndex index = DateIndex.build(days, days.length);
+
+        assertEquals(4, index.size());
+        assertEquals(1, index.firstRowWithoutDate());
+        assertArrayEquals(new int[]{2, 0, 3, 4}, index.rowsByDateBetween(LocalDate.MIN, LocalDate.MAX));
+        assertArrayEquals(new int[]{0, 3}, index.rowsBetween(LocalDate.of(2020, 3, 5), LocalDate.of(2020, 3, 5)));
+        assertEquals(Month.MARCH, index.month(0));
+        assertNull(index.month(1));
+        assertEquals(Month.DECEMBER, index.month(2));
+        assertEquals(Month.JULY, index.month(4));
+    }
+
+    @Test
+    @DisplayName("Test the table reuses its index until rows are added")
+    void testTableCachesIndex() {
+        SalesTable small = SalesTable.from(table.rows().subList(0, 50));
+        DateIndex first = small.dateIndex();
+        assertSame(first, small.dateIndex());
+
+        small.add(table.row(50));
+        DateIndex rebuilt = small.dateIndex();
+        assertNotSame(first, rebuilt);
+        assertEquals(51, rebuilt.size());
+        List<SalesRecord> all = new ColumnarSalesAnalyzer(small)
+                .getOrdersInDateRange(LocalDate.MIN, LocalDate.MAX);
+        assertEquals(51, all.size());
+    }
+}
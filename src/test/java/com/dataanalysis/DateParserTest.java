@@ -0,0 +1,92 @@
+package com.dataanalysis;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for DateParser
+ */
+class DateParserTest {
+
+    // The formatter chain SalesDataParser used before DateParser
+    private static final DateTimeFormatter[] FORMATTERS = {
+            DateTimeFormatter.ofPattern("M/d/yyyy"),
+            DateTimeFormatter.ofPattern("yyyy-MM-dd"),
+            DateTimeFormatter.ofPattern("MM/dd/yyyy")
+    };
+
+    private static LocalDate parseWithFormatters(String text) {
+        for (DateTimeFormatter formatter : FORMATTERS) {
+            try {
+                return LocalDate.parse(text, formatter);
+            } catch (DateTimeParseException e) {
+                // Try next formatter
+            }
+        }
+        return null;
+    }
+
+    @Test
+    @DisplayName("Test results match the DateTimeFormatter chain")
+    void testMatchesFormatters() {
+        String[] dates = {
+                "11/8/2016", "1/3/2024", "01/03/2024", "12/31/2017", "2024-01-03", "0001-01-01",
+                "2/29/2024", "2/29/2023", "2/30/2024", "4/31/2024", "2/32/2024", "13/1/2024", "1/0/2024",
+                "001/1/2024", "1/1/0000", "1/1/024", "1/1/12345", "12345-01-01", "2024-1-01", "2024-01-1",
+                "2024/01/01", "1-3-2024", "+2024-01-01", "1/1/+2024", " 1/1/2024", "1//2024", "/1/2024",
+                "1/1/", "", "abc", "2024-01-01x", "99999999999999999999/1/2024"
+        };
+
+        for (String date : dates) {
+            assertEquals(parseWithFormatters(date), DateParser.parse(date), date);
+        }
+    }
+
+    @Test
+    @DisplayName("Test every day of a leap and a common year round-trips in all formats")
+    void testAllDays() {
+        for (LocalDate date = LocalDate.of(2015, 1, 1); date.getYear() < 2017; date = date.plusDays(1)) {
+            String slashed = date.getMonthValue() + "/" + date.getDayOfMonth() + "/" + date.getYear();
+            String padded = String.format("%02d/%02d/%d", date.getMonthValue(), date.getDayOfMonth(), date.getYear());
+            assertEquals(date, DateParser.parse(slashed));
+            assertEquals(date, DateParser.parse(padded));
+            assertEquals(date, DateParser.parse(date.toString()));
+        }
+    }
+
+    @Test
+    @DisplayName("Test cached parsing returns the same dates and caches invalid input")
+    void testCache() {
+        DateParser parser = new DateParser();
+        byte[] line = "x,11/8/2016,2/32/2024,11/8/2016".getBytes(StandardCharsets.UTF_8);
+
+        LocalDate first = parser.parseCached(line, 2, 11);
+        assertEquals(LocalDate.of(2016, 11, 8), first);
+        assertSame(first, parser.parseCached(line, 22, 31));
+        assertEquals(1, parser.cachedCount());
+
+        assertNull(parser.parseCached(line, 12, 21));
+        assertEquals(2, parser.cachedCount());
+    }
+
+    @Test
+    @DisplayName("Test the cache stays bounded")
+    void testCacheBounded() {
+        DateParser parser = new DateParser();
+        LocalDate date = LocalDate.of(2000, 1, 1);
+
+        for (int i = 0; i < 5000; i++, date = date.plusDays(1)) {
+            byte[] text = date.toString().getBytes(StandardCharsets.UTF_8);
+            assertEquals(date, parser.parseCached(text, 0, text.length));
+        }
+
+        assertTrue(parser.cachedCount() <= 2048);
+    }
+}
@@ -0,0 +1,119 @@
+package com.dataanalysis;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.dataanalysis.ColumnarSalesAnalyzerTest.assertSameResults;
+import static com.dataanalysis.ColumnarSalesAnalyzerTest.describe;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for IncrementalSalesAnalyzer
+ * After every append the analyzer must answer exactly like a SalesAnalyzer over the same records
+ */
+class IncrementalSalesAnalyzerTest {
+
+    private static List<SalesRecord> records;
+
+    @BeforeAll
+    static void loadData() throws IOException {
+        records = SalesDataParser.parseCSV("data/Superstore.csv");
+    }
+
+    private static SalesRecord record(String product, double sales, double profit, LocalDate date) {
+        return new SalesRecord("ORD-1", date, "Standard Class", "Consumer", "United States", "Austin",
+                "Texas", "Central", "Technology", "Phones", product, sales, 2, 0.2, profit);
+    }
+
+    @Test
+    @DisplayName("Test appended records give the same results as SalesAnalyzer")
+    void testMatchesAnalyzer() {
+        IncrementalSalesAnalyzer incremental = new IncrementalSalesAnalyzer();
+        incremental.addAll(records);
+        assertEquals(records.size(), incremental.size());
+        assertSameResults(new SalesAnalyzer(records), incremental);
+    }
+
+    @Test
+    @DisplayName("Test reads between appends always reflect the records so far")
+    void testReadsBetweenAppends() {
+        IncrementalSalesAnalyzer incremental = new IncrementalSalesAnalyzer(records.subList(0, 3000));
+        assertSameResults(new SalesAnalyzer(records.subList(0, 3000)), incremental);
+
+        for (SalesRecord record : records.subList(3000, 6000)) {
+            incremental.add(record);
+        }
+        assertSameResults(new SalesAnalyzer(records.subList(0, 6000)), incremental);
+
+        incremental.addAll(records.subList(6000, records.size()));
+        assertSameResults(new SalesAnalyzer(records), incremental);
+    }
+
+    @Test
+    @DisplayName("Test ties keep append order in sorted record lists")
+    void testTiesKeepAppendOrder() {
+        LocalDate date = LocalDate.of(2024, 3, 1);
+        List<SalesRecord> tied = List.of(
+                record("A", 500, -10, date),
+                record("B", 800, -20, date.plusDays(5)),
+                record("C", 500, -10, date.minusDays(5)),
+                record("D", 800, 15, date));
+        IncrementalSalesAnalyzer incremental = new IncrementalSalesAnalyzer(tied);
+        assertSameResults(new SalesAnalyzer(tied), incremental);
+        assertEquals(List.of("B", "D", "A", "C"),
+                incremental.getHighValueOrders(100).stream().map(SalesRecord::getProductName).toList());
+        assertEquals(List.of("A", "D"), incremental.getOrdersInDateRange(date, date)
+                .stream().map(SalesRecord::getProductName).toList());
+
+        // Rows appended after a read are merged behind the equal keys already ranked
+        incremental.add(record("E", 800, -20, date));
+        incremental.add(record("F", 900, -5, date));
+        assertEquals(List.of("F", "B", "D", "E", "A", "C"),
+                incremental.getHighValueOrders(100).stream().map(SalesRecord::getProductName).toList());
+        assertEquals(List.of("B", "E", "A", "C", "F"),
+                incremental.getUnprofitableProducts().stream().map(SalesRecord::getProductName).toList());
+    }
+
+    @Test
+    @DisplayName("Test a record with a missing group key only breaks the metrics grouped by it")
+    void testNullKey() {
+        List<SalesRecord> withNull = new ArrayList<>(records.subList(0, 100));
+        withNull.add(new SalesRecord("ORD-2", null, "First Class", "Consumer",
+                "United States", "Austin", "Texas", "Central", null, "Phones", "Phone", 10, 1, 0, -1));
+        IncrementalSalesAnalyzer incremental = new IncrementalSalesAnalyzer(records.subList(0, 100));
+        incremental.add(withNull.get(100));
+        SalesAnalyzer expected = new SalesAnalyzer(withNull);
+
+        assertEquals(101, incremental.size());
+        assertEquals(expected.calculateTotalRevenue(), incremental.calculateTotalRevenue());
+        assertEquals(expected.getTopProductsBySales(10), incremental.getTopProductsBySales(10));
+        assertEquals(expected.getOrderCountByRegion(), incremental.getOrderCountByRegion());
+        assertEquals(expected.getQuantityBySubCategory(), incremental.getQuantityBySubCategory());
+        assertEquals(describe(expected.getUnprofitableProducts()), describe(incremental.getUnprofitableProducts()));
+        assertEquals(describe(expected.getHighValueOrders(5)), describe(incremental.getHighValueOrders(5)));
+
+        // Grouped by category or order date: both fail the same way
+        assertThrows(NullPointerException.class, expected::getSalesByCategory);
+        assertThrows(NullPointerException.class, incremental::getSalesByCategory);
+        assertThrows(NullPointerException.class, incremental::getAverageDiscountByCategory);
+        assertThrows(NullPointerException.class, expected::getMonthlySalesTrend);
+        assertThrows(NullPointerException.class, incremental::getMonthlySalesTrend);
+        LocalDate day = LocalDate.of(2016, 1, 1);
+        assertThrows(NullPointerException.class, () -> expected.getOrdersInDateRange(day, day));
+        assertThrows(NullPointerException.class, () -> incremental.getOrdersInDateRange(day, day));
+    }
+
+    @Test
+    @DisplayName("Test returned statistics are copies of the running totals")
+    void testStatisticsAreCopies() {
+        IncrementalSalesAnalyzer incremental = new IncrementalSalesAnalyzer(records.subList(0, 100));
+        incremental.getRegionSalesStatistics().values().forEach(stats -> stats.accept(1_000_000));
+        assertSameResults(new SalesAnalyzer(records.subList(0, 100)), incremental);
+    }
+}
@@ -0,0 +1,194 @@
+package com.dataanalysis;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for MappedCSVParser
+ */
+class MappedCSVParserTest {
+
+    private static final String HEADER = "Row ID,Order ID,Order Date,Ship Date,Ship Mode,Customer ID,Customer Name,Segment,Country,City,State,Postal Code,Region,Product ID,Category,Sub-Category,Product Name,Sales,Quantity,Discount,Profit\n";
+
+    @Test
+    @DisplayName("Test mapped parallel parse matches sequential parse on the Superstore file")
+    void testMatchesSequentialParse() throws IOException {
+        List<SalesRecord> expected = SalesDataParser.parseCSV("data/Superstore.csv");
+
+        // Tiny ranges so many cuts land inside quoted product names
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            List<SalesRecord> actual = MappedCSVParser.parseCSV("data/Superstore.csv", pool, 1000);
+
+            assertEquals(expected.size(), actual.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i).toString(), actual.get(i).toString(), "Record " + i);
+                assertEquals(expected.get(i).getCity(), actual.get(i).getCity());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Test range boundaries land on line starts and keep quoted fields whole")
+    void testBoundariesAtLineStarts(@TempDir Path tempDir) throws IOException {
+        Path csvFile = tempDir.resolve("quoted.csv");
+        try (FileWriter writer = new FileWriter(csvFile.toFile())) {
+            writer.write(HEADER);
+            for (int i = 1; i <= 50; i++) {
+                writer.write(i + ",ORDER-" + i + ",1/3/2024,1/5/2024,Standard Class,CID-001,John Doe,Consumer,United States,New York,NY,10001,East,PROD-001,Furniture,Chairs,"
+                        + "\"Hon Deluxe Fabric Upholstered Stacking Chairs, Rounded Back\",731.94,3,0,219.582\n");
+            }
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try (FileChannel channel = FileChannel.open(csvFile, StandardOpenOption.READ)) {
+            long dataStart = MappedCSVParser.findLineEnd(channel, 0, channel.size());
+            long[] bounds = MappedCSVParser.alignedBounds(channel, pool, dataStart, channel.size(), 100);
+
+            assertTrue(bounds.length > 3, "Expected several ranges");
+            for (long bound : bounds) {
+                if (bound > dataStart && bound < channel.size()) {
+                    ByteBuffer previous = ByteBuffer.allocate(1);
+                    channel.read(previous, bound - 1);
+                    assertEquals('\n', (char) previous.get(0), "Cut inside a line at " + bound);
+                }
+            }
+
+            List<SalesRecord> records = MappedCSVParser.parseCSV(csvFile.toString(), pool, 100);
+            assertEquals(50, records.size());
+            assertEquals("ORDER-50", records.get(49).getOrderId());
+            assertEquals("Hon Deluxe Fabric Upholstered Stacking Chairs, Rounded Back", records.get(0).getProductName());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Test an unbalanced quote only drops its own line, like parseCSV")
+    void testUnbalancedQuote(@TempDir Path tempDir) throws IOException {
+        List<String> lines = Files.readAllLines(Path.of("data/Superstore.csv"), StandardCharsets.ISO_8859_1);
+        // Stray quote in the product name of row 5
+        lines.set(5, lines.get(5).replace("Eldon Fold", "Eldon \"Fold"));
+        Path csvFile = tempDir.resolve("unbalanced.csv");
+        Files.write(csvFile, lines, StandardCharsets.ISO_8859_1);
+
+        List<SalesRecord> expected = SalesDataParser.parseCSV(csvFile.toString());
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            List<SalesRecord> actual = MappedCSVParser.parseCSV(csvFile.toString(), pool, 1000);
+            assertEquals(lines.size() - 2, expected.size());
+            assertEquals(expected.size(), actual.size());
+            assertEquals(expected.get(expected.size() - 1).toString(), actual.get(actual.size() - 1).toString());
+        } finally {
+            pool.shutdown();
+        }
+
+        try (FileChannel channel = FileChannel.open(csvFile, StandardOpenOption.READ)) {
+            long dataStart = MappedCSVParser.findLineEnd(channel, 0, channel.size());
+            MappedCSVParser.RangeResult result =
+                    MappedCSVParser.parseRange(channel, dataStart, channel.size(), new SalesDictionaries());
+            assertEquals(1, result.errors.size());
+            assertEquals(5, result.errors.get(0).lineIndex);
+        }
+    }
+
+    @Test
+    @DisplayName("Test malformed lines are reported and skipped")
+    void testMalformedLines(@TempDir Path tempDir) throws IOException {
+        Path csvFile = tempDir.resolve("malformed.csv");
+        try (FileWriter writer = new FileWriter(csvFile.toFile())) {
+            writer.write(HEADER);
+            writer.write("1,ORDER-001,invalid-date,1/5/2024,Standard Class,CID-001,John Doe,Consumer,United States,New York,NY,10001,East,PROD-001,Technology,Phones,iPhone,1200.00,2,0.1,240.00\r\n");
+            writer.write("\r\n");
+            writer.write("2,ORDER-002,2/15/2024,2/17/2024,Second Class,CID-002,Jane Smith,Corporate,United States,Los Angeles,CA,90001,West,PROD-002,Furniture,Chairs,Office Chair,450.00,3,0.0,135.00");
+        }
+
+        List<SalesRecord> records = MappedCSVParser.parseCSV(csvFile.toString());
+
+        assertEquals(1, records.size());
+        assertEquals("ORDER-002", records.get(0).getOrderId());
+        assertEquals(135.00, records.get(0).getProfit(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Test CRLF and CR line endings parse like SalesDataParser")
+    void testLineEndings(@TempDir Path tempDir) throws IOException {
+        String row = "1,ORDER-001,1/3/2024,1/5/2024,Standard Class,CID-001,John Doe,Consumer,United States,New York,NY,10001,East,PROD-001,Furniture,Chairs,Office Chair,731.94,3,0,219.582";
+        for (String ending : new String[]{"\r\n", "\r"}) {
+            Path csvFile = tempDir.resolve(ending.length() + ".csv");
+            try (FileWriter writer = new FileWriter(csvFile.toFile())) {
+                writer.write(HEADER.replace("\n", ending));
+                for (int i = 0; i < 3; i++) {
+                    writer.write(row.replace("ORDER-001", "ORDER-" + i) + ending);
+                }
+            }
+
+            List<SalesRecord> expected = SalesDataParser.parseCSV(csvFile.toString());
+            ForkJoinPool pool = new ForkJoinPool(2);
+            try {
+                List<SalesRecord> actual = MappedCSVParser.parseCSV(csvFile.toString(), pool, 100);
+                assertEquals(3, actual.size());
+                for (int i = 0; i < expected.size(); i++) {
+                    assertEquals(expected.get(i).toString(), actual.get(i).toString());
+                }
+                assertEquals(219.582, actual.get(2).getProfit(), 0.001);
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Test errors report line numbers within the range")
+    void testLineNumbers(@TempDir Path tempDir) throws IOException {
+        Path csvFile = tempDir.resolve("lines.csv");
+        try (FileWriter writer = new FileWriter(csvFile.toFile())) {
+            writer.write("1,ORDER-001,1/3/2024,1/5/2024,Standard Class,CID-001,John Doe,Consumer,United States,New York,NY,10001,East,PROD-001,Furniture,Chairs,"
+                    + "\"Hon Deluxe Fabric Upholstered Stacking Chairs, Rounded Back\",731.94,3,0,219.582\r\n");
+            writer.write("\r\n");
+            writer.write("2,ORDER-002,invalid-date,1/5/2024,Standard Class,CID-001,John Doe,Consumer,United States,New York,NY,10001,East,PROD-001,Technology,Phones,iPhone,1200.00,2,0.1,240.00");
+        }
+
+        try (FileChannel channel = FileChannel.open(csvFile, StandardOpenOption.READ)) {
+            MappedCSVParser.RangeResult result =
+                    MappedCSVParser.parseRange(channel, 0, channel.size(), new SalesDictionaries());
+
+            assertEquals(1, result.records.size());
+            assertEquals(1, result.errors.size());
+            assertEquals(3, result.errors.get(0).lineIndex);
+            assertTrue(result.errors.get(0).line.startsWith("2,ORDER-002"));
+            assertEquals(3, result.lineCount);
+        }
+    }
+
+    @Test
+    @DisplayName("Test empty and header-only files")
+    void testEmptyFiles(@TempDir Path tempDir) throws IOException {
+        Path empty = tempDir.resolve("empty.csv");
+        new FileWriter(empty.toFile()).close();
+        assertTrue(MappedCSVParser.parseCSV(empty.toString()).isEmpty());
+
+        Path headerOnly = tempDir.resolve("header.csv");
+        try (FileWriter writer = new FileWriter(headerOnly.toFile())) {
+            writer.write(HEADER);
+        }
+        assertTrue(MappedCSVParser.parseCSV(headerOnly.toString()).isEmpty());
+        assertThrows(IOException.class, () -> MappedCSVParser.parseCSV("nonexistent.csv"));
+    }
+}
@@ -0,0 +1,100 @@
+package com.dataanalysis;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ParallelCSVIngestor
+ */
+class ParallelCSVIngestorTest {
+
+    private static final String HEADER = "Row ID,Order ID,Order Date,Ship Date,Ship Mode,Customer ID,Customer Name,Segment,Country,City,State,Postal Code,Region,Product ID,Category,Sub-Category,Product Name,Sales,Quantity,Discount,Profit\n";
+
+    private static void assertSameRecords(List<SalesRecord> expected, List<SalesRecord> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).toString(), actual.get(i).toString(), "Record " + i);
+            assertEquals(expected.get(i).getCity(), actual.get(i).getCity());
+            assertEquals(expected.get(i).getDiscount(), actual.get(i).getDiscount());
+        }
+    }
+
+    @Test
+    @DisplayName("Test parallel ingestion matches sequential parsing in file order")
+    void testMatchesSequentialParse() throws IOException {
+        List<SalesRecord> expected = SalesDataParser.parseCSV("data/Superstore.csv");
+
+        // Uneven chunk sizes so chunks finish out of order across parsers
+        assertSameRecords(expected, ParallelCSVIngestor.parseCSV("data/Superstore.csv", 4, 97));
+        assertSameRecords(expected, ParallelCSVIngestor.parseCSV("data/Superstore.csv", 1, 5000));
+    }
+
+    @Test
+    @DisplayName("Test malformed and empty lines are skipped")
+    void testMalformedLines(@TempDir Path tempDir) throws IOException {
+        Path csvFile = tempDir.resolve("malformed.csv");
+
+        try (FileWriter writer = new FileWriter(csvFile.toFile())) {
+            writer.write(HEADER);
+            writer.write("1,ORDER-001,invalid-date,1/5/2024,Standard Class,CID-001,John Doe,Consumer,United States,New York,NY,10001,East,PROD-001,Technology,Phones,iPhone,1200.00,2,0.1,240.00\n");
+            writer.write("\n");
+            writer.write("2,ORDER-002,2/15/2024,2/17/2024,Second Class,CID-002,Jane Smith,Corporate,United States,Los Angeles,CA,90001,West,PROD-002,Furniture,Chairs,Office Chair,450.00,3,0.0,135.00\n");
+        }
+
+        List<SalesRecord> records = ParallelCSVIngestor.parseCSV(csvFile.toString(), 2, 1);
+
+        assertEquals(1, records.size());
+        assertEquals("ORDER-002", records.get(0).getOrderId());
+    }
+
+    @Test
+    @DisplayName("Test errors are reported in file order like parseCSV")
+    void testErrorOrder(@TempDir Path tempDir) throws IOException {
+        Path csvFile = tempDir.resolve("errors.csv");
+        try (FileWriter writer = new FileWriter(csvFile.toFile())) {
+            writer.write(HEADER);
+            for (int i = 0; i < 200; i++) {
+                writer.write(i + ",ORDER-" + i + ",bad-date-" + i + ",1/5/2024,Standard Class,CID-001,John Doe,Consumer,United States,New York,NY,10001,East,PROD-001,Technology,Phones,iPhone,1200.00,2,0.1,240.00\n");
+            }
+        }
+
+        PrintStream err = System.err;
+        ByteArrayOutputStream sequential = new ByteArrayOutputStream();
+        ByteArrayOutputStream parallel = new ByteArrayOutputStream();
+        try {
+            System.setErr(new PrintStream(sequential, true, StandardCharsets.UTF_8));
+            SalesDataParser.parseCSV(csvFile.toString());
+            System.setErr(new PrintStream(parallel, true, StandardCharsets.UTF_8));
+            ParallelCSVIngestor.parseCSV(csvFile.toString(), 4, 3);
+        } finally {
+            System.setErr(err);
+        }
+
+        String report = sequential.toString(StandardCharsets.UTF_8);
+        assertTrue(report.contains("Error parsing line 201: 199,"));
+        assertEquals(report, parallel.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Test header-only and missing files")
+    void testEmptyAndMissingFiles(@TempDir Path tempDir) throws IOException {
+        Path csvFile = tempDir.resolve("empty.csv");
+        try (FileWriter writer = new FileWriter(csvFile.toFile())) {
+            writer.write(HEADER);
+        }
+
+        assertTrue(ParallelCSVIngestor.parseCSV(csvFile.toString()).isEmpty());
+        assertThrows(IOException.class, () -> ParallelCSVIngestor.parseCSV("nonexistent.csv"));
+    }
+}
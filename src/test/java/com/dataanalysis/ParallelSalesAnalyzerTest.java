@@ -0,0 +1,116 @@
+package com.dataanalysis;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static com.dataanalysis.ColumnarSalesAnalyzerTest.assertSameResults;
+import static com.dataanalysis.ColumnarSalesAnalyzerTest.assertSameStatistics;
+import static com.dataanalysis.ColumnarSalesAnalyzerTest.describe;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ParallelSalesAnalyzer
+ * Small partitions force the parallel path on the sample data set
+ */
+class ParallelSalesAnalyzerTest {
+
+    private static final int PARTITION_ROWS = 1000;
+    private static final double DELTA = 1e-6;
+
+    private static List<SalesRecord> records;
+    private static SalesAnalyzer sequential;
+    private static ForkJoinPool pool;
+
+    @BeforeAll
+    static void loadData() throws IOException {
+        records = SalesDataParser.parseCSV("data/Superstore.csv");
+        sequential = new SalesAnalyzer(records);
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterAll
+    static void shutdown() {
+        pool.shutdown();
+    }
+
+    private static void assertClose(Map<?, Double> expected, Map<?, Double> actual) {
+        assertEquals(expected.keySet(), actual.keySet());
+        for (Object key : expected.keySet()) {
+            assertEquals(expected.get(key), actual.get(key), DELTA, String.valueOf(key));
+        }
+    }
+
+    @Test
+    @DisplayName("Test parallel results match the sequential analyzer")
+    void testMatchesSequential() {
+        SalesAnalyzer parallel = new ParallelSalesAnalyzer(records, pool, PARTITION_ROWS);
+
+        assertEquals(sequential.calculateTotalRevenue(), parallel.calculateTotalRevenue(), DELTA);
+        assertEquals(sequential.calculateTotalProfit(), parallel.calculateTotalProfit(), DELTA);
+        assertEquals(sequential.getAverageOrderValue(), parallel.getAverageOrderValue(), DELTA);
+        assertClose(sequential.getSalesByCategory(), parallel.getSalesByCategory());
+        assertClose(sequential.getProfitByCategory(), parallel.getProfitByCategory());
+        assertClose(sequential.getMonthlySalesTrend(), parallel.getMonthlySalesTrend());
+        assertClose(sequential.getSalesBySegment(), parallel.getSalesBySegment());
+        assertClose(sequential.getSalesByShipMode(), parallel.getSalesByShipMode());
+        assertClose(sequential.getAverageDiscountByCategory(), parallel.getAverageDiscountByCategory());
+        assertClose(sequential.getProfitMarginByCategory(), parallel.getProfitMarginByCategory());
+        assertClose(sequential.getCategoryDistributionPercentage(), parallel.getCategoryDistributionPercentage());
+        assertEquals(sequential.getQuantityBySubCategory(), parallel.getQuantityBySubCategory());
+        assertEquals(sequential.getOrderCountByRegion(), parallel.getOrderCountByRegion());
+        assertEquals(sequential.getRegionSalesStatistics().keySet(), parallel.getRegionSalesStatistics().keySet());
+        sequential.getRegionSalesStatistics().forEach((region, stats) -> {
+            assertEquals(stats.getCount(), parallel.getRegionSalesStatistics().get(region).getCount());
+            assertEquals(stats.getSum(), parallel.getRegionSalesStatistics().get(region).getSum(), DELTA);
+        });
+        assertEquals(sequential.getTopStatesBySales(5).stream().map(Map.Entry::getKey).toList(),
+                parallel.getTopStatesBySales(5).stream().map(Map.Entry::getKey).toList());
+
+        // Record lists are filtered and stably sorted, so they match exactly
+        assertEquals(describe(sequential.getUnprofitableProducts()), describe(parallel.getUnprofitableProducts()));
+        assertEquals(describe(sequential.getHighValueOrders(500)), describe(parallel.getHighValueOrders(500)));
+        LocalDate start = LocalDate.of(2015, 6, 1);
+        LocalDate end = LocalDate.of(2016, 2, 29);
+        assertEquals(describe(sequential.getOrdersInDateRange(start, end)),
+                describe(parallel.getOrdersInDateRange(start, end)));
+    }
+
+    @Test
+    @DisplayName("Test results are bit-for-bit identical across runs and pool sizes")
+    void testDeterministic() {
+        SalesAnalyzer first = new ParallelSalesAnalyzer(records, pool, PARTITION_ROWS);
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool wide = new ForkJoinPool(8);
+        try {
+            for (int run = 0; run < 3; run++) {
+                assertSameResults(first, new ParallelSalesAnalyzer(records, single, PARTITION_ROWS));
+                assertSameResults(first, new ParallelSalesAnalyzer(records, wide, PARTITION_ROWS));
+            }
+        } finally {
+            single.shutdown();
+            wide.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Test data smaller than one partition gives the sequential results exactly")
+    void testSinglePartition() {
+        assertSameResults(sequential, new ParallelSalesAnalyzer(records, pool));
+        assertSameStatistics(sequential.getRegionSalesStatistics(),
+                new ParallelSalesAnalyzer(records, pool).getRegionSalesStatistics());
+    }
+
+    @Test
+    @DisplayName("Test invalid partition size is rejected")
+    void testInvalidPartitionSize() {
+        assertThrows(IllegalArgumentException.class, () -> new ParallelSalesAnalyzer(records, pool, 0));
+    }
+}
@@ -0,0 +1,131 @@
+package com.dataanalysis;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static com.dataanalysis.ColumnarSalesAnalyzerTest.assertSameResults;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RowBitmap and the table's bitmap indexes
+ * Bitmap AND/OR must select exactly the rows a scan would
+ */
+class RowBitmapTest {
+
+    private static List<SalesRecord> records;
+
+    @BeforeAll
+    static void loadData() throws IOException {
+        records = SalesDataParser.parseCSV("data/Superstore.csv");
+    }
+
+    // Mixes sparse and dense chunks: density varies per 65536-row chunk
+    private static BitSet randomRows(Random random) {
+        BitSet rows = new BitSet();
+        double[] densities = {0.001, 0.05, 0.3, 0.9, 0.0};
+        for (int chunk = 0; chunk < 5; chunk++) {
+            double density = densities[random.nextInt(densities.length)];
+            for (int low = 0; low < 65536; low++) {
+                if (random.nextDouble() < density) {
+                    rows.set(chunk * 65536 + low);
+                }
+            }
+        }
+        return rows;
+    }
+
+    private static RowBitmap toBitmap(BitSet rows) {
+        RowBitmap bitmap = new RowBitmap();
+        rows.stream().forEach(bitmap::add);
+        return bitmap;
+    }
+
+    @Test
+    @DisplayName("Test AND and OR match BitSet across sparse and dense chunks")
+    void testMatchesBitSet() {
+        Random random = new Random(5);
+        for (int round = 0; round < 20; round++) {
+            BitSet a = randomRows(random);
+            BitSet b = randomRows(random);
+            RowBitmap left = toBitmap(a);
+            RowBitmap right = toBitmap(b);
+            assertArrayEquals(a.stream().toArray(), left.toArray());
+            assertEquals(a.cardinality(), left.cardinality());
+            assertEquals(a.length() - 1, left.last());
+
+            BitSet and = (BitSet) a.clone();
+            and.and(b);
+            BitSet or = (BitSet) a.clone();
+            or.or(b);
+            assertArrayEquals(and.stream().toArray(), left.and(right).toArray());
+            assertArrayEquals(or.stream().toArray(), left.or(right).toArray());
+            assertEquals(or.cardinality(), right.or(left).cardinality());
+        }
+    }
+
+    @Test
+    @DisplayName("Test adding out of order, duplicates and lookups")
+    void testAddAndContains() {
+        RowBitmap bitmap = RowBitmap.of(70000, 3, 3, 1, 200000, 2);
+        assertArrayEquals(new int[]{1, 2, 3, 70000, 200000}, bitmap.toArray());
+        assertTrue(bitmap.contains(70000));
+        assertFalse(bitmap.contains(70001));
+        assertFalse(bitmap.contains(-1));
+        assertEquals(-1, new RowBitmap().last());
+        assertTrue(new RowBitmap().and(bitmap).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> bitmap.add(-5));
+
+        // Growing one chunk past the sparse limit and back down through AND
+        RowBitmap dense = new RowBitmap();
+        for (int row = 9999; row >= 0; row--) {
+            dense.add(row);
+        }
+        assertEquals(10000, dense.cardinality());
+        assertArrayEquals(new int[]{1, 2, 3}, dense.and(bitmap).toArray());
+    }
+
+    @Test
+    @DisplayName("Test dimension filters match a scan and aggregate only the matches")
+    void testDrillDown() {
+        SalesTable table = SalesTable.from(records);
+        RowBitmap rows = table.rowsWhere(SalesField.REGION, "West")
+                .and(table.rowsWhere(SalesField.CATEGORY, "Technology"))
+                .and(table.rowsWhere(SalesField.SEGMENT, "Corporate", "Home Office"));
+
+        List<SalesRecord> expected = records.stream()
+                .filter(r -> r.getRegion().equals("West") && r.getCategory().equals("Technology")
+                        && (r.getSegment().equals("Corporate") || r.getSegment().equals("Home Office")))
+                .collect(Collectors.toList());
+        assertEquals(expected.size(), rows.cardinality());
+        assertTrue(rows.cardinality() > 0);
+        assertSameResults(new SalesAnalyzer(expected), new ColumnarSalesAnalyzer(table).where(rows));
+
+        assertTrue(table.rowsWhere(SalesField.REGION, "Atlantis").isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> table.rowsWhere(SalesField.SALES, "1"));
+        assertThrows(IndexOutOfBoundsException.class, () -> table.select(RowBitmap.of(table.size())));
+    }
+
+    @Test
+    @DisplayName("Test indexes follow rows added after they were built")
+    void testIndexFollowsAdds() {
+        SalesTable table = SalesTable.from(records.subList(0, 100));
+        int before = table.rowsWhere(SalesField.REGION, "West").cardinality();
+
+        SalesRecord west = records.stream().filter(r -> r.getRegion().equals("West")).findFirst().orElseThrow();
+        table.add(west);
+        RowBitmap after = table.rowsWhere(SalesField.REGION, "West");
+        assertEquals(before + 1, after.cardinality());
+        assertTrue(after.contains(100));
+
+        // A returned bitmap is the caller's own
+        after.add(1_000_000);
+        assertFalse(table.rowsWhere(SalesField.REGION, "West").contains(1_000_000));
+    }
+}
@@ -0,0 +1,101 @@
+package com.dataanalysis;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RowFilters pushed down into SalesDataParser
+ */
+class RowFiltersTest {
+
+    private static final String SUPERSTORE_CSV = "data/Superstore.csv";
+    private static final String HEADER = "Row ID,Order ID,Order Date,Ship Date,Ship Mode,Customer ID,Customer Name,Segment,Country,City,State,Postal Code,Region,Product ID,Category,Sub-Category,Product Name,Sales,Quantity,Discount,Profit\n";
+
+    private static SalesAnalyzer analyzer;
+
+    @BeforeAll
+    static void loadData() throws IOException {
+        analyzer = new SalesAnalyzer(SalesDataParser.parseCSV(SUPERSTORE_CSV));
+    }
+
+    private static List<String> describe(List<SalesRecord> records) {
+        return records.stream().map(SalesRecord::toString).sorted().collect(Collectors.toList());
+    }
+
+    @Test
+    @DisplayName("Test date range filter matches getOrdersInDateRange")
+    void testOrderDateBetween() throws IOException {
+        LocalDate start = LocalDate.of(2016, 3, 1);
+        LocalDate end = LocalDate.of(2016, 6, 30);
+
+        List<SalesRecord> filtered = SalesDataParser.parseCSV(SUPERSTORE_CSV, RowFilters.orderDateBetween(start, end));
+
+        assertFalse(filtered.isEmpty());
+        assertEquals(describe(analyzer.getOrdersInDateRange(start, end)), describe(filtered));
+    }
+
+    @Test
+    @DisplayName("Test numeric thresholds match getHighValueOrders and getUnprofitableProducts")
+    void testThresholds() throws IOException {
+        assertEquals(describe(analyzer.getHighValueOrders(1000)),
+                describe(SalesDataParser.parseCSV(SUPERSTORE_CSV, RowFilters.greaterThan(SalesField.SALES, 1000))));
+        assertEquals(describe(analyzer.getUnprofitableProducts()),
+                describe(SalesDataParser.parseCSV(SUPERSTORE_CSV, RowFilters.lessThan(SalesField.PROFIT, 0))));
+    }
+
+    @Test
+    @DisplayName("Test equality filters combine with projection")
+    void testEqualityAndProjection() throws IOException {
+        RowFilter filter = RowFilters.equalTo(SalesField.REGION, "West")
+                .and(RowFilters.equalTo(SalesField.CATEGORY, "Technology"));
+
+        List<SalesRecord> filtered = SalesDataParser.parseCSV(SUPERSTORE_CSV,
+                EnumSet.of(SalesField.REGION, SalesField.SALES), filter);
+
+        long expected = analyzer.getOrdersInDateRange(LocalDate.MIN, LocalDate.MAX).stream()
+                .filter(record -> record.getRegion().equals("West") && record.getCategory().equals("Technology"))
+                .count();
+        assertEquals(expected, filtered.size());
+        assertTrue(filtered.stream().allMatch(record -> record.getRegion().equals("West")));
+        assertTrue(filtered.stream().allMatch(record -> record.getCategory() == null));
+
+        assertEquals(0, SalesDataParser.parseCSV(SUPERSTORE_CSV, filter.and(filter.negate())).size());
+    }
+
+    @Test
+    @DisplayName("Test rows the filter cannot evaluate are still reported")
+    void testMalformedRowsStillReported(@TempDir Path tempDir) throws IOException {
+        Path csvFile = tempDir.resolve("filtered.csv");
+        try (FileWriter writer = new FileWriter(csvFile.toFile())) {
+            writer.write(HEADER);
+            writer.write("1,ORDER-001,1/3/2024,1/5/2024,Standard Class,CID-001,John Doe,Consumer,United States,New York,NY,10001,East,PROD-001,Technology,Phones,iPhone,1200.00,2,0.1,240.00\n");
+            writer.write("2,ORDER-002,not a date,2/17/2024,Second Class,CID-002,Jane Smith,Corporate,United States,Los Angeles,CA,90001,West,PROD-002,Furniture,Chairs,Office Chair,450.00,3,0.0,135.00\n");
+            writer.write("3,ORDER-003,2/15/2024,short row\n");
+        }
+
+        List<SalesRecord> records = SalesDataParser.parseCSV(csvFile.toString(),
+                RowFilters.orderDateBetween(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31)));
+
+        assertEquals(1, records.size());
+        assertEquals("ORDER-001", records.get(0).getOrderId());
+    }
+
+    @Test
+    @DisplayName("Test filters reject fields of the wrong type")
+    void testInvalidFields() {
+        assertThrows(IllegalArgumentException.class, () -> RowFilters.equalTo(SalesField.SALES, "1"));
+        assertThrows(IllegalArgumentException.class, () -> RowFilters.greaterThan(SalesField.REGION, 1));
+    }
+}
@@ -0,0 +1,524 @@
+package com.dataanalysis;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+/**
+ * Throughput benchmark for the Superstore CSV parsers
+ *
+ * Not a unit test; run it by hand after mvn test-compile:
+ *   java -cp target/classes:target/test-classes com.dataanalysis.SalesBenchmark [csv] [copies] > bench_output.txt
+ * The data rows are repeated copies times (default 20) so every run parses a realistic volume.
+ * Allocation is measured on the calling thread only.
+ */
+public class SalesBenchmark {
+
+    private static final int WARMUP_RUNS = 3;
+    private static final int MEASURED_RUNS = 5;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private static final PrintStream OUT = System.out;
+
+    // Keeps results reachable so the JIT cannot drop the work
+    private static long sink;
+
+    interface Body {
+        void run() throws IOException;
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path source = Path.of(args.length > 0 ? args[0] : "data/Superstore.csv");
+        int copies = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+
+        Path input = Files.createTempFile("superstore-bench", ".csv");
+        try {
+            List<String> lines = replicate(source, input, copies);
+            List<byte[]> lineBytes = new ArrayList<>(lines.size());
+            for (String line : lines) {
+                lineBytes.add(line.getBytes(StandardCharsets.UTF_8));
+            }
+            int rows = lines.size();
+            OUT.printf("Input: %s x %d = %d rows, %d bytes%n%n", source, copies, rows, Files.size(input));
+
+            CSVTokenizer tokenizer = new CSVTokenizer();
+            DateParser dates = new DateParser();
+
+            OUT.println("== Tokenizing lines (in memory) ==");
+            measure("String parseCSVLine", rows, () -> {
+                for (String line : lines) {
+                    sink += SalesDataParser.parseCSVLine(line).size();
+                }
+            });
+            measure("CSVTokenizer", rows, () -> {
+                for (byte[] line : lineBytes) {
+                    sink += tokenizer.tokenize(line, 0, line.length);
+                }
+            });
+
+            OUT.println("== Parsing order dates (in memory) ==");
+            List<String> dateStrings = new ArrayList<>(rows);
+            for (String line : lines) {
+                dateStrings.add(SalesDataParser.parseCSVLine(line).get(2));
+            }
+            DateTimeFormatter[] formatters = {
+                    DateTimeFormatter.ofPattern("yyyy-MM-dd"), DateTimeFormatter.ofPattern("M/d/yyyy")
+            };
+            measure("DateTimeFormatter chain", rows, () -> {
+                for (String date : dateStrings) {
+                    for (DateTimeFormatter formatter : formatters) {
+                        try {
+                            sink += LocalDate.parse(date, formatter).getDayOfMonth();
+                            break;
+                        } catch (DateTimeParseException e) {
+                            // Try next formatter
+                        }
+                    }
+                }
+            });
+            measure("DateParser.parse", rows, () -> {
+                for (String date : dateStrings) {
+                    sink += DateParser.parse(date).getDayOfMonth();
+                }
+            });
+            measure("tokenize + parseCached", rows, () -> {
+                for (byte[] line : lineBytes) {
+                    tokenizer.tokenize(line, 0, line.length, 3);
+                    sink += dates.parseCached(line, tokenizer.start(2), tokenizer.end(2)).getDayOfMonth();
+                }
+            });
+
+            OUT.println("== Building records (in memory) ==");
+            SalesDictionaries dictionaries = new SalesDictionaries();
+            measure("parseLine(String)", rows, () -> {
+                for (String line : lines) {
+                    sink += SalesDataParser.parseLine(line, dictionaries).getQuantity();
+                }
+            });
+            measure("parseFields(CSVTokenizer)", rows, () -> {
+                for (byte[] line : lineBytes) {
+                    tokenizer.tokenize(line, 0, line.length, SalesDataParser.FIELD_COUNT);
+                    sink += SalesDataParser.parseFields(tokenizer, dates, dictionaries).getQuantity();
+                }
+            });
+
+            OUT.println("== Parsing the file ==");
+            String path = input.toString();
+            measure("BufferedReader + parseLine", rows, () -> {
+                List<SalesRecord> records = new ArrayList<>();
+                SalesDictionaries session = new SalesDictionaries();
+                try (BufferedReader reader = new BufferedReader(new FileReader(path, StandardCharsets.UTF_8))) {
+                    reader.readLine();
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        records.add(SalesDataParser.parseLine(line, session));
+                    }
+                }
+                sink += records.size();
+            });
+            measure("SalesDataParser.parseCSV", rows, () -> sink += SalesDataParser.parseCSV(path).size());
+            Set<SalesField> regionSales = EnumSet.of(SalesField.REGION, SalesField.SALES);
+            measure("parseCSV {REGION, SALES}", rows,
+                    () -> sink += SalesDataParser.parseCSV(path, regionSales).size());
+            RowFilter westHighValue = RowFilters.equalTo(SalesField.REGION, "West")
+                    .and(RowFilters.greaterThan(SalesField.SALES, 500));
+            measure("parseCSV West, SALES > 500", rows,
+                    () -> sink += SalesDataParser.parseCSV(path, westHighValue).size());
+            measure("ParallelCSVIngestor.parseCSV", rows, () -> sink += ParallelCSVIngestor.parseCSV(path).size());
+            measure("MappedCSVParser.parseCSV", rows, () -> sink += MappedCSVParser.parseCSV(path).size());
+            measure("SalesTable.load", rows, () -> sink += SalesTable.load(path).size());
+            Path snapshot = Files.createTempFile("superstore-bench", ".snapshot");
+            try {
+                System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+                try {
+                    SalesSnapshot.write(SalesTable.load(path), snapshot);
+                } finally {
+                    System.setOut(OUT);
+                }
+                measure("SalesSnapshot.read", rows, () -> sink += SalesSnapshot.read(snapshot).size());
+            } finally {
+                Files.deleteIfExists(snapshot);
+            }
+
+            reportRetainedMemory(path, rows);
+            benchmarkKernels();
+            benchmarkTopK();
+            benchmarkSketches();
+        } finally {
+            Files.deleteIfExists(input);
+        }
+        OUT.println("(checksum " + sink + ")");
+    }
+
+    // Heap retained per record with dictionary-shared columns vs every record owning its Strings
+    private static void reportRetainedMemory(String path, int rows) throws IOException {
+        OUT.println("== Retained memory ==");
+        long before = usedHeap();
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        List<SalesRecord> shared;
+        try {
+            shared = SalesDataParser.parseCSV(path);
+        } finally {
+            System.setOut(OUT);
+        }
+        long afterShared = usedHeap();
+
+        List<SalesRecord> owned = new ArrayList<>(shared.size());
+        for (SalesRecord record : shared) {
+            owned.add(ownedCopy(record));
+        }
+        long afterOwned = usedHeap();
+
+        OUT.printf("  %-32s %10.1f B/record%n", "private Strings per record", (double) (afterOwned - afterShared) / rows);
+        OUT.printf("  %-32s %10.1f B/record%n", "dictionary-shared columns", (double) (afterShared - before) / rows);
+
+        measure("groupingBy, private Strings", rows, () -> sink += new SalesAnalyzer(owned).getQuantityBySubCategory().size()
+                + owned.stream().collect(Collectors.groupingBy(SalesRecord::getCity, Collectors.counting())).size());
+        measure("groupingBy, shared Strings", rows, () -> sink += new SalesAnalyzer(shared).getQuantityBySubCategory().size()
+                + shared.stream().collect(Collectors.groupingBy(SalesRecord::getCity, Collectors.counting())).size());
+
+        OUT.println("== Running all 20 analyses ==");
+        SalesAnalyzer streams = new SalesAnalyzer(shared);
+        SalesAnalyzer columnar = new ColumnarSalesAnalyzer(SalesTable.from(shared));
+        measure("SalesAnalyzer (streams)", rows, () -> sink += runAnalyses(streams));
+        measure("ColumnarSalesAnalyzer", rows, () -> sink += runAnalyses(columnar));
+        measure("SalesReport, one pass", rows, () -> sink += runReport(shared));
+        SalesAnalyzer incremental = new IncrementalSalesAnalyzer(shared);
+        measure("IncrementalSalesAnalyzer reads", rows, () -> sink += runAnalyses(incremental));
+        measure("IncrementalSalesAnalyzer.addAll", rows, () -> sink += new IncrementalSalesAnalyzer(shared).size());
+        reportCachedReads(new CachingSalesAnalyzer(streams));
+        for (int threads = 1; threads <= Runtime.getRuntime().availableProcessors(); threads *= 2) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                SalesAnalyzer parallel = new ParallelSalesAnalyzer(shared, pool);
+                measure("ParallelSalesAnalyzer, " + threads + " thread" + (threads == 1 ? "" : "s"), rows,
+                        () -> sink += runAnalyses(parallel));
+            } finally {
+                pool.shutdown();
+            }
+        }
+
+        // A one-month window: a scan touches every row, the index only the matching ones
+        LocalDate start = LocalDate.of(2016, 3, 1);
+        LocalDate end = LocalDate.of(2016, 3, 31);
+        SalesTable table = SalesTable.from(shared);
+        OUT.println("== Orders in one month ==");
+        measure("SalesAnalyzer (streams)", rows, () -> sink += streams.getOrdersInDateRange(start, end).size());
+        measure("DateIndex build", rows, () -> sink += DateIndex.build(dayColumn(table), table.size()).size());
+        measure("ColumnarSalesAnalyzer, indexed", rows,
+                () -> sink += new ColumnarSalesAnalyzer(table).getOrdersInDateRange(start, end).size());
+
+        // West AND Technology AND Corporate, then the sales total and per-sub-category quantities;
+        // 50 queries per run so the sub-millisecond path gets compiled
+        int queries = 50;
+        OUT.printf("== Drill-down on three dimensions, %d queries ==%n", queries);
+        measure("SalesAnalyzer, filtered stream", rows * queries, () -> {
+            for (int i = 0; i < queries; i++) {
+                SalesAnalyzer matches = new SalesAnalyzer(shared.stream()
+                        .filter(r -> r.getRegion().equals("West") && r.getCategory().equals("Technology")
+                                && r.getSegment().equals("Corporate"))
+                        .collect(Collectors.toList()));
+                sink += (long) matches.calculateTotalRevenue() + matches.getQuantityBySubCategory().size();
+            }
+        });
+        ColumnarSalesAnalyzer indexed = new ColumnarSalesAnalyzer(table);
+        measure("ColumnarSalesAnalyzer, bitmaps", rows * queries, () -> {
+            for (int i = 0; i < queries; i++) {
+                SalesAnalyzer matches = indexed.where(table.rowsWhere(SalesField.REGION, "West")
+                        .and(table.rowsWhere(SalesField.CATEGORY, "Technology"))
+                        .and(table.rowsWhere(SalesField.SEGMENT, "Corporate")));
+                sink += (long) matches.calculateTotalRevenue() + matches.getQuantityBySubCategory().size();
+            }
+        });
+
+        // Sales by region and segment, from the rows vs from the cube's cells
+        SalesCube cube = SalesCube.from(shared);
+        OUT.printf("== Region x segment sales, %d queries (cube: %,d cells) ==%n", queries, cube.cells());
+        measure("groupingBy over rows", rows * queries, () -> {
+            for (int i = 0; i < queries; i++) {
+                sink += shared.stream().collect(Collectors.groupingBy(r -> List.of(r.getRegion(), r.getSegment()),
+                        Collectors.summingDouble(SalesRecord::getSales))).size();
+            }
+        });
+        measure("SalesCube.rollUp", rows * queries, () -> {
+            for (int i = 0; i < queries; i++) {
+                sink += cube.rollUp(SalesField.SALES, SalesField.REGION, SalesField.SEGMENT).size();
+            }
+        });
+        measure("SalesCube.from", rows, () -> sink += SalesCube.from(shared).cells());
+
+        // Sales and profit statistics by region and category: stream collectors vs SalesQuery
+        OUT.println("== Region x category sum/avg/count/stddev ==");
+        measure("groupingBy + summarizingDouble", rows, () -> sink += shared.stream()
+                .collect(Collectors.groupingBy(r -> List.of(r.getRegion(), r.getCategory()),
+                        Collectors.summarizingDouble(SalesRecord::getSales))).size());
+        measure("SalesQuery", rows, () -> sink += new SalesQuery()
+                .groupBy(SalesField.REGION, SalesField.CATEGORY)
+                .sum(SalesField.SALES).avg(SalesField.SALES).count().stddev(SalesField.PROFIT)
+                .run(table).size());
+        measure("SalesQuery, order id x product", rows, () -> sink += new SalesQuery()
+                .groupBy(SalesField.ORDER_ID, SalesField.PRODUCT_NAME).sum(SalesField.SALES)
+                .orderBy(0, true).limit(10).run(table).size());
+        Reference.reachabilityFence(shared);
+        Reference.reachabilityFence(owned);
+    }
+
+    private static int[] dayColumn(SalesTable table) {
+        int[] days = new int[table.size()];
+        for (int row = 0; row < days.length; row++) {
+            days[row] = (int) table.getOrderDate(row).toEpochDay();
+        }
+        return days;
+    }
+
+    // Synthetic columns, large enough that the kernels are bound by memory bandwidth, not call overhead
+    private static void benchmarkKernels() throws IOException {
+        int rows = 10_000_000;
+        Random random = new Random(42);
+        double[] sales = new double[rows];
+        double[] profit = new double[rows];
+        for (int i = 0; i < rows; i++) {
+            sales[i] = Math.round(random.nextDouble() * 100_000) / 100.0;
+            profit[i] = Math.round((random.nextDouble() - 0.3) * 50_000) / 100.0;
+        }
+        int[] selected = new int[rows];
+
+        OUT.printf("== Aggregation kernels, %,d synthetic rows (vectorized: %s) ==%n", rows,
+                AggregationKernels.isVectorized());
+        measure("sum, scalar", rows, () -> sink += (long) AggregationKernels.scalarSum(sales, 0, rows));
+        measure("sum, kernel", rows, () -> sink += (long) AggregationKernels.sum(sales, 0, rows));
+        measure("max, scalar", rows, () -> sink += (long) AggregationKernels.scalarMax(sales, 0, rows));
+        measure("max, kernel", rows, () -> sink += (long) AggregationKernels.max(sales, 0, rows));
+        measure("count profit < 0, scalar", rows,
+                () -> sink += AggregationKernels.scalarCountLessThan(profit, 0, rows, 0));
+        measure("count profit < 0, kernel", rows,
+                () -> sink += AggregationKernels.countLessThan(profit, 0, rows, 0));
+        measure("profit where sales > 900, scalar", rows,
+                () -> sink += (long) AggregationKernels.scalarSumWhereGreaterThan(profit, sales, 0, rows, 900));
+        measure("profit where sales > 900, kernel", rows,
+                () -> sink += (long) AggregationKernels.sumWhereGreaterThan(profit, sales, 0, rows, 900));
+        measure("select sales > 900, scalar", rows,
+                () -> sink += AggregationKernels.scalarSelectGreaterThan(sales, 0, rows, 900, selected));
+        measure("select sales > 900, kernel", rows,
+                () -> sink += AggregationKernels.selectGreaterThan(sales, 0, rows, 900, selected));
+    }
+
+    // Dashboard-style repeated reads; a cache hit should cost a map lookup, not an aggregation
+    private static void reportCachedReads(CachingSalesAnalyzer cached) {
+        int calls = 1_000_000;
+        for (int round = 0; round < 2; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < calls; i++) {
+                sink += cached.getSalesByCategory().size()
+                        + cached.getTopStatesBySales(5).size()
+                        + cached.getMonthlySalesTrend().size();
+            }
+            double nanosPerCall = (System.nanoTime() - start) / (calls * 3.0);
+            if (round == 1) {
+                OUT.printf("  %-32s %,14.1f ns/call  %s%n", "CachingSalesAnalyzer hit", nanosPerCall, cached.getStats());
+            }
+        }
+    }
+
+    // Top 10 of two million synthetic product totals: full sort vs bounded heap
+    private static void benchmarkTopK() throws IOException {
+        int products = 2_000_000;
+        Random random = new Random(7);
+        Map<String, Double> totals = new HashMap<>();
+        for (int i = 0; i < products; i++) {
+            totals.put("Product " + i, Math.round(random.nextDouble() * 1_000_000) / 100.0);
+        }
+        Comparator<Map.Entry<String, Double>> bySales = Map.Entry.<String, Double>comparingByValue().reversed();
+
+        OUT.printf("== Top 10 of %,d groups ==%n", products);
+        measure("sorted().limit(10)", products, () -> sink += totals.entrySet().stream()
+                .sorted(bySales).limit(10).collect(Collectors.toList()).size());
+        measure("TopK.top(10)", products, () -> sink += TopK.top(totals.entrySet(), bySales, 10).size());
+        measure("TopK.page(1000, 10)", products, () -> sink += TopK.page(totals.entrySet(), bySales, 1000, 10).size());
+    }
+
+    // Per-product sales over a long-tailed catalogue: exact map vs fixed-size sketches
+    private static void benchmarkSketches() throws IOException {
+        int rows = 2_000_000;
+        Random random = new Random(11);
+        String[] products = new String[rows];
+        double[] sales = new double[rows];
+        for (int i = 0; i < rows; i++) {
+            // Squaring skews picks toward low ids: a few best sellers and a long tail
+            double u = random.nextDouble();
+            products[i] = "Product " + (int) (u * u * 500_000);
+            sales[i] = Math.round(random.nextDouble() * 50_000) / 100.0;
+        }
+
+        OUT.printf("== Per-product sales, %,d rows over up to 500,000 products ==%n", rows);
+        measure("HashMap, exact", rows, () -> {
+            Map<String, Double> totals = new HashMap<>();
+            for (int i = 0; i < rows; i++) {
+                totals.merge(products[i], sales[i], Double::sum);
+            }
+            sink += totals.size();
+        });
+        measure("HeavyHitters(1000)", rows, () -> {
+            HeavyHitters summary = new HeavyHitters(1000);
+            for (int i = 0; i < rows; i++) {
+                summary.add(products[i], sales[i]);
+            }
+            sink += summary.top(10).size();
+        });
+        measure("CountMinSketch(0.001, 0.001)", rows, () -> {
+            CountMinSketch sketch = new CountMinSketch(0.001, 0.001);
+            for (int i = 0; i < rows; i++) {
+                sketch.add(products[i], sales[i]);
+            }
+            sink += sketch.estimateCount("Product 1");
+        });
+    }
+
+    private static long runAnalyses(SalesAnalyzer analyzer) {
+        LocalDate start = LocalDate.of(2015, 1, 1);
+        LocalDate end = LocalDate.of(2015, 12, 31);
+        return (long) (analyzer.calculateTotalRevenue() + analyzer.calculateTotalProfit())
+                + analyzer.getSalesByCategory().size()
+                + analyzer.getProfitByCategory().size()
+                + analyzer.getTopProductsBySales(10).size()
+                + analyzer.getTopProductsByProfit(10).size()
+                + (long) analyzer.getAverageOrderValue()
+                + analyzer.getRegionSalesStatistics().size()
+                + analyzer.getMonthlySalesTrend().size()
+                + analyzer.getSalesBySegment().size()
+                + analyzer.getUnprofitableProducts().size()
+                + analyzer.getAverageDiscountByCategory().size()
+                + analyzer.getQuantityBySubCategory().size()
+                + analyzer.getHighValueOrders(1000).size()
+                + analyzer.getProfitMarginByCategory().size()
+                + analyzer.getTopStatesBySales(5).size()
+                + analyzer.getSalesByShipMode().size()
+                + analyzer.getOrdersInDateRange(start, end).size()
+                + analyzer.getCategoryDistributionPercentage().size()
+                + analyzer.getOrderCountByRegion().size();
+    }
+
+    private static long runReport(List<SalesRecord> records) {
+        SalesReport.Result report = new SalesReport()
+                .totalRevenue().totalProfit().salesByCategory().profitByCategory()
+                .topProductsBySales(10).topProductsByProfit(10).averageOrderValue()
+                .regionSalesStatistics().monthlySalesTrend().salesBySegment().unprofitableProducts()
+                .averageDiscountByCategory().quantityBySubCategory().highValueOrders(1000)
+                .profitMarginByCategory().topStatesBySales(5).salesByShipMode()
+                .ordersInDateRange(LocalDate.of(2015, 1, 1), LocalDate.of(2015, 12, 31))
+                .categoryDistributionPercentage().orderCountByRegion()
+                .run(records);
+        return (long) (report.getTotalRevenue() + report.getTotalProfit())
+                + report.getSalesByCategory().size()
+                + report.getProfitByCategory().size()
+                + report.getTopProductsBySales().size()
+                + report.getTopProductsByProfit().size()
+                + (long) report.getAverageOrderValue()
+                + report.getRegionSalesStatistics().size()
+                + report.getMonthlySalesTrend().size()
+                + report.getSalesBySegment().size()
+                + report.getUnprofitableProducts().size()
+                + report.getAverageDiscountByCategory().size()
+                + report.getQuantityBySubCategory().size()
+                + report.getHighValueOrders().size()
+                + report.getProfitMarginByCategory().size()
+                + report.getTopStatesBySales().size()
+                + report.getSalesByShipMode().size()
+                + report.getOrdersInDateRange().size()
+                + report.getCategoryDistributionPercentage().size()
+                + report.getOrderCountByRegion().size();
+    }
+
+    // The record as the original parser built it: its own copy of every String and date
+    private static SalesRecord ownedCopy(SalesRecord record) {
+        return new SalesRecord(new String(record.getOrderId()),
+                LocalDate.of(record.getOrderDate().getYear(), record.getOrderDate().getMonth(),
+                        record.getOrderDate().getDayOfMonth()),
+                new String(record.getShipMode()), new String(record.getSegment()), new String(record.getCountry()),
+                new String(record.getCity()), new String(record.getState()), new String(record.getRegion()),
+                new String(record.getCategory()), new String(record.getSubCategory()),
+                new String(record.getProductName()), record.getSales(), record.getQuantity(),
+                record.getDiscount(), record.getProfit());
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    // Writes the header once and the raw data bytes copies times; returns the data lines written
+    private static List<String> replicate(Path source, Path target, int copies) throws IOException {
+        byte[] bytes = Files.readAllBytes(source);
+        int dataStart = 0;
+        while (dataStart < bytes.length && bytes[dataStart++] != '\n') {
+            // Skip the header
+        }
+
+        try (OutputStream out = Files.newOutputStream(target)) {
+            out.write(bytes, 0, dataStart);
+            for (int i = 0; i < copies; i++) {
+                out.write(bytes, dataStart, bytes.length - dataStart);
+            }
+        }
+
+        List<String> lines = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new FileReader(target.toFile(), StandardCharsets.UTF_8))) {
+            reader.readLine();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+        }
+        return lines;
+    }
+
+    // Prints the best rows/s over the measured runs and the average bytes allocated per row
+    private static void measure(String name, int rows, Body body) throws IOException {
+        long bestNanos = Long.MAX_VALUE;
+        long allocated = 0;
+
+        // The parsers print progress; keep it out of the report
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            for (int run = 0; run < WARMUP_RUNS + MEASURED_RUNS; run++) {
+                long bytesBefore = THREADS.getCurrentThreadAllocatedBytes();
+                long start = System.nanoTime();
+                body.run();
+                long elapsed = System.nanoTime() - start;
+                if (run >= WARMUP_RUNS) {
+                    bestNanos = Math.min(bestNanos, elapsed);
+                    allocated += THREADS.getCurrentThreadAllocatedBytes() - bytesBefore;
+                }
+            }
+        } finally {
+            System.setOut(OUT);
+        }
+
+        double rowsPerSecond = rows / (bestNanos / 1e9);
+        double bytesPerRow = (double) allocated / MEASURED_RUNS / rows;
+        OUT.printf("  %-32s %,14.0f rows/s %10.1f B/row%n", name, rowsPerSecond, bytesPerRow);
+    }
+}
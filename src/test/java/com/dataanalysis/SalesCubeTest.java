@@ -0,0 +1,122 @@
+package com.dataanalysis;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.DoubleSummaryStatistics;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SalesCube
+ * Roll-ups and slices served from the cube must match grouping the raw records
+ */
+class SalesCubeTest {
+
+    private static List<SalesRecord> records;
+    private static SalesCube cube;
+
+    @BeforeAll
+    static void loadData() throws IOException {
+        records = SalesDataParser.parseCSV("data/Superstore.csv");
+        cube = SalesCube.from(records);
+    }
+
+    private static void assertSameGroups(Map<List<String>, DoubleSummaryStatistics> expected,
+                                         Map<List<String>, DoubleSummaryStatistics> actual) {
+        assertEquals(expected.keySet(), actual.keySet());
+        for (Map.Entry<List<String>, DoubleSummaryStatistics> entry : expected.entrySet()) {
+            DoubleSummaryStatistics want = entry.getValue();
+            DoubleSummaryStatistics got = actual.get(entry.getKey());
+            assertEquals(want.getCount(), got.getCount(), entry.getKey().toString());
+            assertEquals(want.getMin(), got.getMin());
+            assertEquals(want.getMax(), got.getMax());
+            assertEquals(want.getSum(), got.getSum(), 1e-6 * Math.max(1, Math.abs(want.getSum())));
+        }
+    }
+
+    @Test
+    @DisplayName("Test single-dimension roll-ups match the analyzer")
+    void testMatchesAnalyzer() {
+        SalesAnalyzer analyzer = new SalesAnalyzer(records);
+        Map<String, Double> salesByCategory = cube.sums(SalesField.SALES, SalesField.CATEGORY);
+        assertEquals(analyzer.getSalesByCategory().keySet(), salesByCategory.keySet());
+        analyzer.getSalesByCategory().forEach((category, sales) ->
+                assertEquals(sales, salesByCategory.get(category), 1e-6));
+
+        Map<List<String>, DoubleSummaryStatistics> regions = cube.rollUp(SalesField.SALES, SalesField.REGION);
+        assertSameGroups(analyzer.getRegionSalesStatistics().entrySet().stream()
+                .collect(Collectors.toMap(e -> List.of(e.getKey()), Map.Entry::getValue)), regions);
+
+        assertEquals(records.size(), cube.rows());
+        assertEquals(analyzer.calculateTotalProfit(), cube.total(SalesField.PROFIT).getSum(), 1e-6);
+        assertTrue(cube.cells() < records.size());
+    }
+
+    @Test
+    @DisplayName("Test multi-dimension roll-ups match groupingBy")
+    void testMultiDimensionRollUp() {
+        Map<List<String>, DoubleSummaryStatistics> expected = records.stream().collect(Collectors.groupingBy(
+                r -> List.of(YearMonth.from(r.getOrderDate()).toString(), r.getSegment(), r.getShipMode()),
+                Collectors.summarizingDouble(r -> r.getQuantity())));
+        assertSameGroups(expected, cube.rollUp(SalesField.QUANTITY,
+                SalesField.ORDER_DATE, SalesField.SEGMENT, SalesField.SHIP_MODE));
+
+        Map<List<String>, DoubleSummaryStatistics> discounts = records.stream().collect(Collectors.groupingBy(
+                r -> List.of(r.getSubCategory(), r.getRegion()), Collectors.summarizingDouble(SalesRecord::getDiscount)));
+        assertSameGroups(discounts, cube.rollUp(SalesField.DISCOUNT, SalesField.SUB_CATEGORY, SalesField.REGION));
+    }
+
+    @Test
+    @DisplayName("Test slices match filtering the records first")
+    void testSlice() {
+        SalesCube slice = cube.slice(SalesField.REGION, "West")
+                .slice(SalesField.CATEGORY, "Technology", "Furniture")
+                .slice(SalesField.ORDER_DATE, "2016-11", "2017-12");
+        Map<List<String>, DoubleSummaryStatistics> expected = records.stream()
+                .filter(r -> r.getRegion().equals("West")
+                        && (r.getCategory().equals("Technology") || r.getCategory().equals("Furniture")))
+                .filter(r -> YearMonth.from(r.getOrderDate()).equals(YearMonth.of(2016, 11))
+                        || YearMonth.from(r.getOrderDate()).equals(YearMonth.of(2017, 12)))
+                .collect(Collectors.groupingBy(r -> List.of(r.getSegment()),
+                        Collectors.summarizingDouble(SalesRecord::getProfit)));
+        assertFalse(expected.isEmpty());
+        assertSameGroups(expected, slice.rollUp(SalesField.PROFIT, SalesField.SEGMENT));
+
+        assertEquals(0, cube.slice(SalesField.REGION, "Atlantis").rows());
+        assertThrows(UnsupportedOperationException.class, () -> slice.add(records.get(0)));
+    }
+
+    @Test
+    @DisplayName("Test dimensions and measures are checked")
+    void testRejectsOtherFields() {
+        assertThrows(IllegalArgumentException.class, () -> cube.rollUp(SalesField.CITY, SalesField.REGION));
+        assertThrows(IllegalArgumentException.class, () -> cube.rollUp(SalesField.SALES, SalesField.CITY));
+        assertThrows(IllegalArgumentException.class, () -> cube.slice(SalesField.PRODUCT_NAME, "x"));
+        assertEquals(4, cube.values(SalesField.REGION).size());
+        assertEquals(0, new SalesCube().total(SalesField.SALES).getCount());
+        assertThrows(IllegalArgumentException.class, () -> cube.slice(SalesField.ORDER_DATE, "March 2016"));
+    }
+
+    @Test
+    @DisplayName("Test a record with a null dimension leaves no values behind")
+    void testRejectedRecordLeavesNoValues() {
+        SalesCube small = SalesCube.from(records.subList(0, 10));
+        // New month, region and category, but no sub-category, which is resolved last
+        SalesRecord broken = new SalesRecord("ORD-2", LocalDate.of(2030, 1, 1), "First Class", "Consumer",
+                "United States", "Austin", "Texas", "Atlantis", "Gadgets", null, "Phone", 10, 1, 0, 1);
+        assertThrows(NullPointerException.class, () -> small.add(broken));
+
+        assertFalse(small.values(SalesField.REGION).contains("Atlantis"));
+        assertFalse(small.values(SalesField.CATEGORY).contains("Gadgets"));
+        assertFalse(small.values(SalesField.ORDER_DATE).contains("2030-01"));
+        assertEquals(10, small.rows());
+    }
+}
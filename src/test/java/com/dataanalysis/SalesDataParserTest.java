@@ -8,7 +8,11 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -96,4 +100,86 @@ class SalesDataParserTest {
         assertEquals(1, records.size());
         assertEquals("ORDER-002", records.get(0).getOrderId());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Test streaming API yields the same records as parseCSV")
+    void testStreamMatchesParseCSV() throws IOException {
+        List<SalesRecord> expected = SalesDataParser.parseCSV("data/Superstore.csv");
+
+        try (Stream<SalesRecord> stream = SalesDataParser.stream("data/Superstore.csv")) {
+            List<String> streamed = stream.map(SalesRecord::toString).collect(Collectors.toList());
+            assertEquals(expected.stream().map(SalesRecord::toString).collect(Collectors.toList()), streamed);
+        }
+
+        List<SalesRecord> pushed = new ArrayList<>();
+        long count = SalesDataParser.forEachRecord("data/Superstore.csv", pushed::add);
+        assertEquals(expected.size(), count);
+        assertEquals(expected.get(expected.size() - 1).toString(), pushed.get(pushed.size() - 1).toString());
+    }
+
+    @Test
+    @DisplayName("Test streaming is lazy and closing releases the reader")
+    void testStreamIsLazy(@TempDir Path tempDir) throws IOException {
+        Path csvFile = tempDir.resolve("lazy.csv");
+
+        try (FileWriter writer = new FileWriter(csvFile.toFile())) {
+            writer.write("Row ID,Order ID,Order Date,Ship Date,Ship Mode,Customer ID,Customer Name,Segment,Country,City,State,Postal Code,Region,Product ID,Category,Sub-Category,Product Name,Sales,Quantity,Discount,Profit\n");
+            writer.write("1,ORDER-001,1/3/2024,1/5/2024,Standard Class,CID-001,John Doe,Consumer,United States,New York,NY,10001,East,PROD-001,Technology,Phones,iPhone,1200.00,2,0.1,240.00\n");
+            writer.write("2,ORDER-002,2/15/2024,2/17/2024,Second Class,CID-002,Jane Smith,Corporate,United States,Los Angeles,CA,90001,West,PROD-002,Furniture,Chairs,Office Chair,450.00,3,0.0,135.00\n");
+        }
+
+        SalesRecordReader reader = new SalesRecordReader(csvFile.toString());
+        assertTrue(reader.hasNext());
+        assertEquals("ORDER-001", reader.next().getOrderId());
+
+        // Closing mid-file stops iteration without reading the rest
+        reader.close();
+        assertFalse(reader.hasNext());
+
+        try (Stream<SalesRecord> stream = SalesDataParser.stream(csvFile.toString())) {
+            assertEquals("ORDER-001", stream.findFirst().orElseThrow().getOrderId());
+        }
+    }
+
+    @Test
+    @DisplayName("Test column projection parses only the requested fields")
+    void testProjection() throws IOException {
+        List<SalesRecord> full = SalesDataParser.parseCSV("data/Superstore.csv");
+        List<SalesRecord> projected = SalesDataParser.parseCSV("data/Superstore.csv",
+                EnumSet.of(SalesField.CATEGORY, SalesField.SALES, SalesField.ORDER_DATE));
+
+        assertEquals(full.size(), projected.size());
+        for (int i = 0; i < full.size(); i++) {
+            SalesRecord expected = full.get(i);
+            SalesRecord actual = projected.get(i);
+            assertEquals(expected.getCategory(), actual.getCategory());
+            assertEquals(expected.getSales(), actual.getSales());
+            assertEquals(expected.getOrderDate(), actual.getOrderDate());
+            assertNull(actual.getOrderId());
+            assertNull(actual.getProductName());
+            assertNull(actual.getCity());
+            assertEquals(0, actual.getQuantity());
+            assertEquals(0.0, actual.getProfit());
+        }
+
+        // A projection that covers the query gives the same analysis
+        assertEquals(new SalesAnalyzer(full).getSalesByCategory(), new SalesAnalyzer(projected).getSalesByCategory());
+    }
+
+    @Test
+    @DisplayName("Test projection still reports malformed lines")
+    void testProjectionReportsMalformedLines(@TempDir Path tempDir) throws IOException {
+        Path csvFile = tempDir.resolve("projected.csv");
+
+        try (FileWriter writer = new FileWriter(csvFile.toFile())) {
+            writer.write("Row ID,Order ID,Order Date,Ship Date,Ship Mode,Customer ID,Customer Name,Segment,Country,City,State,Postal Code,Region,Product ID,Category,Sub-Category,Product Name,Sales,Quantity,Discount,Profit\n");
+            writer.write("1,ORDER-001,1/3/2024,1/5/2024,Standard Class,CID-001,John Doe,Consumer,United States,New York,NY,10001,East,PROD-001,Technology,Phones,iPhone,1200.00,2,0.1,240.00\n");
+            writer.write("2,ORDER-002,2/15/2024,2/17/2024,Second Class,CID-002,Jane Smith,Corporate,United States,Los Angeles,CA,90001,West\n");
+            writer.write("3,ORDER-003,not a date,2/17/2024,Second Class,CID-002,Jane Smith,Corporate,United States,Los Angeles,CA,90001,West,PROD-002,Furniture,Chairs,Office Chair,450.00,3,0.0,135.00\n");
+        }
+
+        // Short rows and bad dates are rejected even when the projected columns are present
+        assertEquals(1, SalesDataParser.parseCSV(csvFile.toString(), EnumSet.of(SalesField.REGION)).size());
+        assertEquals(1, SalesDataParser.parseCSV(csvFile.toString(), EnumSet.of(SalesField.ORDER_DATE)).size());
+    }
+}
@@ -0,0 +1,187 @@
+package com.dataanalysis;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.DoubleSummaryStatistics;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SalesQuery
+ * Every aggregate, filter and ordering must match the equivalent stream pipeline
+ */
+class SalesQueryTest {
+
+    private static List<SalesRecord> records;
+    private static SalesTable table;
+
+    @BeforeAll
+    static void loadData() throws IOException {
+        records = SalesDataParser.parseCSV("data/Superstore.csv");
+        table = SalesTable.from(records);
+    }
+
+    private static Map<List<String>, DoubleSummaryStatistics> grouped(List<SalesRecord> rows,
+                                                                      Function<SalesRecord, List<String>> key,
+                                                                      Function<SalesRecord, Double> value) {
+        return rows.stream().collect(Collectors.groupingBy(key, LinkedHashMap::new,
+                Collectors.summarizingDouble(value::apply)));
+    }
+
+    @Test
+    @DisplayName("Test sum, avg, count, min and max match groupingBy exactly")
+    void testBasicAggregates() {
+        SalesQuery.Result result = new SalesQuery().groupBy(SalesField.REGION, SalesField.SEGMENT)
+                .sum(SalesField.SALES).avg(SalesField.SALES).count().min(SalesField.SALES).max(SalesField.SALES)
+                .run(table);
+        Map<List<String>, DoubleSummaryStatistics> expected =
+                grouped(records, r -> List.of(r.getRegion(), r.getSegment()), SalesRecord::getSales);
+
+        // Groups come out in first-seen order
+        assertEquals(new ArrayList<>(expected.keySet()), result.getKeys());
+        for (int row = 0; row < result.size(); row++) {
+            DoubleSummaryStatistics stats = expected.get(result.getKey(row));
+            assertEquals(stats.getSum(), result.getValue(row, 0));
+            assertEquals(stats.getAverage(), result.getValue(row, 1));
+            assertEquals(stats.getCount(), result.getValue(row, 2));
+            assertEquals(stats.getCount(), result.getCount(row));
+            assertEquals(stats.getMin(), result.getValue(row, 3));
+            assertEquals(stats.getMax(), result.getValue(row, 4));
+        }
+    }
+
+    @Test
+    @DisplayName("Test stddev and percentiles")
+    void testStddevAndPercentile() {
+        SalesQuery.Result result = new SalesQuery().groupBy(SalesField.CATEGORY)
+                .stddev(SalesField.PROFIT).percentile(SalesField.PROFIT, 50).percentile(SalesField.PROFIT, 90)
+                .percentile(SalesField.QUANTITY, 0).percentile(SalesField.QUANTITY, 100)
+                .run(table);
+        for (int row = 0; row < result.size(); row++) {
+            String category = result.getKey(row).get(0);
+            double[] profits = records.stream().filter(r -> r.getCategory().equals(category))
+                    .mapToDouble(SalesRecord::getProfit).sorted().toArray();
+            double mean = 0;
+            for (double profit : profits) {
+                mean += profit / profits.length;
+            }
+            double squares = 0;
+            for (double profit : profits) {
+                squares += (profit - mean) * (profit - mean);
+            }
+            assertEquals(Math.sqrt(squares / (profits.length - 1)), result.getValue(row, 0), 1e-6);
+
+            double position = 0.9 * (profits.length - 1);
+            int lower = (int) position;
+            double p90 = profits[lower] + (position - lower) * (profits[lower + 1] - profits[lower]);
+            double median = profits.length % 2 == 1
+                    ? profits[profits.length / 2]
+                    : (profits[profits.length / 2 - 1] + profits[profits.length / 2]) / 2;
+            assertEquals(median, result.getValue(row, 1), 1e-9);
+            assertEquals(p90, result.getValue(row, 2), 1e-9);
+
+            int[] quantities = records.stream().filter(r -> r.getCategory().equals(category))
+                    .mapToInt(SalesRecord::getQuantity).sorted().toArray();
+            assertEquals(quantities[0], result.getValue(row, 3));
+            assertEquals(quantities[quantities.length - 1], result.getValue(row, 4));
+        }
+        assertThrows(IllegalArgumentException.class, () -> new SalesQuery().percentile(SalesField.SALES, 101));
+    }
+
+    @Test
+    @DisplayName("Test text, numeric and date filters")
+    void testFilters() {
+        LocalDate start = LocalDate.of(2016, 1, 1);
+        LocalDate end = LocalDate.of(2016, 12, 31);
+        SalesQuery.Result result = new SalesQuery().groupBy(SalesField.SUB_CATEGORY)
+                .where(SalesField.REGION, "West", "East").where(SalesField.SEGMENT, "Consumer")
+                .whereGreaterThan(SalesField.QUANTITY, 2).whereLessThan(SalesField.DISCOUNT, 0.3)
+                .whereOrderDateBetween(start, end)
+                .sum(SalesField.PROFIT)
+                .run(table);
+        List<SalesRecord> matching = records.stream()
+                .filter(r -> (r.getRegion().equals("West") || r.getRegion().equals("East"))
+                        && r.getSegment().equals("Consumer") && r.getQuantity() > 2 && r.getDiscount() < 0.3
+                        && !r.getOrderDate().isBefore(start) && !r.getOrderDate().isAfter(end))
+                .collect(Collectors.toList());
+        Map<String, Double> expected = matching.stream().collect(Collectors.groupingBy(
+                SalesRecord::getSubCategory, Collectors.summingDouble(SalesRecord::getProfit)));
+
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, result.toMap(0));
+        assertEquals(0, new SalesQuery().where(SalesField.REGION, "Atlantis").count().run(table).size());
+
+        // Date bounds are checked when the filter is added, not when the query runs
+        assertThrows(NullPointerException.class, () -> new SalesQuery().whereOrderDateBetween(null, end));
+        assertThrows(NullPointerException.class, () -> new SalesQuery().whereOrderDateBetween(start, null));
+        assertThrows(IllegalArgumentException.class, () -> new SalesQuery().whereOrderDateBetween(end, start));
+        LocalDate day = LocalDate.of(2016, 11, 8);
+        assertEquals(records.stream().filter(r -> day.equals(r.getOrderDate())).count(),
+                new SalesQuery().whereOrderDateBetween(day, day).count().run(table).getCount(0));
+    }
+
+    @Test
+    @DisplayName("Test order by and limit keep first-seen order for ties")
+    void testOrderByAndLimit() {
+        Map<List<String>, DoubleSummaryStatistics> states =
+                grouped(records, r -> List.of(r.getState()), SalesRecord::getSales);
+        List<List<String>> bySales = states.entrySet().stream()
+                .sorted(Comparator.comparingDouble((Map.Entry<List<String>, DoubleSummaryStatistics> e) ->
+                        e.getValue().getSum()).reversed())
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+        SalesQuery.Result top = new SalesQuery().groupBy(SalesField.STATE).sum(SalesField.SALES)
+                .orderBy(0, true).limit(3, 7).run(table);
+        assertEquals(bySales.subList(3, 10), top.getKeys());
+
+        // Counts tie a lot, so this checks the tie order
+        List<List<String>> byCount = states.entrySet().stream()
+                .sorted(Comparator.comparingLong(e -> e.getValue().getCount()))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+        assertEquals(byCount, new SalesQuery().groupBy(SalesField.STATE).count().orderBy(0, false)
+                .run(table).getKeys());
+        assertEquals(new ArrayList<>(states.keySet()).subList(0, 4),
+                new SalesQuery().groupBy(SalesField.STATE).count().limit(4).run(table).getKeys());
+        assertThrows(IllegalStateException.class, () -> new SalesQuery().count().orderBy(1, true).run(table));
+    }
+
+    @Test
+    @DisplayName("Test months, many-group hashing and queries without dimensions")
+    void testGroupingPaths() {
+        assertEquals(new SalesAnalyzer(records).getMonthlySalesTrend().entrySet().stream()
+                        .collect(Collectors.toMap(e -> e.getKey().toString(), Map.Entry::getValue)),
+                new SalesQuery().groupBy(SalesField.ORDER_DATE).sum(SalesField.SALES).run(table).toMap(0));
+
+        // Order id x product has far more combinations than the dense array takes
+        Map<List<String>, DoubleSummaryStatistics> expected = grouped(records,
+                r -> List.of(r.getOrderId(), r.getProductName()), SalesRecord::getSales);
+        SalesQuery.Result result = new SalesQuery().groupBy(SalesField.ORDER_ID, SalesField.PRODUCT_NAME)
+                .sum(SalesField.SALES).run(table);
+        assertEquals(new ArrayList<>(expected.keySet()), result.getKeys());
+        for (int row = 0; row < result.size(); row++) {
+            assertEquals(expected.get(result.getKey(row)).getSum(), result.getValue(row, 0));
+        }
+
+        SalesQuery.Result total = new SalesQuery().sum(SalesField.SALES).count().run(records);
+        assertEquals(1, total.size());
+        assertEquals(List.of(), total.getKey(0));
+        assertEquals(new SalesAnalyzer(records).calculateTotalRevenue(), total.getValue(0, 0));
+        assertEquals(records.size(), total.getCount(0));
+
+        assertThrows(IllegalArgumentException.class, () -> new SalesQuery().groupBy(SalesField.SALES));
+        assertThrows(IllegalArgumentException.class, () -> new SalesQuery().sum(SalesField.REGION));
+        assertThrows(IllegalStateException.class, () -> total.toMap(0));
+    }
+}
@@ -0,0 +1,156 @@
+package com.dataanalysis;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+import static com.dataanalysis.ColumnarSalesAnalyzerTest.assertSameStatistics;
+import static com.dataanalysis.ColumnarSalesAnalyzerTest.describe;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SalesReport
+ * A report must return exactly what the individual SalesAnalyzer calls return
+ */
+class SalesReportTest {
+
+    private static final LocalDate START = LocalDate.of(2015, 6, 1);
+    private static final LocalDate END = LocalDate.of(2016, 2, 29);
+
+    private static List<SalesRecord> records;
+    private static SalesAnalyzer analyzer;
+
+    @BeforeAll
+    static void loadData() throws IOException {
+        records = SalesDataParser.parseCSV("data/Superstore.csv");
+        analyzer = new SalesAnalyzer(records);
+    }
+
+    private static SalesReport fullReport() {
+        return new SalesReport()
+                .totalRevenue()
+                .totalProfit()
+                .salesByCategory()
+                .profitByCategory()
+                .topProductsBySales(10)
+                .topProductsByProfit(10)
+                .averageOrderValue()
+                .regionSalesStatistics()
+                .monthlySalesTrend()
+                .salesBySegment()
+                .unprofitableProducts()
+                .averageDiscountByCategory()
+                .quantityBySubCategory()
+                .highValueOrders(500)
+                .profitMarginByCategory()
+                .topStatesBySales(5)
+                .salesByShipMode()
+                .ordersInDateRange(START, END)
+                .categoryDistributionPercentage()
+                .orderCountByRegion();
+    }
+
+    private static void assertMatchesAnalyzer(SalesReport.Result report) {
+        assertEquals(analyzer.calculateTotalRevenue(), report.getTotalRevenue());
+        assertEquals(analyzer.calculateTotalProfit(), report.getTotalProfit());
+        assertEquals(analyzer.getSalesByCategory(), report.getSalesByCategory());
+        assertEquals(analyzer.getProfitByCategory(), report.getProfitByCategory());
+        assertEquals(analyzer.getTopProductsBySales(10), report.getTopProductsBySales());
+        assertEquals(analyzer.getTopProductsByProfit(10), report.getTopProductsByProfit());
+        assertEquals(analyzer.getAverageOrderValue(), report.getAverageOrderValue());
+        assertSameStatistics(analyzer.getRegionSalesStatistics(), report.getRegionSalesStatistics());
+        assertEquals(analyzer.getMonthlySalesTrend(), report.getMonthlySalesTrend());
+        assertEquals(analyzer.getSalesBySegment(), report.getSalesBySegment());
+        assertEquals(describe(analyzer.getUnprofitableProducts()), describe(report.getUnprofitableProducts()));
+        assertEquals(analyzer.getAverageDiscountByCategory(), report.getAverageDiscountByCategory());
+        assertEquals(analyzer.getQuantityBySubCategory(), report.getQuantityBySubCategory());
+        assertEquals(describe(analyzer.getHighValueOrders(500)), describe(report.getHighValueOrders()));
+        assertEquals(analyzer.getProfitMarginByCategory(), report.getProfitMarginByCategory());
+        assertEquals(analyzer.getTopStatesBySales(5), report.getTopStatesBySales());
+        assertEquals(analyzer.getSalesByShipMode(), report.getSalesByShipMode());
+        assertEquals(describe(analyzer.getOrdersInDateRange(START, END)), describe(report.getOrdersInDateRange()));
+        assertEquals(analyzer.getCategoryDistributionPercentage(), report.getCategoryDistributionPercentage());
+        assertEquals(analyzer.getOrderCountByRegion(), report.getOrderCountByRegion());
+    }
+
+    @Test
+    @DisplayName("Test a full report matches every SalesAnalyzer method exactly")
+    void testMatchesAnalyzer() {
+        assertMatchesAnalyzer(fullReport().run(records));
+    }
+
+    @Test
+    @DisplayName("Test a report fed while parsing matches one run over parsed records")
+    void testAccumulatorDuringParse() throws IOException {
+        SalesReport.Accumulator accumulator = fullReport().accumulator();
+        SalesDataParser.forEachRecord("data/Superstore.csv", accumulator);
+        assertMatchesAnalyzer(accumulator.finish());
+    }
+
+    @Test
+    @DisplayName("Test running from a file parses only the columns the metrics need")
+    void testRunFromFile() throws IOException {
+        SalesReport report = new SalesReport().salesByCategory().topStatesBySales(5).totalProfit();
+        assertEquals(EnumSet.of(SalesField.SALES, SalesField.PROFIT, SalesField.CATEGORY, SalesField.STATE),
+                report.requiredFields());
+
+        SalesReport.Result result = report.run("data/Superstore.csv");
+        assertEquals(analyzer.getSalesByCategory(), result.getSalesByCategory());
+        assertEquals(analyzer.getTopStatesBySales(5), result.getTopStatesBySales());
+        assertEquals(analyzer.calculateTotalProfit(), result.getTotalProfit());
+
+        // Metrics that return whole records need every column
+        assertEquals(SalesField.ALL, new SalesReport().salesBySegment().unprofitableProducts().requiredFields());
+    }
+
+    @Test
+    @DisplayName("Test a file run drops rows with bad dates even when the date is not projected")
+    void testRunFromFileDropsBadDates(@TempDir Path tempDir) throws IOException {
+        Path csvFile = tempDir.resolve("dates.csv");
+        try (FileWriter writer = new FileWriter(csvFile.toFile())) {
+            writer.write("Row ID,Order ID,Order Date,Ship Date,Ship Mode,Customer ID,Customer Name,Segment,Country,City,State,Postal Code,Region,Product ID,Category,Sub-Category,Product Name,Sales,Quantity,Discount,Profit\n");
+            writer.write("1,ORDER-001,1/3/2024,1/5/2024,Standard Class,CID-001,John Doe,Consumer,United States,New York,NY,10001,East,PROD-001,Technology,Phones,iPhone,1200.00,2,0.1,240.00\n");
+            writer.write("2,ORDER-002,not a date,2/17/2024,Second Class,CID-002,Jane Smith,Corporate,United States,Los Angeles,CA,90001,West,PROD-002,Furniture,Chairs,Office Chair,450.00,3,0.0,135.00\n");
+        }
+
+        SalesReport report = new SalesReport().totalRevenue().salesByCategory();
+        assertFalse(report.requiredFields().contains(SalesField.ORDER_DATE));
+        SalesAnalyzer fileAnalyzer = new SalesAnalyzer(SalesDataParser.parseCSV(csvFile.toString()));
+
+        SalesReport.Result result = report.run(csvFile.toString());
+        assertEquals(fileAnalyzer.calculateTotalRevenue(), result.getTotalRevenue());
+        assertEquals(1200.00, result.getTotalRevenue(), 0.001);
+        assertEquals(fileAnalyzer.getSalesByCategory(), result.getSalesByCategory());
+    }
+
+    @Test
+    @DisplayName("Test asking for a metric that was not registered throws")
+    void testUnregisteredMetric() {
+        SalesReport.Result result = new SalesReport().totalRevenue().run(records);
+        assertEquals(analyzer.calculateTotalRevenue(), result.getTotalRevenue());
+        assertThrows(IllegalStateException.class, result::getTotalProfit);
+        assertThrows(IllegalStateException.class, result::getSalesByCategory);
+    }
+
+    @Test
+    @DisplayName("Test an empty data set gives the same results as SalesAnalyzer")
+    void testEmptyData() {
+        List<SalesRecord> empty = new ArrayList<>();
+        SalesAnalyzer emptyAnalyzer = new SalesAnalyzer(empty);
+        SalesReport.Result result = fullReport().run(empty);
+        assertEquals(emptyAnalyzer.calculateTotalRevenue(), result.getTotalRevenue());
+        assertEquals(emptyAnalyzer.getAverageOrderValue(), result.getAverageOrderValue());
+        assertEquals(emptyAnalyzer.getSalesByCategory(), result.getSalesByCategory());
+        assertEquals(emptyAnalyzer.getTopProductsBySales(10), result.getTopProductsBySales());
+        assertTrue(result.getOrdersInDateRange().isEmpty());
+    }
+}
@@ -0,0 +1,184 @@
+package com.dataanalysis;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+
+import static com.dataanalysis.ColumnarSalesAnalyzerTest.assertSameResults;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SalesSnapshot
+ * A table read back from a snapshot must match the parsed data exactly, and a damaged or
+ * foreign file must be rejected rather than half-loaded
+ */
+class SalesSnapshotTest {
+
+    private static final String CSV_FILE_PATH = "data/Superstore.csv";
+
+    private static List<SalesRecord> records;
+
+    @TempDir
+    Path dir;
+
+    @BeforeAll
+    static void loadData() throws IOException {
+        records = SalesDataParser.parseCSV(CSV_FILE_PATH);
+    }
+
+    @Test
+    @DisplayName("Test a snapshot reads back to the same analysis results")
+    void testRoundTrip() throws IOException {
+        Path path = dir.resolve("sales.snapshot");
+        SalesSnapshot.write(SalesTable.from(records), path);
+        SalesTable table = SalesSnapshot.read(path);
+
+        assertEquals(records.size(), table.size());
+        assertSameResults(new SalesAnalyzer(records), new ColumnarSalesAnalyzer(table));
+        assertSameResults(new SalesAnalyzer(records), new SalesAnalyzer(table.rows()));
+        assertEquals(SalesTable.from(records).rowsWhere(SalesField.REGION, "West").cardinality(),
+                table.rowsWhere(SalesField.REGION, "West").cardinality());
+    }
+
+    @Test
+    @DisplayName("Test null text values and missing dates survive a round trip")
+    void testNulls() throws IOException {
+        List<SalesRecord> projected = SalesDataParser.parseCSV(CSV_FILE_PATH,
+                EnumSet.of(SalesField.CATEGORY, SalesField.SALES));
+        Path path = dir.resolve("projected.snapshot");
+        SalesSnapshot.write(SalesTable.from(projected), path);
+        SalesTable table = SalesSnapshot.read(path);
+
+        assertEquals(projected.size(), table.size());
+        for (int row = 0; row < table.size(); row += 97) {
+            assertEquals(projected.get(row).getCategory(), table.column(SalesField.CATEGORY).value(row));
+            assertEquals(projected.get(row).getSales(), table.getSales(row));
+            assertNull(table.column(SalesField.REGION).value(row));
+            assertNull(table.getOrderDate(row));
+        }
+    }
+
+    @Test
+    @DisplayName("Test a loaded table accepts more rows, and an empty table round-trips")
+    void testAddAfterRead() throws IOException {
+        Path empty = dir.resolve("empty.snapshot");
+        SalesSnapshot.write(new SalesTable(), empty);
+        SalesTable table = SalesSnapshot.read(empty);
+        assertEquals(0, table.size());
+
+        for (SalesRecord record : records.subList(0, 100)) {
+            table.add(record);
+        }
+        Path path = dir.resolve("first100.snapshot");
+        SalesSnapshot.write(table, path);
+        table = SalesSnapshot.read(path);
+        for (SalesRecord record : records.subList(100, records.size())) {
+            table.add(record);
+        }
+        assertSameResults(new SalesAnalyzer(records), new ColumnarSalesAnalyzer(table));
+        assertEquals(LocalDate.of(2016, 11, 8), table.getOrderDate(0));
+    }
+
+    @Test
+    @DisplayName("Test damaged, foreign and newer-version files are rejected")
+    void testCorruption() throws IOException {
+        Path path = dir.resolve("sales.snapshot");
+        SalesSnapshot.write(SalesTable.from(records.subList(0, 500)), path);
+        byte[] good = Files.readAllBytes(path);
+
+        // One flipped bit deep in a column block
+        byte[] damaged = good.clone();
+        damaged[damaged.length - 100] ^= 1;
+        assertRejected(damaged, "checksum");
+
+        byte[] foreign = good.clone();
+        foreign[0] = 'X';
+        assertRejected(foreign, "not a sales snapshot");
+
+        byte[] newer = good.clone();
+        ByteBuffer.wrap(newer).order(ByteOrder.LITTLE_ENDIAN).putInt(8, SalesSnapshot.VERSION + 1);
+        assertRejected(newer, "version");
+
+        // The header and directory have their own checksum: a row count or block offset changed
+        // consistently with nothing else would otherwise go unnoticed
+        byte[] rows = good.clone();
+        ByteBuffer.wrap(rows).order(ByteOrder.LITTLE_ENDIAN).putInt(12, 499);
+        assertRejected(rows, "header checksum");
+        byte[] directory = good.clone();
+        directory[48 + 8] ^= 8;
+        assertRejected(directory, "header checksum");
+
+        assertRejected(new byte[10], "too short");
+        assertRejected(Arrays.copyOf(good, good.length / 2), "bad block");
+    }
+
+    @Test
+    @DisplayName("Test tables too large for the format are refused before allocating")
+    void testSizeLimit() throws IOException {
+        SalesSnapshot.checkRows(1_000_000);
+        IOException e = assertThrows(IOException.class, () -> SalesSnapshot.checkRows(100_000_000));
+        assertTrue(e.getMessage().contains("limit"), e.getMessage());
+        assertThrows(IOException.class, () -> SalesSnapshot.checkRows(Integer.MAX_VALUE));
+    }
+
+    private void assertRejected(byte[] bytes, String reason) throws IOException {
+        Path path = dir.resolve("bad.snapshot");
+        Files.write(path, bytes);
+        IOException e = assertThrows(IOException.class, () -> SalesSnapshot.read(path));
+        assertTrue(e.getMessage().contains(reason), e.getMessage());
+    }
+
+    @Test
+    @DisplayName("Test load writes a snapshot once and rebuilds a stale or broken one")
+    void testLoad() throws IOException {
+        Path csv = dir.resolve("sales.csv");
+        Files.copy(Path.of(CSV_FILE_PATH), csv);
+        Path snapshot = dir.resolve("sales.snapshot");
+
+        assertEquals(records.size(), SalesSnapshot.load(csv, snapshot).size());
+        assertTrue(Files.exists(snapshot));
+        FileTime written = Files.getLastModifiedTime(snapshot);
+
+        // Reused while the CSV is unchanged
+        assertSameResults(new SalesAnalyzer(records), new ColumnarSalesAnalyzer(SalesSnapshot.load(csv, snapshot)));
+        assertEquals(written, Files.getLastModifiedTime(snapshot));
+
+        // Rebuilt once the CSV's modification time changes
+        FileTime old = FileTime.fromMillis(written.toMillis() - 10_000);
+        Files.setLastModifiedTime(csv, FileTime.fromMillis(written.toMillis() + 10_000));
+        Files.setLastModifiedTime(snapshot, old);
+        SalesSnapshot.load(csv, snapshot);
+        assertTrue(Files.getLastModifiedTime(snapshot).compareTo(old) > 0);
+
+        // Rebuilt when the CSV is rewritten with an older modification time than the snapshot
+        List<String> lines = Files.readAllLines(csv, StandardCharsets.ISO_8859_1);
+        Files.write(csv, lines.subList(0, 101), StandardCharsets.ISO_8859_1);
+        Files.setLastModifiedTime(csv, old);
+        assertTrue(SalesSnapshot.load(csv, snapshot).size() < records.size());
+
+        // Not reused for a different CSV, even one that is older
+        Path other = dir.resolve("other.csv");
+        Files.copy(Path.of(CSV_FILE_PATH), other);
+        Files.setLastModifiedTime(other, old);
+        assertEquals(records.size(), SalesSnapshot.load(other, snapshot).size());
+
+        // Rebuilt if it cannot be read
+        Files.write(snapshot, new byte[]{1, 2, 3});
+        Files.setLastModifiedTime(snapshot, FileTime.fromMillis(written.toMillis() + 20_000));
+        assertEquals(records.size(), SalesSnapshot.load(other, snapshot).size());
+        assertEquals(records.size(), SalesSnapshot.read(snapshot).size());
+    }
+}
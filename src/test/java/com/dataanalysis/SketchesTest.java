@@ -0,0 +1,148 @@
+package com.dataanalysis;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for HeavyHitters and CountMinSketch
+ * Estimates are checked against the exact per-product totals of the sample data set
+ */
+class SketchesTest {
+
+    private static final double DELTA = 1e-6;
+
+    private static List<SalesRecord> records;
+    private static Map<String, Double> salesByProduct;
+    private static Map<String, Long> ordersByProduct;
+    private static double totalSales;
+
+    @BeforeAll
+    static void loadData() throws IOException {
+        records = SalesDataParser.parseCSV("data/Superstore.csv");
+        salesByProduct = records.stream().collect(Collectors.groupingBy(SalesRecord::getProductName,
+                Collectors.summingDouble(SalesRecord::getSales)));
+        ordersByProduct = records.stream().collect(Collectors.groupingBy(SalesRecord::getProductName,
+                Collectors.counting()));
+        totalSales = new SalesAnalyzer(records).calculateTotalRevenue();
+    }
+
+    private static HeavyHitters heavyHitters(List<SalesRecord> part, int capacity) {
+        HeavyHitters summary = new HeavyHitters(capacity);
+        part.forEach(record -> summary.add(record.getProductName(), record.getSales()));
+        return summary;
+    }
+
+    private static void assertWithinBounds(HeavyHitters summary) {
+        assertEquals(summary.getCapacity(), summary.size());
+        for (HeavyHitters.Counter counter : summary.counters(summary.getCapacity())) {
+            double actual = salesByProduct.get(counter.getKey());
+            assertTrue(counter.getEstimate() >= actual - DELTA, counter.toString());
+            assertTrue(counter.getGuaranteed() <= actual + DELTA, counter.toString());
+            assertTrue(counter.getError() <= totalSales / summary.getCapacity() + DELTA, counter.toString());
+        }
+        // Every product heavier than total / capacity must be tracked
+        salesByProduct.forEach((product, sales) -> {
+            if (sales > totalSales / summary.getCapacity()) {
+                assertTrue(summary.estimate(product) > 0, product);
+            }
+        });
+    }
+
+    @Test
+    @DisplayName("Test heavy hitters bound every estimate and find the true top products")
+    void testHeavyHitters() {
+        HeavyHitters summary = heavyHitters(records, 300);
+        assertEquals(totalSales, summary.getTotalWeight(), DELTA);
+        assertWithinBounds(summary);
+
+        List<String> exactTop = new SalesAnalyzer(records).getTopProductsBySales(5).stream()
+                .map(Map.Entry::getKey).toList();
+        List<String> approximateTop = summary.top(5).stream().map(Map.Entry::getKey).toList();
+        assertEquals(exactTop, approximateTop);
+    }
+
+    @Test
+    @DisplayName("Test merged partition summaries keep the same guarantees")
+    void testHeavyHittersMerge() {
+        int quarter = records.size() / 4;
+        HeavyHitters merged = heavyHitters(records.subList(0, quarter), 300);
+        for (int part = 1; part < 4; part++) {
+            int end = part == 3 ? records.size() : (part + 1) * quarter;
+            merged.merge(heavyHitters(records.subList(part * quarter, end), 300));
+        }
+        assertEquals(totalSales, merged.getTotalWeight(), 1e-3);
+        assertWithinBounds(merged);
+
+        assertThrows(IllegalArgumentException.class, () -> merged.merge(new HeavyHitters(10)));
+        assertThrows(IllegalArgumentException.class, () -> merged.merge(merged));
+    }
+
+    @Test
+    @DisplayName("Test small summaries are exact and negative weights are rejected")
+    void testHeavyHittersBasics() {
+        HeavyHitters summary = new HeavyHitters(3);
+        summary.add("a", 5);
+        summary.add("b", 2);
+        summary.add("a", 1);
+        assertEquals(6, summary.estimate("a"));
+        assertEquals(0, summary.getMinimum());
+        summary.add("c", 1);
+        summary.add("d", 4);   // replaces c, the smallest
+        assertEquals(0, summary.estimate("c"));
+        assertEquals(5, summary.estimate("d"));
+        assertEquals(1, summary.counters(3).get(1).getError());
+        assertEquals(List.of("a", "d", "b"), summary.top(3).stream().map(Map.Entry::getKey).toList());
+        assertThrows(IllegalArgumentException.class, () -> summary.add("e", -1));
+        assertEquals(100, HeavyHitters.withError(0.01).getCapacity());
+    }
+
+    @Test
+    @DisplayName("Test count-min estimates never undercount and stay within the error bound")
+    void testCountMin() {
+        CountMinSketch sketch = new CountMinSketch(0.001, 0.001);
+        records.forEach(record -> sketch.add(record.getProductName(), record.getSales()));
+        assertEquals(records.size(), sketch.getTotalCount());
+
+        int withinBound = 0;
+        for (String product : salesByProduct.keySet()) {
+            long count = sketch.estimateCount(product);
+            double weight = sketch.estimateWeight(product);
+            assertTrue(count >= ordersByProduct.get(product), product);
+            assertTrue(weight >= salesByProduct.get(product) - DELTA, product);
+            if (count <= ordersByProduct.get(product) + sketch.getEpsilon() * sketch.getTotalCount()
+                    && weight <= salesByProduct.get(product) + sketch.getEpsilon() * sketch.getTotalWeight()) {
+                withinBound++;
+            }
+        }
+        assertTrue(withinBound >= salesByProduct.size() * 0.99, withinBound + " of " + salesByProduct.size());
+        assertEquals(0, sketch.estimateCount("No such product"));
+    }
+
+    @Test
+    @DisplayName("Test merged count-min sketches equal one sketch over all records")
+    void testCountMinMerge() {
+        CountMinSketch whole = new CountMinSketch(2048, 5, 11);
+        CountMinSketch first = new CountMinSketch(2048, 5, 11);
+        CountMinSketch second = new CountMinSketch(2048, 5, 11);
+        int half = records.size() / 2;
+        records.forEach(record -> whole.add(record.getProductName(), record.getSales()));
+        records.subList(0, half).forEach(record -> first.add(record.getProductName(), record.getSales()));
+        records.subList(half, records.size()).forEach(record -> second.add(record.getProductName(), record.getSales()));
+        first.merge(second);
+
+        for (String product : salesByProduct.keySet()) {
+            assertEquals(whole.estimateCount(product), first.estimateCount(product), product);
+            assertEquals(whole.estimateWeight(product), first.estimateWeight(product), 1e-6, product);
+        }
+        assertThrows(IllegalArgumentException.class, () -> first.merge(new CountMinSketch(2048, 5, 12)));
+        assertThrows(IllegalArgumentException.class, () -> first.add("x", -2));
+    }
+}
@@ -0,0 +1,100 @@
+package com.dataanalysis;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import static com.dataanalysis.ColumnarSalesAnalyzerTest.describe;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for TopK and the paged top-N analyses
+ * A bounded heap must return exactly what a stable sort followed by skip/limit returns
+ */
+class TopKTest {
+
+    private static List<SalesRecord> records;
+
+    @BeforeAll
+    static void loadData() throws IOException {
+        records = SalesDataParser.parseCSV("data/Superstore.csv");
+    }
+
+    private static <T> List<T> sortedPage(List<T> items, Comparator<? super T> order, int offset, int limit) {
+        return items.stream().sorted(order).skip(offset).limit(limit).collect(Collectors.toList());
+    }
+
+    @Test
+    @DisplayName("Test top-k matches a stable sort, ties included")
+    void testMatchesStableSort() {
+        Random random = new Random(3);
+        List<int[]> items = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            // Few distinct keys so there are plenty of ties; the second value records offer order
+            items.add(new int[]{random.nextInt(20), i});
+        }
+        Comparator<int[]> byKeyDescending = Comparator.comparingInt((int[] item) -> item[0]).reversed();
+
+        for (int k : new int[]{0, 1, 7, 100, 1999, 2000, 5000}) {
+            assertEquals(sortedPage(items, byKeyDescending, 0, k), TopK.top(items, byKeyDescending, k), "k=" + k);
+        }
+        for (int offset : new int[]{0, 3, 150, 1995, 2500}) {
+            assertEquals(sortedPage(items, byKeyDescending, offset, 10),
+                    TopK.page(items, byKeyDescending, offset, 10), "offset=" + offset);
+        }
+    }
+
+    @Test
+    @DisplayName("Test negative k, offset or limit is rejected")
+    void testRejectsNegative() {
+        List<Integer> items = List.of(3, 1, 2);
+        assertThrows(IllegalArgumentException.class, () -> new TopK<Integer>(-1, Comparator.naturalOrder()));
+        assertThrows(IllegalArgumentException.class, () -> TopK.page(items, Comparator.naturalOrder(), -1, 2));
+        assertThrows(IllegalArgumentException.class, () -> TopK.page(items, Comparator.naturalOrder(), 0, -2));
+        assertEquals(List.of(1, 2, 3), TopK.page(items, Comparator.naturalOrder(), 0, Integer.MAX_VALUE));
+        assertEquals(List.of(3), TopK.page(items, Comparator.naturalOrder(), 2, Integer.MAX_VALUE));
+    }
+
+    @Test
+    @DisplayName("Test paged analyses return the matching slice of the full ranking")
+    void testPagedAnalyses() {
+        List<SalesAnalyzer> analyzers = List.of(new SalesAnalyzer(records), new ColumnarSalesAnalyzer(records),
+                new IncrementalSalesAnalyzer(records), new CachingSalesAnalyzer(new SalesAnalyzer(records)));
+        SalesAnalyzer reference = analyzers.get(0);
+        List<Map.Entry<String, Double>> allStates = reference.getTopStatesBySales(Integer.MAX_VALUE);
+        List<SalesRecord> allUnprofitable = reference.getUnprofitableProducts();
+        List<SalesRecord> allHighValue = reference.getHighValueOrders(100);
+
+        for (SalesAnalyzer analyzer : analyzers) {
+            String name = analyzer.getClass().getSimpleName();
+            assertEquals(allStates.subList(10, 20), analyzer.getTopStatesBySales(10, 10), name);
+            assertEquals(reference.getTopProductsBySales(10), analyzer.getTopProductsBySales(0, 10), name);
+            assertEquals(reference.getTopProductsByProfit(25).subList(20, 25),
+                    analyzer.getTopProductsByProfit(20, 5), name);
+            assertEquals(describe(allUnprofitable.subList(100, 150)),
+                    describe(analyzer.getUnprofitableProducts(100, 50)), name);
+            assertEquals(describe(allHighValue.subList(0, 40)), describe(analyzer.getHighValueOrders(100, 0, 40)), name);
+            assertEquals(describe(allHighValue.subList(allHighValue.size() - 3, allHighValue.size())),
+                    describe(analyzer.getHighValueOrders(100, allHighValue.size() - 3, 10)), name);
+            assertTrue(analyzer.getUnprofitableProducts(allUnprofitable.size(), 10).isEmpty(), name);
+        }
+
+        // Partition sums can differ in the last bits, so the parallel analyzer is checked on the
+        // record lists; small partitions make the pages span several of them
+        SalesAnalyzer parallel = new ParallelSalesAnalyzer(records, ForkJoinPool.commonPool(), 1000);
+        assertEquals(describe(allUnprofitable.subList(100, 150)), describe(parallel.getUnprofitableProducts(100, 50)));
+        assertEquals(describe(allHighValue.subList(0, 40)), describe(parallel.getHighValueOrders(100, 0, 40)));
+        assertEquals(describe(allHighValue.subList(allHighValue.size() - 3, allHighValue.size())),
+                describe(parallel.getHighValueOrders(100, allHighValue.size() - 3, 10)));
+        assertTrue(parallel.getUnprofitableProducts(allUnprofitable.size(), 10).isEmpty());
+    }
+}
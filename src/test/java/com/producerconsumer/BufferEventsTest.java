@@ -0,0 +1,131 @@
+package com.producerconsumer;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Unit tests for the JFR events emitted by the buffers
+class BufferEventsTest {
+
+    private static List<RecordedEvent> record(Path tempDir, Duration threshold, ThrowingRunnable action) throws Exception {
+        Path file = tempDir.resolve("buffers.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("com.producerconsumer.ProducerBlocked").withThreshold(threshold);
+            recording.enable("com.producerconsumer.ConsumerWaited").withThreshold(threshold);
+            recording.enable("com.producerconsumer.Shutdown");
+            recording.start();
+            action.run();
+            recording.stop();
+            recording.dump(file);
+        }
+        return RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().startsWith("com.producerconsumer."))
+                .collect(Collectors.toList());
+    }
+
+    private static long count(List<RecordedEvent> events, String name) {
+        return events.stream().filter(event -> event.getEventType().getName().equals(name)).count();
+    }
+
+    @Test
+    @DisplayName("Test blocked producer and waiting consumer are recorded")
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void testWaitEventsRecorded(@TempDir Path tempDir) throws Exception {
+        List<RecordedEvent> events = record(tempDir, Duration.ofMillis(20), () -> {
+            SharedBuffer buffer = new SharedBuffer(1);
+
+            // Consumer waits on the empty buffer well past the threshold
+            Thread consumer = new Thread(() -> {
+                try {
+                    buffer.consume();
+                    Thread.sleep(100);
+                    buffer.consume();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            consumer.start();
+            Thread.sleep(100);
+
+            // Second produce blocks on the full buffer until the consumer wakes up
+            buffer.produce(1);
+            buffer.produce(2);
+            buffer.produce(3);
+            consumer.join();
+        });
+
+        assertEquals(1, count(events, "com.producerconsumer.ConsumerWaited"));
+        assertTrue(count(events, "com.producerconsumer.ProducerBlocked") >= 1);
+
+        RecordedEvent blocked = events.stream()
+                .filter(event -> event.getEventType().getName().equals("com.producerconsumer.ProducerBlocked"))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(1, blocked.getInt("capacity"));
+        assertTrue(blocked.getString("buffer").startsWith("SharedBuffer@"));
+    }
+
+    @Test
+    @DisplayName("Test short waits stay below the threshold")
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void testShortWaitsNotRecorded(@TempDir Path tempDir) throws Exception {
+        List<RecordedEvent> events = record(tempDir, Duration.ofSeconds(5), () -> {
+            SharedBuffer buffer = new SharedBuffer(1);
+            Thread consumer = new Thread(() -> {
+                try {
+                    buffer.consume();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            consumer.start();
+            Thread.sleep(50);
+            buffer.produce(1);
+            consumer.join();
+        });
+
+        assertEquals(0, count(events, "com.producerconsumer.ConsumerWaited"));
+    }
+
+    @Test
+    @DisplayName("Test consumer shutdown records the drain reason")
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void testShutdownRecorded(@TempDir Path tempDir) throws Exception {
+        List<RecordedEvent> events = record(tempDir, Duration.ofMillis(10), () -> {
+            BlockingQueue<Integer> queue = new LinkedBlockingQueue<>(5);
+            queue.put(7);
+            queue.put(-1);
+            Thread consumer = new Thread(new ProducerConsumer.Consumer(queue, new ArrayList<>(), 3, -1));
+            consumer.start();
+            consumer.join();
+        });
+
+        RecordedEvent shutdown = events.stream()
+                .filter(event -> event.getEventType().getName().equals("com.producerconsumer.Shutdown"))
+                .findFirst()
+                .orElseThrow();
+        assertEquals("Consumer-3", shutdown.getString("component"));
+        assertEquals("poison pill", shutdown.getString("reason"));
+        assertEquals(1, shutdown.getLong("itemsProcessed"));
+    }
+
+    @FunctionalInterface
+    private interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,166 @@
+package com.producerconsumer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Timeout;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Unit tests for BufferWatchdog stall detection
+class BufferWatchdogTest {
+
+    @Test
+    @DisplayName("Test watchdog detects producers stuck after the consumer dies")
+    @Timeout(value = 15, unit = TimeUnit.SECONDS)
+    void testDetectsDeadConsumer() throws InterruptedException {
+        BlockingQueue<Integer> queue = new LinkedBlockingQueue<>(2);
+        List<Integer> source = new ArrayList<>();
+        for (int i = 1; i <= 20; i++) source.add(i);
+        List<Integer> destination = Collections.synchronizedList(new ArrayList<>());
+
+        List<StallReport> reports = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch stalled = new CountDownLatch(1);
+
+        try (BufferWatchdog watchdog = new BufferWatchdog(20, 300)) {
+            watchdog.watch("orders", queue).onStall(report -> {
+                reports.add(report);
+                report.interruptProducers();
+                stalled.countDown();
+            });
+            watchdog.start();
+
+            Thread producer = new Thread(new ProducerConsumer.Producer(queue, source, 1), "stuck-producer");
+            Thread consumer = new Thread(new ProducerConsumer.Consumer(queue, destination, 1, -1));
+            producer.start();
+            consumer.start();
+
+            // Kill the consumer so the producer fills the queue and blocks in put
+            Thread.sleep(200);
+            consumer.interrupt();
+            consumer.join();
+
+            assertTrue(stalled.await(10, TimeUnit.SECONDS), "Watchdog should flag the stall");
+            producer.join(5000);
+            assertFalse(producer.isAlive(), "Recovery action should unblock the producer");
+        }
+
+        StallReport report = reports.get(0);
+        assertEquals("orders", report.getBufferName());
+        assertEquals(2, report.getBufferCapacity());
+        assertTrue(report.getConsumers().isEmpty(), "Dead consumer should not be reported as live");
+        assertTrue(report.getThreadDump().contains("stuck-producer"));
+    }
+
+    @Test
+    @DisplayName("Test a healthy pipeline is not flagged")
+    @Timeout(value = 15, unit = TimeUnit.SECONDS)
+    void testHealthyPipelineNotFlagged() throws InterruptedException {
+        BlockingQueue<Integer> queue = new LinkedBlockingQueue<>(2);
+        List<Integer> source = new ArrayList<>();
+        for (int i = 1; i <= 8; i++) source.add(i);
+        List<Integer> destination = Collections.synchronizedList(new ArrayList<>());
+        List<StallReport> reports = Collections.synchronizedList(new ArrayList<>());
+
+        try (BufferWatchdog watchdog = new BufferWatchdog(20, 1000)) {
+            watchdog.watch("healthy", queue).onStall(reports::add);
+            watchdog.start();
+
+            Thread producer = new Thread(new ProducerConsumer.Producer(queue, source, 1));
+            Thread consumer = new Thread(new ProducerConsumer.Consumer(queue, destination, 1, -1));
+            producer.start();
+            consumer.start();
+            producer.join();
+            queue.put(-1);
+            consumer.join(5000);
+        }
+
+        assertEquals(8, destination.size());
+        assertTrue(reports.isEmpty(), "No stall expected: " + reports);
+    }
+
+    @Test
+    @DisplayName("Test full SharedBuffer without dequeue progress is reported once")
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void testSharedBufferNoProgress() throws InterruptedException {
+        SharedBuffer buffer = new SharedBuffer(1);
+        buffer.produce(1);
+
+        BufferWatchdog watchdog = new BufferWatchdog(10, 50).watch("shared", buffer);
+
+        assertTrue(watchdog.sample().isEmpty(), "First sample only records a baseline");
+        Thread.sleep(80);
+        List<StallReport> reports = watchdog.sample();
+        assertEquals(1, reports.size());
+        assertEquals(StallReport.Kind.NO_DEQUEUE_PROGRESS, reports.get(0).getKind());
+
+        Thread.sleep(80);
+        assertTrue(watchdog.sample().isEmpty(), "The same stall should not be reported twice");
+
+        // Progress resets the detector
+        buffer.consume();
+        assertTrue(watchdog.sample().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test runner threads are registered for their lifetime, not per item")
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void testRunnerRegistration() throws InterruptedException {
+        SharedBuffer buffer = new SharedBuffer(1);
+        List<Integer> destination = Collections.synchronizedList(new ArrayList<>());
+
+        // Plain consume/produce calls only record progress
+        buffer.produce(1);
+        buffer.consume();
+        assertTrue(buffer.probe().producers().isEmpty());
+        assertTrue(buffer.probe().consumers().isEmpty());
+
+        Thread consumer = new Thread(new WaitNotifyConsumer(buffer, destination, 2), "waiting-consumer");
+        consumer.start();
+        while (consumer.getState() != Thread.State.WAITING) {
+            Thread.sleep(5);
+        }
+        assertEquals(Set.of(consumer), buffer.probe().consumers());
+
+        Thread producer = new Thread(new WaitNotifyProducer(buffer, List.of(2, 3)));
+        producer.start();
+        producer.join();
+        consumer.join();
+
+        assertEquals(List.of(2, 3), destination);
+        assertTrue(buffer.probe().producers().isEmpty(), "Finished producer should be unregistered");
+        assertTrue(buffer.probe().consumers().isEmpty(), "Finished consumer should be unregistered");
+    }
+
+    @Test
+    @DisplayName("Test stalls go to the listener and are only printed when logging is on")
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void testReportsGoToListener() throws InterruptedException {
+        SharedBuffer buffer = new SharedBuffer(1);
+        buffer.produce(1);
+        List<StallReport> reports = new ArrayList<>();
+        ByteArrayOutputStream log = new ByteArrayOutputStream();
+
+        BufferWatchdog quiet = new BufferWatchdog(10, 20).watch("quiet", buffer).onStall(reports::add);
+        BufferWatchdog logged = new BufferWatchdog(10, 20).watch("logged", buffer)
+                .logTo(new PrintStream(log, true));
+        quiet.sample();
+        logged.sample();
+        Thread.sleep(40);
+
+        assertEquals(1, quiet.sample().size());
+        assertEquals("quiet", reports.get(0).getBufferName());
+        assertEquals(1, logged.sample().size());
+        assertTrue(log.toString().contains("buffer='logged'"), log.toString());
+    }
+}
@@ -0,0 +1,213 @@
+package com.producerconsumer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Unit tests for GroupCommitFileSink
+class GroupCommitFileSinkTest {
+
+    private static List<Integer> readBack(Path file) throws IOException {
+        List<Integer> items = new ArrayList<>();
+        try (ItemSource source = ItemSources.fromMappedIntFile(file)) {
+            Integer item;
+            while ((item = source.next()) != null) {
+                items.add(item);
+            }
+        }
+        return items;
+    }
+
+    @Test
+    @DisplayName("Test items are persisted in write order")
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void testWriteAndReadBack(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("sink.bin");
+
+        // Small commit size so the 1000 items span many buffers and commits
+        try (GroupCommitFileSink sink = GroupCommitFileSink.open(file, 64, 5)) {
+            for (int i = 0; i < 1000; i++) {
+                assertEquals((i + 1L) * Integer.BYTES, sink.write(i));
+            }
+            assertEquals(1000, sink.size());
+        }
+
+        List<Integer> items = readBack(file);
+        assertEquals(1000, items.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, items.get(i));
+        }
+    }
+
+    @Test
+    @DisplayName("Test time threshold commits a partial batch")
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void testTimeThresholdCommit(@TempDir Path tempDir) throws Exception {
+        Path file = tempDir.resolve("timed.bin");
+        List<Long> reported = new CopyOnWriteArrayList<>();
+
+        try (GroupCommitFileSink sink = GroupCommitFileSink.open(file, 1024 * 1024, 20)) {
+            sink.addCommitListener(reported::add);
+            long offset = sink.write(42);
+
+            // Far below the size threshold, so only the delay can trigger the commit
+            assertTrue(sink.awaitDurable(offset, 5, TimeUnit.SECONDS));
+            assertEquals(offset, sink.durableOffset());
+            assertEquals(Integer.BYTES, Files.size(file));
+        }
+
+        assertEquals(List.of((long) Integer.BYTES), reported);
+    }
+
+    @Test
+    @DisplayName("Test sink appends after existing content")
+    void testAppendsToExistingFile(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("append.bin");
+
+        try (GroupCommitFileSink sink = GroupCommitFileSink.open(file)) {
+            sink.write(1);
+        }
+        try (GroupCommitFileSink sink = GroupCommitFileSink.open(file)) {
+            assertEquals(2L * Integer.BYTES, sink.write(2));
+        }
+
+        assertEquals(List.of(1, 2), readBack(file));
+    }
+
+    @Test
+    @DisplayName("Test writes after close are rejected")
+    void testWriteAfterClose(@TempDir Path tempDir) throws IOException {
+        GroupCommitFileSink sink = GroupCommitFileSink.open(tempDir.resolve("closed.bin"));
+        sink.close();
+
+        assertThrows(IOException.class, () -> sink.write(1));
+    }
+
+    @Test
+    @DisplayName("Test consumers receive durable offsets from the sink")
+    @Timeout(value = 15, unit = TimeUnit.SECONDS)
+    void testConsumersReceiveDurableOffsets(@TempDir Path tempDir) throws Exception {
+        Path file = tempDir.resolve("consumers.bin");
+        BlockingQueue<Integer> queue = new LinkedBlockingQueue<>(5);
+        final int POISON_PILL = -1;
+
+        List<Integer> source = new ArrayList<>();
+        for (int i = 1; i <= 10; i++) source.add(i);
+
+        try (GroupCommitFileSink sink = GroupCommitFileSink.open(file, 4096, 5)) {
+            ProducerConsumer.Consumer consumer1 = new ProducerConsumer.Consumer(queue, sink, 1, POISON_PILL);
+            ProducerConsumer.Consumer consumer2 = new ProducerConsumer.Consumer(queue, sink, 2, POISON_PILL);
+
+            Thread producer = new Thread(new ProducerConsumer.Producer(queue, source, 1));
+            Thread c1 = new Thread(consumer1);
+            Thread c2 = new Thread(consumer2);
+
+            producer.start();
+            c1.start();
+            c2.start();
+            producer.join();
+            queue.put(POISON_PILL);
+            queue.put(POISON_PILL);
+            c1.join(5000);
+            c2.join(5000);
+
+            long lastWritten = Math.max(consumer1.getWrittenOffset(), consumer2.getWrittenOffset());
+            assertEquals(10L * Integer.BYTES, lastWritten);
+            assertTrue(sink.awaitDurable(lastWritten, 5, TimeUnit.SECONDS));
+
+            // Listener runs after the fsync completes, so allow it a moment to land
+            long deadline = System.currentTimeMillis() + 2000;
+            while (consumer1.getDurableOffset() < lastWritten && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertTrue(consumer1.getDurableOffset() >= consumer1.getWrittenOffset());
+            assertTrue(consumer2.getDurableOffset() >= consumer2.getWrittenOffset());
+        }
+
+        List<Integer> items = readBack(file);
+        assertEquals(10, items.size());
+        assertTrue(items.containsAll(source));
+    }
+
+    @Test
+    @DisplayName("Test a finished consumer unregisters once its items are durable")
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void testConsumerRemovesCommitListener() throws Exception {
+        List<LongConsumer> listeners = new CopyOnWriteArrayList<>();
+        List<Integer> written = new ArrayList<>();
+        ItemSink sink = new ItemSink() {
+            @Override
+            public long write(Integer item) {
+                written.add(item);
+                return (long) written.size() * Integer.BYTES;
+            }
+
+            @Override
+            public long size() {
+                return written.size();
+            }
+
+            @Override
+            public void addCommitListener(LongConsumer listener) {
+                listeners.add(listener);
+            }
+
+            @Override
+            public void removeCommitListener(LongConsumer listener) {
+                listeners.remove(listener);
+            }
+        };
+        BlockingQueue<Integer> queue = new LinkedBlockingQueue<>(List.of(1, 2, -1));
+        ProducerConsumer.Consumer consumer = new ProducerConsumer.Consumer(queue, sink, 1, -1);
+
+        Thread thread = new Thread(consumer);
+        thread.start();
+        thread.join();
+        // Still listening: its items are written but not yet durable
+        assertEquals(1, listeners.size());
+
+        listeners.get(0).accept(Integer.BYTES);
+        assertEquals(1, listeners.size());
+        listeners.get(0).accept(2L * Integer.BYTES);
+        assertTrue(listeners.isEmpty());
+        assertEquals(2L * Integer.BYTES, consumer.getDurableOffset());
+    }
+
+    @Test
+    @DisplayName("Test a throwing commit listener does not stop the committer")
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void testThrowingListener(@TempDir Path tempDir) throws Exception {
+        Path file = tempDir.resolve("listener.bin");
+        List<Long> reported = new CopyOnWriteArrayList<>();
+
+        // A 64-byte commit size allows only a few pending buffers, so writers block unless commits go on
+        try (GroupCommitFileSink sink = GroupCommitFileSink.open(file, 64, 5)) {
+            sink.addCommitListener(offset -> {
+                throw new IllegalStateException("listener failed");
+            });
+            sink.addCommitListener(reported::add);
+            long offset = 0;
+            for (int i = 0; i < 10000; i++) {
+                offset = sink.write(i);
+            }
+            assertTrue(sink.awaitDurable(offset, 5, TimeUnit.SECONDS));
+        }
+
+        assertEquals(10000, readBack(file).size());
+        assertEquals(10000L * Integer.BYTES, reported.get(reported.size() - 1));
+    }
+}
@@ -0,0 +1,121 @@
+package com.producerconsumer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Unit tests for the streaming ItemSource adapters
+class ItemSourcesTest {
+
+    private static List<Integer> drain(ItemSource source) throws IOException {
+        List<Integer> items = new ArrayList<>();
+        try (source) {
+            Integer item;
+            while ((item = source.next()) != null) {
+                items.add(item);
+            }
+        }
+        return items;
+    }
+
+    private static Path writeInts(Path file, int count) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(file.toFile()))) {
+            for (int i = 0; i < count; i++) {
+                out.writeInt(i * 3 - 7);
+            }
+        }
+        return file;
+    }
+
+    @Test
+    @DisplayName("Test mapped int file is read across window boundaries")
+    void testMappedIntFileAcrossWindows(@TempDir Path tempDir) throws IOException {
+        Path file = writeInts(tempDir.resolve("ints.bin"), 11);
+
+        // 8-byte windows force a remap every two items
+        List<Integer> items = drain(new ItemSources.MappedIntSource(file, ByteOrder.BIG_ENDIAN, 8));
+
+        assertEquals(11, items.size());
+        for (int i = 0; i < 11; i++) {
+            assertEquals(i * 3 - 7, items.get(i));
+        }
+    }
+
+    @Test
+    @DisplayName("Test mapped int file rejects truncated input")
+    void testMappedIntFileTruncated(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("truncated.bin");
+        Files.write(file, new byte[]{0, 0, 0, 1, 0, 0});
+
+        assertThrows(IOException.class, () -> ItemSources.fromMappedIntFile(file));
+    }
+
+    @Test
+    @DisplayName("Test empty mapped file yields no items")
+    void testMappedIntFileEmpty(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("empty.bin");
+        Files.write(file, new byte[0]);
+
+        assertTrue(drain(ItemSources.fromMappedIntFile(file)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test text source skips blank lines and reports bad input")
+    void testTextLines(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("items.txt");
+        Files.writeString(file, "1\n\n  2 \n3\n");
+        assertEquals(List.of(1, 2, 3), drain(ItemSources.fromTextLines(file)));
+
+        Path bad = tempDir.resolve("bad.txt");
+        Files.writeString(bad, "1\nabc\n");
+        assertThrows(IOException.class, () -> drain(ItemSources.fromTextLines(bad)));
+    }
+
+    @Test
+    @DisplayName("Test generator sources")
+    void testGenerators() throws IOException {
+        assertEquals(List.of(0, 10, 20, 30), drain(ItemSources.fromGenerator(4, i -> (int) i * 10)));
+
+        int[] counter = {0};
+        ItemSource countdown = ItemSources.fromGenerator(() -> counter[0] < 3 ? ++counter[0] : null);
+        assertEquals(List.of(1, 2, 3), drain(countdown));
+    }
+
+    @Test
+    @DisplayName("Test producer streams directly from a mapped file")
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void testProducerFromMappedFile(@TempDir Path tempDir) throws Exception {
+        Path file = writeInts(tempDir.resolve("source.bin"), 5);
+
+        BlockingQueue<Integer> queue = new LinkedBlockingQueue<>(2);
+        List<Integer> destination = Collections.synchronizedList(new ArrayList<>());
+        final int POISON_PILL = Integer.MIN_VALUE;
+
+        Thread producer = new Thread(new ProducerConsumer.Producer(queue, ItemSources.fromMappedIntFile(file), 1));
+        Thread consumer = new Thread(new ProducerConsumer.Consumer(queue, destination, 1, POISON_PILL));
+
+        producer.start();
+        consumer.start();
+        producer.join();
+        queue.put(POISON_PILL);
+        consumer.join(5000);
+
+        assertEquals(List.of(-7, -4, -1, 2, 5), destination);
+    }
+}